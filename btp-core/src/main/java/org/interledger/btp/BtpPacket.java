@@ -55,9 +55,7 @@ public interface BtpPacket {
    * @return a {@link BtpSubProtocol} or null if none exists with the given name
    */
   default Optional<BtpSubProtocol> getSubProtocol(String protocolName) {
-    return getSubProtocols().stream()
-        .filter(btpSubProtocol -> btpSubProtocol.getProtocolName().equals(protocolName))
-        .findFirst();
+    return getSubProtocols().getSubProtocol(protocolName);
   }
 
   /**
@@ -68,7 +66,7 @@ public interface BtpPacket {
    * @return a <code>true</code> if a {@link BtpSubProtocol} exists with the given name
    */
   default boolean hasSubProtocol(String protocolName) {
-    return getSubProtocol(protocolName).isPresent();
+    return getSubProtocols().hasSubProtocol(protocolName);
   }
 
 }
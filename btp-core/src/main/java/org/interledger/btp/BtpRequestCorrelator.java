@@ -0,0 +1,305 @@
+package org.interledger.btp;
+
+/*-
+ * ========================LICENSE_START=================================
+ * Bilateral Transfer Protocol Core Libs
+ * %%
+ * Copyright (C) 2017 - 2020 Hyperledger and its contributors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * <p>Matches replies ({@link BtpResponse} or {@link BtpError}) to the outstanding requests of a single BTP session by
+ * request ID, and times out requests that go unanswered.</p>
+ *
+ * <p>Pending requests are kept in a fixed-size array indexed by the low bits of their request ID. Because this class
+ * allocates the request IDs itself, and IDs are allocated sequentially, concurrent requests naturally land in
+ * distinct slots; if a slot is still occupied by a request from a previous lap (or from before the 32-bit request ID
+ * wrapped), that ID is simply skipped. Registering, completing and removing a request is therefore a single
+ * compare-and-set, without locks, hashing or boxing of request IDs, and a request ID is never reused while a request
+ * with the same ID is pending.</p>
+ *
+ * <p>Timeouts are tracked by a hashed timing wheel. Registering a request only pushes it onto a lock-free list; a
+ * single thread must call {@link #expire()} periodically (typically once per tick) to move new requests into the
+ * wheel and fail any whose deadline has passed with a {@link TimeoutException}. Timeouts are therefore accurate to
+ * within one tick.</p>
+ *
+ * @param <T> The type of reply that completes a request, typically {@link BtpResponsePacket}.
+ */
+public class BtpRequestCorrelator<T> {
+
+  private static final int WHEEL_SIZE = 512;
+  private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+  private static final int MAX_CAPACITY = 1 << 30;
+
+  private final BtpRequestIdAllocator requestIdAllocator;
+  private final Ticker ticker;
+  private final long tickNanos;
+  private final long originNanos;
+
+  private final AtomicReferenceArray<PendingRequest<T>> slots;
+  private final int slotMask;
+  private final AtomicInteger size = new AtomicInteger();
+
+  // Requests registered since the last call to expire(), linked through PendingRequest#next.
+  private final AtomicReference<PendingRequest<T>> newRequests = new AtomicReference<>();
+
+  // Only accessed from expire(), which is synchronized.
+  private final PendingRequest<T>[] wheel;
+  private long processedTick;
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param capacity     The maximum number of pending requests, rounded up to a power of two.
+   * @param tickDuration The resolution of request timeouts, which should match how often {@link #expire()} is called.
+   */
+  public BtpRequestCorrelator(final int capacity, final Duration tickDuration) {
+    this(capacity, tickDuration, new BtpRequestIdAllocator(), Ticker.systemTicker());
+  }
+
+  @VisibleForTesting
+  @SuppressWarnings("unchecked")
+  BtpRequestCorrelator(
+      final int capacity,
+      final Duration tickDuration,
+      final BtpRequestIdAllocator requestIdAllocator,
+      final Ticker ticker
+  ) {
+    if (capacity <= 0 || capacity > MAX_CAPACITY) {
+      throw new IllegalArgumentException("capacity must be between 1 and " + MAX_CAPACITY);
+    }
+    Objects.requireNonNull(tickDuration);
+    if (tickDuration.isNegative() || tickDuration.isZero()) {
+      throw new IllegalArgumentException("tickDuration must be positive");
+    }
+    this.requestIdAllocator = Objects.requireNonNull(requestIdAllocator);
+    this.ticker = Objects.requireNonNull(ticker);
+    this.tickNanos = tickDuration.toNanos();
+    this.originNanos = ticker.read();
+
+    final int slotCount = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+    this.slots = new AtomicReferenceArray<>(slotCount);
+    this.slotMask = slotCount - 1;
+    this.wheel = new PendingRequest[WHEEL_SIZE];
+  }
+
+  /**
+   * Register a new pending request, allocating its request ID.
+   *
+   * @param timeout How long to wait for a reply before failing the request with a {@link TimeoutException}.
+   *
+   * @return A {@link PendingRequest} whose {@link PendingRequest#getRequestId()} must be used for the request.
+   *
+   * @throws BtpRuntimeException if every slot is occupied by a pending request.
+   */
+  public PendingRequest<T> register(final Duration timeout) {
+    Objects.requireNonNull(timeout);
+    final long timeoutNanos = Math.min(Math.max(timeout.toNanos(), 0), Long.MAX_VALUE / 4);
+    final long deadlineTick = (ticker.read() - originNanos + timeoutNanos + tickNanos - 1) / tickNanos;
+
+    for (int attempt = 0; attempt <= slotMask; attempt++) {
+      final long requestId = requestIdAllocator.next();
+      final int index = (int) requestId & slotMask;
+      if (slots.get(index) == null) {
+        final PendingRequest<T> request = new PendingRequest<>(requestId, index, deadlineTick);
+        if (slots.compareAndSet(index, null, request)) {
+          size.incrementAndGet();
+          PendingRequest<T> head;
+          do {
+            head = newRequests.get();
+            request.next = head;
+          } while (!newRequests.compareAndSet(head, request));
+          return request;
+        }
+      }
+    }
+    throw new BtpRuntimeException(BtpErrorCode.T00_UnreachableError, "Too many pending BTP requests");
+  }
+
+  /**
+   * Complete the pending request with ID {@code requestId}.
+   *
+   * @param requestId The request ID of a {@link BtpResponsePacket}.
+   * @param reply     The reply to complete the request with.
+   *
+   * @return {@code true} if a pending request was completed; {@code false} if there is no such request, for example
+   *     because it has already timed out.
+   */
+  public boolean complete(final long requestId, final T reply) {
+    final PendingRequest<T> request = remove(requestId);
+    return request != null && request.future.complete(reply);
+  }
+
+  /**
+   * Fail the pending request with ID {@code requestId}.
+   *
+   * @param requestId The request ID of a pending request.
+   * @param cause     The {@link Throwable} to fail the request with.
+   *
+   * @return {@code true} if a pending request was failed; {@code false} if there is no such request.
+   */
+  public boolean fail(final long requestId, final Throwable cause) {
+    Objects.requireNonNull(cause);
+    final PendingRequest<T> request = remove(requestId);
+    return request != null && request.future.completeExceptionally(cause);
+  }
+
+  /**
+   * Fail every pending request, for example because the underlying session has closed.
+   *
+   * @param cause The {@link Throwable} to fail each request with.
+   */
+  public void failAll(final Throwable cause) {
+    Objects.requireNonNull(cause);
+    for (int index = 0; index <= slotMask; index++) {
+      final PendingRequest<T> request = slots.get(index);
+      if (request != null && release(request)) {
+        request.future.completeExceptionally(cause);
+      }
+    }
+  }
+
+  /**
+   * The number of requests that are currently pending.
+   *
+   * @return An {@code int}.
+   */
+  public int size() {
+    return size.get();
+  }
+
+  /**
+   * Fail every pending request whose timeout has elapsed. This method must be called periodically, ideally once every
+   * tick; calls from more than one thread are serialized.
+   */
+  public synchronized void expire() {
+    final long nowTick = (ticker.read() - originNanos) / tickNanos;
+
+    PendingRequest<T> request = newRequests.getAndSet(null);
+    while (request != null) {
+      final PendingRequest<T> next = request.next;
+      // Most requests are answered within a tick, so never reach the wheel.
+      if (request.future.isDone()) {
+        // Completed by its caller rather than through this correlator; make sure its slot is free.
+        release(request);
+      } else {
+        schedule(request);
+      }
+      request = next;
+    }
+
+    while (processedTick < nowTick) {
+      processedTick++;
+      final int bucket = (int) (processedTick & WHEEL_MASK);
+      request = wheel[bucket];
+      wheel[bucket] = null;
+      while (request != null) {
+        final PendingRequest<T> next = request.next;
+        if (request.future.isDone()) {
+          // Completed by its caller rather than through this correlator; make sure its slot is free.
+          release(request);
+        } else if (request.deadlineTick <= processedTick) {
+          if (release(request)) {
+            request.future.completeExceptionally(new TimeoutException(
+                "BTP request timed out. requestId=" + request.requestId
+            ));
+          }
+        } else {
+          // The deadline is at least one more revolution of the wheel away.
+          schedule(request);
+        }
+        request = next;
+      }
+    }
+  }
+
+  private void schedule(final PendingRequest<T> request) {
+    final int bucket = (int) (Math.max(request.deadlineTick, processedTick + 1) & WHEEL_MASK);
+    request.next = wheel[bucket];
+    wheel[bucket] = request;
+  }
+
+  private PendingRequest<T> remove(final long requestId) {
+    if (requestId < 0 || requestId > 0xFFFFFFFFL) {
+      return null;
+    }
+    final PendingRequest<T> request = slots.get((int) requestId & slotMask);
+    if (request != null && request.requestId == requestId && release(request)) {
+      return request;
+    }
+    return null;
+  }
+
+  private boolean release(final PendingRequest<T> request) {
+    if (slots.compareAndSet(request.index, request, null)) {
+      size.decrementAndGet();
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * A request registered with a {@link BtpRequestCorrelator}, awaiting its reply.
+   *
+   * @param <T> The type of reply that completes this request.
+   */
+  public static final class PendingRequest<T> {
+
+    private final long requestId;
+    private final int index;
+    private final long deadlineTick;
+    private final CompletableFuture<T> future = new CompletableFuture<>();
+
+    // Links this request into the list of new requests, and then into a bucket of the timing wheel.
+    private PendingRequest<T> next;
+
+    private PendingRequest(final long requestId, final int index, final long deadlineTick) {
+      this.requestId = requestId;
+      this.index = index;
+      this.deadlineTick = deadlineTick;
+    }
+
+    /**
+     * The request ID allocated to this request, which must be sent as the request ID of the BTP request.
+     *
+     * @return A {@code long} between 0 and {@code 2^32 - 1}.
+     */
+    public long getRequestId() {
+      return requestId;
+    }
+
+    /**
+     * The reply to this request.
+     *
+     * @return A {@link CompletableFuture} that completes with the reply, or exceptionally if the request times out or
+     *     is failed.
+     */
+    public CompletableFuture<T> getReply() {
+      return future;
+    }
+  }
+}
@@ -0,0 +1,64 @@
+package org.interledger.btp;
+
+/*-
+ * ========================LICENSE_START=================================
+ * Bilateral Transfer Protocol Core Libs
+ * %%
+ * Copyright (C) 2017 - 2020 Hyperledger and its contributors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>Allocates request IDs for BTP requests sent on a single session.</p>
+ *
+ * <p>BTP request IDs are unsigned 32-bit integers, so a busy session eventually wraps around and reuses old IDs. This
+ * allocator simply counts through the full range, wrapping to zero after {@code 2^32 - 1}; it is {@link
+ * BtpRequestCorrelator#register} that guarantees an ID is never reused while a request with the same ID is still
+ * pending.</p>
+ */
+public class BtpRequestIdAllocator {
+
+  private final AtomicInteger nextRequestId;
+
+  /**
+   * No-args Constructor.
+   */
+  public BtpRequestIdAllocator() {
+    this(0L);
+  }
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param initialRequestId The first request ID to allocate, between 0 and {@code 2^32 - 1}.
+   */
+  public BtpRequestIdAllocator(final long initialRequestId) {
+    if (initialRequestId < 0 || initialRequestId > 0xFFFFFFFFL) {
+      throw new IllegalArgumentException("initialRequestId must be an unsigned 32-bit integer");
+    }
+    this.nextRequestId = new AtomicInteger((int) initialRequestId);
+  }
+
+  /**
+   * Allocate the next request ID.
+   *
+   * @return A {@code long} between 0 and {@code 2^32 - 1}.
+   */
+  public long next() {
+    return Integer.toUnsignedLong(nextRequestId.getAndIncrement());
+  }
+}
@@ -0,0 +1,326 @@
+package org.interledger.btp;
+
+/*-
+ * ========================LICENSE_START=================================
+ * Bilateral Transfer Protocol Core Libs
+ * %%
+ * Copyright (C) 2017 - 2020 Hyperledger and its contributors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import com.google.common.collect.Collections2;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * <p>Tracks the {@link BtpSession}s of a node that terminates many BTP peers, indexed by websocket session ID and by
+ * the account each session authenticated as.</p>
+ *
+ * <p>Both indexes are {@link ConcurrentHashMap}s, so looking up or {@link #touch(String) touching} the session for an
+ * incoming frame is lock-free, and registering or removing a session only locks the hash bins it lands in rather than
+ * the whole registry. {@link #getSessions()} and {@link #getSessionsForAccount(String)} are live, weakly-consistent
+ * views, so a broadcast can start iterating immediately without copying or locking the registry.</p>
+ *
+ * <p>Sessions that receive no frames for {@code idleTimeout} are evicted by {@link #evictIdle()}, which a single
+ * thread should call periodically. Touching a session only writes a timestamp; eviction walks a queue ordered by when
+ * each session is next due to be checked, and examines at most {@code evictionBatchSize} sessions per call, so a sweep
+ * never stalls the thread that runs it however many sessions are registered. A session is never evicted sooner than
+ * {@code idleTimeout} after its last activity.</p>
+ */
+public class BtpSessionRegistry {
+
+  private static final int DEFAULT_EVICTION_BATCH_SIZE = 1024;
+
+  private final long idleTimeoutNanos;
+  private final int evictionBatchSize;
+  private final Ticker ticker;
+
+  private final Map<String, Entry> sessions = new ConcurrentHashMap<>();
+  private final Collection<BtpSession> sessionsView;
+  private final Map<String, Map<String, BtpSession>> sessionsByAccount = new ConcurrentHashMap<>();
+
+  // Entries in roughly ascending order of Entry#checkAtNanos. Only evictIdle(), which is synchronized, removes entries.
+  private final Queue<Entry> evictionQueue = new ConcurrentLinkedQueue<>();
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param idleTimeout How long a session may go without activity before {@link #evictIdle()} evicts it.
+   */
+  public BtpSessionRegistry(final Duration idleTimeout) {
+    this(idleTimeout, DEFAULT_EVICTION_BATCH_SIZE);
+  }
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param idleTimeout       How long a session may go without activity before {@link #evictIdle()} evicts it.
+   * @param evictionBatchSize The maximum number of sessions that a single call to {@link #evictIdle()} examines.
+   */
+  public BtpSessionRegistry(final Duration idleTimeout, final int evictionBatchSize) {
+    this(idleTimeout, evictionBatchSize, Ticker.systemTicker());
+  }
+
+  @VisibleForTesting
+  BtpSessionRegistry(final Duration idleTimeout, final int evictionBatchSize, final Ticker ticker) {
+    Objects.requireNonNull(idleTimeout);
+    if (idleTimeout.isNegative() || idleTimeout.isZero()) {
+      throw new IllegalArgumentException("idleTimeout must be positive");
+    }
+    if (evictionBatchSize <= 0) {
+      throw new IllegalArgumentException("evictionBatchSize must be positive");
+    }
+    this.idleTimeoutNanos = idleTimeout.toNanos();
+    this.evictionBatchSize = evictionBatchSize;
+    this.ticker = Objects.requireNonNull(ticker);
+    this.sessionsView = Collections.unmodifiableCollection(
+        Collections2.transform(sessions.values(), entry -> entry.session)
+    );
+  }
+
+  /**
+   * Register a new session, which counts as activity on it.
+   *
+   * @param btpSession The {@link BtpSession} to register.
+   *
+   * @return {@code true} if the session was registered; {@code false} if a session with the same websocket session ID
+   *     is already registered.
+   */
+  public boolean register(final BtpSession btpSession) {
+    Objects.requireNonNull(btpSession);
+    final long now = ticker.read();
+    final Entry entry = new Entry(btpSession, now);
+    if (sessions.putIfAbsent(btpSession.getWebsocketSessionId(), entry) != null) {
+      return false;
+    }
+    entry.checkAtNanos = now + idleTimeoutNanos;
+    evictionQueue.offer(entry);
+    return true;
+  }
+
+  /**
+   * Index a registered session under the account it authenticated as, typically once the BTP Auth sub-protocol has
+   * succeeded. Several sessions may be bound to the same account, but a session may only be bound to one account.
+   *
+   * @param websocketSessionId The websocket session ID of a registered session.
+   * @param accountId          The identifier of the account the session authenticated as.
+   *
+   * @return {@code true} if the session is registered and is now bound to {@code accountId}; {@code false} if no
+   *     session with that ID is registered.
+   *
+   * @throws BtpRuntimeException if the session is already bound to a different account.
+   */
+  public boolean bindAccount(final String websocketSessionId, final String accountId) {
+    Objects.requireNonNull(websocketSessionId);
+    Objects.requireNonNull(accountId);
+
+    final Entry entry = sessions.get(websocketSessionId);
+    if (entry == null) {
+      return false;
+    }
+    if (!entry.accountId.compareAndSet(null, accountId) && !accountId.equals(entry.accountId.get())) {
+      // If this happens, it indicates a bug.
+      throw new BtpRuntimeException(
+          BtpErrorCode.F00_NotAcceptedError, "BtpSession may only be bound to a single account!"
+      );
+    }
+    // Insert inside compute so that unbindAccount cannot drop the account's map between it being obtained and written.
+    sessionsByAccount.compute(accountId, ($, accountSessions) -> {
+      final Map<String, BtpSession> boundSessions = accountSessions == null
+          ? new ConcurrentHashMap<>()
+          : accountSessions;
+      boundSessions.put(websocketSessionId, entry.session);
+      return boundSessions;
+    });
+
+    // The session may have been removed concurrently, before it was added to the account index.
+    if (sessions.get(websocketSessionId) != entry) {
+      unbindAccount(entry);
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Accessor for the session with the given websocket session ID.
+   *
+   * @param websocketSessionId A websocket session ID.
+   *
+   * @return An optionally-present {@link BtpSession}.
+   */
+  public Optional<BtpSession> getSession(final String websocketSessionId) {
+    Objects.requireNonNull(websocketSessionId);
+    final Entry entry = sessions.get(websocketSessionId);
+    return entry == null ? Optional.empty() : Optional.of(entry.session);
+  }
+
+  /**
+   * Accessor for the sessions bound to {@code accountId}.
+   *
+   * @param accountId The identifier of an account.
+   *
+   * @return A live, unmodifiable view of the sessions bound to the account, which is empty if there are none.
+   */
+  public Collection<BtpSession> getSessionsForAccount(final String accountId) {
+    Objects.requireNonNull(accountId);
+    final Map<String, BtpSession> accountSessions = sessionsByAccount.get(accountId);
+    return accountSessions == null
+        ? Collections.emptyList()
+        : Collections.unmodifiableCollection(accountSessions.values());
+  }
+
+  /**
+   * Accessor for every registered session, for example to broadcast a message to all peers.
+   *
+   * @return A live, unmodifiable, weakly-consistent view of the registered sessions.
+   */
+  public Collection<BtpSession> getSessions() {
+    return sessionsView;
+  }
+
+  /**
+   * Perform {@code action} for every registered session.
+   *
+   * @param action A {@link Consumer} to call with each {@link BtpSession}.
+   */
+  public void forEach(final Consumer<BtpSession> action) {
+    Objects.requireNonNull(action);
+    sessions.values().forEach(entry -> action.accept(entry.session));
+  }
+
+  /**
+   * Record activity on a session, such as an incoming frame, postponing its eviction.
+   *
+   * @param websocketSessionId The websocket session ID of a registered session.
+   *
+   * @return {@code true} if the session is registered; {@code false} otherwise.
+   */
+  public boolean touch(final String websocketSessionId) {
+    Objects.requireNonNull(websocketSessionId);
+    final Entry entry = sessions.get(websocketSessionId);
+    if (entry == null) {
+      return false;
+    }
+    entry.lastActivityNanos = ticker.read();
+    return true;
+  }
+
+  /**
+   * Remove a session, typically because its websocket has closed.
+   *
+   * @param websocketSessionId The websocket session ID of a registered session.
+   *
+   * @return The removed {@link BtpSession}, if one was registered.
+   */
+  public Optional<BtpSession> remove(final String websocketSessionId) {
+    Objects.requireNonNull(websocketSessionId);
+    final Entry entry = sessions.remove(websocketSessionId);
+    if (entry == null) {
+      return Optional.empty();
+    }
+    unbindAccount(entry);
+    return Optional.of(entry.session);
+  }
+
+  /**
+   * The number of registered sessions.
+   *
+   * @return An int.
+   */
+  public int size() {
+    return sessions.size();
+  }
+
+  /**
+   * Evict sessions that have been idle for at least {@code idleTimeout}, examining at most {@code evictionBatchSize}
+   * sessions. The caller is responsible for closing the websockets of the evicted sessions.
+   *
+   * @return The evicted {@link BtpSession}s, which is empty if none were evicted.
+   */
+  public synchronized List<BtpSession> evictIdle() {
+    final long now = ticker.read();
+    List<BtpSession> evicted = Collections.emptyList();
+
+    for (int examined = 0; examined < evictionBatchSize; examined++) {
+      final Entry entry = evictionQueue.peek();
+      if (entry == null || entry.checkAtNanos - now > 0) {
+        break;
+      }
+      evictionQueue.poll();
+
+      final String websocketSessionId = entry.session.getWebsocketSessionId();
+      if (sessions.get(websocketSessionId) != entry) {
+        // Already removed.
+        continue;
+      }
+      final long idleUntilNanos = entry.lastActivityNanos + idleTimeoutNanos;
+      if (idleUntilNanos - now > 0) {
+        // Touched since it was queued, so check it again once it could next be idle.
+        entry.checkAtNanos = idleUntilNanos;
+        evictionQueue.offer(entry);
+      } else if (sessions.remove(websocketSessionId, entry)) {
+        unbindAccount(entry);
+        if (evicted.isEmpty()) {
+          evicted = new ArrayList<>();
+        }
+        evicted.add(entry.session);
+      }
+    }
+    return evicted;
+  }
+
+  private void unbindAccount(final Entry entry) {
+    final String accountId = entry.accountId.get();
+    if (accountId == null) {
+      return;
+    }
+    sessionsByAccount.computeIfPresent(accountId, ($, accountSessions) -> {
+      accountSessions.remove(entry.session.getWebsocketSessionId(), entry.session);
+      return accountSessions.isEmpty() ? null : accountSessions;
+    });
+  }
+
+  /**
+   * A registered session and its bookkeeping.
+   */
+  private static final class Entry {
+
+    private final BtpSession session;
+    private final AtomicReference<String> accountId = new AtomicReference<>();
+    private volatile long lastActivityNanos;
+
+    // Only accessed by register(), before the entry is queued, and by evictIdle().
+    private long checkAtNanos;
+
+    private Entry(final BtpSession session, final long lastActivityNanos) {
+      this.session = session;
+      this.lastActivityNanos = lastActivityNanos;
+    }
+  }
+}
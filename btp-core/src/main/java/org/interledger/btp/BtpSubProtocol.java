@@ -26,6 +26,9 @@ import org.interledger.core.Immutable;
 
 import org.immutables.value.Value.Default;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 
@@ -67,6 +70,27 @@ public interface BtpSubProtocol {
     return new String(getData(), StandardCharsets.UTF_8);
   }
 
+  /**
+   * A read-only view of the protocol data for this sub-protocol. Implementations that hold their data in a larger
+   * buffer, such as {@link SlicedBtpSubProtocol}, return a view of that buffer without copying it.
+   *
+   * @return A read-only {@link ByteBuffer} positioned at the start of the data.
+   */
+  default ByteBuffer getDataAsByteBuffer() {
+    return ByteBuffer.wrap(getData()).asReadOnlyBuffer();
+  }
+
+  /**
+   * An {@link InputStream} over the protocol data for this sub-protocol, for decoding an embedded packet (such as the
+   * ILP packet in the {@code ilp} sub-protocol) on demand. Like {@link #getDataAsByteBuffer()}, implementations avoid
+   * copying the data where they can.
+   *
+   * @return An {@link InputStream}.
+   */
+  default InputStream getDataAsInputStream() {
+    return new ByteArrayInputStream(getData());
+  }
+
   /**
    * A content-type descriptor for BTP sub-protocol payloads, mainly used for logging and smart deserializing.
    */
@@ -126,6 +150,31 @@ public interface BtpSubProtocol {
       return new byte[0];
     }
 
+    /**
+     * Sub-protocols are equal if their names, content-types and data are equal, so that an instance built with {@link
+     * #builder()} is equal to a {@link SlicedBtpSubProtocol} decoded from the same bytes.
+     */
+    @Override
+    public boolean equals(Object another) {
+      if (this == another) {
+        return true;
+      }
+      if (!(another instanceof BtpSubProtocol)) {
+        return false;
+      }
+      final BtpSubProtocol that = (BtpSubProtocol) another;
+      return getProtocolName().equals(that.getProtocolName())
+          && getContentType() == that.getContentType()
+          && getDataAsByteBuffer().equals(that.getDataAsByteBuffer());
+    }
+
+    @Override
+    public int hashCode() {
+      int hash = getProtocolName().hashCode();
+      hash = 31 * hash + getContentType().getCode();
+      return 31 * hash + getDataAsByteBuffer().hashCode();
+    }
+
     /**
      * Prints the immutable value {@code BtpSubProtocol} with attribute values.
      *
@@ -21,18 +21,67 @@ package org.interledger.btp;
  */
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Objects;
 import java.util.Optional;
 
+/**
+ * <p>The ordered list of sub-protocols carried by a {@link BtpPacket}.</p>
+ *
+ * <p>Lookups of the well-known sub-protocols ({@link #AUTH}, {@link #AUTH_TOKEN}, {@link #AUTH_USERNAME} and {@link
+ * #INTERLEDGER}), which happen for every packet a link sends or receives, are answered from a small index of their
+ * positions. The index is built on the first lookup and rebuilt whenever the list is modified.</p>
+ */
 public class BtpSubProtocols extends ArrayList<BtpSubProtocol> {
 
-  //TODO Optimize implementation by indexing by protocol name too
-
   public static final String AUTH = "auth";
   public static final String AUTH_TOKEN = "auth_token";
   public static final String AUTH_USERNAME = "auth_username";
   public static final String INTERLEDGER = "ilp";
 
+  private static final int WELL_KNOWN_COUNT = 4;
+
+  private transient volatile WellKnownIndex wellKnownIndex;
+
+  /**
+   * Map {@code protocolName} to the equivalent well-known constant in this class, if there is one, so that decoded
+   * packets share a single instance of each common name instead of one per packet.
+   *
+   * @param protocolName the name of a {@link BtpSubProtocol}
+   *
+   * @return the matching constant, or {@code protocolName} if it is not well-known
+   */
+  public static String canonicalName(final String protocolName) {
+    Objects.requireNonNull(protocolName);
+    switch (protocolName) {
+      case AUTH:
+        return AUTH;
+      case AUTH_TOKEN:
+        return AUTH_TOKEN;
+      case AUTH_USERNAME:
+        return AUTH_USERNAME;
+      case INTERLEDGER:
+        return INTERLEDGER;
+      default:
+        return protocolName;
+    }
+  }
+
+  private static int wellKnownOrdinal(final String protocolName) {
+    switch (protocolName) {
+      case AUTH:
+        return 0;
+      case AUTH_TOKEN:
+        return 1;
+      case AUTH_USERNAME:
+        return 2;
+      case INTERLEDGER:
+        return 3;
+      default:
+        return -1;
+    }
+  }
+
   /**
    * Create a new {@link BtpSubProtocols} list with no sub-protocols.
    *
@@ -72,12 +121,7 @@ public class BtpSubProtocols extends ArrayList<BtpSubProtocol> {
    * @return a <code>true</code> if a {@link BtpSubProtocol} exists with the given name
    */
   public boolean hasSubProtocol(String protocolName) {
-    for (BtpSubProtocol protocol : this) {
-      if (protocol.getProtocolName().equals(protocolName)) {
-        return true;
-      }
-    }
-    return false;
+    return protocolName != null && indexOfSubProtocol(protocolName) >= 0;
   }
 
   /**
@@ -89,8 +133,65 @@ public class BtpSubProtocols extends ArrayList<BtpSubProtocol> {
    */
   public Optional<BtpSubProtocol> getSubProtocol(final String subprotocolName) {
     Objects.requireNonNull(subprotocolName);
-    return this.stream()
-        .filter(btpSubProtocol -> btpSubProtocol.getProtocolName().equals(subprotocolName))
-        .findFirst();
+    final int index = indexOfSubProtocol(subprotocolName);
+    return index < 0 ? Optional.empty() : Optional.of(get(index));
+  }
+
+  @Override
+  public BtpSubProtocol set(int index, BtpSubProtocol element) {
+    // ArrayList#set does not count as a structural modification, but it can move a name, so invalidate the index.
+    modCount++;
+    return super.set(index, element);
+  }
+
+  @Override
+  public Object clone() {
+    final BtpSubProtocols clone = (BtpSubProtocols) super.clone();
+    clone.wellKnownIndex = null;
+    return clone;
+  }
+
+  private int indexOfSubProtocol(final String protocolName) {
+    final int ordinal = wellKnownOrdinal(protocolName);
+    if (ordinal >= 0) {
+      return wellKnownIndex().positions[ordinal];
+    }
+    for (int i = 0; i < size(); i++) {
+      if (get(i).getProtocolName().equals(protocolName)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private WellKnownIndex wellKnownIndex() {
+    WellKnownIndex index = this.wellKnownIndex;
+    if (index == null || index.modCount != modCount) {
+      final int[] positions = new int[WELL_KNOWN_COUNT];
+      Arrays.fill(positions, -1);
+      for (int i = size() - 1; i >= 0; i--) {
+        final int ordinal = wellKnownOrdinal(get(i).getProtocolName());
+        if (ordinal >= 0) {
+          positions[ordinal] = i;
+        }
+      }
+      index = new WellKnownIndex(modCount, positions);
+      this.wellKnownIndex = index;
+    }
+    return index;
+  }
+
+  /**
+   * The positions of the first sub-protocol with each well-known name, as of a particular {@code modCount}.
+   */
+  private static final class WellKnownIndex {
+
+    private final int modCount;
+    private final int[] positions;
+
+    private WellKnownIndex(final int modCount, final int[] positions) {
+      this.modCount = modCount;
+      this.positions = positions;
+    }
   }
 }
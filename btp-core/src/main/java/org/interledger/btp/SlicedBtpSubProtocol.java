@@ -0,0 +1,159 @@
+package org.interledger.btp;
+
+/*-
+ * ========================LICENSE_START=================================
+ * Bilateral Transfer Protocol Core Libs
+ * %%
+ * Copyright (C) 2017 - 2020 Hyperledger and its contributors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * <p>A {@link BtpSubProtocol} whose data is a slice of a larger byte array, such as the buffer a BTP frame was read
+ * into.</p>
+ *
+ * <p>Unlike an instance built with {@link BtpSubProtocol#builder()}, which clones its data when it is built and again
+ * every time {@link #getData()} is called, this class never copies the array it wraps. {@link #getDataAsByteBuffer()}
+ * and {@link #getDataAsInputStream()} expose the slice directly, so an embedded ILP packet can be decoded straight out
+ * of the frame. Only {@link #getData()} returns a copy, because a {@code byte[]} cannot be made read-only.</p>
+ *
+ * <p>Callers must not modify the wrapped array after passing it to {@link #wrap}.</p>
+ */
+public final class SlicedBtpSubProtocol implements BtpSubProtocol {
+
+  private final String protocolName;
+  private final ContentType contentType;
+  private final byte[] array;
+  private final int offset;
+  private final int length;
+
+  private SlicedBtpSubProtocol(
+      final String protocolName, final ContentType contentType, final byte[] array, final int offset, final int length
+  ) {
+    this.protocolName = Objects.requireNonNull(protocolName, "protocolName must not be null");
+    this.contentType = Objects.requireNonNull(contentType, "contentType must not be null");
+    this.array = Objects.requireNonNull(array, "array must not be null");
+    if (offset < 0 || length < 0 || offset > array.length - length) {
+      throw new IndexOutOfBoundsException(
+          String.format("Invalid slice. offset=%s length=%s arrayLength=%s", offset, length, array.length)
+      );
+    }
+    this.offset = offset;
+    this.length = length;
+  }
+
+  /**
+   * Wrap all of {@code data} without copying it.
+   *
+   * @param protocolName The name of the sub-protocol.
+   * @param contentType  The {@link ContentType} of the data.
+   * @param data         The data, which must not be modified afterwards.
+   *
+   * @return A {@link SlicedBtpSubProtocol}.
+   */
+  public static SlicedBtpSubProtocol wrap(final String protocolName, final ContentType contentType, final byte[] data) {
+    Objects.requireNonNull(data, "data must not be null");
+    return new SlicedBtpSubProtocol(protocolName, contentType, data, 0, data.length);
+  }
+
+  /**
+   * Wrap {@code length} bytes of {@code array}, starting at {@code offset}, without copying them.
+   *
+   * @param protocolName The name of the sub-protocol.
+   * @param contentType  The {@link ContentType} of the data.
+   * @param array        The array holding the data, which must not be modified afterwards.
+   * @param offset       The index of the first byte of the data in {@code array}.
+   * @param length       The number of bytes of data.
+   *
+   * @return A {@link SlicedBtpSubProtocol}.
+   */
+  public static SlicedBtpSubProtocol wrap(
+      final String protocolName, final ContentType contentType, final byte[] array, final int offset, final int length
+  ) {
+    return new SlicedBtpSubProtocol(protocolName, contentType, array, offset, length);
+  }
+
+  @Override
+  public String getProtocolName() {
+    return protocolName;
+  }
+
+  @Override
+  public ContentType getContentType() {
+    return contentType;
+  }
+
+  @Override
+  public byte[] getData() {
+    return Arrays.copyOfRange(array, offset, offset + length);
+  }
+
+  @Override
+  public String getDataAsString() {
+    return new String(array, offset, length, StandardCharsets.UTF_8);
+  }
+
+  @Override
+  public ByteBuffer getDataAsByteBuffer() {
+    return ByteBuffer.wrap(array, offset, length).slice().asReadOnlyBuffer();
+  }
+
+  @Override
+  public InputStream getDataAsInputStream() {
+    return new ByteArrayInputStream(array, offset, length);
+  }
+
+  /**
+   * Sub-protocols are equal if their names, content-types and data are equal, whichever {@link BtpSubProtocol}
+   * implementation holds them.
+   */
+  @Override
+  public boolean equals(Object another) {
+    if (this == another) {
+      return true;
+    }
+    if (!(another instanceof BtpSubProtocol)) {
+      return false;
+    }
+    final BtpSubProtocol that = (BtpSubProtocol) another;
+    return protocolName.equals(that.getProtocolName())
+        && contentType == that.getContentType()
+        && getDataAsByteBuffer().equals(that.getDataAsByteBuffer());
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = protocolName.hashCode();
+    hash = 31 * hash + contentType.getCode();
+    return 31 * hash + getDataAsByteBuffer().hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return "BtpSubProtocol{"
+        + "contentType=" + contentType
+        + ", protocolName=" + protocolName
+        + ", data=" + Base64.getEncoder().encodeToString(getData())
+        + "}";
+  }
+}
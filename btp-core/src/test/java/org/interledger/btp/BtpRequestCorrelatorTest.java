@@ -0,0 +1,216 @@
+package org.interledger.btp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.interledger.btp.BtpRequestCorrelator.PendingRequest;
+
+import com.google.common.base.Ticker;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unit tests for {@link BtpRequestCorrelator}.
+ */
+public class BtpRequestCorrelatorTest {
+
+  private static final Duration TICK = Duration.ofMillis(10);
+
+  private final FakeTicker ticker = new FakeTicker();
+
+  @Test
+  public void completeMatchesReplyByRequestId() {
+    final BtpRequestCorrelator<String> correlator = newCorrelator(16, 0);
+
+    final PendingRequest<String> first = correlator.register(Duration.ofSeconds(1));
+    final PendingRequest<String> second = correlator.register(Duration.ofSeconds(1));
+    assertThat(first.getRequestId()).isEqualTo(0L);
+    assertThat(second.getRequestId()).isEqualTo(1L);
+    assertThat(correlator.size()).isEqualTo(2);
+
+    assertThat(correlator.complete(1L, "second")).isTrue();
+    assertThat(correlator.complete(0L, "first")).isTrue();
+
+    assertThat(first.getReply().join()).isEqualTo("first");
+    assertThat(second.getReply().join()).isEqualTo("second");
+    assertThat(correlator.size()).isZero();
+  }
+
+  @Test
+  public void completeUnknownRequestIdReturnsFalse() {
+    final BtpRequestCorrelator<String> correlator = newCorrelator(16, 0);
+    final PendingRequest<String> request = correlator.register(Duration.ofSeconds(1));
+
+    assertThat(correlator.complete(request.getRequestId() + 16, "wrong lap")).isFalse();
+    assertThat(correlator.complete(-1L, "negative")).isFalse();
+    assertThat(correlator.complete(request.getRequestId(), "reply")).isTrue();
+    assertThat(correlator.complete(request.getRequestId(), "duplicate")).isFalse();
+  }
+
+  @Test
+  public void expireFailsRequestsOnlyOnceTheirTimeoutElapses() {
+    final BtpRequestCorrelator<String> correlator = newCorrelator(16, 0);
+    final PendingRequest<String> request = correlator.register(Duration.ofMillis(50));
+
+    ticker.advance(Duration.ofMillis(40));
+    correlator.expire();
+    assertThat(request.getReply()).isNotDone();
+
+    ticker.advance(Duration.ofMillis(10));
+    correlator.expire();
+    assertThat(request.getReply()).isCompletedExceptionally();
+    assertThatThrownBy(() -> request.getReply().join())
+        .isInstanceOf(CompletionException.class)
+        .hasCauseInstanceOf(TimeoutException.class);
+    assertThat(correlator.size()).isZero();
+    assertThat(correlator.complete(request.getRequestId(), "late")).isFalse();
+  }
+
+  @Test
+  public void expireFreesTheSlotOfARequestCancelledByItsCaller() {
+    final BtpRequestCorrelator<String> correlator = newCorrelator(16, 0);
+    final PendingRequest<String> request = correlator.register(Duration.ofSeconds(1));
+    request.getReply().cancel(false);
+    assertThat(correlator.size()).isEqualTo(1);
+
+    correlator.expire();
+    assertThat(correlator.size()).isEqualTo(0);
+    assertThat(correlator.complete(request.getRequestId(), "late reply")).isFalse();
+  }
+
+  @Test
+  public void timeoutsLongerThanOneRevolutionOfTheWheel() {
+    final BtpRequestCorrelator<String> correlator = newCorrelator(16, 0);
+    final PendingRequest<String> request = correlator.register(Duration.ofSeconds(30));
+
+    for (int i = 0; i < 2999; i++) {
+      ticker.advance(TICK);
+      correlator.expire();
+    }
+    assertThat(request.getReply()).isNotDone();
+
+    ticker.advance(TICK);
+    correlator.expire();
+    assertThat(request.getReply()).isCompletedExceptionally();
+  }
+
+  @Test
+  public void skipsRequestIdsWhoseSlotIsStillPending() {
+    final BtpRequestCorrelator<String> correlator = newCorrelator(4, 0);
+    final List<PendingRequest<String>> requests = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      requests.add(correlator.register(Duration.ofSeconds(1)));
+    }
+    correlator.complete(2L, "reply");
+
+    // IDs 4 and 5 map to the slots of the still-pending requests 0 and 1, so the next free ID is 6.
+    assertThat(correlator.register(Duration.ofSeconds(1)).getRequestId()).isEqualTo(6L);
+  }
+
+  @Test
+  public void neverReusesAPendingRequestIdAfterWrapping() {
+    final BtpRequestCorrelator<String> correlator = newCorrelator(4, 0xFFFFFFFEL);
+    final PendingRequest<String> beforeWrap = correlator.register(Duration.ofSeconds(1));
+    assertThat(beforeWrap.getRequestId()).isEqualTo(0xFFFFFFFEL);
+
+    assertThat(correlator.register(Duration.ofSeconds(1)).getRequestId()).isEqualTo(0xFFFFFFFFL);
+    assertThat(correlator.register(Duration.ofSeconds(1)).getRequestId()).isEqualTo(0L);
+    assertThat(correlator.register(Duration.ofSeconds(1)).getRequestId()).isEqualTo(1L);
+    // 2 would share a slot with 0xFFFFFFFE, which is still pending.
+    correlator.complete(0xFFFFFFFFL, "reply");
+    assertThat(correlator.register(Duration.ofSeconds(1)).getRequestId()).isEqualTo(3L);
+
+    assertThat(correlator.complete(0xFFFFFFFEL, "reply")).isTrue();
+    assertThat(beforeWrap.getReply().join()).isEqualTo("reply");
+  }
+
+  @Test
+  public void registerThrowsWhenFull() {
+    final BtpRequestCorrelator<String> correlator = newCorrelator(2, 0);
+    correlator.register(Duration.ofSeconds(1));
+    correlator.register(Duration.ofSeconds(1));
+
+    assertThatThrownBy(() -> correlator.register(Duration.ofSeconds(1)))
+        .isInstanceOf(BtpRuntimeException.class)
+        .hasMessage("Too many pending BTP requests");
+  }
+
+  @Test
+  public void failAllFailsEveryPendingRequest() {
+    final BtpRequestCorrelator<String> correlator = newCorrelator(16, 0);
+    final PendingRequest<String> first = correlator.register(Duration.ofSeconds(1));
+    final PendingRequest<String> second = correlator.register(Duration.ofSeconds(1));
+    final IllegalStateException cause = new IllegalStateException("closed");
+
+    correlator.failAll(cause);
+
+    assertThat(first.getReply()).isCompletedExceptionally();
+    assertThat(second.getReply()).isCompletedExceptionally();
+    assertThat(correlator.size()).isZero();
+  }
+
+  @Test
+  public void callerCompletedRequestsReleaseTheirSlotOnExpiry() {
+    final BtpRequestCorrelator<String> correlator = newCorrelator(16, 0);
+    final PendingRequest<String> request = correlator.register(Duration.ofMillis(20));
+    correlator.expire();
+    request.getReply().cancel(false);
+
+    ticker.advance(Duration.ofMillis(20));
+    correlator.expire();
+
+    assertThat(correlator.size()).isZero();
+  }
+
+  @Test
+  public void concurrentRegisterAndComplete() throws Exception {
+    final BtpRequestCorrelator<Long> correlator = new BtpRequestCorrelator<>(1024, TICK);
+    final ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      final List<Future<?>> futures = new ArrayList<>();
+      for (int thread = 0; thread < 8; thread++) {
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < 10_000; i++) {
+            final PendingRequest<Long> request = correlator.register(Duration.ofSeconds(30));
+            assertThat(correlator.complete(request.getRequestId(), request.getRequestId())).isTrue();
+            assertThat(request.getReply().join()).isEqualTo(request.getRequestId());
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get(30, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertThat(correlator.size()).isZero();
+  }
+
+  private BtpRequestCorrelator<String> newCorrelator(final int capacity, final long initialRequestId) {
+    return new BtpRequestCorrelator<>(capacity, TICK, new BtpRequestIdAllocator(initialRequestId), ticker);
+  }
+
+  private static final class FakeTicker extends Ticker {
+
+    private final AtomicLong nanos = new AtomicLong(123_456_789L);
+
+    @Override
+    public long read() {
+      return nanos.get();
+    }
+
+    private void advance(final Duration duration) {
+      nanos.addAndGet(duration.toNanos());
+    }
+  }
+}
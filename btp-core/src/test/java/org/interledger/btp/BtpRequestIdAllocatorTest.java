@@ -0,0 +1,39 @@
+package org.interledger.btp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link BtpRequestIdAllocator}.
+ */
+public class BtpRequestIdAllocatorTest {
+
+  @Test
+  public void allocatesSequentially() {
+    final BtpRequestIdAllocator allocator = new BtpRequestIdAllocator();
+
+    assertThat(allocator.next()).isEqualTo(0L);
+    assertThat(allocator.next()).isEqualTo(1L);
+    assertThat(allocator.next()).isEqualTo(2L);
+  }
+
+  @Test
+  public void wrapsAroundAsUnsigned32BitInteger() {
+    final BtpRequestIdAllocator allocator = new BtpRequestIdAllocator(0x7FFFFFFFL);
+
+    assertThat(allocator.next()).isEqualTo(0x7FFFFFFFL);
+    assertThat(allocator.next()).isEqualTo(0x80000000L);
+
+    final BtpRequestIdAllocator wrapping = new BtpRequestIdAllocator(0xFFFFFFFFL);
+    assertThat(wrapping.next()).isEqualTo(0xFFFFFFFFL);
+    assertThat(wrapping.next()).isEqualTo(0L);
+  }
+
+  @Test
+  public void initialRequestIdMustBeUnsigned32BitInteger() {
+    assertThatThrownBy(() -> new BtpRequestIdAllocator(-1)).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new BtpRequestIdAllocator(0x100000000L)).isInstanceOf(IllegalArgumentException.class);
+  }
+}
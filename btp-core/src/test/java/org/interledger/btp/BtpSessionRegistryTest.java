@@ -0,0 +1,187 @@
+package org.interledger.btp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.common.base.Ticker;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unit tests for {@link BtpSessionRegistry}.
+ */
+public class BtpSessionRegistryTest {
+
+  private static final Duration IDLE_TIMEOUT = Duration.ofSeconds(30);
+
+  private final FakeTicker ticker = new FakeTicker();
+  private final BtpSessionRegistry registry = new BtpSessionRegistry(IDLE_TIMEOUT, 1024, ticker);
+
+  @Test
+  public void looksUpSessionsById() {
+    final BtpSession session = new BtpSession("ws-1");
+
+    assertThat(registry.register(session)).isTrue();
+    assertThat(registry.register(new BtpSession("ws-1"))).isFalse();
+
+    assertThat(registry.getSession("ws-1")).containsSame(session);
+    assertThat(registry.getSession("ws-2")).isEmpty();
+    assertThat(registry.size()).isEqualTo(1);
+  }
+
+  @Test
+  public void looksUpSessionsByAccount() {
+    final BtpSession first = new BtpSession("ws-1");
+    final BtpSession second = new BtpSession("ws-2");
+    final BtpSession other = new BtpSession("ws-3");
+    registry.register(first);
+    registry.register(second);
+    registry.register(other);
+
+    assertThat(registry.bindAccount("ws-1", "alice")).isTrue();
+    assertThat(registry.bindAccount("ws-2", "alice")).isTrue();
+    assertThat(registry.bindAccount("ws-3", "bob")).isTrue();
+    assertThat(registry.bindAccount("ws-4", "bob")).isFalse();
+
+    assertThat(registry.getSessionsForAccount("alice")).containsExactlyInAnyOrder(first, second);
+    assertThat(registry.getSessionsForAccount("bob")).containsExactly(other);
+    assertThat(registry.getSessionsForAccount("carol")).isEmpty();
+
+    registry.remove("ws-1");
+    assertThat(registry.getSessionsForAccount("alice")).containsExactly(second);
+    registry.remove("ws-3");
+    assertThat(registry.getSessionsForAccount("bob")).isEmpty();
+  }
+
+  @Test
+  public void sessionMayOnlyBeBoundToOneAccount() {
+    registry.register(new BtpSession("ws-1"));
+    registry.bindAccount("ws-1", "alice");
+
+    assertThat(registry.bindAccount("ws-1", "alice")).isTrue();
+    assertThatThrownBy(() -> registry.bindAccount("ws-1", "bob")).isInstanceOf(BtpRuntimeException.class);
+    assertThat(registry.getSessionsForAccount("bob")).isEmpty();
+  }
+
+  @Test
+  public void getSessionsIsALiveView() {
+    final Collection<BtpSession> sessions = registry.getSessions();
+    final BtpSession session = new BtpSession("ws-1");
+
+    registry.register(session);
+    assertThat(sessions).containsExactly(session);
+
+    final List<BtpSession> visited = new ArrayList<>();
+    registry.forEach(visited::add);
+    assertThat(visited).containsExactly(session);
+
+    registry.remove("ws-1");
+    assertThat(sessions).isEmpty();
+    assertThatThrownBy(() -> sessions.add(session)).isInstanceOf(UnsupportedOperationException.class);
+  }
+
+  @Test
+  public void evictsOnlySessionsThatHaveBeenIdle() {
+    final BtpSession idle = new BtpSession("ws-idle");
+    final BtpSession busy = new BtpSession("ws-busy");
+    registry.register(idle);
+    registry.register(busy);
+    registry.bindAccount("ws-idle", "alice");
+
+    ticker.advance(Duration.ofSeconds(20));
+    registry.touch("ws-busy");
+    assertThat(registry.evictIdle()).isEmpty();
+
+    ticker.advance(Duration.ofSeconds(10));
+    assertThat(registry.evictIdle()).containsExactly(idle);
+    assertThat(registry.getSession("ws-idle")).isEmpty();
+    assertThat(registry.getSessionsForAccount("alice")).isEmpty();
+    assertThat(registry.getSession("ws-busy")).containsSame(busy);
+
+    ticker.advance(Duration.ofSeconds(19));
+    assertThat(registry.evictIdle()).isEmpty();
+    ticker.advance(Duration.ofSeconds(1));
+    assertThat(registry.evictIdle()).containsExactly(busy);
+    assertThat(registry.size()).isZero();
+  }
+
+  @Test
+  public void evictionIsBatched() {
+    final BtpSessionRegistry batched = new BtpSessionRegistry(IDLE_TIMEOUT, 2, ticker);
+    for (int i = 0; i < 5; i++) {
+      batched.register(new BtpSession("ws-" + i));
+    }
+    ticker.advance(IDLE_TIMEOUT);
+
+    assertThat(batched.evictIdle()).hasSize(2);
+    assertThat(batched.evictIdle()).hasSize(2);
+    assertThat(batched.evictIdle()).hasSize(1);
+    assertThat(batched.size()).isZero();
+  }
+
+  @Test
+  public void removedSessionIsNotEvictedLater() {
+    registry.register(new BtpSession("ws-1"));
+    registry.remove("ws-1");
+    final BtpSession replacement = new BtpSession("ws-1");
+    ticker.advance(Duration.ofSeconds(10));
+    registry.register(replacement);
+
+    ticker.advance(Duration.ofSeconds(20));
+    assertThat(registry.evictIdle()).isEmpty();
+    assertThat(registry.getSession("ws-1")).containsSame(replacement);
+  }
+
+  @Test
+  public void concurrentRegistrationAndRemoval() throws Exception {
+    final ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      final List<Future<?>> futures = new ArrayList<>();
+      for (int thread = 0; thread < 8; thread++) {
+        final int offset = thread * 1000;
+        futures.add(executor.submit(() -> {
+          for (int i = offset; i < offset + 1000; i++) {
+            final String websocketSessionId = "ws-" + i;
+            registry.register(new BtpSession(websocketSessionId));
+            registry.bindAccount(websocketSessionId, "account-" + (i % 10));
+            registry.touch(websocketSessionId);
+            if (i % 2 == 0) {
+              registry.remove(websocketSessionId);
+            }
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(registry.size()).isEqualTo(4000);
+    assertThat(registry.getSessionsForAccount("account-1")).hasSize(800);
+    assertThat(registry.getSessionsForAccount("account-2")).isEmpty();
+  }
+
+  private static final class FakeTicker extends Ticker {
+
+    private final AtomicLong nanos = new AtomicLong(123_456_789L);
+
+    @Override
+    public long read() {
+      return nanos.get();
+    }
+
+    private void advance(final Duration duration) {
+      nanos.addAndGet(duration.toNanos());
+    }
+  }
+}
@@ -64,4 +64,34 @@ public class BtpSubProtocolTest {
     Optional<BtpSubProtocol> subProtocol = SUB_PROTOCOLS.getSubProtocol("TEST");
     subProtocol.ifPresent(btpSubProtocol -> assertEquals(btpSubProtocol, SUB_PROTOCOL));
   }
+
+  @Test
+  public void wellKnownSubProtocolLookupsFollowModifications() {
+    final BtpSubProtocol auth = BtpSubProtocol.builder().protocolName(BtpSubProtocols.AUTH).build();
+    final BtpSubProtocol authToken = BtpSubProtocol.builder().protocolName(BtpSubProtocols.AUTH_TOKEN).build();
+    final BtpSubProtocol ilp = BtpSubProtocol.builder().protocolName(BtpSubProtocols.INTERLEDGER).build();
+
+    final BtpSubProtocols subProtocols = BtpSubProtocols.fromPrimarySubProtocol(auth);
+    assertTrue(subProtocols.hasSubProtocol(BtpSubProtocols.AUTH));
+    assertFalse(subProtocols.hasSubProtocol(BtpSubProtocols.AUTH_TOKEN));
+
+    subProtocols.add(authToken);
+    assertEquals(subProtocols.getSubProtocol(BtpSubProtocols.AUTH_TOKEN), Optional.of(authToken));
+
+    subProtocols.set(0, ilp);
+    assertFalse(subProtocols.hasSubProtocol(BtpSubProtocols.AUTH));
+    assertEquals(subProtocols.getSubProtocol(BtpSubProtocols.INTERLEDGER), Optional.of(ilp));
+
+    subProtocols.remove(0);
+    assertFalse(subProtocols.hasSubProtocol(BtpSubProtocols.INTERLEDGER));
+    assertEquals(subProtocols.getSubProtocol(BtpSubProtocols.AUTH_TOKEN), Optional.of(authToken));
+    assertFalse(subProtocols.hasSubProtocol(null));
+  }
+
+  @Test
+  public void canonicalNameReturnsWellKnownConstants() {
+    assertTrue(BtpSubProtocols.canonicalName(new String("ilp")) == BtpSubProtocols.INTERLEDGER);
+    assertTrue(BtpSubProtocols.canonicalName(new String("auth_token")) == BtpSubProtocols.AUTH_TOKEN);
+    assertEquals(BtpSubProtocols.canonicalName("TEST"), "TEST");
+  }
 }
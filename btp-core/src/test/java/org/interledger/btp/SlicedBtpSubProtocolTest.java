@@ -0,0 +1,82 @@
+package org.interledger.btp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.interledger.btp.BtpSubProtocol.ContentType;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Unit tests for {@link SlicedBtpSubProtocol}.
+ */
+public class SlicedBtpSubProtocolTest {
+
+  private static final byte[] FRAME = "xxTest Datayy".getBytes(StandardCharsets.UTF_8);
+
+  private static SlicedBtpSubProtocol slice() {
+    return SlicedBtpSubProtocol.wrap("TEST", ContentType.MIME_TEXT_PLAIN_UTF8, FRAME, 2, 9);
+  }
+
+  @Test
+  public void exposesOnlyTheSlice() throws IOException {
+    final SlicedBtpSubProtocol subProtocol = slice();
+
+    assertThat(subProtocol.getProtocolName()).isEqualTo("TEST");
+    assertThat(subProtocol.getContentType()).isEqualTo(ContentType.MIME_TEXT_PLAIN_UTF8);
+    assertThat(subProtocol.getData()).isEqualTo("Test Data".getBytes(StandardCharsets.UTF_8));
+    assertThat(subProtocol.getDataAsString()).isEqualTo("Test Data");
+
+    final ByteBuffer buffer = subProtocol.getDataAsByteBuffer();
+    assertThat(buffer.isReadOnly()).isTrue();
+    assertThat(buffer.position()).isEqualTo(0);
+    assertThat(buffer.remaining()).isEqualTo(9);
+    assertThat(buffer.get(0)).isEqualTo((byte) 'T');
+
+    try (InputStream inputStream = subProtocol.getDataAsInputStream()) {
+      final byte[] read = new byte[16];
+      assertThat(inputStream.read(read)).isEqualTo(9);
+      assertThat(new String(read, 0, 9, StandardCharsets.UTF_8)).isEqualTo("Test Data");
+    }
+  }
+
+  @Test
+  public void getDataReturnsACopy() {
+    final SlicedBtpSubProtocol subProtocol = slice();
+
+    subProtocol.getData()[0] = 'X';
+
+    assertThat(subProtocol.getDataAsString()).isEqualTo("Test Data");
+  }
+
+  @Test
+  public void isEqualToBuiltSubProtocolWithTheSameContent() {
+    final BtpSubProtocol built = BtpSubProtocol.builder()
+        .protocolName("TEST")
+        .contentType(ContentType.MIME_TEXT_PLAIN_UTF8)
+        .data("Test Data".getBytes(StandardCharsets.UTF_8))
+        .build();
+
+    assertThat(slice()).isEqualTo(built);
+    assertThat(built).isEqualTo(slice());
+    assertThat(slice().hashCode()).isEqualTo(built.hashCode());
+    assertThat(slice().toString()).isEqualTo(built.toString());
+
+    assertThat(slice()).isNotEqualTo(SlicedBtpSubProtocol.wrap("OTHER", ContentType.MIME_TEXT_PLAIN_UTF8, FRAME, 2, 9));
+    assertThat(slice()).isNotEqualTo(SlicedBtpSubProtocol.wrap("TEST", ContentType.MIME_APPLICATION_JSON, FRAME, 2, 9));
+    assertThat(slice()).isNotEqualTo(SlicedBtpSubProtocol.wrap("TEST", ContentType.MIME_TEXT_PLAIN_UTF8, FRAME, 2, 8));
+  }
+
+  @Test
+  public void rejectsSliceOutsideTheArray() {
+    assertThatThrownBy(() -> SlicedBtpSubProtocol.wrap("TEST", ContentType.MIME_TEXT_PLAIN_UTF8, FRAME, 10, 9))
+        .isInstanceOf(IndexOutOfBoundsException.class);
+    assertThatThrownBy(() -> SlicedBtpSubProtocol.wrap("TEST", ContentType.MIME_TEXT_PLAIN_UTF8, FRAME, -1, 2))
+        .isInstanceOf(IndexOutOfBoundsException.class);
+  }
+}
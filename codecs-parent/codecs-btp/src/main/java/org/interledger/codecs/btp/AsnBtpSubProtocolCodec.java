@@ -22,6 +22,8 @@ package org.interledger.codecs.btp;
 
 import org.interledger.btp.BtpSubProtocol;
 import org.interledger.btp.BtpSubProtocol.ContentType;
+import org.interledger.btp.BtpSubProtocols;
+import org.interledger.btp.SlicedBtpSubProtocol;
 import org.interledger.encoding.asn.codecs.AsnIA5StringCodec;
 import org.interledger.encoding.asn.codecs.AsnOctetStringCodec;
 import org.interledger.encoding.asn.codecs.AsnSequenceCodec;
@@ -48,11 +50,12 @@ public class AsnBtpSubProtocolCodec extends AsnSequenceCodec<BtpSubProtocol> {
    */
   @Override
   public BtpSubProtocol decode() {
-    return BtpSubProtocol.builder()
-        .protocolName(getValueAt(0))
-        .contentType(ContentType.fromCode(getValueAt(1)))
-        .data(getValueAt(2))
-        .build();
+    // The octet string codec already hands over a freshly read array, so wrap it rather than letting a builder clone it.
+    return SlicedBtpSubProtocol.wrap(
+        BtpSubProtocols.canonicalName(getValueAt(0)),
+        ContentType.fromCode(getValueAt(1)),
+        getValueAt(2)
+    );
   }
 
   /**
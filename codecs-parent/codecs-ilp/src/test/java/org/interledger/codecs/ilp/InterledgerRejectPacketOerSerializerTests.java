@@ -180,6 +180,8 @@ public class InterledgerRejectPacketOerSerializerTests {
     final ByteArrayInputStream asn1OerErrorBytesStream = constructInterledgerRejectPacketAsn1OerInputStream();
     final InterledgerRejectPacket error = context.read(InterledgerRejectPacket.class, asn1OerErrorBytesStream);
     assertThat(error).isEqualTo(packet);
+    // Decoded error codes must be the canonical constants so that callers can compare them by identity.
+    assertThat(error.getCode()).isSameAs(((InterledgerRejectPacket) packet).getCode());
 
     // Only verify small packets...
     if (packet.getData().length < 2) {
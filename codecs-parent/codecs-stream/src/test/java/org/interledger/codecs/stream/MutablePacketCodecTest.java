@@ -0,0 +1,105 @@
+package org.interledger.codecs.stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.interledger.codecs.ilp.InterledgerCodecContextFactory;
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerCondition;
+import org.interledger.core.InterledgerPacket;
+import org.interledger.core.InterledgerPacketType;
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.encoding.asn.framework.CodecContext;
+import org.interledger.stream.StreamPacket;
+import org.interledger.stream.arena.MutableInterledgerPreparePacket;
+import org.interledger.stream.arena.MutableStreamPacket;
+import org.interledger.stream.arena.PacketArena;
+import org.interledger.stream.frames.StreamMoneyFrame;
+import org.interledger.stream.frames.StreamMoneyMaxFrame;
+
+import com.google.common.primitives.UnsignedLong;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Unit tests that validate the arena-owned mutable packets in {@link org.interledger.stream.arena} encode identically
+ * to their immutable counterparts.
+ */
+public class MutablePacketCodecTest {
+
+  private static final Instant EXPIRES_AT = Instant.parse("2020-12-25T12:00:00.000Z");
+  private static final InterledgerAddress DESTINATION = InterledgerAddress.of("test.receiver");
+
+  @Test
+  public void mutableStreamPacketEncodesLikeImmutable() throws IOException {
+    final CodecContext context = StreamCodecContextFactory.oer();
+    final StreamPacket expected = StreamPacket.builder()
+        .interledgerPacketType(InterledgerPacketType.FULFILL)
+        .sequence(UnsignedLong.valueOf(7))
+        .prepareAmount(UnsignedLong.valueOf(100))
+        .addFrames(
+            StreamMoneyFrame.builder().streamId(UnsignedLong.ONE).shares(UnsignedLong.ONE).build(),
+            StreamMoneyMaxFrame.builder()
+                .streamId(UnsignedLong.ONE)
+                .receiveMax(UnsignedLong.MAX_VALUE)
+                .totalReceived(UnsignedLong.valueOf(100))
+                .build()
+        )
+        .build();
+
+    final PacketArena arena = PacketArena.forCurrentThread();
+    try (PacketArena.Scope scope = arena.openScope()) {
+      final MutableStreamPacket streamPacket = arena.streamPacket()
+          .interledgerPacketType(InterledgerPacketType.FULFILL)
+          .sequence(UnsignedLong.valueOf(7))
+          .prepareAmount(UnsignedLong.valueOf(100))
+          .addFrame(arena.streamMoneyFrame().streamId(UnsignedLong.ONE).shares(UnsignedLong.ONE))
+          .addFrame(arena.streamMoneyMaxFrame()
+              .streamId(UnsignedLong.ONE)
+              .receiveMax(UnsignedLong.MAX_VALUE)
+              .totalReceived(UnsignedLong.valueOf(100))
+          );
+
+      final byte[] mutableBytes = write(context, streamPacket);
+      assertThat(mutableBytes).isEqualTo(write(context, expected));
+      assertThat(context.read(StreamPacket.class, new ByteArrayInputStream(mutableBytes))).isEqualTo(expected);
+      assertThat(streamPacket.toImmutable()).isEqualTo(expected);
+    }
+  }
+
+  @Test
+  public void mutablePreparePacketEncodesLikeImmutable() throws IOException {
+    final CodecContext context = InterledgerCodecContextFactory.oer();
+    final InterledgerPreparePacket expected = InterledgerPreparePacket.builder()
+        .amount(UnsignedLong.valueOf(100))
+        .expiresAt(EXPIRES_AT)
+        .executionCondition(InterledgerCondition.of(new byte[32]))
+        .destination(DESTINATION)
+        .data(new byte[] {1, 2, 3})
+        .build();
+
+    final PacketArena arena = PacketArena.forCurrentThread();
+    try (PacketArena.Scope scope = arena.openScope()) {
+      final MutableInterledgerPreparePacket preparePacket = arena.preparePacket()
+          .amount(UnsignedLong.valueOf(100))
+          .expiresAt(EXPIRES_AT)
+          .executionCondition(InterledgerCondition.of(new byte[32]))
+          .destination(DESTINATION)
+          .data(new byte[] {1, 2, 3});
+
+      final byte[] mutableBytes = write(context, preparePacket);
+      assertThat(mutableBytes).isEqualTo(write(context, expected));
+      assertThat(context.read(InterledgerPacket.class, new ByteArrayInputStream(mutableBytes))).isEqualTo(expected);
+      assertThat(preparePacket.toImmutable()).isEqualTo(expected);
+    }
+  }
+
+  private byte[] write(final CodecContext context, final Object value) throws IOException {
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    context.write(value, outputStream);
+    return outputStream.toByteArray();
+  }
+}
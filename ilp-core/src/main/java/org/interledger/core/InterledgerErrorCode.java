@@ -225,7 +225,11 @@ public interface InterledgerErrorCode {
   }
 
   /**
-   * Helper method to get an instance of {@link InterledgerErrorCode} from a standard code.
+   * <p>Helper method to get an instance of {@link InterledgerErrorCode} from a standard code.</p>
+   *
+   * <p>For every code registered in this interface, this method returns the canonical singleton constant (e.g.,
+   * {@link #T04_INSUFFICIENT_LIQUIDITY}) without allocating, so decoded error codes can safely be compared by identity
+   * as well as via {@link Object#equals(Object)}.</p>
    *
    * @param code The definitive identifier of the error.
    *
@@ -234,91 +238,54 @@ public interface InterledgerErrorCode {
   static InterledgerErrorCode valueOf(final String code) {
     Objects.requireNonNull(code);
 
-    if (code.equals(InterledgerErrorCode.F00_BAD_REQUEST.getCode())) {
-      return InterledgerErrorCode.F00_BAD_REQUEST;
-    }
-
-    if (code.equals(InterledgerErrorCode.F01_INVALID_PACKET.getCode())) {
-      return InterledgerErrorCode.F01_INVALID_PACKET;
-    }
-
-    if (code.equals(InterledgerErrorCode.F02_UNREACHABLE.getCode())) {
-      return InterledgerErrorCode.F02_UNREACHABLE;
-    }
-
-    if (code.equals(InterledgerErrorCode.F03_INVALID_AMOUNT.getCode())) {
-      return InterledgerErrorCode.F03_INVALID_AMOUNT;
-    }
-
-    if (code.equals(InterledgerErrorCode.F04_INSUFFICIENT_DST_AMOUNT.getCode())) {
-      return InterledgerErrorCode.F04_INSUFFICIENT_DST_AMOUNT;
-    }
-
-    if (code.equals(InterledgerErrorCode.F05_WRONG_CONDITION.getCode())) {
-      return InterledgerErrorCode.F05_WRONG_CONDITION;
-    }
-
-    if (code.equals(InterledgerErrorCode.F06_UNEXPECTED_PAYMENT.getCode())) {
-      return InterledgerErrorCode.F06_UNEXPECTED_PAYMENT;
-    }
-
-    if (code.equals(InterledgerErrorCode.F07_CANNOT_RECEIVE.getCode())) {
-      return InterledgerErrorCode.F07_CANNOT_RECEIVE;
-    }
-
-    if (code.equals(InterledgerErrorCode.F08_AMOUNT_TOO_LARGE.getCode())) {
-      return InterledgerErrorCode.F08_AMOUNT_TOO_LARGE;
-    }
-
-    if (code.equals(InterledgerErrorCode.F99_APPLICATION_ERROR.getCode())) {
-      return InterledgerErrorCode.F99_APPLICATION_ERROR;
-    }
-
-    if (code.equals(InterledgerErrorCode.R00_TRANSFER_TIMED_OUT.getCode())) {
-      return InterledgerErrorCode.R00_TRANSFER_TIMED_OUT;
+    // A String switch compiles to a hash-based lookup table over the registered codes, which avoids a linear chain of
+    // comparisons on the decode path of every Reject packet.
+    switch (code) {
+      case F00_BAD_REQUEST_CODE:
+        return F00_BAD_REQUEST;
+      case F01_INVALID_PACKET_CODE:
+        return F01_INVALID_PACKET;
+      case F02_UNREACHABLE_CODE:
+        return F02_UNREACHABLE;
+      case F03_INVALID_AMOUNT_CODE:
+        return F03_INVALID_AMOUNT;
+      case F04_INSUFFICIENT_DST_AMOUNT_CODE:
+        return F04_INSUFFICIENT_DST_AMOUNT;
+      case F05_WRONG_CONDITION_CODE:
+        return F05_WRONG_CONDITION;
+      case F06_UNEXPECTED_PAYMENT_CODE:
+        return F06_UNEXPECTED_PAYMENT;
+      case F07_CANNOT_RECEIVE_CODE:
+        return F07_CANNOT_RECEIVE;
+      case F08_AMOUNT_TOO_LARGE_CODE:
+        return F08_AMOUNT_TOO_LARGE;
+      case F99_APPLICATION_ERROR_CODE:
+        return F99_APPLICATION_ERROR;
+      case T00_INTERNAL_ERROR_CODE:
+        return T00_INTERNAL_ERROR;
+      case T01_PEER_UNREACHABLE_CODE:
+        return T01_PEER_UNREACHABLE;
+      case T02_PEER_BUSY_CODE:
+        return T02_PEER_BUSY;
+      case T03_CONNECTOR_BUSY_CODE:
+        return T03_CONNECTOR_BUSY;
+      case T04_INSUFFICIENT_LIQUIDITY_CODE:
+        return T04_INSUFFICIENT_LIQUIDITY;
+      case T05_RATE_LIMITED_CODE:
+        return T05_RATE_LIMITED;
+      case T99_APPLICATION_ERROR_CODE:
+        return T99_APPLICATION_ERROR;
+      case R00_TRANSFER_TIMED_OUT_CODE:
+        return R00_TRANSFER_TIMED_OUT;
+      case R01_INSUFFICIENT_SOURCE_AMOUNT_CODE:
+        return R01_INSUFFICIENT_SOURCE_AMOUNT;
+      case R02_INSUFFICIENT_TIMEOUT_CODE:
+        return R02_INSUFFICIENT_TIMEOUT;
+      case R99_APPLICATION_ERROR_CODE:
+        return R99_APPLICATION_ERROR;
+      default:
+        throw new InterledgerRuntimeException("Unknown Error Code.");
     }
-
-    if (code.equals(InterledgerErrorCode.R01_INSUFFICIENT_SOURCE_AMOUNT.getCode())) {
-      return InterledgerErrorCode.R01_INSUFFICIENT_SOURCE_AMOUNT;
-    }
-
-    if (code.equals(InterledgerErrorCode.R02_INSUFFICIENT_TIMEOUT.getCode())) {
-      return InterledgerErrorCode.R02_INSUFFICIENT_TIMEOUT;
-    }
-
-    if (code.equals(InterledgerErrorCode.R99_APPLICATION_ERROR.getCode())) {
-      return InterledgerErrorCode.R99_APPLICATION_ERROR;
-    }
-
-    if (code.equals(InterledgerErrorCode.T00_INTERNAL_ERROR.getCode())) {
-      return InterledgerErrorCode.T00_INTERNAL_ERROR;
-    }
-
-    if (code.equals(InterledgerErrorCode.T01_PEER_UNREACHABLE.getCode())) {
-      return InterledgerErrorCode.T01_PEER_UNREACHABLE;
-    }
-
-    if (code.equals(InterledgerErrorCode.T02_PEER_BUSY.getCode())) {
-      return InterledgerErrorCode.T02_PEER_BUSY;
-    }
-
-    if (code.equals(InterledgerErrorCode.T03_CONNECTOR_BUSY.getCode())) {
-      return InterledgerErrorCode.T03_CONNECTOR_BUSY;
-    }
-
-    if (code.equals(InterledgerErrorCode.T04_INSUFFICIENT_LIQUIDITY.getCode())) {
-      return InterledgerErrorCode.T04_INSUFFICIENT_LIQUIDITY;
-    }
-
-    if (code.equals(InterledgerErrorCode.T05_RATE_LIMITED.getCode())) {
-      return InterledgerErrorCode.T05_RATE_LIMITED;
-    }
-
-    if (code.equals(InterledgerErrorCode.T99_APPLICATION_ERROR.getCode())) {
-      return InterledgerErrorCode.T99_APPLICATION_ERROR;
-    }
-
-    throw new InterledgerRuntimeException("Unknown Error Code.");
   }
 
   /**
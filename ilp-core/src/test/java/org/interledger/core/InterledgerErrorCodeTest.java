@@ -166,4 +166,18 @@ public class InterledgerErrorCodeTest {
     assertThat(InterledgerErrorCode.valueOf("R02")).isEqualTo(InterledgerErrorCode.R02_INSUFFICIENT_TIMEOUT);
     assertThat(InterledgerErrorCode.valueOf("R99")).isEqualTo(InterledgerErrorCode.R99_APPLICATION_ERROR);
   }
+
+  @Test
+  public void valueOfReturnsCanonicalInstances() {
+    assertThat(InterledgerErrorCode.valueOf("F08")).isSameAs(InterledgerErrorCode.F08_AMOUNT_TOO_LARGE);
+    assertThat(InterledgerErrorCode.valueOf("T02")).isSameAs(InterledgerErrorCode.T02_PEER_BUSY);
+    assertThat(InterledgerErrorCode.valueOf("T04")).isSameAs(InterledgerErrorCode.T04_INSUFFICIENT_LIQUIDITY);
+    assertThat(InterledgerErrorCode.valueOf(new String("R99".toCharArray())))
+        .isSameAs(InterledgerErrorCode.R99_APPLICATION_ERROR);
+  }
+
+  @Test(expected = InterledgerRuntimeException.class)
+  public void valueOfWithUnknownCode() {
+    InterledgerErrorCode.valueOf("F42");
+  }
 }
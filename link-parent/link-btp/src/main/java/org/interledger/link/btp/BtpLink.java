@@ -0,0 +1,520 @@
+package org.interledger.link.btp;
+
+import org.interledger.btp.BtpError;
+import org.interledger.btp.BtpErrorCode;
+import org.interledger.btp.BtpMessage;
+import org.interledger.btp.BtpMessageType;
+import org.interledger.btp.BtpPacket;
+import org.interledger.btp.BtpRequestCorrelator;
+import org.interledger.btp.BtpRequestCorrelator.PendingRequest;
+import org.interledger.btp.BtpResponse;
+import org.interledger.btp.BtpResponsePacket;
+import org.interledger.btp.BtpRuntimeException;
+import org.interledger.btp.BtpSubProtocol;
+import org.interledger.btp.BtpSubProtocol.ContentType;
+import org.interledger.btp.BtpSubProtocols;
+import org.interledger.btp.SlicedBtpSubProtocol;
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerErrorCode;
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerRejectPacket;
+import org.interledger.core.InterledgerResponsePacket;
+import org.interledger.encoding.asn.framework.CodecContext;
+import org.interledger.link.AbstractStatefulLink;
+import org.interledger.link.Link;
+import org.interledger.link.LinkHandler;
+import org.interledger.link.LinkType;
+import org.interledger.link.events.LinkConnectionEventEmitter;
+import org.interledger.link.exceptions.LinkException;
+import org.interledger.link.exceptions.LinkNotConnectedException;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okio.ByteString;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * <p>A {@link Link} that speaks the Bilateral Transfer Protocol (BTP) over a single, persistent WebSocket to a remote
+ * BTP server.</p>
+ *
+ * <p>Every ILP Prepare packet is sent as a {@link BtpMessage} in its own binary frame, carrying the OER-encoded packet
+ * in the {@code ilp} sub-protocol, and is matched to its {@link BtpResponse} or {@link BtpError} by request ID. Any
+ * number of packets can therefore be in-flight at once without paying per-request HTTP framing or auth costs; the
+ * session is authenticated once, on connect, using the {@code auth} sub-protocols.</p>
+ *
+ * <p>If the WebSocket closes or fails while this link is connected, every in-flight packet is rejected with {@code
+ * T01} and the link reconnects in the background, backing off exponentially between attempts. Prepare packets
+ * received from the remote peer are handed to the registered {@link LinkHandler} on the supplied executor, so that a
+ * slow handler never blocks the WebSocket reader thread.</p>
+ *
+ * @see "https://github.com/interledger/rfcs/blob/master/0023-bilateral-transfer-protocol/0023-bilateral-transfer-protocol.md"
+ */
+public class BtpLink extends AbstractStatefulLink<BtpLinkSettings> implements Link<BtpLinkSettings> {
+
+  public static final String LINK_TYPE_STRING = "BTP";
+  public static final LinkType LINK_TYPE = LinkType.of(LINK_TYPE_STRING);
+
+  static final int NORMAL_CLOSURE = 1000;
+
+  // The most BTP requests that may be awaiting a reply at once, and the resolution of their timeouts.
+  private static final int MAX_PENDING_REQUESTS = 1 << 16;
+  private static final Duration EXPIRY_TICK = Duration.ofMillis(10);
+
+  private final OkHttpClient okHttpClient;
+  private final CodecContext btpCodecContext;
+  private final CodecContext ilpCodecContext;
+  private final ScheduledExecutorService scheduler;
+  private final Executor incomingPacketExecutor;
+
+  private final BtpRequestCorrelator<BtpResponsePacket> requestCorrelator =
+      new BtpRequestCorrelator<>(MAX_PENDING_REQUESTS, EXPIRY_TICK);
+  private final AtomicReference<ScheduledFuture<?>> expiryTask = new AtomicReference<>();
+
+  // The listener of the current WebSocket, or null if there is none. Events from any other listener are stale.
+  private final AtomicReference<BtpWebSocketListener> currentListener = new AtomicReference<>();
+  private final AtomicReference<ScheduledFuture<?>> reconnectTask = new AtomicReference<>();
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param operatorAddressSupplier    A supplier for the ILP address of this node operating this Link. This value may
+   *                                   be uninitialized, for example, in cases where the Link obtains its address from
+   *                                   a parent node using IL-DCP. If an ILP address has not been assigned, or it has
+   *                                   not been obtained via IL-DCP, then this value will by default be {@link
+   *                                   Link#SELF}.
+   * @param linkSettings               A {@link BtpLinkSettings} for this Link.
+   * @param okHttpClient               A {@link OkHttpClient} used to open the WebSocket to the remote BTP server.
+   * @param btpCodecContext            A {@link CodecContext} that can encode and decode BTP packets.
+   * @param ilpCodecContext            A {@link CodecContext} that can encode and decode ILP packets.
+   * @param scheduler                  A {@link ScheduledExecutorService} used for request timeouts and reconnects.
+   * @param incomingPacketExecutor     An {@link Executor} that runs the {@link LinkHandler} for incoming packets.
+   * @param linkConnectionEventEmitter A {@link LinkConnectionEventEmitter} that is used to emit events from this link.
+   */
+  public BtpLink(
+      final Supplier<InterledgerAddress> operatorAddressSupplier,
+      final BtpLinkSettings linkSettings,
+      final OkHttpClient okHttpClient,
+      final CodecContext btpCodecContext,
+      final CodecContext ilpCodecContext,
+      final ScheduledExecutorService scheduler,
+      final Executor incomingPacketExecutor,
+      final LinkConnectionEventEmitter linkConnectionEventEmitter
+  ) {
+    super(operatorAddressSupplier, linkSettings, linkConnectionEventEmitter);
+    this.okHttpClient = Objects.requireNonNull(okHttpClient);
+    this.btpCodecContext = Objects.requireNonNull(btpCodecContext);
+    this.ilpCodecContext = Objects.requireNonNull(ilpCodecContext);
+    this.scheduler = Objects.requireNonNull(scheduler);
+    this.incomingPacketExecutor = Objects.requireNonNull(incomingPacketExecutor);
+  }
+
+  @Override
+  public CompletableFuture<Void> doConnect() {
+    if (expiryTask.get() == null) {
+      final long tickNanos = EXPIRY_TICK.toNanos();
+      final ScheduledFuture<?> task = scheduler.scheduleAtFixedRate(
+          requestCorrelator::expire, tickNanos, tickNanos, TimeUnit.NANOSECONDS
+      );
+      if (!expiryTask.compareAndSet(null, task)) {
+        task.cancel(false);
+      }
+    }
+    return openWebSocket();
+  }
+
+  @Override
+  public CompletableFuture<Void> doDisconnect() {
+    final ScheduledFuture<?> reconnect = reconnectTask.getAndSet(null);
+    if (reconnect != null) {
+      reconnect.cancel(false);
+    }
+    final BtpWebSocketListener listener = currentListener.getAndSet(null);
+    if (listener != null) {
+      listener.close("Link disconnected");
+    }
+    final ScheduledFuture<?> expiry = expiryTask.getAndSet(null);
+    if (expiry != null) {
+      expiry.cancel(false);
+    }
+    requestCorrelator.failAll(new LinkNotConnectedException("BTP link disconnected", getLinkId()));
+    return CompletableFuture.completedFuture(null);
+  }
+
+  @Override
+  public InterledgerResponsePacket sendPacket(final InterledgerPreparePacket preparePacket) {
+    try {
+      return sendPacketAsync(preparePacket).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Sends {@code preparePacket} in a single binary WebSocket frame without blocking; the returned future is completed
+   * on the WebSocket reader thread once the matching BTP response arrives, or on the scheduler if the packet expires
+   * first.
+   *
+   * @param preparePacket An {@link InterledgerPreparePacket} to send to the remote peer.
+   *
+   * @return A {@link CompletableFuture} that completes with an {@link InterledgerResponsePacket}. If the link is not
+   *     connected, or the WebSocket fails while the packet is in-flight, the future completes with a {@code T01}
+   *     reject; if too many packets are already awaiting a reply, with a {@code T03} reject.
+   */
+  @Override
+  public CompletableFuture<InterledgerResponsePacket> sendPacketAsync(final InterledgerPreparePacket preparePacket) {
+    Objects.requireNonNull(preparePacket);
+
+    final BtpWebSocketListener listener = currentListener.get();
+    if (listener == null || !listener.isAuthenticated()) {
+      return CompletableFuture.completedFuture(
+          reject(InterledgerErrorCode.T01_PEER_UNREACHABLE, "BTP session is not connected")
+      );
+    }
+
+    final BtpSubProtocols subProtocols;
+    try {
+      final ByteArrayOutputStream ilpBytes = new ByteArrayOutputStream(256);
+      ilpCodecContext.write(preparePacket, ilpBytes);
+      subProtocols = ilpSubProtocols(ilpBytes.toByteArray());
+    } catch (IOException e) {
+      final CompletableFuture<InterledgerResponsePacket> failed = new CompletableFuture<>();
+      failed.completeExceptionally(new LinkException(e.getMessage(), e, getLinkId()));
+      return failed;
+    }
+
+    final Duration timeout = Duration.between(Instant.now(), preparePacket.getExpiresAt());
+    return listener.sendRequest(subProtocols, timeout.isNegative() ? Duration.ZERO : timeout)
+        .handle((btpResponsePacket, error) -> {
+          if (error != null) {
+            final Throwable cause = error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof TimeoutException) {
+              return reject(InterledgerErrorCode.R00_TRANSFER_TIMED_OUT, "BTP request timed out");
+            }
+            if (cause instanceof BtpRuntimeException) {
+              // Too many requests are already awaiting a reply from the peer.
+              return reject(InterledgerErrorCode.T03_CONNECTOR_BUSY, cause.getMessage());
+            }
+            return reject(InterledgerErrorCode.T01_PEER_UNREACHABLE, cause.getMessage());
+          }
+          return toResponsePacket(btpResponsePacket);
+        });
+  }
+
+  /**
+   * Map the BTP reply to a sent {@link BtpMessage} into the ILP response packet that it carries.
+   */
+  private InterledgerResponsePacket toResponsePacket(final BtpResponsePacket btpResponsePacket) {
+    if (btpResponsePacket.getType() == BtpMessageType.ERROR) {
+      final BtpError btpError = (BtpError) btpResponsePacket;
+      logger.warn("BTP peer returned an error. linkId={} btpError={}", getLinkId(), btpError);
+      return reject(
+          btpError.getErrorCode().getCodeIdentifier().startsWith("T")
+              ? InterledgerErrorCode.T00_INTERNAL_ERROR : InterledgerErrorCode.F00_BAD_REQUEST,
+          btpError.getErrorCode().getCodeName()
+      );
+    }
+
+    return btpResponsePacket.getSubProtocol(BtpSubProtocols.INTERLEDGER)
+        .map(ilp -> {
+          try {
+            return ilpCodecContext.read(InterledgerResponsePacket.class, ilp.getDataAsInputStream());
+          } catch (IOException e) {
+            throw new LinkException(e.getMessage(), e, getLinkId());
+          }
+        })
+        .orElseGet(() -> reject(InterledgerErrorCode.F00_BAD_REQUEST, "BTP response had no ilp sub-protocol"));
+  }
+
+  private InterledgerRejectPacket reject(final InterledgerErrorCode errorCode, final String message) {
+    return InterledgerRejectPacket.builder()
+        .triggeredBy(getOperatorAddressSupplier().get())
+        .code(errorCode)
+        .message(message == null ? "" : message)
+        .build();
+  }
+
+  /**
+   * Wrap freshly encoded ILP packet bytes as the primary sub-protocol of a BTP packet. The array is not copied, so the
+   * caller must not modify it afterwards.
+   */
+  private static BtpSubProtocols ilpSubProtocols(final byte[] ilpBytes) {
+    return BtpSubProtocols.fromPrimarySubProtocol(
+        SlicedBtpSubProtocol.wrap(BtpSubProtocols.INTERLEDGER, ContentType.MIME_APPLICATION_OCTET_STREAM, ilpBytes)
+    );
+  }
+
+  /**
+   * Open a new WebSocket and authenticate it, replacing any previous one.
+   *
+   * @return A {@link CompletableFuture} that completes once the remote server has accepted the auth request.
+   */
+  private CompletableFuture<Void> openWebSocket() {
+    final BtpWebSocketListener listener = new BtpWebSocketListener();
+    final BtpWebSocketListener previous = currentListener.getAndSet(listener);
+    if (previous != null) {
+      previous.close("Replaced by a new WebSocket");
+    }
+    listener.webSocket = okHttpClient.newWebSocket(
+        new Request.Builder().url(getLinkSettings().url()).build(), listener
+    );
+    return listener.authenticated;
+  }
+
+  /**
+   * Called when {@code listener}'s WebSocket has closed or failed. If it is still this link's current WebSocket and
+   * the link is meant to be connected, fail its in-flight requests and schedule a reconnect.
+   */
+  private void onWebSocketLost(final BtpWebSocketListener listener, final Throwable cause) {
+    if (!currentListener.compareAndSet(listener, null)) {
+      return;
+    }
+    requestCorrelator.failAll(cause);
+    if (isConnected() && listener.authenticated.isDone() && !listener.authenticated.isCompletedExceptionally()) {
+      logger.warn("BTP WebSocket lost; reconnecting. linkId={} error={}", getLinkId(), cause.getMessage());
+      scheduleReconnect(getLinkSettings().minReconnectDelay());
+    }
+  }
+
+  private void scheduleReconnect(final Duration delay) {
+    final ScheduledFuture<?> task = scheduler.schedule(() -> {
+      if (!isConnected()) {
+        return;
+      }
+      openWebSocket().whenComplete(($, error) -> {
+        if (error != null) {
+          final Duration doubled = delay.multipliedBy(2);
+          final Duration maxDelay = getLinkSettings().maxReconnectDelay();
+          logger.warn("Unable to reconnect BTP WebSocket. linkId={} error={}", getLinkId(), error.getMessage());
+          scheduleReconnect(doubled.compareTo(maxDelay) > 0 ? maxDelay : doubled);
+        } else {
+          logger.info("Reconnected BTP WebSocket. linkId={}", getLinkId());
+        }
+      });
+    }, delay.toNanos(), TimeUnit.NANOSECONDS);
+    final ScheduledFuture<?> previous = reconnectTask.getAndSet(task);
+    if (previous != null) {
+      previous.cancel(false);
+    }
+  }
+
+  /**
+   * Handle a {@link BtpMessage} sent by the remote peer, replying with a {@link BtpResponse} or {@link BtpError}.
+   */
+  private void onIncomingMessage(final BtpWebSocketListener listener, final BtpMessage btpMessage) {
+    if (!btpMessage.hasSubProtocol(BtpSubProtocols.INTERLEDGER)) {
+      listener.send(new BtpRuntimeException(BtpErrorCode.F00_NotAcceptedError, "Unsupported BTP sub-protocol")
+          .toBtpError(btpMessage.getRequestId()));
+      return;
+    }
+
+    incomingPacketExecutor.execute(() -> {
+      try {
+        final InterledgerPreparePacket preparePacket = ilpCodecContext.read(
+            InterledgerPreparePacket.class,
+            btpMessage.getSubProtocol(BtpSubProtocols.INTERLEDGER).get().getDataAsInputStream()
+        );
+        final InterledgerResponsePacket responsePacket = safeGetLinkHandler().handleIncomingPacket(preparePacket);
+
+        final ByteArrayOutputStream ilpBytes = new ByteArrayOutputStream(256);
+        ilpCodecContext.write(responsePacket, ilpBytes);
+        listener.send(BtpResponse.builder()
+            .requestId(btpMessage.getRequestId())
+            .subProtocols(ilpSubProtocols(ilpBytes.toByteArray()))
+            .build());
+      } catch (Exception e) {
+        logger.error("Unable to handle incoming BTP message. linkId={} btpMessage={}", getLinkId(), btpMessage, e);
+        listener.send(new BtpRuntimeException(BtpErrorCode.T00_UnreachableError, e.getMessage(), e)
+            .toBtpError(btpMessage.getRequestId()));
+      }
+    });
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", BtpLink.class.getSimpleName() + "[", "]")
+        .add("linkId=" + getLinkId())
+        .add("operatorAddressSupplier=" + getOperatorAddressSupplier().get())
+        .add("linkSettings=" + getLinkSettings())
+        .toString();
+  }
+
+  /**
+   * Receives the frames of, and sends frames on, a single WebSocket. A new listener is created for every connection
+   * attempt so that late events from a previous WebSocket can be recognized and ignored.
+   */
+  private final class BtpWebSocketListener extends WebSocketListener {
+
+    private final CompletableFuture<Void> authenticated = new CompletableFuture<>();
+    private volatile WebSocket webSocket;
+
+    private boolean isAuthenticated() {
+      return authenticated.isDone() && !authenticated.isCompletedExceptionally();
+    }
+
+    @Override
+    public void onOpen(final WebSocket webSocket, final Response response) {
+      this.webSocket = webSocket;
+      final BtpSubProtocols subProtocols = BtpSubProtocols.fromPrimarySubProtocol(
+          BtpSubProtocol.builder().protocolName(BtpSubProtocols.AUTH).build()
+      );
+      getLinkSettings().authUsername().ifPresent(authUsername -> subProtocols.add(BtpSubProtocol.builder()
+          .protocolName(BtpSubProtocols.AUTH_USERNAME)
+          .contentType(ContentType.MIME_TEXT_PLAIN_UTF8)
+          .data(authUsername.getBytes(StandardCharsets.UTF_8))
+          .build()));
+      subProtocols.add(BtpSubProtocol.builder()
+          .protocolName(BtpSubProtocols.AUTH_TOKEN)
+          .contentType(ContentType.MIME_TEXT_PLAIN_UTF8)
+          .data(getLinkSettings().authToken().getBytes(StandardCharsets.UTF_8))
+          .build());
+
+      sendRequest(subProtocols, getLinkSettings().requestTimeout()).whenComplete((btpResponsePacket, error) -> {
+        if (error == null && btpResponsePacket.getType() != BtpMessageType.ERROR) {
+          authenticated.complete(null);
+          return;
+        }
+        final Throwable cause = error != null ? error : new LinkException(
+            "BTP auth rejected: " + ((BtpError) btpResponsePacket).getErrorCode().getCodeName(), getLinkId()
+        );
+        authenticated.completeExceptionally(cause);
+        close("BTP auth failed");
+        onWebSocketLost(this, cause);
+      });
+    }
+
+    @Override
+    public void onMessage(final WebSocket webSocket, final ByteString bytes) {
+      final BtpPacket btpPacket;
+      try {
+        btpPacket = btpCodecContext.read(BtpPacket.class, new ByteArrayInputStream(bytes.toByteArray()));
+      } catch (IOException | RuntimeException e) {
+        logger.error("Unable to decode BTP packet. linkId={}", getLinkId(), e);
+        return;
+      }
+
+      switch (btpPacket.getType()) {
+        case RESPONSE:
+        case ERROR: {
+          if (!requestCorrelator.complete(btpPacket.getRequestId(), (BtpResponsePacket) btpPacket)) {
+            logger.debug("Ignoring BTP response for unknown requestId={}", btpPacket.getRequestId());
+          }
+          return;
+        }
+        case MESSAGE: {
+          if (isAuthenticated()) {
+            onIncomingMessage(this, (BtpMessage) btpPacket);
+          }
+          return;
+        }
+        case TRANSFER:
+        default: {
+          send(new BtpRuntimeException(BtpErrorCode.F00_NotAcceptedError, "BTP transfers are not supported")
+              .toBtpError(btpPacket.getRequestId()));
+        }
+      }
+    }
+
+    @Override
+    public void onMessage(final WebSocket webSocket, final String text) {
+      logger.warn("Ignoring text frame on BTP WebSocket. linkId={}", getLinkId());
+    }
+
+    @Override
+    public void onClosing(final WebSocket webSocket, final int code, final String reason) {
+      webSocket.close(NORMAL_CLOSURE, null);
+    }
+
+    @Override
+    public void onClosed(final WebSocket webSocket, final int code, final String reason) {
+      final LinkNotConnectedException cause = new LinkNotConnectedException(
+          String.format("BTP WebSocket closed. code=%s reason=%s", code, reason), getLinkId()
+      );
+      authenticated.completeExceptionally(cause);
+      onWebSocketLost(this, cause);
+    }
+
+    @Override
+    public void onFailure(final WebSocket webSocket, final Throwable t, final Response response) {
+      final LinkNotConnectedException cause = new LinkNotConnectedException(
+          "BTP WebSocket failed: " + t.getMessage(), t, getLinkId()
+      );
+      authenticated.completeExceptionally(cause);
+      onWebSocketLost(this, cause);
+    }
+
+    /**
+     * Send a {@link BtpMessage} carrying {@code subProtocols} and register it to await its reply.
+     *
+     * @return A {@link CompletableFuture} that completes with the peer's reply, or exceptionally with a {@link
+     *     TimeoutException} if none arrives within {@code timeout}.
+     */
+    private CompletableFuture<BtpResponsePacket> sendRequest(
+        final BtpSubProtocols subProtocols, final Duration timeout
+    ) {
+      final PendingRequest<BtpResponsePacket> request;
+      try {
+        request = requestCorrelator.register(timeout);
+      } catch (BtpRuntimeException e) {
+        final CompletableFuture<BtpResponsePacket> failed = new CompletableFuture<>();
+        failed.completeExceptionally(e);
+        return failed;
+      }
+
+      final BtpMessage btpMessage = BtpMessage.builder()
+          .requestId(request.getRequestId())
+          .subProtocols(subProtocols)
+          .build();
+      if (!send(btpMessage)) {
+        requestCorrelator.fail(
+            request.getRequestId(), new LinkNotConnectedException("BTP WebSocket is closed", getLinkId())
+        );
+      }
+      return request.getReply();
+    }
+
+    /**
+     * Encode {@code btpPacket} into a single binary frame and enqueue it on this WebSocket.
+     *
+     * @return {@code true} if the frame was enqueued; {@code false} if the WebSocket is closing or closed.
+     */
+    private boolean send(final BtpPacket btpPacket) {
+      final ByteArrayOutputStream btpBytes = new ByteArrayOutputStream(512);
+      try {
+        btpCodecContext.write(btpPacket, btpBytes);
+      } catch (IOException e) {
+        throw new LinkException(e.getMessage(), e, getLinkId());
+      }
+      return webSocket.send(ByteString.of(btpBytes.toByteArray()));
+    }
+
+    private void close(final String reason) {
+      final WebSocket webSocket = this.webSocket;
+      if (webSocket != null) {
+        webSocket.close(NORMAL_CLOSURE, reason);
+      }
+    }
+  }
+}
@@ -0,0 +1,105 @@
+package org.interledger.link.btp;
+
+import org.interledger.core.InterledgerAddress;
+import org.interledger.encoding.asn.framework.CodecContext;
+import org.interledger.link.Link;
+import org.interledger.link.LinkFactory;
+import org.interledger.link.LinkId;
+import org.interledger.link.LinkSettings;
+import org.interledger.link.LinkType;
+import org.interledger.link.events.LinkConnectionEventEmitter;
+import org.interledger.link.exceptions.LinkException;
+
+import okhttp3.OkHttpClient;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Supplier;
+
+/**
+ * An implementation of {@link LinkFactory} for creating {@link BtpLink}s. Links constructed by this factory must be
+ * connected using {@link BtpLink#connect()} before they can send packets.
+ */
+public class BtpLinkFactory implements LinkFactory {
+
+  private final OkHttpClient okHttpClient;
+  private final CodecContext btpCodecContext;
+  private final CodecContext ilpCodecContext;
+  private final ScheduledExecutorService scheduler;
+  private final Executor incomingPacketExecutor;
+  private final LinkConnectionEventEmitter linkConnectionEventEmitter;
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param okHttpClient               An {@link OkHttpClient} that is used to open WebSockets to remote BTP servers.
+   *                                   It may be shared by every link this factory creates.
+   * @param btpCodecContext            A {@link CodecContext} that can encode and decode BTP packets.
+   * @param ilpCodecContext            A {@link CodecContext} that can encode and decode ILP packets.
+   * @param scheduler                  A {@link ScheduledExecutorService} used for request timeouts and reconnects.
+   * @param incomingPacketExecutor     An {@link Executor} that runs link handlers for incoming packets.
+   * @param linkConnectionEventEmitter A {@link LinkConnectionEventEmitter} that is used to emit events from each link.
+   */
+  public BtpLinkFactory(
+      final OkHttpClient okHttpClient,
+      final CodecContext btpCodecContext,
+      final CodecContext ilpCodecContext,
+      final ScheduledExecutorService scheduler,
+      final Executor incomingPacketExecutor,
+      final LinkConnectionEventEmitter linkConnectionEventEmitter
+  ) {
+    this.okHttpClient = Objects.requireNonNull(okHttpClient);
+    this.btpCodecContext = Objects.requireNonNull(btpCodecContext);
+    this.ilpCodecContext = Objects.requireNonNull(ilpCodecContext);
+    this.scheduler = Objects.requireNonNull(scheduler);
+    this.incomingPacketExecutor = Objects.requireNonNull(incomingPacketExecutor);
+    this.linkConnectionEventEmitter = Objects.requireNonNull(linkConnectionEventEmitter);
+  }
+
+  /**
+   * Construct a new instance of {@link Link} using the supplied inputs.
+   *
+   * @param operatorAddressSupplier A supplier for the ILP address of this node operating this Link. This value may be
+   *                                uninitialized, for example, in cases where the Link obtains its address from a
+   *                                parent node using IL-DCP. If an ILP address has not been assigned, or it has not
+   *                                been obtained via IL-DCP, then this value will by default be {@link Link#SELF}.
+   * @param linkSettings            A {@link LinkSettings} whose custom settings describe a {@link BtpLinkSettings}.
+   *
+   * @return A newly constructed instance of {@link Link}.
+   */
+  public Link<?> constructLink(
+      final Supplier<InterledgerAddress> operatorAddressSupplier, final LinkSettings linkSettings
+  ) {
+    Objects.requireNonNull(operatorAddressSupplier, "operatorAddressSupplier must not be null");
+    Objects.requireNonNull(linkSettings, "linkSettings must not be null");
+
+    if (!this.supports(linkSettings.getLinkType())) {
+      throw new LinkException(
+          String.format("LinkType not supported by this factory. linkType=%s", linkSettings.getLinkType()),
+          LinkId.of("n/a")
+      );
+    }
+
+    final BtpLinkSettings btpLinkSettings = linkSettings instanceof BtpLinkSettings
+        ? (BtpLinkSettings) linkSettings
+        : BtpLinkSettings.fromCustomSettings(linkSettings.getCustomSettings()).build();
+
+    return new BtpLink(
+        operatorAddressSupplier,
+        btpLinkSettings,
+        okHttpClient,
+        btpCodecContext,
+        ilpCodecContext,
+        scheduler,
+        incomingPacketExecutor,
+        linkConnectionEventEmitter
+    );
+  }
+
+  @Override
+  public boolean supports(LinkType linkType) {
+    return BtpLink.LINK_TYPE.equals(linkType);
+  }
+
+}
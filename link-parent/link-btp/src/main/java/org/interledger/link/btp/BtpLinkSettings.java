@@ -0,0 +1,187 @@
+package org.interledger.link.btp;
+
+import org.interledger.link.LinkSettings;
+import org.interledger.link.LinkType;
+
+import org.immutables.value.Value;
+import org.immutables.value.Value.Default;
+import org.immutables.value.Value.Derived;
+import org.immutables.value.Value.Redacted;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * An extension of {@link LinkSettings} for BTP links, which connect to a remote BTP server over a WebSocket.
+ *
+ * <p>Custom settings are expected to follow this format:</p>
+ * <pre>
+ *   "btp.url": "wss://java1.connector.com/btp",
+ *   "btp.auth_username": "alice",
+ *   "btp.auth_token": "password",
+ *   "btp.request_timeout": "PT10S",
+ *   "btp.min_reconnect_delay": "PT0.1S",
+ *   "btp.max_reconnect_delay": "PT30S"
+ * </pre>
+ *
+ * @see "https://github.com/interledger/rfcs/blob/master/0023-bilateral-transfer-protocol/0023-bilateral-transfer-protocol.md"
+ */
+@Value.Immutable
+public interface BtpLinkSettings extends LinkSettings {
+
+  String DOT = ".";
+  String BTP = "btp";
+
+  String BTP_URL = BTP + DOT + "url";
+  String BTP_AUTH_USERNAME = BTP + DOT + "auth_username";
+  String BTP_AUTH_TOKEN = BTP + DOT + "auth_token";
+  String BTP_REQUEST_TIMEOUT = BTP + DOT + "request_timeout";
+  String BTP_MIN_RECONNECT_DELAY = BTP + DOT + "min_reconnect_delay";
+  String BTP_MAX_RECONNECT_DELAY = BTP + DOT + "max_reconnect_delay";
+
+  static ImmutableBtpLinkSettings.Builder builder() {
+    return ImmutableBtpLinkSettings.builder();
+  }
+
+  /**
+   * Constructs a new builder with the correct custom settings, as found in {@code customSettings}.
+   *
+   * @param customSettings A {@link Map} of custom settings.
+   *
+   * @return A {@link ImmutableBtpLinkSettings.Builder}.
+   */
+  static ImmutableBtpLinkSettings.Builder fromCustomSettings(final Map<String, Object> customSettings) {
+    Objects.requireNonNull(customSettings);
+    return applyCustomSettings(BtpLinkSettings.builder(), customSettings);
+  }
+
+  /**
+   * Populate a supplied builder with the correct custom settings, as found in {@code customSettings}.
+   *
+   * @param builder        A {@link ImmutableBtpLinkSettings.Builder} to update with custom settings.
+   * @param customSettings A {@link Map} of custom settings.
+   *
+   * @return A {@link ImmutableBtpLinkSettings.Builder}.
+   */
+  static ImmutableBtpLinkSettings.Builder applyCustomSettings(
+      final ImmutableBtpLinkSettings.Builder builder, final Map<String, Object> customSettings
+  ) {
+    Objects.requireNonNull(builder);
+    Objects.requireNonNull(customSettings);
+
+    Optional.ofNullable(customSettings.get(BTP_URL))
+        .map(Object::toString)
+        .map(builder::url)
+        .orElseThrow(() -> new IllegalArgumentException(BTP_URL + " is required"));
+
+    Optional.ofNullable(customSettings.get(BTP_AUTH_TOKEN))
+        .map(Object::toString)
+        .map(builder::authToken)
+        .orElseThrow(() -> new IllegalArgumentException(BTP_AUTH_TOKEN + " is required"));
+
+    Optional.ofNullable(customSettings.get(BTP_AUTH_USERNAME))
+        .map(Object::toString)
+        .ifPresent(builder::authUsername);
+
+    Optional.ofNullable(customSettings.get(BTP_REQUEST_TIMEOUT))
+        .map(Object::toString)
+        .map(Duration::parse)
+        .ifPresent(builder::requestTimeout);
+
+    Optional.ofNullable(customSettings.get(BTP_MIN_RECONNECT_DELAY))
+        .map(Object::toString)
+        .map(Duration::parse)
+        .ifPresent(builder::minReconnectDelay);
+
+    Optional.ofNullable(customSettings.get(BTP_MAX_RECONNECT_DELAY))
+        .map(Object::toString)
+        .map(Duration::parse)
+        .ifPresent(builder::maxReconnectDelay);
+
+    builder.customSettings(customSettings);
+
+    return builder;
+  }
+
+  @Override
+  @Derived
+  default LinkType getLinkType() {
+    return BtpLink.LINK_TYPE;
+  }
+
+  /**
+   * Additional, custom settings that any link can define. Redacted because they contain {@link #BTP_AUTH_TOKEN}.
+   *
+   * @return A {@link Map} with {@link String} keys.
+   */
+  @Override
+  @Redacted
+  Map<String, Object> getCustomSettings();
+
+  /**
+   * The {@code ws://} or {@code wss://} URL of the remote BTP server.
+   *
+   * @return A {@link String}.
+   */
+  String url();
+
+  /**
+   * The optional {@code auth_username} sent to the remote BTP server, which allows several accounts to share a single
+   * server endpoint.
+   *
+   * @return An optionally-present {@link String}.
+   */
+  Optional<String> authUsername();
+
+  /**
+   * The {@code auth_token} sent to the remote BTP server to authenticate the session.
+   *
+   * @return A {@link String}.
+   */
+  @Redacted
+  String authToken();
+
+  /**
+   * How long to wait for the response to a BTP request that does not carry an ILP packet, such as the auth request.
+   * Requests that carry an ILP Prepare packet instead time out when that packet expires.
+   *
+   * @return A {@link Duration}.
+   */
+  @Default
+  default Duration requestTimeout() {
+    return Duration.ofSeconds(10);
+  }
+
+  /**
+   * How long to wait before the first attempt to re-establish a WebSocket that closed unexpectedly. The delay doubles
+   * after each failed attempt, up to {@link #maxReconnectDelay()}.
+   *
+   * @return A {@link Duration}.
+   */
+  @Default
+  default Duration minReconnectDelay() {
+    return Duration.ofMillis(100);
+  }
+
+  /**
+   * The longest delay between attempts to re-establish a WebSocket that closed unexpectedly.
+   *
+   * @return A {@link Duration}.
+   */
+  @Default
+  default Duration maxReconnectDelay() {
+    return Duration.ofSeconds(30);
+  }
+
+  @Value.Check
+  default void check() {
+    if (minReconnectDelay().isNegative() || minReconnectDelay().compareTo(maxReconnectDelay()) > 0) {
+      throw new IllegalArgumentException("minReconnectDelay must be between zero and maxReconnectDelay");
+    }
+    if (requestTimeout().isNegative() || requestTimeout().isZero()) {
+      throw new IllegalArgumentException("requestTimeout must be positive");
+    }
+  }
+}
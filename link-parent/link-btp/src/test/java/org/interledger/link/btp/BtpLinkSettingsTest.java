@@ -0,0 +1,73 @@
+package org.interledger.link.btp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Unit tests for {@link BtpLinkSettings}.
+ */
+public class BtpLinkSettingsTest {
+
+  @Test
+  public void fromCustomSettings() {
+    final Map<String, Object> customSettings = ImmutableMap.<String, Object>builder()
+        .put(BtpLinkSettings.BTP_URL, "wss://peer.example.com/btp")
+        .put(BtpLinkSettings.BTP_AUTH_USERNAME, "alice")
+        .put(BtpLinkSettings.BTP_AUTH_TOKEN, "password")
+        .put(BtpLinkSettings.BTP_REQUEST_TIMEOUT, "PT5S")
+        .put(BtpLinkSettings.BTP_MIN_RECONNECT_DELAY, "PT1S")
+        .put(BtpLinkSettings.BTP_MAX_RECONNECT_DELAY, "PT1M")
+        .build();
+
+    final BtpLinkSettings settings = BtpLinkSettings.fromCustomSettings(customSettings).build();
+
+    assertThat(settings.getLinkType()).isEqualTo(BtpLink.LINK_TYPE);
+    assertThat(settings.url()).isEqualTo("wss://peer.example.com/btp");
+    assertThat(settings.authUsername()).hasValue("alice");
+    assertThat(settings.authToken()).isEqualTo("password");
+    assertThat(settings.requestTimeout()).isEqualTo(Duration.ofSeconds(5));
+    assertThat(settings.minReconnectDelay()).isEqualTo(Duration.ofSeconds(1));
+    assertThat(settings.maxReconnectDelay()).isEqualTo(Duration.ofMinutes(1));
+    assertThat(settings.getCustomSettings()).isEqualTo(customSettings);
+    assertThat(settings.toString()).doesNotContain("password");
+  }
+
+  @Test
+  public void defaults() {
+    final BtpLinkSettings settings = BtpLinkSettings.builder()
+        .url("ws://localhost/btp")
+        .authToken("password")
+        .build();
+
+    assertThat(settings.authUsername()).isEmpty();
+    assertThat(settings.requestTimeout()).isEqualTo(Duration.ofSeconds(10));
+    assertThat(settings.minReconnectDelay()).isEqualTo(Duration.ofMillis(100));
+    assertThat(settings.maxReconnectDelay()).isEqualTo(Duration.ofSeconds(30));
+  }
+
+  @Test
+  public void urlIsRequired() {
+    assertThatThrownBy(() -> BtpLinkSettings.fromCustomSettings(
+        ImmutableMap.of(BtpLinkSettings.BTP_AUTH_TOKEN, "password")
+    ))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage(BtpLinkSettings.BTP_URL + " is required");
+  }
+
+  @Test
+  public void minReconnectDelayMustNotExceedMax() {
+    assertThatThrownBy(() -> BtpLinkSettings.builder()
+        .url("ws://localhost/btp")
+        .authToken("password")
+        .minReconnectDelay(Duration.ofMinutes(1))
+        .maxReconnectDelay(Duration.ofSeconds(1))
+        .build())
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -0,0 +1,205 @@
+package org.interledger.link.btp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.interledger.core.InterledgerConstants.ALL_ZEROS_FULFILLMENT;
+import static org.mockito.Mockito.mock;
+
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerConstants;
+import org.interledger.core.InterledgerErrorCode;
+import org.interledger.core.InterledgerFulfillPacket;
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerRejectPacket;
+import org.interledger.core.InterledgerResponsePacket;
+import org.interledger.link.LinkId;
+import org.interledger.link.events.LinkConnectionEventEmitter;
+
+import com.google.common.primitives.UnsignedLong;
+import okhttp3.OkHttpClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for {@link BtpLink}, exercised over loopback against an in-process {@link BtpTestPeer}.
+ */
+public class BtpLinkTest {
+
+  private static final String AUTH_TOKEN = "shh";
+  private static final InterledgerAddress OPERATOR_ADDRESS = InterledgerAddress.of("test.client");
+
+  private BtpTestPeer peer;
+  private OkHttpClient okHttpClient;
+  private ScheduledExecutorService scheduler;
+  private BtpLink link;
+
+  @Before
+  public void setUp() throws IOException {
+    peer = new BtpTestPeer(AUTH_TOKEN, preparePacket -> InterledgerFulfillPacket.builder()
+        .fulfillment(ALL_ZEROS_FULFILLMENT)
+        .data(preparePacket.getData())
+        .build());
+    peer.start();
+    okHttpClient = new OkHttpClient();
+    scheduler = Executors.newSingleThreadScheduledExecutor();
+    link = newLink(AUTH_TOKEN);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    link.close();
+    peer.stopServer();
+    scheduler.shutdownNow();
+    okHttpClient.dispatcher().executorService().shutdown();
+  }
+
+  @Test
+  public void sendPacketIsFulfilled() {
+    link.connect().join();
+
+    final InterledgerResponsePacket response = link.sendPacket(preparePacket(new byte[] {1, 2, 3}));
+
+    assertThat(response).isInstanceOf(InterledgerFulfillPacket.class);
+    assertThat(response.getData()).containsExactly(1, 2, 3);
+  }
+
+  @Test
+  public void sendPacketAsyncPipelinesManyPackets() {
+    link.connect().join();
+
+    final List<CompletableFuture<InterledgerResponsePacket>> futures = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      futures.add(link.sendPacketAsync(preparePacket(new byte[] {(byte) i})));
+    }
+
+    for (int i = 0; i < futures.size(); i++) {
+      final InterledgerResponsePacket response = futures.get(i).join();
+      assertThat(response).isInstanceOf(InterledgerFulfillPacket.class);
+      assertThat(response.getData()).containsExactly((byte) i);
+    }
+    assertThat(peer.getSessionsOpened()).isEqualTo(1);
+  }
+
+  @Test
+  public void connectFailsWithInvalidAuthToken() {
+    final BtpLink badLink = newLink("wrong");
+
+    final Throwable thrown = catchThrowable(() -> badLink.connect().join());
+
+    assertThat(thrown).isInstanceOf(CompletionException.class);
+    assertThat(thrown.getCause()).hasMessageContaining("BTP auth rejected");
+    assertThat(badLink.isConnected()).isFalse();
+  }
+
+  @Test
+  public void sendPacketBeforeConnectRejectsWithT01() {
+    final InterledgerResponsePacket response = link.sendPacket(preparePacket(new byte[0]));
+
+    assertThat(response).isInstanceOf(InterledgerRejectPacket.class);
+    assertThat(((InterledgerRejectPacket) response).getCode()).isEqualTo(InterledgerErrorCode.T01_PEER_UNREACHABLE);
+  }
+
+  @Test
+  public void unansweredPacketRejectsWithR00WhenItExpires() {
+    link.connect().join();
+    peer.setLinkHandler(preparePacket -> null);
+
+    final InterledgerResponsePacket response = link.sendPacket(InterledgerPreparePacket.builder()
+        .from(preparePacket(new byte[0]))
+        .expiresAt(Instant.now().plusMillis(200))
+        .build());
+
+    assertThat(response).isInstanceOf(InterledgerRejectPacket.class);
+    assertThat(((InterledgerRejectPacket) response).getCode())
+        .isEqualTo(InterledgerErrorCode.R00_TRANSFER_TIMED_OUT);
+  }
+
+  @Test
+  public void reconnectsAfterWebSocketIsLost() throws InterruptedException {
+    link.connect().join();
+    peer.dropCurrentSession();
+
+    InterledgerResponsePacket response = null;
+    final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (System.nanoTime() < deadline) {
+      response = link.sendPacket(preparePacket(new byte[0]));
+      if (response instanceof InterledgerFulfillPacket && peer.getSessionsOpened() == 2) {
+        break;
+      }
+      Thread.sleep(20);
+    }
+
+    assertThat(response).isInstanceOf(InterledgerFulfillPacket.class);
+    assertThat(peer.getSessionsOpened()).isEqualTo(2);
+    assertThat(link.isConnected()).isTrue();
+  }
+
+  @Test
+  public void incomingPrepareIsHandledByLinkHandler() {
+    link.registerLinkHandler(preparePacket -> InterledgerRejectPacket.builder()
+        .triggeredBy(OPERATOR_ADDRESS)
+        .code(InterledgerErrorCode.F99_APPLICATION_ERROR)
+        .message("handled")
+        .build());
+    link.connect().join();
+
+    final InterledgerResponsePacket response = peer.sendPrepare(preparePacket(new byte[0])).join();
+
+    assertThat(response).isInstanceOf(InterledgerRejectPacket.class);
+    assertThat(((InterledgerRejectPacket) response).getMessage()).isEqualTo("handled");
+  }
+
+  @Test
+  public void disconnectRejectsFurtherPackets() {
+    link.connect().join();
+    link.disconnect().join();
+
+    final InterledgerResponsePacket response = link.sendPacket(preparePacket(new byte[0]));
+
+    assertThat(response).isInstanceOf(InterledgerRejectPacket.class);
+    assertThat(((InterledgerRejectPacket) response).getCode()).isEqualTo(InterledgerErrorCode.T01_PEER_UNREACHABLE);
+  }
+
+  private BtpLink newLink(final String authToken) {
+    final BtpLink btpLink = new BtpLink(
+        () -> OPERATOR_ADDRESS,
+        BtpLinkSettings.builder()
+            .url(peer.url())
+            .authToken(authToken)
+            .requestTimeout(Duration.ofSeconds(5))
+            .minReconnectDelay(Duration.ofMillis(10))
+            .maxReconnectDelay(Duration.ofMillis(100))
+            .build(),
+        okHttpClient,
+        BtpTestPeer.BTP_CODEC_CONTEXT,
+        BtpTestPeer.ILP_CODEC_CONTEXT,
+        scheduler,
+        Runnable::run,
+        mock(LinkConnectionEventEmitter.class)
+    );
+    btpLink.setLinkId(LinkId.of("btp"));
+    return btpLink;
+  }
+
+  private static InterledgerPreparePacket preparePacket(final byte[] data) {
+    return InterledgerPreparePacket.builder()
+        .amount(UnsignedLong.ONE)
+        .executionCondition(InterledgerConstants.ALL_ZEROS_CONDITION)
+        .destination(InterledgerAddress.of("test.peer"))
+        .expiresAt(Instant.now().plusSeconds(30))
+        .data(data)
+        .build();
+  }
+}
@@ -0,0 +1,135 @@
+package org.interledger.link.btp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.interledger.core.InterledgerConstants.ALL_ZEROS_FULFILLMENT;
+import static org.mockito.Mockito.mock;
+
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerConstants;
+import org.interledger.core.InterledgerFulfillPacket;
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerResponsePacket;
+import org.interledger.link.LinkId;
+import org.interledger.link.events.LinkConnectionEventEmitter;
+
+import com.google.common.primitives.UnsignedLong;
+import okhttp3.OkHttpClient;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput benchmark for {@link BtpLink} against an in-process {@link BtpTestPeer}, measuring fulfilled packets per
+ * second for blocking sends on one thread and for asynchronous sends pipelined over the single WebSocket.
+ */
+public class BtpLinkThroughputIT {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(BtpLinkThroughputIT.class);
+
+  private static final String AUTH_TOKEN = "benchmark";
+
+  private static final int NUM_PACKETS = 10_000;
+  private static final int WARMUP_ROUNDS = 2;
+
+  private static BtpTestPeer peer;
+  private static OkHttpClient okHttpClient;
+  private static ScheduledExecutorService scheduler;
+  private static BtpLink link;
+  private static InterledgerPreparePacket preparePacket;
+
+  @BeforeClass
+  public static void setUp() throws IOException {
+    peer = new BtpTestPeer(AUTH_TOKEN, incomingPreparePacket -> InterledgerFulfillPacket.builder()
+        .fulfillment(ALL_ZEROS_FULFILLMENT)
+        .data(incomingPreparePacket.getData())
+        .build()
+    );
+    peer.start();
+
+    okHttpClient = new OkHttpClient();
+    scheduler = Executors.newSingleThreadScheduledExecutor();
+    link = new BtpLink(
+        () -> InterledgerAddress.of("test.benchmark"),
+        BtpLinkSettings.builder().url(peer.url()).authToken(AUTH_TOKEN).build(),
+        okHttpClient,
+        BtpTestPeer.BTP_CODEC_CONTEXT,
+        BtpTestPeer.ILP_CODEC_CONTEXT,
+        scheduler,
+        Runnable::run,
+        mock(LinkConnectionEventEmitter.class)
+    );
+    link.setLinkId(LinkId.of("btp-benchmark"));
+    link.connect().join();
+
+    preparePacket = InterledgerPreparePacket.builder()
+        .amount(UnsignedLong.ONE)
+        .executionCondition(InterledgerConstants.ALL_ZEROS_CONDITION)
+        .destination(InterledgerAddress.of("test.benchmark.receiver"))
+        .expiresAt(Instant.now().plus(1, ChronoUnit.DAYS))
+        .data(new byte[32])
+        .build();
+  }
+
+  @AfterClass
+  public static void tearDown() throws IOException {
+    link.close();
+    peer.stopServer();
+    scheduler.shutdownNow();
+    okHttpClient.dispatcher().executorService().shutdown();
+  }
+
+  @Test
+  public void blockingThroughput() {
+    for (int i = 0; i < WARMUP_ROUNDS; i++) {
+      runBlockingRound();
+    }
+    final long startNanos = System.nanoTime();
+    runBlockingRound();
+    logThroughput("blocking", System.nanoTime() - startNanos);
+  }
+
+  @Test
+  public void asyncThroughput() throws Exception {
+    for (int i = 0; i < WARMUP_ROUNDS; i++) {
+      runAsyncRound();
+    }
+    final long startNanos = System.nanoTime();
+    runAsyncRound();
+    logThroughput("async", System.nanoTime() - startNanos);
+  }
+
+  private void runBlockingRound() {
+    for (int i = 0; i < NUM_PACKETS; i++) {
+      assertThat(link.sendPacket(preparePacket)).isInstanceOf(InterledgerFulfillPacket.class);
+    }
+  }
+
+  private void runAsyncRound() throws Exception {
+    final List<CompletableFuture<InterledgerResponsePacket>> futures = new ArrayList<>(NUM_PACKETS);
+    for (int i = 0; i < NUM_PACKETS; i++) {
+      futures.add(link.sendPacketAsync(preparePacket));
+    }
+    CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5, TimeUnit.MINUTES);
+    for (CompletableFuture<InterledgerResponsePacket> future : futures) {
+      assertThat(future.get()).isInstanceOf(InterledgerFulfillPacket.class);
+    }
+  }
+
+  private void logThroughput(final String mode, final long elapsedNanos) {
+    final double packetsPerSecond = NUM_PACKETS / (elapsedNanos / 1_000_000_000d);
+    LOGGER.info("BtpLink mode={} packets={} packetsPerSecond={}",
+        mode, NUM_PACKETS, String.format("%.0f", packetsPerSecond));
+  }
+}
@@ -0,0 +1,200 @@
+package org.interledger.link.btp;
+
+import org.interledger.btp.BtpErrorCode;
+import org.interledger.btp.BtpMessage;
+import org.interledger.btp.BtpMessageType;
+import org.interledger.btp.BtpPacket;
+import org.interledger.btp.BtpResponse;
+import org.interledger.btp.BtpResponsePacket;
+import org.interledger.btp.BtpRuntimeException;
+import org.interledger.btp.BtpSubProtocol;
+import org.interledger.btp.BtpSubProtocols;
+import org.interledger.codecs.btp.BtpCodecContextFactory;
+import org.interledger.codecs.ilp.InterledgerCodecContextFactory;
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerResponsePacket;
+import org.interledger.encoding.asn.framework.CodecContext;
+import org.interledger.link.LinkHandler;
+
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.ByteString;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * An in-process BTP server for tests, running on a {@link MockWebServer}. It authenticates sessions with a fixed
+ * {@code auth_token} and handles every Prepare packet it receives with a replaceable {@link LinkHandler}.
+ */
+class BtpTestPeer extends Dispatcher {
+
+  static final CodecContext BTP_CODEC_CONTEXT = BtpCodecContextFactory.oer();
+  static final CodecContext ILP_CODEC_CONTEXT = InterledgerCodecContextFactory.oer();
+
+  private final MockWebServer server = new MockWebServer();
+  private final String authToken;
+  private final AtomicReference<LinkHandler> linkHandler;
+  private final AtomicReference<WebSocket> currentWebSocket = new AtomicReference<>();
+  private final AtomicInteger sessionsOpened = new AtomicInteger();
+  private final AtomicInteger nextRequestId = new AtomicInteger(1_000_000);
+  private final Map<Long, CompletableFuture<BtpResponsePacket>> pendingRequests = new ConcurrentHashMap<>();
+
+  BtpTestPeer(final String authToken, final LinkHandler linkHandler) {
+    this.authToken = Objects.requireNonNull(authToken);
+    this.linkHandler = new AtomicReference<>(Objects.requireNonNull(linkHandler));
+    this.server.setDispatcher(this);
+  }
+
+  void start() throws IOException {
+    server.start();
+  }
+
+  void stopServer() throws IOException {
+    server.shutdown();
+  }
+
+  String url() {
+    return server.url("/btp").toString().replaceFirst("^http", "ws");
+  }
+
+  void setLinkHandler(final LinkHandler linkHandler) {
+    this.linkHandler.set(Objects.requireNonNull(linkHandler));
+  }
+
+  int getSessionsOpened() {
+    return sessionsOpened.get();
+  }
+
+  /**
+   * Abruptly close the WebSocket of the current session, as a server restart would.
+   */
+  void dropCurrentSession() {
+    final WebSocket webSocket = currentWebSocket.getAndSet(null);
+    if (webSocket != null) {
+      webSocket.cancel();
+    }
+  }
+
+  /**
+   * Send {@code preparePacket} to the connected link, as the remote peer of a payment would.
+   */
+  CompletableFuture<InterledgerResponsePacket> sendPrepare(final InterledgerPreparePacket preparePacket) {
+    final long requestId = nextRequestId.incrementAndGet();
+    final CompletableFuture<BtpResponsePacket> future = new CompletableFuture<>();
+    pendingRequests.put(requestId, future);
+    send(currentWebSocket.get(), BtpMessage.builder()
+        .requestId(requestId)
+        .subProtocols(BtpSubProtocols.fromPrimarySubProtocol(ilp(write(ILP_CODEC_CONTEXT, preparePacket))))
+        .build());
+    return future.thenApply(response -> read(
+        ILP_CODEC_CONTEXT,
+        InterledgerResponsePacket.class,
+        response.getSubProtocol(BtpSubProtocols.INTERLEDGER).get().getData()
+    ));
+  }
+
+  @Override
+  public MockResponse dispatch(final RecordedRequest request) {
+    return new MockResponse().withWebSocketUpgrade(new Session());
+  }
+
+  private static BtpSubProtocol ilp(final byte[] data) {
+    return BtpSubProtocol.builder().protocolName(BtpSubProtocols.INTERLEDGER).data(data).build();
+  }
+
+  private static byte[] write(final CodecContext codecContext, final Object value) {
+    try {
+      final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+      codecContext.write(value, baos);
+      return baos.toByteArray();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static <T> T read(final CodecContext codecContext, final Class<T> type, final byte[] data) {
+    try {
+      return codecContext.read(type, new ByteArrayInputStream(data));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static void send(final WebSocket webSocket, final BtpPacket btpPacket) {
+    webSocket.send(ByteString.of(write(BTP_CODEC_CONTEXT, btpPacket)));
+  }
+
+  /**
+   * The server side of a single WebSocket.
+   */
+  private final class Session extends WebSocketListener {
+
+    private volatile boolean authenticated;
+
+    @Override
+    public void onOpen(final WebSocket webSocket, final Response response) {
+      sessionsOpened.incrementAndGet();
+      currentWebSocket.set(webSocket);
+    }
+
+    @Override
+    public void onMessage(final WebSocket webSocket, final ByteString bytes) {
+      final BtpPacket btpPacket = read(BTP_CODEC_CONTEXT, BtpPacket.class, bytes.toByteArray());
+      if (btpPacket.getType() == BtpMessageType.RESPONSE || btpPacket.getType() == BtpMessageType.ERROR) {
+        final CompletableFuture<BtpResponsePacket> future = pendingRequests.remove(btpPacket.getRequestId());
+        if (future != null) {
+          future.complete((BtpResponsePacket) btpPacket);
+        }
+        return;
+      }
+
+      if (!authenticated) {
+        final boolean validToken = btpPacket.hasSubProtocol(BtpSubProtocols.AUTH)
+            && btpPacket.getSubProtocol(BtpSubProtocols.AUTH_TOKEN)
+            .map(BtpSubProtocol::getDataAsString)
+            .filter(authToken::equals)
+            .isPresent();
+        if (validToken) {
+          authenticated = true;
+          send(webSocket, BtpResponse.builder().requestId(btpPacket.getRequestId()).build());
+        } else {
+          send(webSocket, new BtpRuntimeException(BtpErrorCode.F00_NotAcceptedError, "invalid auth_token")
+              .toBtpError(btpPacket.getRequestId()));
+        }
+        return;
+      }
+
+      final InterledgerPreparePacket preparePacket = read(
+          ILP_CODEC_CONTEXT,
+          InterledgerPreparePacket.class,
+          btpPacket.getSubProtocol(BtpSubProtocols.INTERLEDGER).get().getData()
+      );
+      final InterledgerResponsePacket responsePacket = linkHandler.get().handleIncomingPacket(preparePacket);
+      if (responsePacket != null) {
+        send(webSocket, BtpResponse.builder()
+            .requestId(btpPacket.getRequestId())
+            .subProtocols(BtpSubProtocols.fromPrimarySubProtocol(ilp(write(ILP_CODEC_CONTEXT, responsePacket))))
+            .build());
+      }
+    }
+
+    @Override
+    public void onClosing(final WebSocket webSocket, final int code, final String reason) {
+      webSocket.close(BtpLink.NORMAL_CLOSURE, null);
+    }
+  }
+}
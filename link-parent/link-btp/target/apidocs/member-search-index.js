@@ -0,0 +1 @@
+memberSearchIndex = [{"p":"org.interledger.link.btp","c":"BtpLinkSettings","l":"applyCustomSettings(ImmutableBtpLinkSettings.Builder, Map<String, Object>)","u":"applyCustomSettings(org.interledger.link.btp.ImmutableBtpLinkSettings.Builder,java.util.Map)"},{"p":"org.interledger.link.btp","c":"BtpLinkSettings","l":"authToken()"},{"p":"org.interledger.link.btp","c":"ImmutableBtpLinkSettings","l":"authToken()"},{"p":"org.interledger.link.btp","c":"ImmutableBtpLinkSettings.Builder","l":"authToken(String)","u":"authToken(java.lang.String)"},{"p":"org.interledger.link.btp","c":"BtpLinkSettings","l":"authUsername()"},{"p":"org.interledger.link.btp","c":"ImmutableBtpLinkSettings","l":"authUsername()"},{"p":"org.interledger.link.btp","c":"ImmutableBtpLinkSettings.Builder","l":"authUsername(Optional<String>)","u":"authUsername(java.util.Optional)"},{"p":"org.interledger.link.btp","c":"ImmutableBtpLinkSettings.Builder","l":"authUsername(String)","u":"authUsername(java.lang.String)"},{"p":"org.interledger.link.btp","c":"BtpLinkSettings","l":"BTP"},{"p":"org.interledger.link.btp","c":"BtpLinkSettings","l":"BTP_AUTH_TOKEN"},{"p":"org.interledger.link.btp","c":"BtpLinkSettings","l":"BTP_AUTH_USERNAME"},{"p":"org.interledger.link.btp","c":"BtpLinkSettings","l":"BTP_MAX_RECONNECT_DELAY"},{"p":"org.interledger.link.btp","c":"BtpLinkSettings","l":"BTP_MIN_RECONNECT_DELAY"},{"p":"org.interledger.link.btp","c":"BtpLinkSettings","l":"BTP_REQUEST_TIMEOUT"},{"p":"org.interledger.link.btp","c":"BtpLinkSettings","l":"BTP_URL"},{"p":"org.interledger.link.btp","c":"BtpLink","l":"BtpLink(Supplier<InterledgerAddress>, BtpLinkSettings, OkHttpClient, CodecContext, CodecContext, ScheduledExecutorService, Executor, LinkConnectionEventEmitter)","u":"%3Cinit%3E(java.util.function.Supplier,org.interledger.link.btp.BtpLinkSettings,okhttp3.OkHttpClient,org.interledger.encoding.asn.framework.CodecContext,org.interledger.encoding.asn.framework.CodecContext,java.util.concurrent.ScheduledExecutorService,java.util.concurrent.Executor,org.interledger.link.events.LinkConnectionEventEmitter)"},{"p":"org.interledger.link.btp","c":"BtpLinkFactory","l":"BtpLinkFactory(OkHttpClient, CodecContext, CodecContext, ScheduledExecutorService, Executor, LinkConnectionEventEmitter)","u":"%3Cinit%3E(okhttp3.OkHttpClient,org.interledger.encoding.asn.framework.CodecContext,org.interledger.encoding.asn.framework.CodecContext,java.util.concurrent.ScheduledExecutorService,java.util.concurrent.Executor,org.interledger.link.events.LinkConnectionEventEmitter)"},{"p":"org.interledger.link.btp","c":"ImmutableBtpLinkSettings.Builder","l":"build()"},{"p":"org.interledger.link.btp","c":"BtpLinkSettings","l":"builder()"},{"p":"org.interledger.link.btp","c":"ImmutableBtpLinkSettings","l":"builder()"},{"p":"org.interledger.link.btp","c":"BtpLinkSettings","l":"check()"},{"p":"org.interledger.link.btp","c":"BtpLinkFactory","l":"constructLink(Supplier<InterledgerAddress>, LinkSettings)","u":"constructLink(java.util.function.Supplier,org.interledger.link.LinkSettings)"},{"p":"org.interledger.link.btp","c":"ImmutableBtpLinkSettings","l":"copyOf(BtpLinkSettings)","u":"copyOf(org.interledger.link.btp.BtpLinkSettings)"},{"p":"org.interledger.link.btp","c":"ImmutableBtpLinkSettings.Builder","l":"customSettings(Map<String, ? extends Object>)","u":"customSettings(java.util.Map)"},{"p":"org.interledger.link.btp","c":"BtpLink","l":"doConnect()"},{"p":"org.interledger.link.btp","c":"BtpLink","l":"doDisconnect()"},{"p":"org.interledger.link.btp","c":"BtpLinkSettings","l":"DOT"},{"p":"org.interledger.link.btp","c":"ImmutableBtpLinkSettings","l":"equals(Object)","u":"equals(java.lang.Object)"},{"p":"org.interledger.link.btp","c":"ImmutableBtpLinkSettings.Builder","l":"from(BtpLinkSettings)","u":"from(org.interledger.link.btp.BtpLinkSettings)"},{"p":"org.interledger.link.btp","c":"ImmutableBtpLinkSettings.Builder","l":"from(LinkSettings)","u":"from(org.interledger.link.LinkSettings)"},{"p":"org.interledger.link.btp","c":"BtpLinkSettings","l":"fromCustomSettings(Map<String, Object>)","u":"fromCustomSettings(java.util.Map)"},{"p":"org.interledger.link.btp","c":"BtpLinkSettings","l":"getCustomSettings()"},{"p":"org.interledger.link.btp","c":"ImmutableBtpLinkSettings","l":"getCustomSettings()"},{"p":"org.interledger.link.btp","c":"BtpLinkSettings","l":"getLinkType()"},{"p":"org.interledger.link.btp","c":"ImmutableBtpLinkSettings","l":"getLinkType()"},{"p":"org.interledger.link.btp","c":"ImmutableBtpLinkSettings","l":"hashCode()"},{"p":"org.interledger.link.btp","c":"BtpLink","l":"LINK_TYPE"},{"p":"org.interledger.link.btp","c":"BtpLink","l":"LINK_TYPE_STRING"},{"p":"org.interledger.link.btp","c":"BtpLinkSettings","l":"maxReconnectDelay()"},{"p":"org.interledger.link.btp","c":"ImmutableBtpLinkSettings","l":"maxReconnectDelay()"},{"p":"org.interledger.link.btp","c":"ImmutableBtpLinkSettings.Builder","l":"maxReconnectDelay(Duration)","u":"maxReconnectDelay(java.time.Duration)"},{"p":"org.interledger.link.btp","c":"BtpLinkSettings","l":"minReconnectDelay()"},{"p":"org.interledger.link.btp","c":"ImmutableBtpLinkSettings","l":"minReconnectDelay()"},{"p":"org.interledger.link.btp","c":"ImmutableBtpLinkSettings.Builder","l":"minReconnectDelay(Duration)","u":"minReconnectDelay(java.time.Duration)"},{"p":"org.interledger.link.btp","c":"ImmutableBtpLinkSettings.Builder","l":"putAllCustomSettings(Map<String, ? extends Object>)","u":"putAllCustomSettings(java.util.Map)"},{"p":"org.interledger.link.btp","c":"ImmutableBtpLinkSettings.Builder","l":"putCustomSettings(Map.Entry<String, ? extends Object>)","u":"putCustomSettings(java.util.Map.Entry)"},{"p":"org.interledger.link.btp","c":"ImmutableBtpLinkSettings.Builder","l":"putCustomSettings(String, Object)","u":"putCustomSettings(java.lang.String,java.lang.Object)"},{"p":"org.interledger.link.btp","c":"BtpLinkSettings","l":"requestTimeout()"},{"p":"org.interledger.link.btp","c":"ImmutableBtpLinkSettings","l":"requestTimeout()"},{"p":"org.interledger.link.btp","c":"ImmutableBtpLinkSettings.Builder","l":"requestTimeout(Duration)","u":"requestTimeout(java.time.Duration)"},{"p":"org.interledger.link.btp","c":"BtpLink","l":"sendPacket(InterledgerPreparePacket)","u":"sendPacket(org.interledger.core.InterledgerPreparePacket)"},{"p":"org.interledger.link.btp","c":"BtpLink","l":"sendPacketAsync(InterledgerPreparePacket)","u":"sendPacketAsync(org.interledger.core.InterledgerPreparePacket)"},{"p":"org.interledger.link.btp","c":"BtpLinkFactory","l":"supports(LinkType)","u":"supports(org.interledger.link.LinkType)"},{"p":"org.interledger.link.btp","c":"BtpLink","l":"toString()"},{"p":"org.interledger.link.btp","c":"ImmutableBtpLinkSettings","l":"toString()"},{"p":"org.interledger.link.btp","c":"BtpLinkSettings","l":"url()"},{"p":"org.interledger.link.btp","c":"ImmutableBtpLinkSettings","l":"url()"},{"p":"org.interledger.link.btp","c":"ImmutableBtpLinkSettings.Builder","l":"url(String)","u":"url(java.lang.String)"},{"p":"org.interledger.link.btp","c":"ImmutableBtpLinkSettings","l":"withAuthToken(String)","u":"withAuthToken(java.lang.String)"},{"p":"org.interledger.link.btp","c":"ImmutableBtpLinkSettings","l":"withAuthUsername(Optional<String>)","u":"withAuthUsername(java.util.Optional)"},{"p":"org.interledger.link.btp","c":"ImmutableBtpLinkSettings","l":"withAuthUsername(String)","u":"withAuthUsername(java.lang.String)"},{"p":"org.interledger.link.btp","c":"ImmutableBtpLinkSettings","l":"withCustomSettings(Map<String, ? extends Object>)","u":"withCustomSettings(java.util.Map)"},{"p":"org.interledger.link.btp","c":"ImmutableBtpLinkSettings","l":"withMaxReconnectDelay(Duration)","u":"withMaxReconnectDelay(java.time.Duration)"},{"p":"org.interledger.link.btp","c":"ImmutableBtpLinkSettings","l":"withMinReconnectDelay(Duration)","u":"withMinReconnectDelay(java.time.Duration)"},{"p":"org.interledger.link.btp","c":"ImmutableBtpLinkSettings","l":"withRequestTimeout(Duration)","u":"withRequestTimeout(java.time.Duration)"},{"p":"org.interledger.link.btp","c":"ImmutableBtpLinkSettings","l":"withUrl(String)","u":"withUrl(java.lang.String)"}];updateSearchResults();
\ No newline at end of file
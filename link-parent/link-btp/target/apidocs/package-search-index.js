@@ -0,0 +1 @@
+packageSearchIndex = [{"l":"All Packages","u":"allpackages-index.html"},{"l":"org.interledger.link.btp"}];updateSearchResults();
\ No newline at end of file
@@ -0,0 +1 @@
+typeSearchIndex = [{"l":"All Classes and Interfaces","u":"allclasses-index.html"},{"p":"org.interledger.link.btp","l":"BtpLink"},{"p":"org.interledger.link.btp","l":"BtpLinkFactory"},{"p":"org.interledger.link.btp","l":"BtpLinkSettings"},{"p":"org.interledger.link.btp","l":"ImmutableBtpLinkSettings.Builder"},{"p":"org.interledger.link.btp","l":"ImmutableBtpLinkSettings"}];updateSearchResults();
\ No newline at end of file
@@ -0,0 +1,745 @@
+package org.interledger.link.btp;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableMap;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import com.google.errorprone.annotations.Var;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.NotThreadSafe;
+import org.immutables.value.Generated;
+import org.interledger.link.LinkSettings;
+import org.interledger.link.LinkType;
+
+/**
+ * Immutable implementation of {@link BtpLinkSettings}.
+ * <p>
+ * Use the builder to create immutable instances:
+ * {@code ImmutableBtpLinkSettings.builder()}.
+ */
+@Generated(from = "BtpLinkSettings", generator = "Immutables")
+@SuppressWarnings({"all"})
+@ParametersAreNonnullByDefault
+@javax.annotation.processing.Generated("org.immutables.processor.ProxyProcessor")
+@Immutable
+@CheckReturnValue
+public final class ImmutableBtpLinkSettings implements BtpLinkSettings {
+  private transient final LinkType linkType;
+  private final ImmutableMap<String, Object> customSettings;
+  private final String url;
+  private final @Nullable String authUsername;
+  private final String authToken;
+  private final Duration requestTimeout;
+  private final Duration minReconnectDelay;
+  private final Duration maxReconnectDelay;
+
+  private ImmutableBtpLinkSettings(ImmutableBtpLinkSettings.Builder builder) {
+    this.customSettings = builder.customSettings.build();
+    this.url = builder.url;
+    this.authUsername = builder.authUsername;
+    this.authToken = builder.authToken;
+    if (builder.requestTimeout != null) {
+      initShim.requestTimeout(builder.requestTimeout);
+    }
+    if (builder.minReconnectDelay != null) {
+      initShim.minReconnectDelay(builder.minReconnectDelay);
+    }
+    if (builder.maxReconnectDelay != null) {
+      initShim.maxReconnectDelay(builder.maxReconnectDelay);
+    }
+    this.linkType = initShim.getLinkType();
+    this.requestTimeout = initShim.requestTimeout();
+    this.minReconnectDelay = initShim.minReconnectDelay();
+    this.maxReconnectDelay = initShim.maxReconnectDelay();
+    this.initShim = null;
+  }
+
+  private ImmutableBtpLinkSettings(
+      ImmutableMap<String, Object> customSettings,
+      String url,
+      @Nullable String authUsername,
+      String authToken,
+      Duration requestTimeout,
+      Duration minReconnectDelay,
+      Duration maxReconnectDelay) {
+    this.customSettings = customSettings;
+    this.url = url;
+    this.authUsername = authUsername;
+    this.authToken = authToken;
+    initShim.requestTimeout(requestTimeout);
+    initShim.minReconnectDelay(minReconnectDelay);
+    initShim.maxReconnectDelay(maxReconnectDelay);
+    this.linkType = initShim.getLinkType();
+    this.requestTimeout = initShim.requestTimeout();
+    this.minReconnectDelay = initShim.minReconnectDelay();
+    this.maxReconnectDelay = initShim.maxReconnectDelay();
+    this.initShim = null;
+  }
+
+  private static final byte STAGE_INITIALIZING = -1;
+  private static final byte STAGE_UNINITIALIZED = 0;
+  private static final byte STAGE_INITIALIZED = 1;
+  @SuppressWarnings("Immutable")
+  private transient volatile InitShim initShim = new InitShim();
+
+  @Generated(from = "BtpLinkSettings", generator = "Immutables")
+  private final class InitShim {
+    private byte linkTypeBuildStage = STAGE_UNINITIALIZED;
+    private LinkType linkType;
+
+    LinkType getLinkType() {
+      if (linkTypeBuildStage == STAGE_INITIALIZING) throw new IllegalStateException(formatInitCycleMessage());
+      if (linkTypeBuildStage == STAGE_UNINITIALIZED) {
+        linkTypeBuildStage = STAGE_INITIALIZING;
+        this.linkType = Objects.requireNonNull(getLinkTypeInitialize(), "linkType");
+        linkTypeBuildStage = STAGE_INITIALIZED;
+      }
+      return this.linkType;
+    }
+
+    private byte requestTimeoutBuildStage = STAGE_UNINITIALIZED;
+    private Duration requestTimeout;
+
+    Duration requestTimeout() {
+      if (requestTimeoutBuildStage == STAGE_INITIALIZING) throw new IllegalStateException(formatInitCycleMessage());
+      if (requestTimeoutBuildStage == STAGE_UNINITIALIZED) {
+        requestTimeoutBuildStage = STAGE_INITIALIZING;
+        this.requestTimeout = Objects.requireNonNull(requestTimeoutInitialize(), "requestTimeout");
+        requestTimeoutBuildStage = STAGE_INITIALIZED;
+      }
+      return this.requestTimeout;
+    }
+
+    void requestTimeout(Duration requestTimeout) {
+      this.requestTimeout = requestTimeout;
+      requestTimeoutBuildStage = STAGE_INITIALIZED;
+    }
+
+    private byte minReconnectDelayBuildStage = STAGE_UNINITIALIZED;
+    private Duration minReconnectDelay;
+
+    Duration minReconnectDelay() {
+      if (minReconnectDelayBuildStage == STAGE_INITIALIZING) throw new IllegalStateException(formatInitCycleMessage());
+      if (minReconnectDelayBuildStage == STAGE_UNINITIALIZED) {
+        minReconnectDelayBuildStage = STAGE_INITIALIZING;
+        this.minReconnectDelay = Objects.requireNonNull(minReconnectDelayInitialize(), "minReconnectDelay");
+        minReconnectDelayBuildStage = STAGE_INITIALIZED;
+      }
+      return this.minReconnectDelay;
+    }
+
+    void minReconnectDelay(Duration minReconnectDelay) {
+      this.minReconnectDelay = minReconnectDelay;
+      minReconnectDelayBuildStage = STAGE_INITIALIZED;
+    }
+
+    private byte maxReconnectDelayBuildStage = STAGE_UNINITIALIZED;
+    private Duration maxReconnectDelay;
+
+    Duration maxReconnectDelay() {
+      if (maxReconnectDelayBuildStage == STAGE_INITIALIZING) throw new IllegalStateException(formatInitCycleMessage());
+      if (maxReconnectDelayBuildStage == STAGE_UNINITIALIZED) {
+        maxReconnectDelayBuildStage = STAGE_INITIALIZING;
+        this.maxReconnectDelay = Objects.requireNonNull(maxReconnectDelayInitialize(), "maxReconnectDelay");
+        maxReconnectDelayBuildStage = STAGE_INITIALIZED;
+      }
+      return this.maxReconnectDelay;
+    }
+
+    void maxReconnectDelay(Duration maxReconnectDelay) {
+      this.maxReconnectDelay = maxReconnectDelay;
+      maxReconnectDelayBuildStage = STAGE_INITIALIZED;
+    }
+
+    private String formatInitCycleMessage() {
+      List<String> attributes = new ArrayList<>();
+      if (linkTypeBuildStage == STAGE_INITIALIZING) attributes.add("linkType");
+      if (requestTimeoutBuildStage == STAGE_INITIALIZING) attributes.add("requestTimeout");
+      if (minReconnectDelayBuildStage == STAGE_INITIALIZING) attributes.add("minReconnectDelay");
+      if (maxReconnectDelayBuildStage == STAGE_INITIALIZING) attributes.add("maxReconnectDelay");
+      return "Cannot build BtpLinkSettings, attribute initializers form cycle " + attributes;
+    }
+  }
+
+  private LinkType getLinkTypeInitialize() {
+    return BtpLinkSettings.super.getLinkType();
+  }
+
+  private Duration requestTimeoutInitialize() {
+    return BtpLinkSettings.super.requestTimeout();
+  }
+
+  private Duration minReconnectDelayInitialize() {
+    return BtpLinkSettings.super.minReconnectDelay();
+  }
+
+  private Duration maxReconnectDelayInitialize() {
+    return BtpLinkSettings.super.maxReconnectDelay();
+  }
+
+  /**
+   * @return The computed-at-construction value of the {@code linkType} attribute
+   */
+  @Override
+  public LinkType getLinkType() {
+    InitShim shim = this.initShim;
+    return shim != null
+        ? shim.getLinkType()
+        : this.linkType;
+  }
+
+  /**
+   * Additional, custom settings that any link can define. Redacted because they contain {@link #BTP_AUTH_TOKEN}.
+   * @return A {@link Map} with {@link String} keys.
+   */
+  @Override
+  public ImmutableMap<String, Object> getCustomSettings() {
+    return customSettings;
+  }
+
+  /**
+   * The {@code ws://} or {@code wss://} URL of the remote BTP server.
+   * @return A {@link String}.
+   */
+  @Override
+  public String url() {
+    return url;
+  }
+
+  /**
+   * The optional {@code auth_username} sent to the remote BTP server, which allows several accounts to share a single
+   * server endpoint.
+   * @return An optionally-present {@link String}.
+   */
+  @Override
+  public Optional<String> authUsername() {
+    return Optional.ofNullable(authUsername);
+  }
+
+  /**
+   * The {@code auth_token} sent to the remote BTP server to authenticate the session.
+   * @return A {@link String}.
+   */
+  @Override
+  public String authToken() {
+    return authToken;
+  }
+
+  /**
+   * How long to wait for the response to a BTP request that does not carry an ILP packet, such as the auth request.
+   * Requests that carry an ILP Prepare packet instead time out when that packet expires.
+   * @return A {@link Duration}.
+   */
+  @Override
+  public Duration requestTimeout() {
+    InitShim shim = this.initShim;
+    return shim != null
+        ? shim.requestTimeout()
+        : this.requestTimeout;
+  }
+
+  /**
+   * How long to wait before the first attempt to re-establish a WebSocket that closed unexpectedly. The delay doubles
+   * after each failed attempt, up to {@link #maxReconnectDelay()}.
+   * @return A {@link Duration}.
+   */
+  @Override
+  public Duration minReconnectDelay() {
+    InitShim shim = this.initShim;
+    return shim != null
+        ? shim.minReconnectDelay()
+        : this.minReconnectDelay;
+  }
+
+  /**
+   * The longest delay between attempts to re-establish a WebSocket that closed unexpectedly.
+   * @return A {@link Duration}.
+   */
+  @Override
+  public Duration maxReconnectDelay() {
+    InitShim shim = this.initShim;
+    return shim != null
+        ? shim.maxReconnectDelay()
+        : this.maxReconnectDelay;
+  }
+
+  /**
+   * Copy the current immutable object by replacing the {@link BtpLinkSettings#getCustomSettings() customSettings} map with the specified map.
+   * Nulls are not permitted as keys or values.
+   * A shallow reference equality check is used to prevent copying of the same value by returning {@code this}.
+   * @param entries The entries to be added to the customSettings map
+   * @return A modified copy of {@code this} object
+   */
+  public final ImmutableBtpLinkSettings withCustomSettings(Map<String, ? extends Object> entries) {
+    if (this.customSettings == entries) return this;
+    ImmutableMap<String, Object> newValue = ImmutableMap.copyOf(entries);
+    return validate(new ImmutableBtpLinkSettings(
+        newValue,
+        this.url,
+        this.authUsername,
+        this.authToken,
+        this.requestTimeout,
+        this.minReconnectDelay,
+        this.maxReconnectDelay));
+  }
+
+  /**
+   * Copy the current immutable object by setting a value for the {@link BtpLinkSettings#url() url} attribute.
+   * An equals check used to prevent copying of the same value by returning {@code this}.
+   * @param value A new value for url
+   * @return A modified copy of the {@code this} object
+   */
+  public final ImmutableBtpLinkSettings withUrl(String value) {
+    String newValue = Objects.requireNonNull(value, "url");
+    if (this.url.equals(newValue)) return this;
+    return validate(new ImmutableBtpLinkSettings(
+        this.customSettings,
+        newValue,
+        this.authUsername,
+        this.authToken,
+        this.requestTimeout,
+        this.minReconnectDelay,
+        this.maxReconnectDelay));
+  }
+
+  /**
+   * Copy the current immutable object by setting a <i>present</i> value for the optional {@link BtpLinkSettings#authUsername() authUsername} attribute.
+   * @param value The value for authUsername
+   * @return A modified copy of {@code this} object
+   */
+  public final ImmutableBtpLinkSettings withAuthUsername(String value) {
+    @Nullable String newValue = Objects.requireNonNull(value, "authUsername");
+    if (Objects.equals(this.authUsername, newValue)) return this;
+    return validate(new ImmutableBtpLinkSettings(
+        this.customSettings,
+        this.url,
+        newValue,
+        this.authToken,
+        this.requestTimeout,
+        this.minReconnectDelay,
+        this.maxReconnectDelay));
+  }
+
+  /**
+   * Copy the current immutable object by setting an optional value for the {@link BtpLinkSettings#authUsername() authUsername} attribute.
+   * An equality check is used on inner nullable value to prevent copying of the same value by returning {@code this}.
+   * @param optional A value for authUsername
+   * @return A modified copy of {@code this} object
+   */
+  public final ImmutableBtpLinkSettings withAuthUsername(Optional<String> optional) {
+    @Nullable String value = optional.orElse(null);
+    if (Objects.equals(this.authUsername, value)) return this;
+    return validate(new ImmutableBtpLinkSettings(
+        this.customSettings,
+        this.url,
+        value,
+        this.authToken,
+        this.requestTimeout,
+        this.minReconnectDelay,
+        this.maxReconnectDelay));
+  }
+
+  /**
+   * Copy the current immutable object by setting a value for the {@link BtpLinkSettings#authToken() authToken} attribute.
+   * An equals check used to prevent copying of the same value by returning {@code this}.
+   * @param value A new value for authToken
+   * @return A modified copy of the {@code this} object
+   */
+  public final ImmutableBtpLinkSettings withAuthToken(String value) {
+    String newValue = Objects.requireNonNull(value, "authToken");
+    if (this.authToken.equals(newValue)) return this;
+    return validate(new ImmutableBtpLinkSettings(
+        this.customSettings,
+        this.url,
+        this.authUsername,
+        newValue,
+        this.requestTimeout,
+        this.minReconnectDelay,
+        this.maxReconnectDelay));
+  }
+
+  /**
+   * Copy the current immutable object by setting a value for the {@link BtpLinkSettings#requestTimeout() requestTimeout} attribute.
+   * A shallow reference equality check is used to prevent copying of the same value by returning {@code this}.
+   * @param value A new value for requestTimeout
+   * @return A modified copy of the {@code this} object
+   */
+  public final ImmutableBtpLinkSettings withRequestTimeout(Duration value) {
+    if (this.requestTimeout == value) return this;
+    Duration newValue = Objects.requireNonNull(value, "requestTimeout");
+    return validate(new ImmutableBtpLinkSettings(
+        this.customSettings,
+        this.url,
+        this.authUsername,
+        this.authToken,
+        newValue,
+        this.minReconnectDelay,
+        this.maxReconnectDelay));
+  }
+
+  /**
+   * Copy the current immutable object by setting a value for the {@link BtpLinkSettings#minReconnectDelay() minReconnectDelay} attribute.
+   * A shallow reference equality check is used to prevent copying of the same value by returning {@code this}.
+   * @param value A new value for minReconnectDelay
+   * @return A modified copy of the {@code this} object
+   */
+  public final ImmutableBtpLinkSettings withMinReconnectDelay(Duration value) {
+    if (this.minReconnectDelay == value) return this;
+    Duration newValue = Objects.requireNonNull(value, "minReconnectDelay");
+    return validate(new ImmutableBtpLinkSettings(
+        this.customSettings,
+        this.url,
+        this.authUsername,
+        this.authToken,
+        this.requestTimeout,
+        newValue,
+        this.maxReconnectDelay));
+  }
+
+  /**
+   * Copy the current immutable object by setting a value for the {@link BtpLinkSettings#maxReconnectDelay() maxReconnectDelay} attribute.
+   * A shallow reference equality check is used to prevent copying of the same value by returning {@code this}.
+   * @param value A new value for maxReconnectDelay
+   * @return A modified copy of the {@code this} object
+   */
+  public final ImmutableBtpLinkSettings withMaxReconnectDelay(Duration value) {
+    if (this.maxReconnectDelay == value) return this;
+    Duration newValue = Objects.requireNonNull(value, "maxReconnectDelay");
+    return validate(new ImmutableBtpLinkSettings(
+        this.customSettings,
+        this.url,
+        this.authUsername,
+        this.authToken,
+        this.requestTimeout,
+        this.minReconnectDelay,
+        newValue));
+  }
+
+  /**
+   * This instance is equal to all instances of {@code ImmutableBtpLinkSettings} that have equal attribute values.
+   * @return {@code true} if {@code this} is equal to {@code another} instance
+   */
+  @Override
+  public boolean equals(@Nullable Object another) {
+    if (this == another) return true;
+    return another instanceof ImmutableBtpLinkSettings
+        && equalTo((ImmutableBtpLinkSettings) another);
+  }
+
+  private boolean equalTo(ImmutableBtpLinkSettings another) {
+    return linkType.equals(another.linkType)
+        && customSettings.equals(another.customSettings)
+        && url.equals(another.url)
+        && Objects.equals(authUsername, another.authUsername)
+        && authToken.equals(another.authToken)
+        && requestTimeout.equals(another.requestTimeout)
+        && minReconnectDelay.equals(another.minReconnectDelay)
+        && maxReconnectDelay.equals(another.maxReconnectDelay);
+  }
+
+  /**
+   * Computes a hash code from attributes: {@code linkType}, {@code customSettings}, {@code url}, {@code authUsername}, {@code authToken}, {@code requestTimeout}, {@code minReconnectDelay}, {@code maxReconnectDelay}.
+   * @return hashCode value
+   */
+  @Override
+  public int hashCode() {
+    @Var int h = 5381;
+    h += (h << 5) + linkType.hashCode();
+    h += (h << 5) + customSettings.hashCode();
+    h += (h << 5) + url.hashCode();
+    h += (h << 5) + Objects.hashCode(authUsername);
+    h += (h << 5) + authToken.hashCode();
+    h += (h << 5) + requestTimeout.hashCode();
+    h += (h << 5) + minReconnectDelay.hashCode();
+    h += (h << 5) + maxReconnectDelay.hashCode();
+    return h;
+  }
+
+  /**
+   * Prints the immutable value {@code BtpLinkSettings} with attribute values.
+   * @return A string representation of the value
+   */
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper("BtpLinkSettings")
+        .omitNullValues()
+        .add("linkType", linkType)
+        .add("url", url)
+        .add("authUsername", authUsername)
+        .add("requestTimeout", requestTimeout)
+        .add("minReconnectDelay", minReconnectDelay)
+        .add("maxReconnectDelay", maxReconnectDelay)
+        .toString();
+  }
+
+  private static ImmutableBtpLinkSettings validate(ImmutableBtpLinkSettings instance) {
+    instance.check();
+    return instance;
+  }
+
+  /**
+   * Creates an immutable copy of a {@link BtpLinkSettings} value.
+   * Uses accessors to get values to initialize the new immutable instance.
+   * If an instance is already immutable, it is returned as is.
+   * @param instance The instance to copy
+   * @return A copied immutable BtpLinkSettings instance
+   */
+  public static ImmutableBtpLinkSettings copyOf(BtpLinkSettings instance) {
+    if (instance instanceof ImmutableBtpLinkSettings) {
+      return (ImmutableBtpLinkSettings) instance;
+    }
+    return ImmutableBtpLinkSettings.builder()
+        .from(instance)
+        .build();
+  }
+
+  /**
+   * Creates a builder for {@link ImmutableBtpLinkSettings ImmutableBtpLinkSettings}.
+   * <pre>
+   * ImmutableBtpLinkSettings.builder()
+   *    .putCustomSettings|putAllCustomSettings(String =&gt; Object) // {@link BtpLinkSettings#getCustomSettings() customSettings} mappings
+   *    .url(String) // required {@link BtpLinkSettings#url() url}
+   *    .authUsername(String) // optional {@link BtpLinkSettings#authUsername() authUsername}
+   *    .authToken(String) // required {@link BtpLinkSettings#authToken() authToken}
+   *    .requestTimeout(java.time.Duration) // optional {@link BtpLinkSettings#requestTimeout() requestTimeout}
+   *    .minReconnectDelay(java.time.Duration) // optional {@link BtpLinkSettings#minReconnectDelay() minReconnectDelay}
+   *    .maxReconnectDelay(java.time.Duration) // optional {@link BtpLinkSettings#maxReconnectDelay() maxReconnectDelay}
+   *    .build();
+   * </pre>
+   * @return A new ImmutableBtpLinkSettings builder
+   */
+  public static ImmutableBtpLinkSettings.Builder builder() {
+    return new ImmutableBtpLinkSettings.Builder();
+  }
+
+  /**
+   * Builds instances of type {@link ImmutableBtpLinkSettings ImmutableBtpLinkSettings}.
+   * Initialize attributes and then invoke the {@link #build()} method to create an
+   * immutable instance.
+   * <p><em>{@code Builder} is not thread-safe and generally should not be stored in a field or collection,
+   * but instead used immediately to create instances.</em>
+   */
+  @Generated(from = "BtpLinkSettings", generator = "Immutables")
+  @NotThreadSafe
+  public static final class Builder {
+    private static final long INIT_BIT_URL = 0x1L;
+    private static final long INIT_BIT_AUTH_TOKEN = 0x2L;
+    private long initBits = 0x3L;
+
+    private ImmutableMap.Builder<String, Object> customSettings = ImmutableMap.builder();
+    private @Nullable String url;
+    private @Nullable String authUsername;
+    private @Nullable String authToken;
+    private @Nullable Duration requestTimeout;
+    private @Nullable Duration minReconnectDelay;
+    private @Nullable Duration maxReconnectDelay;
+
+    private Builder() {
+    }
+
+    /**
+     * Fill a builder with attribute values from the provided {@code org.interledger.link.btp.BtpLinkSettings} instance.
+     * @param instance The instance from which to copy values
+     * @return {@code this} builder for use in a chained invocation
+     */
+    @CanIgnoreReturnValue 
+    public final Builder from(BtpLinkSettings instance) {
+      Objects.requireNonNull(instance, "instance");
+      from((Object) instance);
+      return this;
+    }
+
+    /**
+     * Fill a builder with attribute values from the provided {@code org.interledger.link.LinkSettings} instance.
+     * @param instance The instance from which to copy values
+     * @return {@code this} builder for use in a chained invocation
+     */
+    @CanIgnoreReturnValue 
+    public final Builder from(LinkSettings instance) {
+      Objects.requireNonNull(instance, "instance");
+      from((Object) instance);
+      return this;
+    }
+
+    private void from(Object object) {
+      @Var long bits = 0;
+      if (object instanceof BtpLinkSettings) {
+        BtpLinkSettings instance = (BtpLinkSettings) object;
+        maxReconnectDelay(instance.maxReconnectDelay());
+        Optional<String> authUsernameOptional = instance.authUsername();
+        if (authUsernameOptional.isPresent()) {
+          authUsername(authUsernameOptional);
+        }
+        minReconnectDelay(instance.minReconnectDelay());
+        authToken(instance.authToken());
+        if ((bits & 0x1L) == 0) {
+          putAllCustomSettings(instance.getCustomSettings());
+          bits |= 0x1L;
+        }
+        url(instance.url());
+        requestTimeout(instance.requestTimeout());
+      }
+      if (object instanceof LinkSettings) {
+        LinkSettings instance = (LinkSettings) object;
+        if ((bits & 0x1L) == 0) {
+          putAllCustomSettings(instance.getCustomSettings());
+          bits |= 0x1L;
+        }
+      }
+    }
+
+    /**
+     * Put one entry to the {@link BtpLinkSettings#getCustomSettings() customSettings} map.
+     * @param key The key in the customSettings map
+     * @param value The associated value in the customSettings map
+     * @return {@code this} builder for use in a chained invocation
+     */
+    @CanIgnoreReturnValue 
+    public final Builder putCustomSettings(String key, Object value) {
+      this.customSettings.put(key, value);
+      return this;
+    }
+
+    /**
+     * Put one entry to the {@link BtpLinkSettings#getCustomSettings() customSettings} map. Nulls are not permitted
+     * @param entry The key and value entry
+     * @return {@code this} builder for use in a chained invocation
+     */
+    @CanIgnoreReturnValue 
+    public final Builder putCustomSettings(Map.Entry<String, ? extends Object> entry) {
+      this.customSettings.put(entry);
+      return this;
+    }
+
+    /**
+     * Sets or replaces all mappings from the specified map as entries for the {@link BtpLinkSettings#getCustomSettings() customSettings} map. Nulls are not permitted
+     * @param entries The entries that will be added to the customSettings map
+     * @return {@code this} builder for use in a chained invocation
+     */
+    @CanIgnoreReturnValue 
+    public final Builder customSettings(Map<String, ? extends Object> entries) {
+      this.customSettings = ImmutableMap.builder();
+      return putAllCustomSettings(entries);
+    }
+
+    /**
+     * Put all mappings from the specified map as entries to {@link BtpLinkSettings#getCustomSettings() customSettings} map. Nulls are not permitted
+     * @param entries The entries that will be added to the customSettings map
+     * @return {@code this} builder for use in a chained invocation
+     */
+    @CanIgnoreReturnValue 
+    public final Builder putAllCustomSettings(Map<String, ? extends Object> entries) {
+      this.customSettings.putAll(entries);
+      return this;
+    }
+
+    /**
+     * Initializes the value for the {@link BtpLinkSettings#url() url} attribute.
+     * @param url The value for url 
+     * @return {@code this} builder for use in a chained invocation
+     */
+    @CanIgnoreReturnValue 
+    public final Builder url(String url) {
+      this.url = Objects.requireNonNull(url, "url");
+      initBits &= ~INIT_BIT_URL;
+      return this;
+    }
+
+    /**
+     * Initializes the optional value {@link BtpLinkSettings#authUsername() authUsername} to authUsername.
+     * @param authUsername The value for authUsername
+     * @return {@code this} builder for chained invocation
+     */
+    @CanIgnoreReturnValue 
+    public final Builder authUsername(String authUsername) {
+      this.authUsername = Objects.requireNonNull(authUsername, "authUsername");
+      return this;
+    }
+
+    /**
+     * Initializes the optional value {@link BtpLinkSettings#authUsername() authUsername} to authUsername.
+     * @param authUsername The value for authUsername
+     * @return {@code this} builder for use in a chained invocation
+     */
+    @CanIgnoreReturnValue 
+    public final Builder authUsername(Optional<String> authUsername) {
+      this.authUsername = authUsername.orElse(null);
+      return this;
+    }
+
+    /**
+     * Initializes the value for the {@link BtpLinkSettings#authToken() authToken} attribute.
+     * @param authToken The value for authToken 
+     * @return {@code this} builder for use in a chained invocation
+     */
+    @CanIgnoreReturnValue 
+    public final Builder authToken(String authToken) {
+      this.authToken = Objects.requireNonNull(authToken, "authToken");
+      initBits &= ~INIT_BIT_AUTH_TOKEN;
+      return this;
+    }
+
+    /**
+     * Initializes the value for the {@link BtpLinkSettings#requestTimeout() requestTimeout} attribute.
+     * <p><em>If not set, this attribute will have a default value as returned by the initializer of {@link BtpLinkSettings#requestTimeout() requestTimeout}.</em>
+     * @param requestTimeout The value for requestTimeout 
+     * @return {@code this} builder for use in a chained invocation
+     */
+    @CanIgnoreReturnValue 
+    public final Builder requestTimeout(Duration requestTimeout) {
+      this.requestTimeout = Objects.requireNonNull(requestTimeout, "requestTimeout");
+      return this;
+    }
+
+    /**
+     * Initializes the value for the {@link BtpLinkSettings#minReconnectDelay() minReconnectDelay} attribute.
+     * <p><em>If not set, this attribute will have a default value as returned by the initializer of {@link BtpLinkSettings#minReconnectDelay() minReconnectDelay}.</em>
+     * @param minReconnectDelay The value for minReconnectDelay 
+     * @return {@code this} builder for use in a chained invocation
+     */
+    @CanIgnoreReturnValue 
+    public final Builder minReconnectDelay(Duration minReconnectDelay) {
+      this.minReconnectDelay = Objects.requireNonNull(minReconnectDelay, "minReconnectDelay");
+      return this;
+    }
+
+    /**
+     * Initializes the value for the {@link BtpLinkSettings#maxReconnectDelay() maxReconnectDelay} attribute.
+     * <p><em>If not set, this attribute will have a default value as returned by the initializer of {@link BtpLinkSettings#maxReconnectDelay() maxReconnectDelay}.</em>
+     * @param maxReconnectDelay The value for maxReconnectDelay 
+     * @return {@code this} builder for use in a chained invocation
+     */
+    @CanIgnoreReturnValue 
+    public final Builder maxReconnectDelay(Duration maxReconnectDelay) {
+      this.maxReconnectDelay = Objects.requireNonNull(maxReconnectDelay, "maxReconnectDelay");
+      return this;
+    }
+
+    /**
+     * Builds a new {@link ImmutableBtpLinkSettings ImmutableBtpLinkSettings}.
+     * @return An immutable instance of BtpLinkSettings
+     * @throws java.lang.IllegalStateException if any required attributes are missing
+     */
+    public ImmutableBtpLinkSettings build() {
+      if (initBits != 0) {
+        throw new IllegalStateException(formatRequiredAttributesMessage());
+      }
+      return ImmutableBtpLinkSettings.validate(new ImmutableBtpLinkSettings(this));
+    }
+
+    private String formatRequiredAttributesMessage() {
+      List<String> attributes = new ArrayList<>();
+      if ((initBits & INIT_BIT_URL) != 0) attributes.add("url");
+      if ((initBits & INIT_BIT_AUTH_TOKEN) != 0) attributes.add("authToken");
+      return "Cannot build BtpLinkSettings, some of required attributes are not set " + attributes;
+    }
+  }
+}
@@ -0,0 +1,144 @@
+package org.interledger.link;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>An adaptive bound on the number of packets in-flight to a single peer, using additive-increase /
+ * multiplicative-decrease (AIMD).</p>
+ *
+ * <p>Every response is a sample: if the peer rejected the packet with a temporary error, the send failed, or the round
+ * trip took more than {@link ConcurrencyLimitSettings#latencyTolerance()} times the fastest recently-observed round
+ * trip (i.e., requests are queueing somewhere), the limit is multiplied by {@link
+ * ConcurrencyLimitSettings#backoffRatio()}. Otherwise, if at least half of the limit was in use, the limit grows by
+ * one. The limit therefore settles just below the concurrency at which the peer starts queueing.</p>
+ *
+ * <p>The limit is decreased at most once per round trip: a packet that was sent before the last decrease reflects the
+ * congestion that already caused it, so a burst of in-flight packets failing together only decreases the limit
+ * once.</p>
+ *
+ * <p>All operations are lock-free.</p>
+ */
+public class AdaptiveConcurrencyLimit {
+
+  // The value of lastDecreaseNanos before the limit has ever been decreased.
+  private static final long NEVER_DECREASED = Long.MIN_VALUE;
+
+  private final ConcurrencyLimitSettings settings;
+  private final Ticker ticker;
+
+  private final AtomicInteger limit;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  // The fastest round trip in the current window, and in the last complete window.
+  private final AtomicLong windowMinRttNanos = new AtomicLong(Long.MAX_VALUE);
+  private final AtomicLong previousWindowMinRttNanos = new AtomicLong(Long.MAX_VALUE);
+  private final AtomicLong sampleCount = new AtomicLong();
+  private final AtomicLong lastDecreaseNanos = new AtomicLong(NEVER_DECREASED);
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param settings A {@link ConcurrencyLimitSettings}.
+   */
+  public AdaptiveConcurrencyLimit(final ConcurrencyLimitSettings settings) {
+    this(settings, Ticker.systemTicker());
+  }
+
+  @VisibleForTesting
+  AdaptiveConcurrencyLimit(final ConcurrencyLimitSettings settings, final Ticker ticker) {
+    this.settings = Objects.requireNonNull(settings, "settings must not be null");
+    this.ticker = Objects.requireNonNull(ticker, "ticker must not be null");
+    this.limit = new AtomicInteger(settings.initialLimit());
+  }
+
+  /**
+   * Reserve a slot for one packet, if the limit allows it. A successful call MUST be followed by exactly one call to
+   * either {@link #onSample(long, boolean)} or {@link #release()}.
+   *
+   * @return {@code true} if a slot was reserved; {@code false} if the limit is saturated.
+   */
+  public boolean tryAcquire() {
+    while (true) {
+      final int current = inFlight.get();
+      if (current >= limit.get()) {
+        return false;
+      }
+      if (inFlight.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Release a slot without adjusting the limit, e.g. because the packet was never sent.
+   */
+  public void release() {
+    inFlight.decrementAndGet();
+  }
+
+  /**
+   * Release a slot and adjust the limit using the outcome of the packet that held it.
+   *
+   * @param rttNanos The time, in nanoseconds, between sending the packet and receiving its response.
+   * @param dropped  {@code true} if the packet failed in a way that indicates overload (e.g., a temporary reject).
+   */
+  public void onSample(final long rttNanos, final boolean dropped) {
+    final int inFlightBeforeRelease = inFlight.getAndDecrement();
+
+    if (dropped || isQueueing(rttNanos)) {
+      decrease(rttNanos);
+    } else if (inFlightBeforeRelease * 2 >= limit.get()) {
+      // Only probe for more capacity while the current limit is actually being used.
+      limit.updateAndGet(current -> Math.min(settings.maxLimit(), current + 1));
+    }
+  }
+
+  /**
+   * Accessor for the current in-flight limit.
+   *
+   * @return An int.
+   */
+  public int getLimit() {
+    return limit.get();
+  }
+
+  /**
+   * Accessor for the number of packets currently in-flight.
+   *
+   * @return An int.
+   */
+  public int getInFlight() {
+    return inFlight.get();
+  }
+
+  private void decrease(final long rttNanos) {
+    final long nowNanos = ticker.read();
+    final long lastDecrease = lastDecreaseNanos.get();
+    if (lastDecrease != NEVER_DECREASED && (nowNanos - rttNanos) - lastDecrease < 0) {
+      // Sent before the last decrease.
+      return;
+    }
+    // Of several packets completing at once, only the one that records the decrease applies it.
+    if (lastDecreaseNanos.compareAndSet(lastDecrease, nowNanos)) {
+      limit.updateAndGet(current -> Math.max(settings.minLimit(), (int) (current * settings.backoffRatio())));
+    }
+  }
+
+  private boolean isQueueing(final long rttNanos) {
+    final long minRtt;
+    if (sampleCount.incrementAndGet() % settings.minRttWindowSize() == 0) {
+      // Forget minimums older than the window that just completed, so that a permanent change in the peer's latency is
+      // not mistaken for congestion. The baseline is never a single sample, which may itself have been queued.
+      final long completedWindowMinRtt = Math.min(windowMinRttNanos.getAndSet(Long.MAX_VALUE), rttNanos);
+      previousWindowMinRttNanos.set(completedWindowMinRtt);
+      minRtt = completedWindowMinRtt;
+    } else {
+      minRtt = Math.min(previousWindowMinRttNanos.get(), windowMinRttNanos.accumulateAndGet(rttNanos, Math::min));
+    }
+    return rttNanos > minRtt * settings.latencyTolerance();
+  }
+}
@@ -0,0 +1,182 @@
+package org.interledger.link;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Ticker;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * <p>A circuit breaker that stops traffic to a peer that keeps failing.</p>
+ *
+ * <p>The breaker starts {@link State#CLOSED}. After {@code failureThreshold} consecutive failures, or when {@link
+ * #trip()} is called, it becomes {@link State#OPEN} and denies every request for {@code openDuration}. It then becomes
+ * {@link State#HALF_OPEN} and admits a single probe request: if the probe succeeds the breaker closes, otherwise it
+ * opens again.</p>
+ *
+ * <p>Every admitted request is given a {@link Permit}, which identifies the state it was admitted in, and its outcome
+ * is reported with that permit. Outcomes of requests admitted before the most recent change of state are ignored, so
+ * a response that was in-flight when the breaker opened can neither extend the open period nor, once the breaker is
+ * {@link State#HALF_OPEN}, be mistaken for the outcome of the probe.</p>
+ */
+public class CircuitBreaker {
+
+  /**
+   * The states of a {@link CircuitBreaker}.
+   */
+  public enum State {
+    /**
+     * Requests are allowed.
+     */
+    CLOSED,
+    /**
+     * Requests are denied.
+     */
+    OPEN,
+    /**
+     * A single probe request is allowed.
+     */
+    HALF_OPEN
+  }
+
+  /**
+   * Permission to send a single request, obtained from {@link #tryAcquirePermission()}. Requests admitted while the
+   * breaker is {@link State#CLOSED} share a permit, so acquiring one allocates nothing.
+   */
+  public static final class Permit {
+
+    private final State state;
+    private final long openedAtNanos;
+
+    private Permit(final State state, final long openedAtNanos) {
+      this.state = state;
+      this.openedAtNanos = openedAtNanos;
+    }
+  }
+
+  private final int failureThreshold;
+  private final long openDurationNanos;
+  private final Ticker ticker;
+
+  // Replaced on every change of state, so that permits from an earlier state can be recognized by identity.
+  private final AtomicReference<Permit> current = new AtomicReference<>(new Permit(State.CLOSED, 0));
+  private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param failureThreshold The number of consecutive failures after which this breaker opens.
+   * @param openDuration     How long this breaker stays open before admitting a probe request.
+   */
+  public CircuitBreaker(final int failureThreshold, final Duration openDuration) {
+    this(failureThreshold, openDuration, Ticker.systemTicker());
+  }
+
+  @VisibleForTesting
+  CircuitBreaker(final int failureThreshold, final Duration openDuration, final Ticker ticker) {
+    Preconditions.checkArgument(failureThreshold >= 1, "failureThreshold must be at least 1");
+    this.failureThreshold = failureThreshold;
+    this.openDurationNanos = Objects.requireNonNull(openDuration, "openDuration must not be null").toNanos();
+    this.ticker = Objects.requireNonNull(ticker, "ticker must not be null");
+  }
+
+  /**
+   * Determine whether a request may be sent. When this method returns a permit, the outcome of the request MUST be
+   * reported with it using {@link #onSuccess(Permit)}, {@link #onFailure(Permit)} or {@link #trip(Permit)}.
+   *
+   * @return A {@link Permit} if the request may be sent, or {@code null} otherwise.
+   */
+  public Permit tryAcquirePermission() {
+    final Permit permit = current.get();
+    switch (permit.state) {
+      case CLOSED: {
+        return permit;
+      }
+      case OPEN: {
+        if (ticker.read() - permit.openedAtNanos < openDurationNanos) {
+          return null;
+        }
+        // The first caller after the open period becomes the probe.
+        final Permit probe = new Permit(State.HALF_OPEN, permit.openedAtNanos);
+        return current.compareAndSet(permit, probe) ? probe : null;
+      }
+      case HALF_OPEN:
+      default: {
+        // The probe is still in-flight.
+        return null;
+      }
+    }
+  }
+
+  /**
+   * Record a successful request, closing this breaker if it was the probe.
+   *
+   * @param permit The {@link Permit} the request was sent with.
+   */
+  public void onSuccess(final Permit permit) {
+    Objects.requireNonNull(permit, "permit must not be null");
+    if (current.get() != permit) {
+      return;
+    }
+    if (permit.state == State.HALF_OPEN) {
+      consecutiveFailures.set(0);
+      current.compareAndSet(permit, new Permit(State.CLOSED, 0));
+    } else if (consecutiveFailures.get() != 0) {
+      consecutiveFailures.set(0);
+    }
+  }
+
+  /**
+   * Record a failed request, opening this breaker if the failure threshold has been reached or if it was the probe.
+   *
+   * @param permit The {@link Permit} the request was sent with.
+   */
+  public void onFailure(final Permit permit) {
+    Objects.requireNonNull(permit, "permit must not be null");
+    if (current.get() != permit) {
+      // A request sent before the latest change of state must not extend the open period or decide the probe.
+      return;
+    }
+    if (permit.state == State.HALF_OPEN || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+      open(permit);
+    }
+  }
+
+  /**
+   * Open this breaker immediately because of the outcome of a request, e.g. the peer being unreachable.
+   *
+   * @param permit The {@link Permit} the request was sent with.
+   */
+  public void trip(final Permit permit) {
+    Objects.requireNonNull(permit, "permit must not be null");
+    if (current.get() == permit) {
+      open(permit);
+    }
+  }
+
+  /**
+   * Open this breaker immediately, regardless of its current state.
+   */
+  public void trip() {
+    consecutiveFailures.set(0);
+    current.set(new Permit(State.OPEN, ticker.read()));
+  }
+
+  private void open(final Permit permit) {
+    if (current.compareAndSet(permit, new Permit(State.OPEN, ticker.read()))) {
+      consecutiveFailures.set(0);
+    }
+  }
+
+  /**
+   * Accessor for the current state of this breaker.
+   *
+   * @return A {@link State}.
+   */
+  public State getState() {
+    return current.get().state;
+  }
+}
@@ -0,0 +1,119 @@
+package org.interledger.link;
+
+import com.google.common.base.Preconditions;
+import org.immutables.value.Value;
+
+import java.time.Duration;
+
+/**
+ * Settings for a {@link ConcurrencyLimitingLink}, which bounds the number of packets in-flight over a {@link Link} using
+ * an {@link AdaptiveConcurrencyLimit}, and stops sending to a failing peer using a {@link CircuitBreaker}.
+ */
+@Value.Immutable
+public interface ConcurrencyLimitSettings {
+
+  static ImmutableConcurrencyLimitSettings.Builder builder() {
+    return ImmutableConcurrencyLimitSettings.builder();
+  }
+
+  /**
+   * The number of packets allowed in-flight before any latency has been observed.
+   *
+   * @return An int.
+   */
+  @Value.Default
+  default int initialLimit() {
+    return 20;
+  }
+
+  /**
+   * The lower bound of the in-flight limit. Backing off never drops the limit below this value.
+   *
+   * @return An int.
+   */
+  @Value.Default
+  default int minLimit() {
+    return 1;
+  }
+
+  /**
+   * The upper bound of the in-flight limit. Probing for more capacity never raises the limit above this value.
+   *
+   * @return An int.
+   */
+  @Value.Default
+  default int maxLimit() {
+    return 1000;
+  }
+
+  /**
+   * The factor, greater than 0 and less than 1, by which the in-flight limit is multiplied whenever a packet indicates
+   * congestion.
+   *
+   * @return A double.
+   */
+  @Value.Default
+  default double backoffRatio() {
+    return 0.9;
+  }
+
+  /**
+   * How many times slower than the fastest recently-observed round trip a response may be before it is treated as a
+   * sign of congestion.
+   *
+   * @return A double greater than 1.
+   */
+  @Value.Default
+  default double latencyTolerance() {
+    return 2.0;
+  }
+
+  /**
+   * The number of responses in each window over which the fastest round trip is measured. Round trips are compared
+   * against the fastest one in the current and the previous window, so that the limit adapts when a peer's baseline
+   * latency changes.
+   *
+   * @return An int.
+   */
+  @Value.Default
+  default int minRttWindowSize() {
+    return 1000;
+  }
+
+  /**
+   * The number of consecutive failures (temporary rejects or exceptions) after which the circuit breaker opens.
+   *
+   * @return An int.
+   */
+  @Value.Default
+  default int failureThreshold() {
+    return 5;
+  }
+
+  /**
+   * How long the circuit breaker stays open before it lets a single probe packet through to the peer.
+   *
+   * @return A {@link Duration}.
+   */
+  @Value.Default
+  default Duration openDuration() {
+    return Duration.ofSeconds(5);
+  }
+
+  @Value.Check
+  default ConcurrencyLimitSettings validate() {
+    Preconditions.checkState(minLimit() >= 1, "minLimit must be at least 1");
+    Preconditions.checkState(
+        minLimit() <= initialLimit() && initialLimit() <= maxLimit(),
+        "initialLimit must be between minLimit and maxLimit"
+    );
+    Preconditions.checkState(
+        backoffRatio() > 0 && backoffRatio() < 1, "backoffRatio must be greater than 0 and less than 1"
+    );
+    Preconditions.checkState(latencyTolerance() > 1, "latencyTolerance must be greater than 1");
+    Preconditions.checkState(minRttWindowSize() >= 1, "minRttWindowSize must be at least 1");
+    Preconditions.checkState(failureThreshold() >= 1, "failureThreshold must be at least 1");
+    Preconditions.checkState(!openDuration().isNegative(), "openDuration must not be negative");
+    return this;
+  }
+}
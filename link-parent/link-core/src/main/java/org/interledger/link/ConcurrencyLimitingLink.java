@@ -0,0 +1,193 @@
+package org.interledger.link;
+
+import org.interledger.core.InterledgerErrorCode;
+import org.interledger.core.InterledgerErrorCode.ErrorFamily;
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerRejectPacket;
+import org.interledger.core.InterledgerResponsePacket;
+import org.interledger.link.exceptions.LinkException;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * <p>A {@link Link} decorator that sheds load at the link edge instead of letting callers pile up behind a slow or
+ * failing peer.</p>
+ *
+ * <p>Packets are only forwarded to the wrapped link while the number in-flight is below an {@link
+ * AdaptiveConcurrencyLimit}, which shrinks when the peer responds slowly, rejects with a temporary error or fails, and
+ * grows again while it keeps up. Packets over the limit are rejected immediately with {@link
+ * InterledgerErrorCode#T02_PEER_BUSY}. Additionally, a {@link CircuitBreaker} opens after repeated failures, or as soon
+ * as the wrapped link throws a {@link LinkException}, after which packets are rejected immediately with {@link
+ * InterledgerErrorCode#T01_PEER_UNREACHABLE} until a probe packet succeeds.</p>
+ *
+ * <p>Temporary rejects other than {@link InterledgerErrorCode#T04_INSUFFICIENT_LIQUIDITY} (which concerns balances,
+ * not load) are treated as failures. All other methods, including incoming packet handling, are forwarded to the
+ * wrapped link unchanged.</p>
+ */
+public class ConcurrencyLimitingLink<L extends LinkSettings> extends ForwardingLink<L> {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ConcurrencyLimitingLink.class);
+
+  private final AdaptiveConcurrencyLimit concurrencyLimit;
+  private final CircuitBreaker circuitBreaker;
+  private final PacketRejector packetRejector;
+  private final Ticker ticker;
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param delegate The {@link Link} to send packets with.
+   * @param settings A {@link ConcurrencyLimitSettings} for the in-flight limit and the circuit breaker.
+   */
+  public ConcurrencyLimitingLink(final Link<L> delegate, final ConcurrencyLimitSettings settings) {
+    this(delegate, settings, Ticker.systemTicker());
+  }
+
+  @VisibleForTesting
+  ConcurrencyLimitingLink(final Link<L> delegate, final ConcurrencyLimitSettings settings, final Ticker ticker) {
+    super(delegate);
+    Objects.requireNonNull(settings, "settings must not be null");
+    this.ticker = Objects.requireNonNull(ticker, "ticker must not be null");
+    this.concurrencyLimit = new AdaptiveConcurrencyLimit(settings, ticker);
+    this.circuitBreaker = new CircuitBreaker(settings.failureThreshold(), settings.openDuration(), ticker);
+    this.packetRejector = new PacketRejector(getDelegate().getOperatorAddressSupplier(), true);
+  }
+
+  @Override
+  public InterledgerResponsePacket sendPacket(final InterledgerPreparePacket preparePacket) {
+    Objects.requireNonNull(preparePacket, "preparePacket must not be null");
+
+    if (!concurrencyLimit.tryAcquire()) {
+      return rejectPeerBusy(preparePacket);
+    }
+    final CircuitBreaker.Permit permit = circuitBreaker.tryAcquirePermission();
+    if (permit == null) {
+      concurrencyLimit.release();
+      return rejectCircuitOpen(preparePacket);
+    }
+
+    final long startNanos = ticker.read();
+    final InterledgerResponsePacket responsePacket;
+    try {
+      responsePacket = getDelegate().sendPacket(preparePacket);
+    } catch (RuntimeException e) {
+      onFailure(permit, startNanos, e);
+      throw e;
+    }
+    onResponse(permit, startNanos, responsePacket);
+    return responsePacket;
+  }
+
+  @Override
+  public CompletableFuture<InterledgerResponsePacket> sendPacketAsync(final InterledgerPreparePacket preparePacket) {
+    Objects.requireNonNull(preparePacket, "preparePacket must not be null");
+
+    if (!concurrencyLimit.tryAcquire()) {
+      return CompletableFuture.completedFuture(rejectPeerBusy(preparePacket));
+    }
+    final CircuitBreaker.Permit permit = circuitBreaker.tryAcquirePermission();
+    if (permit == null) {
+      concurrencyLimit.release();
+      return CompletableFuture.completedFuture(rejectCircuitOpen(preparePacket));
+    }
+
+    final long startNanos = ticker.read();
+    final CompletableFuture<InterledgerResponsePacket> responseFuture;
+    try {
+      responseFuture = getDelegate().sendPacketAsync(preparePacket);
+    } catch (RuntimeException e) {
+      onFailure(permit, startNanos, e);
+      final CompletableFuture<InterledgerResponsePacket> failedFuture = new CompletableFuture<>();
+      failedFuture.completeExceptionally(e);
+      return failedFuture;
+    }
+
+    return responseFuture.whenComplete((responsePacket, error) -> {
+      if (error != null) {
+        final Throwable cause = error instanceof CompletionException && error.getCause() != null
+            ? error.getCause() : error;
+        onFailure(permit, startNanos, cause);
+      } else {
+        onResponse(permit, startNanos, responsePacket);
+      }
+    });
+  }
+
+  private InterledgerRejectPacket rejectPeerBusy(final InterledgerPreparePacket preparePacket) {
+    return packetRejector.reject(
+        getLinkId(), preparePacket, InterledgerErrorCode.T02_PEER_BUSY, "Too many packets in-flight to peer"
+    );
+  }
+
+  private InterledgerRejectPacket rejectCircuitOpen(final InterledgerPreparePacket preparePacket) {
+    return packetRejector.reject(
+        getLinkId(), preparePacket, InterledgerErrorCode.T01_PEER_UNREACHABLE, "Circuit breaker open for peer"
+    );
+  }
+
+  private void onResponse(
+      final CircuitBreaker.Permit permit, final long startNanos, final InterledgerResponsePacket responsePacket
+  ) {
+    final boolean failed = responsePacket instanceof InterledgerRejectPacket
+        && isFailure(((InterledgerRejectPacket) responsePacket).getCode());
+    concurrencyLimit.onSample(ticker.read() - startNanos, failed);
+    if (failed) {
+      circuitBreaker.onFailure(permit);
+    } else {
+      circuitBreaker.onSuccess(permit);
+    }
+  }
+
+  private void onFailure(final CircuitBreaker.Permit permit, final long startNanos, final Throwable error) {
+    concurrencyLimit.onSample(ticker.read() - startNanos, true);
+    if (error instanceof LinkException) {
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug("Opening circuit breaker for linkId={}: {}", getLinkId(), error.getMessage());
+      }
+      circuitBreaker.trip(permit);
+    } else {
+      circuitBreaker.onFailure(permit);
+    }
+  }
+
+  private boolean isFailure(final InterledgerErrorCode errorCode) {
+    return errorCode.getErrorFamily() == ErrorFamily.TEMPORARY
+        && !InterledgerErrorCode.T04_INSUFFICIENT_LIQUIDITY_CODE.equals(errorCode.getCode());
+  }
+
+  /**
+   * Accessor for the in-flight limit of this link, e.g. for monitoring.
+   *
+   * @return An {@link AdaptiveConcurrencyLimit}.
+   */
+  public AdaptiveConcurrencyLimit getConcurrencyLimit() {
+    return concurrencyLimit;
+  }
+
+  /**
+   * Accessor for the circuit breaker of this link, e.g. for monitoring.
+   *
+   * @return A {@link CircuitBreaker}.
+   */
+  public CircuitBreaker getCircuitBreaker() {
+    return circuitBreaker;
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", ConcurrencyLimitingLink.class.getSimpleName() + "[", "]")
+        .add("delegate=" + getDelegate())
+        .add("limit=" + concurrencyLimit.getLimit())
+        .add("inFlight=" + concurrencyLimit.getInFlight())
+        .add("circuitBreaker=" + circuitBreaker.getState())
+        .toString();
+  }
+}
@@ -0,0 +1,89 @@
+package org.interledger.link;
+
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerResponsePacket;
+import org.interledger.link.exceptions.LinkHandlerAlreadyRegisteredException;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * A {@link Link} that forwards every call to another {@link Link}. Decorators extend this class and override only the
+ * methods whose behavior they change, typically {@link #sendPacket(InterledgerPreparePacket)} and {@link
+ * #sendPacketAsync(InterledgerPreparePacket)}.
+ */
+public abstract class ForwardingLink<L extends LinkSettings> implements Link<L> {
+
+  private final Link<L> delegate;
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param delegate The {@link Link} to forward calls to.
+   */
+  protected ForwardingLink(final Link<L> delegate) {
+    this.delegate = Objects.requireNonNull(delegate, "delegate must not be null");
+  }
+
+  /**
+   * Accessor for the wrapped link.
+   *
+   * @return The {@link Link} that calls are forwarded to.
+   */
+  public Link<L> getDelegate() {
+    return delegate;
+  }
+
+  @Override
+  public InterledgerResponsePacket sendPacket(final InterledgerPreparePacket preparePacket) {
+    return delegate.sendPacket(preparePacket);
+  }
+
+  @Override
+  public CompletableFuture<InterledgerResponsePacket> sendPacketAsync(final InterledgerPreparePacket preparePacket) {
+    return delegate.sendPacketAsync(preparePacket);
+  }
+
+  @Override
+  public LinkId getLinkId() {
+    return delegate.getLinkId();
+  }
+
+  @Override
+  public void setLinkId(final LinkId linkId) {
+    delegate.setLinkId(linkId);
+  }
+
+  @Override
+  public Supplier<InterledgerAddress> getOperatorAddressSupplier() {
+    return delegate.getOperatorAddressSupplier();
+  }
+
+  @Override
+  public L getLinkSettings() {
+    return delegate.getLinkSettings();
+  }
+
+  @Override
+  public void registerLinkHandler(final LinkHandler dataHandler) throws LinkHandlerAlreadyRegisteredException {
+    delegate.registerLinkHandler(dataHandler);
+  }
+
+  @Override
+  public Optional<LinkHandler> getLinkHandler() {
+    return delegate.getLinkHandler();
+  }
+
+  @Override
+  public void unregisterLinkHandler() {
+    delegate.unregisterLinkHandler();
+  }
+
+  @Override
+  public void testConnection() {
+    delegate.testConnection();
+  }
+}
@@ -0,0 +1,344 @@
+package org.interledger.link;
+
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerResponsePacket;
+import org.interledger.link.instrumentation.LatencyHistogram;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * <p>A {@link Link} decorator that cuts tail latency for packets that are safe to send twice, such as the
+ * unfulfillable packets used to probe exchange rates, which can never move money.</p>
+ *
+ * <p>When a packet matching {@code isHedgeable} has not been answered within the {@link
+ * HedgingSettings#hedgePercentile()} of the latencies observed in the most recent window of {@link
+ * HedgingSettings#latencyWindowSize()} responses, a second copy is sent, either over the wrapped
+ * link or over an alternate link to the same peer. Whichever copy is answered first completes the returned future, and
+ * the other response is discarded. If one copy fails with an exception while the other is still in-flight, the result
+ * is the other copy's response; the failure is only propagated if every copy fails.</p>
+ *
+ * <p>Only the caller knows whether a packet is safe to duplicate: for example, an unfulfillable STREAM packet carries a
+ * random execution condition that is indistinguishable from a real one. Packets that do not match {@code isHedgeable}
+ * are forwarded to the wrapped link unchanged, as are all other methods.</p>
+ *
+ * <p>Latencies are only useful once enough of them have been observed, so a single instance should be shared by
+ * everything that sends hedgeable packets over the same link, rather than constructed per request or per payment.</p>
+ *
+ * <p>Both links must be truly asynchronous: {@link Link#sendPacketAsync} must return without waiting for the response.
+ * The original copy is sent on the caller's thread, so a link that blocks until it is answered can never be hedged.
+ * Hedged copies are handed off from the timer to a separate executor, so that one slow send does not hold up the hedges
+ * of every other packet.</p>
+ */
+public class HedgingLink<L extends LinkSettings> extends ForwardingLink<L> {
+
+  private final Link<?> hedgeLink;
+  private final Predicate<InterledgerPreparePacket> isHedgeable;
+  private final HedgingSettings settings;
+  private final ScheduledExecutorService scheduler;
+  private final Executor hedgeExecutor;
+  private final Ticker ticker;
+
+  private final LatencyWindow latencyWindow;
+  private final LongAdder hedgesSent = new LongAdder();
+  private final LongAdder hedgesWon = new LongAdder();
+
+  /**
+   * Required-args Constructor for a link that sends hedged copies over the wrapped link itself, using a shared timer.
+   *
+   * @param delegate    The {@link Link} to send packets with.
+   * @param isHedgeable A {@link Predicate} that accepts only packets that are safe to send more than once.
+   * @param settings    A {@link HedgingSettings} that determines when packets are hedged.
+   */
+  public HedgingLink(
+      final Link<L> delegate, final Predicate<InterledgerPreparePacket> isHedgeable, final HedgingSettings settings
+  ) {
+    this(
+        delegate, delegate, isHedgeable, settings, SharedTimer.INSTANCE, SharedSender.INSTANCE, Ticker.systemTicker()
+    );
+  }
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param delegate    The {@link Link} to send packets with.
+   * @param hedgeLink   The {@link Link} to send hedged copies with, which may be {@code delegate} itself or an
+   *                    alternate link to the same peer.
+   * @param isHedgeable A {@link Predicate} that accepts only packets that are safe to send more than once.
+   * @param settings    A {@link HedgingSettings} that determines when packets are hedged.
+   * @param scheduler   A {@link ScheduledExecutorService} that times when hedged copies are due. They are then sent
+   *                    from a shared executor.
+   */
+  public HedgingLink(
+      final Link<L> delegate,
+      final Link<?> hedgeLink,
+      final Predicate<InterledgerPreparePacket> isHedgeable,
+      final HedgingSettings settings,
+      final ScheduledExecutorService scheduler
+  ) {
+    this(delegate, hedgeLink, isHedgeable, settings, scheduler, SharedSender.INSTANCE);
+  }
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param delegate      The {@link Link} to send packets with.
+   * @param hedgeLink     The {@link Link} to send hedged copies with, which may be {@code delegate} itself or an
+   *                      alternate link to the same peer.
+   * @param isHedgeable   A {@link Predicate} that accepts only packets that are safe to send more than once.
+   * @param settings      A {@link HedgingSettings} that determines when packets are hedged.
+   * @param scheduler     A {@link ScheduledExecutorService} that times when hedged copies are due.
+   * @param hedgeExecutor An {@link Executor} that sends hedged copies once they are due, so that {@code scheduler} is
+   *                      never held up by a send.
+   */
+  public HedgingLink(
+      final Link<L> delegate,
+      final Link<?> hedgeLink,
+      final Predicate<InterledgerPreparePacket> isHedgeable,
+      final HedgingSettings settings,
+      final ScheduledExecutorService scheduler,
+      final Executor hedgeExecutor
+  ) {
+    this(delegate, hedgeLink, isHedgeable, settings, scheduler, hedgeExecutor, Ticker.systemTicker());
+  }
+
+  @VisibleForTesting
+  HedgingLink(
+      final Link<L> delegate,
+      final Link<?> hedgeLink,
+      final Predicate<InterledgerPreparePacket> isHedgeable,
+      final HedgingSettings settings,
+      final ScheduledExecutorService scheduler,
+      final Executor hedgeExecutor,
+      final Ticker ticker
+  ) {
+    super(delegate);
+    this.hedgeLink = Objects.requireNonNull(hedgeLink, "hedgeLink must not be null");
+    this.isHedgeable = Objects.requireNonNull(isHedgeable, "isHedgeable must not be null");
+    this.settings = Objects.requireNonNull(settings, "settings must not be null");
+    this.scheduler = Objects.requireNonNull(scheduler, "scheduler must not be null");
+    this.hedgeExecutor = Objects.requireNonNull(hedgeExecutor, "hedgeExecutor must not be null");
+    this.ticker = Objects.requireNonNull(ticker, "ticker must not be null");
+    this.latencyWindow = new LatencyWindow(settings.latencyWindowSize());
+  }
+
+  @Override
+  public InterledgerResponsePacket sendPacket(final InterledgerPreparePacket preparePacket) {
+    Objects.requireNonNull(preparePacket, "preparePacket must not be null");
+    if (!isHedgeable.test(preparePacket)) {
+      return getDelegate().sendPacket(preparePacket);
+    }
+    try {
+      return sendHedged(preparePacket).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  @Override
+  public CompletableFuture<InterledgerResponsePacket> sendPacketAsync(final InterledgerPreparePacket preparePacket) {
+    Objects.requireNonNull(preparePacket, "preparePacket must not be null");
+    if (!isHedgeable.test(preparePacket)) {
+      return getDelegate().sendPacketAsync(preparePacket);
+    }
+    return sendHedged(preparePacket);
+  }
+
+  private CompletableFuture<InterledgerResponsePacket> sendHedged(final InterledgerPreparePacket preparePacket) {
+    final HedgedRequest request = new HedgedRequest();
+    sendCopy(getDelegate(), preparePacket, request, false);
+
+    if (!request.result.isDone()) {
+      final ScheduledFuture<?> hedgeTimer = scheduler.schedule(() -> {
+        if (request.tryStartHedge()) {
+          hedgesSent.increment();
+          try {
+            hedgeExecutor.execute(() -> sendCopy(hedgeLink, preparePacket, request, true));
+          } catch (RejectedExecutionException e) {
+            request.onCopyFailed(e);
+          }
+        }
+      }, hedgeDelayNanos(), TimeUnit.NANOSECONDS);
+      request.result.whenComplete(($, error) -> hedgeTimer.cancel(false));
+    }
+    return request.result;
+  }
+
+  private void sendCopy(
+      final Link<?> link, final InterledgerPreparePacket preparePacket, final HedgedRequest request,
+      final boolean isHedge
+  ) {
+    final long startNanos = ticker.read();
+    CompletableFuture<InterledgerResponsePacket> responseFuture;
+    try {
+      responseFuture = Objects.requireNonNull(link.sendPacketAsync(preparePacket), "sendPacketAsync returned null");
+    } catch (RuntimeException e) {
+      responseFuture = new CompletableFuture<>();
+      responseFuture.completeExceptionally(e);
+    }
+
+    responseFuture.whenComplete((responsePacket, error) -> {
+      if (error != null) {
+        request.onCopyFailed(error instanceof CompletionException && error.getCause() != null
+            ? error.getCause() : error);
+        return;
+      }
+      // Every response is a latency sample, including one that loses the race, so the percentile stays unbiased.
+      latencyWindow.record(ticker.read() - startNanos);
+      if (request.result.complete(responsePacket) && isHedge) {
+        hedgesWon.increment();
+      }
+    });
+  }
+
+  private long hedgeDelayNanos() {
+    if (latencyWindow.sampleCount() < settings.minSamples()) {
+      return settings.initialHedgeDelay().toNanos();
+    }
+    final long percentileNanos = latencyWindow.valueAtPercentile(settings.hedgePercentile());
+    return Math.min(
+        Math.max(percentileNanos, settings.minHedgeDelay().toNanos()), settings.maxHedgeDelay().toNanos()
+    );
+  }
+
+  /**
+   * Accessor for the number of hedged copies sent so far, e.g. for monitoring.
+   *
+   * @return A long.
+   */
+  public long getHedgesSent() {
+    return hedgesSent.sum();
+  }
+
+  /**
+   * Accessor for the number of hedged copies whose response arrived before the original's, e.g. for monitoring.
+   *
+   * @return A long.
+   */
+  public long getHedgesWon() {
+    return hedgesWon.sum();
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", HedgingLink.class.getSimpleName() + "[", "]")
+        .add("delegate=" + getDelegate())
+        .add("hedgesSent=" + getHedgesSent())
+        .add("hedgesWon=" + getHedgesWon())
+        .toString();
+  }
+
+  /**
+   * The copies of a single hedged packet, and the future that the first response completes.
+   */
+  private static final class HedgedRequest {
+
+    private final CompletableFuture<InterledgerResponsePacket> result = new CompletableFuture<>();
+
+    // Copies that have been sent but have neither responded nor failed.
+    private final AtomicInteger copiesInFlight = new AtomicInteger(1);
+
+    /**
+     * Reserve the hedged copy, unless the request has already completed or every copy has already failed.
+     */
+    private boolean tryStartHedge() {
+      if (result.isDone()) {
+        return false;
+      }
+      return copiesInFlight.getAndUpdate(inFlight -> inFlight == 0 ? 0 : inFlight + 1) > 0;
+    }
+
+    private void onCopyFailed(final Throwable error) {
+      if (copiesInFlight.decrementAndGet() == 0) {
+        result.completeExceptionally(error);
+      }
+    }
+  }
+
+  /**
+   * Latencies observed in consecutive windows of a fixed number of responses. Percentiles are read from the most recent
+   * complete window, which is replaced as soon as the next one completes, so old latencies are forgotten.
+   */
+  private static final class LatencyWindow {
+
+    private final int windowSize;
+    private final AtomicLong sampleCount = new AtomicLong();
+    private final AtomicReference<LatencyHistogram> currentWindow = new AtomicReference<>(new LatencyHistogram());
+    private volatile LatencyHistogram completeWindow;
+
+    private LatencyWindow(final int windowSize) {
+      this.windowSize = windowSize;
+    }
+
+    private void record(final long latencyNanos) {
+      final LatencyHistogram window = currentWindow.get();
+      window.record(latencyNanos);
+      if (sampleCount.incrementAndGet() % windowSize == 0
+          && currentWindow.compareAndSet(window, new LatencyHistogram())) {
+        completeWindow = window;
+      }
+    }
+
+    private long sampleCount() {
+      return sampleCount.get();
+    }
+
+    private long valueAtPercentile(final double percentile) {
+      final LatencyHistogram window = completeWindow;
+      return (window == null ? currentWindow.get() : window).valueAtPercentile(percentile);
+    }
+  }
+
+  /**
+   * Holder for the timer shared by every {@link HedgingLink} that is not given a scheduler, which is only created once
+   * a link needs it.
+   */
+  private static final class SharedTimer {
+
+    private static final ScheduledExecutorService INSTANCE = newTimer();
+
+    private static ScheduledExecutorService newTimer() {
+      final ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+        final Thread thread = new Thread(runnable, "hedging-link-timer");
+        thread.setDaemon(true);
+        return thread;
+      });
+      timer.setRemoveOnCancelPolicy(true);
+      return timer;
+    }
+  }
+
+  /**
+   * Holder for the threads that send the hedged copies of every {@link HedgingLink} that is not given an executor,
+   * which are only created once a link needs them.
+   */
+  private static final class SharedSender {
+
+    private static final ExecutorService INSTANCE = Executors.newCachedThreadPool(runnable -> {
+      final Thread thread = new Thread(runnable, "hedging-link-sender");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+}
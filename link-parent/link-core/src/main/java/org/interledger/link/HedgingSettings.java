@@ -0,0 +1,103 @@
+package org.interledger.link;
+
+import com.google.common.base.Preconditions;
+import org.immutables.value.Value;
+
+import java.time.Duration;
+
+/**
+ * Settings for a {@link HedgingLink}, which sends a second copy of a packet that is safe to duplicate when the first
+ * copy has not been answered within a latency percentile.
+ */
+@Value.Immutable
+public interface HedgingSettings {
+
+  static ImmutableHedgingSettings.Builder builder() {
+    return ImmutableHedgingSettings.builder();
+  }
+
+  /**
+   * The percentile, between 0 and 100, of observed response latencies after which an unanswered packet is hedged.
+   * Lower values hedge more packets, and so cut tail latency further at the cost of more duplicate traffic.
+   *
+   * @return A double.
+   */
+  @Value.Default
+  default double hedgePercentile() {
+    return 95.0;
+  }
+
+  /**
+   * The number of responses that must be observed before {@link #hedgePercentile()} is used. Until then, packets are
+   * hedged after {@link #initialHedgeDelay()}.
+   *
+   * @return An int.
+   */
+  @Value.Default
+  default int minSamples() {
+    return 20;
+  }
+
+  /**
+   * The number of responses in each window of observed latencies. The hedge delay is the {@link #hedgePercentile()} of
+   * the most recent complete window, or of the current window until the first one completes, so that latencies older
+   * than two windows never affect it.
+   *
+   * @return An int.
+   */
+  @Value.Default
+  default int latencyWindowSize() {
+    return 500;
+  }
+
+  /**
+   * How long to wait before hedging a packet while fewer than {@link #minSamples()} responses have been observed.
+   *
+   * @return A {@link Duration}.
+   */
+  @Value.Default
+  default Duration initialHedgeDelay() {
+    return Duration.ofMillis(200);
+  }
+
+  /**
+   * The shortest delay before a packet is hedged, so that a peer that is usually very fast is not sent a duplicate of
+   * every packet that is slightly slower than usual.
+   *
+   * @return A {@link Duration}.
+   */
+  @Value.Default
+  default Duration minHedgeDelay() {
+    return Duration.ofMillis(5);
+  }
+
+  /**
+   * The longest delay before a packet is hedged, however slow the observed latencies are.
+   *
+   * @return A {@link Duration}.
+   */
+  @Value.Default
+  default Duration maxHedgeDelay() {
+    return Duration.ofSeconds(2);
+  }
+
+  @Value.Check
+  default HedgingSettings validate() {
+    Preconditions.checkState(
+        hedgePercentile() >= 0 && hedgePercentile() <= 100, "hedgePercentile must be between 0 and 100"
+    );
+    Preconditions.checkState(minSamples() >= 1, "minSamples must be at least 1");
+    Preconditions.checkState(
+        latencyWindowSize() >= minSamples(), "latencyWindowSize must not be less than minSamples"
+    );
+    Preconditions.checkState(!minHedgeDelay().isNegative(), "minHedgeDelay must not be negative");
+    Preconditions.checkState(
+        minHedgeDelay().compareTo(maxHedgeDelay()) <= 0, "minHedgeDelay must not be greater than maxHedgeDelay"
+    );
+    Preconditions.checkState(
+        initialHedgeDelay().compareTo(minHedgeDelay()) >= 0 && initialHedgeDelay().compareTo(maxHedgeDelay()) <= 0,
+        "initialHedgeDelay must be between minHedgeDelay and maxHedgeDelay"
+    );
+    return this;
+  }
+}
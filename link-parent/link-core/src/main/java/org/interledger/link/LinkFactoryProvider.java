@@ -1,15 +1,26 @@
 package org.interledger.link;
 
 import org.interledger.link.exceptions.LinkException;
+import org.interledger.link.filters.FilteringLinkFactory;
+import org.interledger.link.filters.LinkFilter;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Maps;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 
 /**
- * A provider of {@link LinkFactory} scoped by type.
+ * <p>A provider of {@link LinkFactory} scoped by type.</p>
+ *
+ * <p>{@link LinkFilter}s may also be registered per {@link LinkType}, in which case {@link #getLinkFactory(LinkType)}
+ * returns a {@link FilteringLinkFactory} that applies them to every link it constructs.</p>
+ *
+ * <p>Likewise, {@link LinkWarmUpSettings} may be registered per {@link LinkType}, in which case every {@link Warmable}
+ * link of that type begins warming up as soon as it is constructed. Its readiness is available via {@link
+ * Warmable#whenWarm(Link)}.</p>
  */
 public class LinkFactoryProvider {
 
@@ -17,6 +28,10 @@ public class LinkFactoryProvider {
   // LoopbackFactory, etc).
   private final Map<LinkType, LinkFactory> linkFactories;
 
+  private final Map<LinkType, List<LinkFilter>> linkFilters = Maps.newConcurrentMap();
+
+  private final Map<LinkType, LinkWarmUpSettings> linkWarmUpSettings = Maps.newConcurrentMap();
+
   public LinkFactoryProvider() {
     this(Maps.newConcurrentMap());
   }
@@ -27,10 +42,18 @@ public class LinkFactoryProvider {
 
   public LinkFactory getLinkFactory(final LinkType linkType) {
     Objects.requireNonNull(linkType, "linkType must not be null");
-    return Optional.ofNullable(this.linkFactories.get(linkType))
+    final LinkFactory linkFactory = Optional.ofNullable(this.linkFactories.get(linkType))
         .orElseThrow(() -> new LinkException(
             String.format("No registered LinkFactory linkType=%s", linkType), LinkId.of("n/a"))
         );
+
+    // Warm up the link the wrapped factory constructs, inside any filters.
+    final LinkWarmUpSettings warmUpSettings = this.linkWarmUpSettings.get(linkType);
+    final LinkFactory warmingLinkFactory =
+        warmUpSettings == null ? linkFactory : new WarmingLinkFactory(linkFactory, warmUpSettings);
+
+    final List<LinkFilter> filters = this.linkFilters.get(linkType);
+    return filters == null ? warmingLinkFactory : new FilteringLinkFactory(warmingLinkFactory, filters);
   }
 
   public LinkFactory registerLinkFactory(final LinkType linkType, final LinkFactory linkFactory) {
@@ -39,4 +62,36 @@ public class LinkFactoryProvider {
 
     return this.linkFactories.put(linkType, linkFactory);
   }
+
+  /**
+   * Register the {@link LinkFilter}s to apply to every link of type {@code linkType}, replacing any filters previously
+   * registered for that type. Only links constructed after this call are affected.
+   *
+   * @param linkType    The {@link LinkType} to filter.
+   * @param linkFilters The {@link LinkFilter}s to apply, in order.
+   *
+   * @return The previously registered filters, or {@code null} if there were none.
+   */
+  public List<LinkFilter> registerLinkFilters(final LinkType linkType, final List<LinkFilter> linkFilters) {
+    Objects.requireNonNull(linkType, "linkType must not be null");
+    Objects.requireNonNull(linkFilters, "linkFilters must not be null");
+
+    return this.linkFilters.put(linkType, ImmutableList.copyOf(linkFilters));
+  }
+
+  /**
+   * Register the {@link LinkWarmUpSettings} used to warm up every {@link Warmable} link of type {@code linkType},
+   * replacing any settings previously registered for that type. Only links constructed after this call are affected.
+   *
+   * @param linkType       The {@link LinkType} to warm up.
+   * @param warmUpSettings A {@link LinkWarmUpSettings} that determines how much to warm up each link.
+   *
+   * @return The previously registered settings, or {@code null} if there were none.
+   */
+  public LinkWarmUpSettings registerLinkWarmUp(final LinkType linkType, final LinkWarmUpSettings warmUpSettings) {
+    Objects.requireNonNull(linkType, "linkType must not be null");
+    Objects.requireNonNull(warmUpSettings, "warmUpSettings must not be null");
+
+    return this.linkWarmUpSettings.put(linkType, warmUpSettings);
+  }
 }
@@ -0,0 +1,397 @@
+package org.interledger.link;
+
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerErrorCode;
+import org.interledger.core.InterledgerErrorCode.ErrorFamily;
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerRejectPacket;
+import org.interledger.core.InterledgerResponsePacket;
+import org.interledger.link.LinkGroupSettings.RoutingStrategy;
+import org.interledger.link.exceptions.LinkException;
+import org.interledger.link.exceptions.LinkHandlerAlreadyRegisteredException;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableList;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * <p>A {@link Link} that fronts several member links to the same peer, such as one per ILP-over-HTTP endpoint or
+ * account that a large peer exposes, so that a single sender can use all of them and keeps working when one is
+ * degraded.</p>
+ *
+ * <p>Each outgoing packet is sent over one member, chosen by the group's {@link RoutingStrategy} from the number of
+ * packets each member has in-flight and an exponentially-weighted moving average of its latency. Ties are broken by
+ * starting each scan at a different member, so idle members share traffic evenly.</p>
+ *
+ * <p>Each member has its own {@link CircuitBreaker}. A member is ejected after {@link
+ * LinkGroupSettings#failureThreshold()} consecutive failures, or as soon as it throws a {@link LinkException}.
+ * Failures are exceptions, and temporary rejects other than {@link InterledgerErrorCode#T04_INSUFFICIENT_LIQUIDITY}
+ * that were triggered by this node or by the {@link LinkGroupSettings#peerAddress()}. Rejects triggered further along
+ * the payment path are not held against the member they arrived on.
+ * Once {@link LinkGroupSettings#ejectionDuration()} has passed, the next packet is sent to it as a probe, and the
+ * member is re-admitted if the probe succeeds. Packets are rejected with {@link
+ * InterledgerErrorCode#T01_PEER_UNREACHABLE} only while every member is ejected.</p>
+ *
+ * <p>A {@link LinkHandler} registered on the group is registered on every member, so incoming packets are handled the
+ * same way whichever member they arrive on. Members that are {@link StatefulLink}s must be connected and disconnected
+ * by their owner.</p>
+ */
+public class LinkGroup<L extends LinkSettings> extends AbstractLink<L> {
+
+  private final LinkGroupSettings groupSettings;
+  private final List<Member> members;
+  private final PacketRejector packetRejector;
+  private final Ticker ticker;
+  private final AtomicInteger nextScanStart = new AtomicInteger();
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param operatorAddressSupplier A supplier for the ILP address of this node operating this Link.
+   * @param linkSettings            The {@link LinkSettings} of the group itself.
+   * @param links                   The member {@link Link}s, all of which connect to the same peer.
+   * @param groupSettings           A {@link LinkGroupSettings} for routing and ejection.
+   */
+  public LinkGroup(
+      final Supplier<InterledgerAddress> operatorAddressSupplier,
+      final L linkSettings,
+      final List<? extends Link<?>> links,
+      final LinkGroupSettings groupSettings
+  ) {
+    this(operatorAddressSupplier, linkSettings, links, groupSettings, Ticker.systemTicker());
+  }
+
+  @VisibleForTesting
+  LinkGroup(
+      final Supplier<InterledgerAddress> operatorAddressSupplier,
+      final L linkSettings,
+      final List<? extends Link<?>> links,
+      final LinkGroupSettings groupSettings,
+      final Ticker ticker
+  ) {
+    super(operatorAddressSupplier, linkSettings);
+    Objects.requireNonNull(links, "links must not be null");
+    Preconditions.checkArgument(!links.isEmpty(), "links must not be empty");
+    this.groupSettings = Objects.requireNonNull(groupSettings, "groupSettings must not be null");
+    this.ticker = Objects.requireNonNull(ticker, "ticker must not be null");
+
+    final ImmutableList.Builder<Member> membersBuilder = ImmutableList.builder();
+    for (Link<?> link : links) {
+      membersBuilder.add(new Member(
+          Objects.requireNonNull(link, "links must not contain null"),
+          new CircuitBreaker(groupSettings.failureThreshold(), groupSettings.ejectionDuration(), ticker)
+      ));
+    }
+    this.members = membersBuilder.build();
+    this.packetRejector = new PacketRejector(operatorAddressSupplier, true);
+  }
+
+  @Override
+  public InterledgerResponsePacket sendPacket(final InterledgerPreparePacket preparePacket) {
+    Objects.requireNonNull(preparePacket, "preparePacket must not be null");
+
+    final Selection selection = selectMember();
+    if (selection == null) {
+      return rejectUnreachable(preparePacket);
+    }
+
+    final long startNanos = selection.member.onSend(ticker);
+    final InterledgerResponsePacket responsePacket;
+    try {
+      responsePacket = selection.member.link.sendPacket(preparePacket);
+    } catch (RuntimeException e) {
+      onFailure(selection, startNanos, e);
+      throw e;
+    }
+    onResponse(selection, startNanos, responsePacket);
+    return responsePacket;
+  }
+
+  @Override
+  public CompletableFuture<InterledgerResponsePacket> sendPacketAsync(final InterledgerPreparePacket preparePacket) {
+    Objects.requireNonNull(preparePacket, "preparePacket must not be null");
+
+    final Selection selection = selectMember();
+    if (selection == null) {
+      return CompletableFuture.completedFuture(rejectUnreachable(preparePacket));
+    }
+
+    final long startNanos = selection.member.onSend(ticker);
+    final CompletableFuture<InterledgerResponsePacket> responseFuture;
+    try {
+      responseFuture = selection.member.link.sendPacketAsync(preparePacket);
+    } catch (RuntimeException e) {
+      onFailure(selection, startNanos, e);
+      final CompletableFuture<InterledgerResponsePacket> failedFuture = new CompletableFuture<>();
+      failedFuture.completeExceptionally(e);
+      return failedFuture;
+    }
+
+    return responseFuture.whenComplete((responsePacket, error) -> {
+      if (error != null) {
+        final Throwable cause = error instanceof CompletionException && error.getCause() != null
+            ? error.getCause() : error;
+        onFailure(selection, startNanos, cause);
+      } else {
+        onResponse(selection, startNanos, responsePacket);
+      }
+    });
+  }
+
+  /**
+   * Choose the member to send the next packet over, and acquire permission from its circuit breaker.
+   *
+   * @return A {@link Selection}, or {@code null} if every member is ejected.
+   */
+  private Selection selectMember() {
+    final int size = members.size();
+    final int scanStart = Math.floorMod(nextScanStart.getAndIncrement(), size);
+
+    // An ejected member whose ejection period has passed takes the next packet as its re-admission probe.
+    for (int i = 0; i < size; i++) {
+      final Member member = members.get((scanStart + i) % size);
+      if (member.circuitBreaker.getState() != CircuitBreaker.State.CLOSED) {
+        final CircuitBreaker.Permit permit = member.circuitBreaker.tryAcquirePermission();
+        if (permit != null) {
+          return new Selection(member, permit);
+        }
+      }
+    }
+
+    // A healthy member only denies permission if it was ejected since the scan, so each retry excludes one member.
+    long deniedMask = 0;
+    for (int attempt = 0; attempt < size; attempt++) {
+      Member best = null;
+      int bestIndex = -1;
+      for (int i = 0; i < size; i++) {
+        final int index = (scanStart + i) % size;
+        final Member member = members.get(index);
+        if ((index < Long.SIZE && (deniedMask & (1L << index)) != 0)
+            || member.circuitBreaker.getState() != CircuitBreaker.State.CLOSED) {
+          continue;
+        }
+        if (best == null || isBetter(member, best)) {
+          best = member;
+          bestIndex = index;
+        }
+      }
+      if (best == null) {
+        return null;
+      }
+      final CircuitBreaker.Permit permit = best.circuitBreaker.tryAcquirePermission();
+      if (permit != null) {
+        return new Selection(best, permit);
+      }
+      if (bestIndex < Long.SIZE) {
+        deniedMask |= 1L << bestIndex;
+      }
+    }
+    return null;
+  }
+
+  private boolean isBetter(final Member candidate, final Member best) {
+    if (groupSettings.routingStrategy() == RoutingStrategy.LOWEST_LATENCY) {
+      return candidate.getLoadedLatencyScore() < best.getLoadedLatencyScore();
+    }
+    final int candidateInFlight = candidate.inFlight.get();
+    final int bestInFlight = best.inFlight.get();
+    return candidateInFlight < bestInFlight
+        || (candidateInFlight == bestInFlight && candidate.getLatencyEwmaNanos() < best.getLatencyEwmaNanos());
+  }
+
+  private void onResponse(
+      final Selection selection, final long startNanos, final InterledgerResponsePacket responsePacket
+  ) {
+    final Member member = selection.member;
+    member.onComplete(ticker.read() - startNanos, groupSettings.latencyEwmaWeight());
+    final boolean failed = responsePacket instanceof InterledgerRejectPacket
+        && isFailure((InterledgerRejectPacket) responsePacket);
+    if (failed) {
+      member.circuitBreaker.onFailure(selection.permit);
+    } else {
+      member.circuitBreaker.onSuccess(selection.permit);
+    }
+  }
+
+  private void onFailure(final Selection selection, final long startNanos, final Throwable error) {
+    final Member member = selection.member;
+    member.onComplete(ticker.read() - startNanos, groupSettings.latencyEwmaWeight());
+    if (error instanceof LinkException) {
+      if (logger.isDebugEnabled()) {
+        logger.debug("Ejecting member {} of linkId={}: {}", members.indexOf(member), getLinkId(), error.getMessage());
+      }
+      member.circuitBreaker.trip(selection.permit);
+    } else {
+      member.circuitBreaker.onFailure(selection.permit);
+    }
+  }
+
+  private boolean isFailure(final InterledgerRejectPacket rejectPacket) {
+    final InterledgerErrorCode errorCode = rejectPacket.getCode();
+    if (errorCode.getErrorFamily() != ErrorFamily.TEMPORARY
+        || InterledgerErrorCode.T04_INSUFFICIENT_LIQUIDITY_CODE.equals(errorCode.getCode())) {
+      return false;
+    }
+    final Optional<InterledgerAddress> triggeredBy = rejectPacket.getTriggeredBy();
+    if (!triggeredBy.isPresent()) {
+      return false;
+    }
+    return triggeredBy.get().equals(getOperatorAddressSupplier().get())
+        || triggeredBy.equals(groupSettings.peerAddress());
+  }
+
+  private InterledgerRejectPacket rejectUnreachable(final InterledgerPreparePacket preparePacket) {
+    return packetRejector.reject(
+        getLinkId(), preparePacket, InterledgerErrorCode.T01_PEER_UNREACHABLE, "All links in group are ejected"
+    );
+  }
+
+  @Override
+  public void registerLinkHandler(final LinkHandler linkHandler) throws LinkHandlerAlreadyRegisteredException {
+    super.registerLinkHandler(linkHandler);
+    members.forEach(member -> member.link.registerLinkHandler(linkHandler));
+  }
+
+  @Override
+  public void unregisterLinkHandler() {
+    members.forEach(member -> member.link.unregisterLinkHandler());
+    super.unregisterLinkHandler();
+  }
+
+  @Override
+  public void testConnection() {
+    members.forEach(member -> member.link.testConnection());
+  }
+
+  /**
+   * Accessor for the members of this group, e.g. for monitoring.
+   *
+   * @return An immutable {@link List} of {@link Member}s, in the order the links were supplied.
+   */
+  public List<Member> getMembers() {
+    return members;
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", LinkGroup.class.getSimpleName() + "[", "]")
+        .add("linkSettings=" + getLinkSettings())
+        .add("routingStrategy=" + groupSettings.routingStrategy())
+        .add("members=" + members)
+        .toString();
+  }
+
+  /**
+   * The member chosen for a packet, and the permit its circuit breaker admitted the packet with.
+   */
+  private static final class Selection {
+
+    private final Member member;
+    private final CircuitBreaker.Permit permit;
+
+    private Selection(final Member member, final CircuitBreaker.Permit permit) {
+      this.member = member;
+      this.permit = permit;
+    }
+  }
+
+  /**
+   * A member {@link Link} of a {@link LinkGroup}, with the load and health information used to route packets to it.
+   */
+  public static final class Member {
+
+    private final Link<?> link;
+    private final CircuitBreaker circuitBreaker;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    // The bits of a double, so that it can be updated without locking. Zero until the first response.
+    private final AtomicLong latencyEwmaNanosBits = new AtomicLong(Double.doubleToRawLongBits(0));
+
+    private Member(final Link<?> link, final CircuitBreaker circuitBreaker) {
+      this.link = link;
+      this.circuitBreaker = circuitBreaker;
+    }
+
+    private long onSend(final Ticker ticker) {
+      inFlight.incrementAndGet();
+      return ticker.read();
+    }
+
+    private void onComplete(final long latencyNanos, final double weight) {
+      inFlight.decrementAndGet();
+      long currentBits;
+      double next;
+      do {
+        currentBits = latencyEwmaNanosBits.get();
+        final double current = Double.longBitsToDouble(currentBits);
+        next = current == 0 ? latencyNanos : current + weight * (latencyNanos - current);
+      } while (!latencyEwmaNanosBits.compareAndSet(currentBits, Double.doubleToRawLongBits(next)));
+    }
+
+    private double getLatencyEwmaNanos() {
+      return Double.longBitsToDouble(latencyEwmaNanosBits.get());
+    }
+
+    private double getLoadedLatencyScore() {
+      // One nanosecond floor so that members without samples are still ordered by how busy they are.
+      return (getLatencyEwmaNanos() + 1) * (inFlight.get() + 1);
+    }
+
+    /**
+     * Accessor for the member link.
+     *
+     * @return A {@link Link}.
+     */
+    public Link<?> getLink() {
+      return link;
+    }
+
+    /**
+     * Accessor for the number of packets currently in-flight over this member.
+     *
+     * @return An int.
+     */
+    public int getInFlight() {
+      return inFlight.get();
+    }
+
+    /**
+     * Accessor for the exponentially-weighted moving average latency of this member.
+     *
+     * @return A {@link Duration}, which is zero until the member has responded to a packet.
+     */
+    public Duration getLatencyEwma() {
+      return Duration.ofNanos((long) getLatencyEwmaNanos());
+    }
+
+    /**
+     * Whether this member is currently ejected from the group (or is waiting on its re-admission probe).
+     *
+     * @return {@code true} if this member is ejected.
+     */
+    public boolean isEjected() {
+      return circuitBreaker.getState() != CircuitBreaker.State.CLOSED;
+    }
+
+    @Override
+    public String toString() {
+      return new StringJoiner(", ", Member.class.getSimpleName() + "[", "]")
+          .add("link=" + link)
+          .add("inFlight=" + inFlight.get())
+          .add("latencyEwma=" + getLatencyEwma())
+          .add("circuitBreaker=" + circuitBreaker.getState())
+          .toString();
+    }
+  }
+}
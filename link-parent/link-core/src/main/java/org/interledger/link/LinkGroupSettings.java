@@ -0,0 +1,99 @@
+package org.interledger.link;
+
+import org.interledger.core.InterledgerAddress;
+
+import com.google.common.base.Preconditions;
+import org.immutables.value.Value;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Settings for a {@link LinkGroup}, which spreads packets to a single peer across several member {@link Link}s and
+ * ejects members that keep failing.
+ */
+@Value.Immutable
+public interface LinkGroupSettings {
+
+  static ImmutableLinkGroupSettings.Builder builder() {
+    return ImmutableLinkGroupSettings.builder();
+  }
+
+  /**
+   * How a {@link LinkGroup} chooses the member link for each packet.
+   */
+  enum RoutingStrategy {
+    /**
+     * Send each packet to the member with the fewest packets in-flight, preferring the member with the lower average
+     * latency when several are tied.
+     */
+    LEAST_OUTSTANDING,
+    /**
+     * Send each packet to the member with the lowest average latency, weighted by the number of packets it already has
+     * in-flight so that a single fast member is not flooded.
+     */
+    LOWEST_LATENCY
+  }
+
+  /**
+   * The strategy used to choose the member link for each packet.
+   *
+   * @return A {@link RoutingStrategy}.
+   */
+  @Value.Default
+  default RoutingStrategy routingStrategy() {
+    return RoutingStrategy.LEAST_OUTSTANDING;
+  }
+
+  /**
+   * The weight, greater than 0 and at most 1, given to each new latency sample in a member's exponentially-weighted
+   * moving average latency. Higher values react faster to a member becoming slow.
+   *
+   * @return A double.
+   */
+  @Value.Default
+  default double latencyEwmaWeight() {
+    return 0.2;
+  }
+
+  /**
+   * The ILP address of the peer that every member connects to. Temporary rejects triggered by the peer count as
+   * failures of the member they arrived on. Rejects triggered further along the payment path do not, because they say
+   * nothing about that member. If absent, only temporary rejects triggered by this node itself count.
+   *
+   * @return An optionally-present {@link InterledgerAddress}.
+   */
+  Optional<InterledgerAddress> peerAddress();
+
+  /**
+   * The number of consecutive failures (temporary rejects triggered by the peer or by this node, or exceptions) after
+   * which a member is ejected from the group.
+   *
+   * @return An int.
+   */
+  @Value.Default
+  default int failureThreshold() {
+    return 5;
+  }
+
+  /**
+   * How long an ejected member receives no packets before a single probe packet is sent to it. The member is
+   * re-admitted if the probe succeeds, and ejected again otherwise.
+   *
+   * @return A {@link Duration}.
+   */
+  @Value.Default
+  default Duration ejectionDuration() {
+    return Duration.ofSeconds(10);
+  }
+
+  @Value.Check
+  default LinkGroupSettings validate() {
+    Preconditions.checkState(
+        latencyEwmaWeight() > 0 && latencyEwmaWeight() <= 1, "latencyEwmaWeight must be greater than 0 and at most 1"
+    );
+    Preconditions.checkState(failureThreshold() >= 1, "failureThreshold must be at least 1");
+    Preconditions.checkState(!ejectionDuration().isNegative(), "ejectionDuration must not be negative");
+    return this;
+  }
+}
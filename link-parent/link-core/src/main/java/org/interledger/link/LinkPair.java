@@ -0,0 +1,56 @@
+package org.interledger.link;
+
+import java.util.Objects;
+import java.util.StringJoiner;
+
+/**
+ * <p>Two {@link SimulatedLink}s connected back-to-back, so that packets sent on either link are handled by the
+ * {@link LinkHandler} registered on the other, just as with two nodes that peer with each other over a real link.</p>
+ *
+ * <p>Each side's handler is looked up for every packet, so handlers may be registered after the pair is
+ * connected.</p>
+ */
+public final class LinkPair {
+
+  private final SimulatedLink left;
+  private final SimulatedLink right;
+
+  private LinkPair(final SimulatedLink left, final SimulatedLink right) {
+    this.left = left;
+    this.right = right;
+  }
+
+  /**
+   * Connect two {@link SimulatedLink}s to each other. Each link simulates the network conditions of its own direction,
+   * so asymmetric links can be modelled with different settings on each side.
+   *
+   * @param left  A {@link SimulatedLink} whose packets are handled by {@code right}.
+   * @param right A {@link SimulatedLink} whose packets are handled by {@code left}.
+   *
+   * @return A {@link LinkPair}.
+   */
+  public static LinkPair connect(final SimulatedLink left, final SimulatedLink right) {
+    Objects.requireNonNull(left, "left must not be null");
+    Objects.requireNonNull(right, "right must not be null");
+
+    left.connect(preparePacket -> right.safeGetLinkHandler().handleIncomingPacket(preparePacket));
+    right.connect(preparePacket -> left.safeGetLinkHandler().handleIncomingPacket(preparePacket));
+    return new LinkPair(left, right);
+  }
+
+  public SimulatedLink getLeft() {
+    return left;
+  }
+
+  public SimulatedLink getRight() {
+    return right;
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", LinkPair.class.getSimpleName() + "[", "]")
+        .add("left=" + left)
+        .add("right=" + right)
+        .toString();
+  }
+}
@@ -5,8 +5,12 @@ import org.interledger.core.InterledgerPreparePacket;
 import org.interledger.core.InterledgerRejectPacket;
 import org.interledger.core.InterledgerResponsePacket;
 
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Defines how to send data to the other side of a bilateral link (i.e., the other party operating a single account in
@@ -37,4 +41,51 @@ public interface LinkSender {
    */
   InterledgerResponsePacket sendPacket(InterledgerPreparePacket preparePacket);
 
+  /**
+   * <p>Sends an ILPv4 request packet to a peer without blocking the calling thread, returning a future that completes
+   * with the response packet. The returned future completes with the same responses as {@link
+   * #sendPacket(InterledgerPreparePacket)}, or exceptionally with whatever that method would have thrown.</p>
+   *
+   * <p>The default implementation adapts {@link #sendPacket(InterledgerPreparePacket)} by calling it on the caller's
+   * thread and returning an already-completed future, so it blocks the caller for as long as {@code sendPacket} does.
+   * It deliberately does not hand the call to a shared pool such as {@link ForkJoinPool#commonPool()}, where every
+   * in-flight packet would park a thread that unrelated parallel streams and futures rely on. Callers of a blocking
+   * implementation that must not block should call this method from their own executor. Implementations that can send
+   * packets without blocking (e.g., using non-blocking I/O, or because the response is computed in-memory) SHOULD
+   * override this method so that many packets can be in-flight without any dedicated threads.</p>
+   *
+   * @param preparePacket An {@link InterledgerPreparePacket} to send to the remote peer.
+   *
+   * @return A {@link CompletableFuture} that completes with an {@link InterledgerResponsePacket}, which will be of
+   *     concrete type {@link InterledgerFulfillPacket} or {@link InterledgerRejectPacket}.
+   */
+  default CompletableFuture<InterledgerResponsePacket> sendPacketAsync(
+    final InterledgerPreparePacket preparePacket
+  ) {
+    Objects.requireNonNull(preparePacket, "preparePacket must not be null");
+    return completedResponse(() -> sendPacket(preparePacket));
+  }
+
+  /**
+   * Adapt a blocking call that produces a response, such as {@link #sendPacket(InterledgerPreparePacket)}, to a
+   * future by calling it on the caller's thread and returning an already-completed future.
+   *
+   * @param responseSupplier A {@link Supplier} that produces an {@link InterledgerResponsePacket}.
+   *
+   * @return A completed {@link CompletableFuture}, which is completed exceptionally if {@code responseSupplier} threw an
+   *     exception.
+   */
+  static CompletableFuture<InterledgerResponsePacket> completedResponse(
+    final Supplier<InterledgerResponsePacket> responseSupplier
+  ) {
+    Objects.requireNonNull(responseSupplier, "responseSupplier must not be null");
+    final CompletableFuture<InterledgerResponsePacket> future = new CompletableFuture<>();
+    try {
+      future.complete(responseSupplier.get());
+    } catch (RuntimeException e) {
+      future.completeExceptionally(e);
+    }
+    return future;
+  }
+
 }
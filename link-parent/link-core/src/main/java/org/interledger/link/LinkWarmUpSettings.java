@@ -0,0 +1,33 @@
+package org.interledger.link;
+
+import com.google.common.base.Preconditions;
+import org.immutables.value.Value;
+
+/**
+ * Settings for warming up a {@link Warmable} link as soon as it is constructed, so that the first real packet does not
+ * pay for connection establishment and authentication.
+ */
+@Value.Immutable
+public interface LinkWarmUpSettings {
+
+  static ImmutableLinkWarmUpSettings.Builder builder() {
+    return ImmutableLinkWarmUpSettings.builder();
+  }
+
+  /**
+   * The number of connections to the remote peer to open ahead of time, where the link's transport supports more than
+   * one. Each connection is opened by sending an unfulfillable packet that the peer will reject.
+   *
+   * @return An int.
+   */
+  @Value.Default
+  default int connections() {
+    return 2;
+  }
+
+  @Value.Check
+  default LinkWarmUpSettings validate() {
+    Preconditions.checkState(connections() >= 1, "connections must be at least 1");
+    return this;
+  }
+}
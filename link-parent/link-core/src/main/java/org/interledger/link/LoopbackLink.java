@@ -15,6 +15,10 @@ import com.google.common.annotations.VisibleForTesting;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 /**
@@ -30,6 +34,9 @@ public class LoopbackLink extends AbstractLink<LinkSettings> implements Link<Lin
   // A constant key that can be added to this link's customSettings to simulate a particular rejection error code.
   public static final String SIMULATED_REJECT_ERROR_CODE = "simulatedRejectErrorCode";
 
+  // How long a packet takes to be rejected with T03.
+  private static final int SIMULATED_TIMEOUT_MILLIS = 60000;
+
   private final PacketRejector packetRejector;
 
   /**
@@ -68,7 +75,7 @@ public class LoopbackLink extends AbstractLink<LinkSettings> implements Link<Lin
           return packetRejector.reject(this.getLinkId(), preparePacket, InterledgerErrorCode.T02_PEER_BUSY,
             "Loopback set to manually reject via simulate_timeout=T02");
         } else if (value.equals("T03")) {
-          return sleepAndReject(preparePacket, 60000);
+          return sleepAndReject(preparePacket, SIMULATED_TIMEOUT_MILLIS);
         }
         if (value.equals("T99")) {
           throw new RuntimeException("T99 APPLICATION ERROR");
@@ -92,10 +99,34 @@ public class LoopbackLink extends AbstractLink<LinkSettings> implements Link<Lin
     } catch (InterruptedException e) {
       throw new RuntimeException(e);
     }
+    return simulatedTimeoutReject(preparePacket);
+  }
+
+  private InterledgerResponsePacket simulatedTimeoutReject(final InterledgerPreparePacket preparePacket) {
     return packetRejector.reject(this.getLinkId(), preparePacket, InterledgerErrorCode.T03_CONNECTOR_BUSY,
       "Loopback set to exceed timeout via simulate_timeout=T03");
   }
 
+  @Override
+  public CompletableFuture<InterledgerResponsePacket> sendPacketAsync(
+    final InterledgerPreparePacket preparePacket
+  ) {
+    Objects.requireNonNull(preparePacket, "preparePacket must not be null");
+
+    if ("T03".equals(this.getLinkSettings().getCustomSettings().get(SIMULATED_REJECT_ERROR_CODE))) {
+      // Rather than sleeping through the simulated timeout, complete the response once it has elapsed, so that no
+      // thread is parked for each in-flight packet.
+      final CompletableFuture<InterledgerResponsePacket> responseFuture = new CompletableFuture<>();
+      final InterledgerResponsePacket rejectPacket = simulatedTimeoutReject(preparePacket);
+      SimulatedTimeoutTimer.INSTANCE.schedule(() -> {
+        responseFuture.complete(rejectPacket);
+      }, SIMULATED_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+      return responseFuture;
+    }
+    // Responses are computed in-memory, so there is nothing to wait on.
+    return super.sendPacketAsync(preparePacket);
+  }
+
   @Override
   public String toString() {
     return new StringJoiner(", ", LoopbackLink.class.getSimpleName() + "[", "]")
@@ -104,4 +135,23 @@ public class LoopbackLink extends AbstractLink<LinkSettings> implements Link<Lin
       .add("linkSettings=" + getLinkSettings())
       .toString();
   }
+
+  /**
+   * Holder for the timer shared by every {@link LoopbackLink} that completes simulated T03 timeouts, which is only
+   * created once a link needs it.
+   */
+  private static final class SimulatedTimeoutTimer {
+
+    private static final ScheduledExecutorService INSTANCE = newTimer();
+
+    private static ScheduledExecutorService newTimer() {
+      final ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+        final Thread thread = new Thread(runnable, "loopback-link-simulated-timeout");
+        thread.setDaemon(true);
+        return thread;
+      });
+      timer.setRemoveOnCancelPolicy(true);
+      return timer;
+    }
+  }
 }
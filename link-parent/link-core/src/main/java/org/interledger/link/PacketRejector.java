@@ -8,11 +8,19 @@ import org.interledger.core.InterledgerRejectPacket;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 
 /**
- * Utility class for helping to reject a packet.
+ * <p>Utility class for helping to reject a packet.</p>
+ *
+ * <p>When constructed with {@code useRejectTemplates} enabled, this rejector pre-builds one immutable
+ * {@link InterledgerRejectPacket} per ({@link InterledgerErrorCode}, triggeredBy) pair and hands out that same instance
+ * for every subsequent reject with the same message, so reject storms (e.g., bursts of T02 or T04 rejections) do not
+ * allocate a new packet per rejected Prepare. Rejects carrying a different message than the template are still built
+ * on-demand.</p>
  */
 public class PacketRejector {
 
@@ -20,14 +28,36 @@ public class PacketRejector {
 
   private final Supplier<InterledgerAddress> operatorAddressSupplier;
 
+  private final boolean useRejectTemplates;
+
+  // Keyed by triggeredBy, then by error code. Both key-spaces are small (the operator address changes at most a few
+  // times, e.g. via IL-DCP), so this map stays bounded without an eviction policy. Nested maps avoid allocating a
+  // composite key on every lookup.
+  private final Map<InterledgerAddress, Map<InterledgerErrorCode, InterledgerRejectPacket>> rejectTemplates;
+
   /**
    * Required-args Constructor.
    *
    * @param operatorAddressSupplier A {@link Supplier} of the ILP address for the node that's operating this Link.
    */
   public PacketRejector(final Supplier<InterledgerAddress> operatorAddressSupplier) {
+    this(operatorAddressSupplier, false);
+  }
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param operatorAddressSupplier A {@link Supplier} of the ILP address for the node that's operating this Link.
+   * @param useRejectTemplates      {@code true} to return pre-built reject packets per (code, triggeredBy) pair;
+   *                                {@code false} to build a new reject packet for every call.
+   */
+  public PacketRejector(
+      final Supplier<InterledgerAddress> operatorAddressSupplier, final boolean useRejectTemplates
+  ) {
     this.operatorAddressSupplier = Objects
         .requireNonNull(operatorAddressSupplier, "operatorAddressSupplier must not be null");
+    this.useRejectTemplates = useRejectTemplates;
+    this.rejectTemplates = new ConcurrentHashMap<>();
   }
 
   /**
@@ -50,17 +80,58 @@ public class PacketRejector {
     Objects.requireNonNull(errorMessage, "errorMessage must not be null");
 
     // Reject.
-    final InterledgerRejectPacket rejectPacket = InterledgerRejectPacket.builder()
-        .triggeredBy(operatorAddressSupplier.get())
-        .code(errorCode)
-        .message(errorMessage)
-        .build();
+    final InterledgerAddress triggeredBy = operatorAddressSupplier.get();
+    final InterledgerRejectPacket rejectPacket = useRejectTemplates
+        ? this.rejectFromTemplate(triggeredBy, errorCode, errorMessage)
+        : this.buildRejectPacket(triggeredBy, errorCode, errorMessage);
 
-    logger.debug(
-        "Rejecting inside linkId={}: PreparePacket={} RejectPacket={}",
-        rejectingLinkId, preparePacket, rejectPacket
-    );
+    if (logger.isDebugEnabled()) {
+      logger.debug(
+          "Rejecting inside linkId={}: PreparePacket={} RejectPacket={}",
+          rejectingLinkId, preparePacket, rejectPacket
+      );
+    }
 
     return rejectPacket;
   }
+
+  /**
+   * Obtain the pre-built reject packet for the supplied {@code triggeredBy} and {@code errorCode}, building and storing
+   * it on first use. If the stored template carries a different message, a new packet is built instead so that callers
+   * always observe the message they supplied.
+   */
+  private InterledgerRejectPacket rejectFromTemplate(
+      final InterledgerAddress triggeredBy, final InterledgerErrorCode errorCode, final String errorMessage
+  ) {
+    Map<InterledgerErrorCode, InterledgerRejectPacket> templatesByCode = rejectTemplates.get(triggeredBy);
+    if (templatesByCode == null) {
+      rejectTemplates.putIfAbsent(triggeredBy, new ConcurrentHashMap<>());
+      templatesByCode = rejectTemplates.get(triggeredBy);
+    }
+
+    InterledgerRejectPacket template = templatesByCode.get(errorCode);
+    if (template == null) {
+      template = buildRejectPacket(triggeredBy, errorCode, errorMessage);
+      final InterledgerRejectPacket existing = templatesByCode.putIfAbsent(errorCode, template);
+      if (existing != null) {
+        template = existing;
+      }
+    }
+
+    if (template.getMessage().equals(errorMessage)) {
+      return template;
+    } else {
+      return buildRejectPacket(triggeredBy, errorCode, errorMessage);
+    }
+  }
+
+  private InterledgerRejectPacket buildRejectPacket(
+      final InterledgerAddress triggeredBy, final InterledgerErrorCode errorCode, final String errorMessage
+  ) {
+    return InterledgerRejectPacket.builder()
+        .triggeredBy(triggeredBy)
+        .code(errorCode)
+        .message(errorMessage)
+        .build();
+  }
 }
@@ -0,0 +1,486 @@
+package org.interledger.link;
+
+import org.interledger.codecs.ilp.InterledgerCodecContextFactory;
+import org.interledger.core.AmountTooLargeErrorData;
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerErrorCode;
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerRejectPacket;
+import org.interledger.core.InterledgerResponsePacket;
+import org.interledger.link.exceptions.LinkException;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Ticker;
+import com.google.common.primitives.UnsignedLong;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Random;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * <p>A {@link Link} that delivers packets to a peer {@link LinkHandler} in-memory, while simulating the conditions of
+ * a real network link. This allows senders (e.g., a STREAM payer) to be exercised against a receiver (e.g., {@code
+ * StatelessSpspReceiverLink#sendPacket}) without any sockets, for tests and load simulations.</p>
+ *
+ * <p>Network conditions are configured using the following {@link LinkSettings#getCustomSettings()} keys, all of
+ * which are optional:</p>
+ *
+ * <ul>
+ *   <li>{@link #SIMULATED_LATENCY_MILLIS}: The mean round-trip latency of every packet (default: 0).</li>
+ *   <li>{@link #SIMULATED_JITTER_MILLIS}: The spread of the latency around its mean (default: 0).</li>
+ *   <li>{@link #SIMULATED_LATENCY_DISTRIBUTION}: One of {@link LatencyDistribution}, which determines how the
+ *   jitter is sampled (default: {@link LatencyDistribution#UNIFORM}).</li>
+ *   <li>{@link #SIMULATED_PACKETS_PER_SECOND}: The rate above which packets are rejected with {@code T05}.</li>
+ *   <li>{@link #SIMULATED_LIQUIDITY}: The maximum total amount of unresolved packets, above which packets are
+ *   rejected with {@code T04}.</li>
+ *   <li>{@link #SIMULATED_MAX_PACKET_AMOUNT}: The amount above which packets are rejected with {@code F08}.</li>
+ *   <li>{@link #SIMULATED_DROP_RATE}: The fraction of packets, between 0 and 1, that are lost and therefore expire
+ *   with {@code R00}.</li>
+ *   <li>{@link LoopbackLink#SIMULATED_REJECT_ERROR_CODE}: An error code to reject every packet with.</li>
+ *   <li>{@link #SIMULATED_RANDOM_SEED}: A seed that makes latency and drops reproducible.</li>
+ * </ul>
+ *
+ * <p>Packets are never delayed by sleeping. Instead, the first half of each packet's latency elapses on a shared
+ * timer before the peer's handler is invoked, and the second half before the response is completed, so any number
+ * of packets can be in-flight at once using only a handful of timer threads. The peer's handler is invoked, and
+ * responses are completed, on a separate executor rather than on the timer, so a handler (or a stage that depends on
+ * {@link #sendPacketAsync}) may itself call {@link #sendPacket} without starving the timer that its response is
+ * waiting on.</p>
+ *
+ * @see LinkPair
+ */
+public class SimulatedLink extends AbstractLink<LinkSettings> implements Link<LinkSettings> {
+
+  public static final String LINK_TYPE_STRING = "SIMULATED";
+  public static final LinkType LINK_TYPE = LinkType.of(LINK_TYPE_STRING);
+
+  public static final String SIMULATED_LATENCY_MILLIS = "simulatedLatencyMillis";
+  public static final String SIMULATED_JITTER_MILLIS = "simulatedJitterMillis";
+  public static final String SIMULATED_LATENCY_DISTRIBUTION = "simulatedLatencyDistribution";
+  public static final String SIMULATED_PACKETS_PER_SECOND = "simulatedPacketsPerSecond";
+  public static final String SIMULATED_LIQUIDITY = "simulatedLiquidity";
+  public static final String SIMULATED_MAX_PACKET_AMOUNT = "simulatedMaxPacketAmount";
+  public static final String SIMULATED_DROP_RATE = "simulatedDropRate";
+  public static final String SIMULATED_RANDOM_SEED = "simulatedRandomSeed";
+
+  private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  private final PacketRejector packetRejector;
+  private final ScheduledExecutorService scheduler;
+  private final Executor deliveryExecutor;
+  private final Ticker ticker;
+  private final Clock clock;
+  private final Random random;
+
+  private final long latencyNanos;
+  private final long jitterNanos;
+  private final LatencyDistribution latencyDistribution;
+  private final long packetIntervalNanos;
+  private final Optional<UnsignedLong> liquidity;
+  private final Optional<UnsignedLong> maxPacketAmount;
+  private final double dropRate;
+  private final Optional<InterledgerErrorCode> rejectErrorCode;
+
+  private final AtomicReference<LinkHandler> peerLinkHandler = new AtomicReference<>();
+
+  // The theoretical arrival time of the next packet, used to enforce the packet rate without a lock.
+  private final AtomicLong nextPacketNanos;
+  // The total amount of unresolved packets, as an unsigned long.
+  private final AtomicLong amountInFlight = new AtomicLong();
+
+  /**
+   * Required-Args Constructor.
+   *
+   * @param operatorAddressSupplier A supplier for the ILP address of this node operating this Link. This value may be
+   *                                uninitialized, for example, in cases where the Link obtains its address from a
+   *                                parent node using IL-DCP. If an ILP address has not been assigned, or it has not
+   *                                been obtained via IL-DCP, then this value will by default be {@link Link#SELF}.
+   * @param linkSettings            A {@link LinkSettings} for this Link.
+   * @param packetRejector          A {@link PacketRejector} to aid in rejecting packets in a uniform manner.
+   */
+  public SimulatedLink(
+      final Supplier<InterledgerAddress> operatorAddressSupplier,
+      final LinkSettings linkSettings,
+      final PacketRejector packetRejector
+  ) {
+    this(
+        operatorAddressSupplier, linkSettings, packetRejector, SharedTimer.INSTANCE, SharedDeliveryExecutor.INSTANCE,
+        Ticker.systemTicker(), Clock.systemUTC()
+    );
+  }
+
+  @VisibleForTesting
+  SimulatedLink(
+      final Supplier<InterledgerAddress> operatorAddressSupplier,
+      final LinkSettings linkSettings,
+      final PacketRejector packetRejector,
+      final ScheduledExecutorService scheduler,
+      final Executor deliveryExecutor,
+      final Ticker ticker,
+      final Clock clock
+  ) {
+    super(operatorAddressSupplier, linkSettings);
+    this.packetRejector = Objects.requireNonNull(packetRejector, "packetRejector must not be null");
+    this.scheduler = Objects.requireNonNull(scheduler, "scheduler must not be null");
+    this.deliveryExecutor = Objects.requireNonNull(deliveryExecutor, "deliveryExecutor must not be null");
+    this.ticker = Objects.requireNonNull(ticker, "ticker must not be null");
+    this.clock = Objects.requireNonNull(clock, "clock must not be null");
+
+    final Map<String, Object> customSettings = linkSettings.getCustomSettings();
+    this.latencyNanos = TimeUnit.MILLISECONDS.toNanos(
+        customSetting(customSettings, SIMULATED_LATENCY_MILLIS).map(Long::parseLong).orElse(0L)
+    );
+    this.jitterNanos = TimeUnit.MILLISECONDS.toNanos(
+        customSetting(customSettings, SIMULATED_JITTER_MILLIS).map(Long::parseLong).orElse(0L)
+    );
+    Preconditions.checkArgument(latencyNanos >= 0, "%s must not be negative", SIMULATED_LATENCY_MILLIS);
+    Preconditions.checkArgument(jitterNanos >= 0, "%s must not be negative", SIMULATED_JITTER_MILLIS);
+    this.latencyDistribution = customSetting(customSettings, SIMULATED_LATENCY_DISTRIBUTION)
+        .map(LatencyDistribution::valueOf)
+        .orElse(LatencyDistribution.UNIFORM);
+
+    final double packetsPerSecond = customSetting(customSettings, SIMULATED_PACKETS_PER_SECOND)
+        .map(Double::parseDouble)
+        .orElse(0d);
+    Preconditions.checkArgument(packetsPerSecond >= 0, "%s must not be negative", SIMULATED_PACKETS_PER_SECOND);
+    this.packetIntervalNanos = packetsPerSecond == 0 ? 0 : (long) Math.ceil(NANOS_PER_SECOND / packetsPerSecond);
+    this.nextPacketNanos = new AtomicLong(ticker.read());
+
+    this.liquidity = customSetting(customSettings, SIMULATED_LIQUIDITY).map(UnsignedLong::valueOf);
+    this.maxPacketAmount = customSetting(customSettings, SIMULATED_MAX_PACKET_AMOUNT).map(UnsignedLong::valueOf);
+    this.dropRate = customSetting(customSettings, SIMULATED_DROP_RATE).map(Double::parseDouble).orElse(0d);
+    Preconditions.checkArgument(
+        dropRate >= 0 && dropRate <= 1, "%s must be between 0 and 1", SIMULATED_DROP_RATE
+    );
+    this.rejectErrorCode = customSetting(customSettings, LoopbackLink.SIMULATED_REJECT_ERROR_CODE)
+        .map(InterledgerErrorCode::valueOf);
+    this.random = customSetting(customSettings, SIMULATED_RANDOM_SEED)
+        .map(Long::parseLong)
+        .map(Random::new)
+        .orElseGet(Random::new);
+  }
+
+  private static Optional<String> customSetting(final Map<String, Object> customSettings, final String key) {
+    return Optional.ofNullable(customSettings.get(key)).map(String::valueOf).map(String::trim);
+  }
+
+  /**
+   * Connect this link to the {@link LinkHandler} of its peer, which is invoked for every packet sent on this link.
+   * To connect a sender to a link that receives packets via {@link Link#sendPacket}, such as {@code
+   * StatelessSpspReceiverLink}, supply a method reference to that link's {@code sendPacket} method.
+   *
+   * @param peerLinkHandler The {@link LinkHandler} that receives packets sent on this link.
+   *
+   * @throws IllegalStateException if this link is already connected.
+   */
+  public void connect(final LinkHandler peerLinkHandler) {
+    Objects.requireNonNull(peerLinkHandler, "peerLinkHandler must not be null");
+    if (!this.peerLinkHandler.compareAndSet(null, peerLinkHandler)) {
+      throw new IllegalStateException("SimulatedLink may only be connected once");
+    }
+  }
+
+  @Override
+  public InterledgerResponsePacket sendPacket(final InterledgerPreparePacket preparePacket) {
+    try {
+      return sendPacketAsync(preparePacket).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  @Override
+  public CompletableFuture<InterledgerResponsePacket> sendPacketAsync(final InterledgerPreparePacket preparePacket) {
+    Objects.requireNonNull(preparePacket, "preparePacket must not be null");
+
+    final LinkHandler peerLinkHandler = this.peerLinkHandler.get();
+    if (peerLinkHandler == null) {
+      throw new LinkException("SimulatedLink must be connected before sending packets", getLinkId());
+    }
+
+    final CompletableFuture<InterledgerResponsePacket> responseFuture = new CompletableFuture<>();
+    final long roundTripNanos = sampleLatencyNanos();
+    final long expiryNanos = Math.max(0, Duration.between(clock.instant(), preparePacket.getExpiresAt()).toNanos());
+
+    if (random.nextDouble() < dropRate || roundTripNanos >= expiryNanos) {
+      // The packet (or its response) never arrives, so the sender gives up once the packet expires.
+      final InterledgerRejectPacket rejectPacket = packetRejector.reject(
+          getLinkId(), preparePacket, InterledgerErrorCode.R00_TRANSFER_TIMED_OUT, "Simulated packet loss"
+      );
+      // Block lambdas, so every delay is scheduled as a Runnable rather than as a Callable returning a boolean.
+      scheduler.schedule(() -> {
+        deliver(responseFuture, () -> responseFuture.complete(rejectPacket));
+      }, expiryNanos, TimeUnit.NANOSECONDS);
+      return responseFuture;
+    }
+
+    final Optional<InterledgerRejectPacket> simulatedReject = simulateReject(preparePacket);
+    if (simulatedReject.isPresent()) {
+      scheduler.schedule(() -> {
+        deliver(responseFuture, () -> responseFuture.complete(simulatedReject.get()));
+      }, roundTripNanos, TimeUnit.NANOSECONDS);
+      return responseFuture;
+    }
+
+    final long forwardNanos = roundTripNanos / 2;
+    // Liquidity is released exactly once, when the response is due or as soon as the packet is known to have failed.
+    responseFuture.whenComplete(($, error) -> {
+      if (error != null) {
+        releaseLiquidity(preparePacket.getAmount());
+      }
+    });
+    scheduler.schedule(() -> {
+      deliver(responseFuture, () -> {
+        final InterledgerResponsePacket responsePacket;
+        try {
+          responsePacket = peerLinkHandler.handleIncomingPacket(preparePacket);
+        } catch (RuntimeException e) {
+          responseFuture.completeExceptionally(e);
+          return;
+        }
+        scheduler.schedule(() -> {
+          deliver(responseFuture, () -> {
+            releaseLiquidity(preparePacket.getAmount());
+            responseFuture.complete(responsePacket);
+          });
+        }, roundTripNanos - forwardNanos, TimeUnit.NANOSECONDS);
+      });
+    }, forwardNanos, TimeUnit.NANOSECONDS);
+    return responseFuture;
+  }
+
+  /**
+   * Hand {@code task} off from the timer to the delivery executor, so that neither the peer's handler nor anything
+   * that depends on {@code responseFuture} ever runs on (or blocks) a timer thread.
+   *
+   * @param responseFuture The response that {@code task} completes, which fails if the task cannot be run.
+   * @param task           A {@link Runnable} to run on the delivery executor.
+   */
+  private void deliver(final CompletableFuture<InterledgerResponsePacket> responseFuture, final Runnable task) {
+    try {
+      deliveryExecutor.execute(task);
+    } catch (RejectedExecutionException e) {
+      responseFuture.completeExceptionally(e);
+    }
+  }
+
+  /**
+   * Apply the configured packet rules, in the order a real peer would apply them.
+   *
+   * @param preparePacket The {@link InterledgerPreparePacket} being sent.
+   *
+   * @return A reject packet if {@code preparePacket} breaks any rule; otherwise, {@link Optional#empty()}, in which
+   *     case the amount of {@code preparePacket} has been added to the amount in-flight.
+   */
+  private Optional<InterledgerRejectPacket> simulateReject(final InterledgerPreparePacket preparePacket) {
+    if (rejectErrorCode.isPresent()) {
+      return Optional.of(packetRejector.reject(
+          getLinkId(), preparePacket, rejectErrorCode.get(), "Simulated rejection"
+      ));
+    }
+    if (maxPacketAmount.isPresent() && preparePacket.getAmount().compareTo(maxPacketAmount.get()) > 0) {
+      return Optional.of(amountTooLarge(preparePacket, maxPacketAmount.get()));
+    }
+    if (!tryAcquirePacket()) {
+      return Optional.of(packetRejector.reject(
+          getLinkId(), preparePacket, InterledgerErrorCode.T05_RATE_LIMITED, "Simulated packet rate exceeded"
+      ));
+    }
+    if (!tryAcquireLiquidity(preparePacket.getAmount())) {
+      return Optional.of(packetRejector.reject(
+          getLinkId(), preparePacket, InterledgerErrorCode.T04_INSUFFICIENT_LIQUIDITY, "Simulated liquidity exceeded"
+      ));
+    }
+    return Optional.empty();
+  }
+
+  private InterledgerRejectPacket amountTooLarge(
+      final InterledgerPreparePacket preparePacket, final UnsignedLong maximumAmount
+  ) {
+    final AmountTooLargeErrorData amountTooLargeErrorData = AmountTooLargeErrorData.builder()
+        .maximumAmount(maximumAmount)
+        .receivedAmount(preparePacket.getAmount())
+        .build();
+    final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    try {
+      InterledgerCodecContextFactory.oer().write(amountTooLargeErrorData, baos);
+    } catch (IOException e) {
+      throw new RuntimeException(e.getMessage(), e);
+    }
+
+    return InterledgerRejectPacket.builder()
+        .triggeredBy(getOperatorAddressSupplier().get())
+        .code(InterledgerErrorCode.F08_AMOUNT_TOO_LARGE)
+        .message("Prepare packet amount was too large")
+        .data(baos.toByteArray())
+        .typedData(amountTooLargeErrorData)
+        .build();
+  }
+
+  /**
+   * Admit a packet if doing so keeps the packet rate at or below its limit, allowing a burst of up to one second's
+   * worth of packets (a generic cell rate algorithm).
+   */
+  private boolean tryAcquirePacket() {
+    if (packetIntervalNanos == 0) {
+      return true;
+    }
+    final long nowNanos = ticker.read();
+    while (true) {
+      final long next = nextPacketNanos.get();
+      final long arrivalNanos = Math.max(next, nowNanos);
+      if (arrivalNanos - nowNanos >= NANOS_PER_SECOND) {
+        return false;
+      }
+      if (nextPacketNanos.compareAndSet(next, arrivalNanos + packetIntervalNanos)) {
+        return true;
+      }
+    }
+  }
+
+  private boolean tryAcquireLiquidity(final UnsignedLong amount) {
+    if (!liquidity.isPresent()) {
+      return true;
+    }
+    final long limit = liquidity.get().longValue();
+    while (true) {
+      final long current = amountInFlight.get();
+      final long next = current + amount.longValue();
+      if (Long.compareUnsigned(next, current) < 0 || Long.compareUnsigned(next, limit) > 0) {
+        return false;
+      }
+      if (amountInFlight.compareAndSet(current, next)) {
+        return true;
+      }
+    }
+  }
+
+  private void releaseLiquidity(final UnsignedLong amount) {
+    if (liquidity.isPresent()) {
+      amountInFlight.addAndGet(-amount.longValue());
+    }
+  }
+
+  private long sampleLatencyNanos() {
+    if (jitterNanos == 0) {
+      return latencyNanos;
+    }
+    final double offsetNanos;
+    switch (latencyDistribution) {
+      case UNIFORM: {
+        offsetNanos = (random.nextDouble() * 2 - 1) * jitterNanos;
+        break;
+      }
+      case NORMAL: {
+        offsetNanos = random.nextGaussian() * jitterNanos;
+        break;
+      }
+      case EXPONENTIAL: {
+        offsetNanos = -Math.log(1 - random.nextDouble()) * jitterNanos;
+        break;
+      }
+      case CONSTANT:
+      default: {
+        offsetNanos = 0;
+      }
+    }
+    return Math.max(0, latencyNanos + (long) offsetNanos);
+  }
+
+  /**
+   * The total amount of packets sent on this link that have not yet been resolved. Only tracked when {@link
+   * #SIMULATED_LIQUIDITY} is configured.
+   *
+   * @return An {@link UnsignedLong}.
+   */
+  public UnsignedLong getAmountInFlight() {
+    return UnsignedLong.fromLongBits(amountInFlight.get());
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", SimulatedLink.class.getSimpleName() + "[", "]")
+        .add("linkId=" + getLinkId())
+        .add("operatorAddressSupplier=" + getOperatorAddressSupplier().get())
+        .add("linkSettings=" + getLinkSettings())
+        .toString();
+  }
+
+  /**
+   * How the jitter of a {@link SimulatedLink} is applied to its mean latency.
+   */
+  public enum LatencyDistribution {
+    /**
+     * Every packet takes exactly the mean latency; the jitter is ignored.
+     */
+    CONSTANT,
+    /**
+     * The latency is uniformly distributed within the jitter either side of the mean.
+     */
+    UNIFORM,
+    /**
+     * The latency is normally distributed around the mean, with the jitter as its standard deviation.
+     */
+    NORMAL,
+    /**
+     * The mean latency is a floor, plus an exponentially distributed delay whose mean is the jitter. This models the
+     * long tail of a congested network.
+     */
+    EXPONENTIAL
+  }
+
+  /**
+   * Holder for the timer shared by every {@link SimulatedLink}, which is only created once a link needs it.
+   */
+  private static final class SharedTimer {
+
+    private static final ScheduledExecutorService INSTANCE = newTimer();
+
+    private static ScheduledExecutorService newTimer() {
+      final ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(
+          Runtime.getRuntime().availableProcessors(), runnable -> {
+            final Thread thread = new Thread(runnable, "simulated-link-timer");
+            thread.setDaemon(true);
+            return thread;
+          }
+      );
+      timer.setRemoveOnCancelPolicy(true);
+      return timer;
+    }
+  }
+
+  /**
+   * Holder for the executor shared by every {@link SimulatedLink} to invoke peer handlers and complete responses. It
+   * grows as needed, because a handler may block (for example, by sending a packet on another link).
+   */
+  private static final class SharedDeliveryExecutor {
+
+    private static final ExecutorService INSTANCE = Executors.newCachedThreadPool(runnable -> {
+      final Thread thread = new Thread(runnable, "simulated-link-delivery");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+}
@@ -0,0 +1,51 @@
+package org.interledger.link;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A {@link Link} that can establish its connections and credentials ahead of time, so that the first packet it sends
+ * is as fast as any other.
+ */
+public interface Warmable {
+
+  /**
+   * Begin warming up in the background, unless a warm-up has already begun.
+   *
+   * @param warmUpSettings A {@link LinkWarmUpSettings} that determines how much to warm up.
+   *
+   * @return A {@link CompletableFuture} that completes once the link is warm, or exceptionally if the remote peer could
+   *     not be reached. If a warm-up has already begun, its future is returned and {@code warmUpSettings} is ignored.
+   */
+  CompletableFuture<Void> warmUp(LinkWarmUpSettings warmUpSettings);
+
+  /**
+   * Accessor for the readiness of this link.
+   *
+   * @return The {@link CompletableFuture} returned by {@link #warmUp(LinkWarmUpSettings)}, or a completed future if no
+   *     warm-up has begun.
+   */
+  CompletableFuture<Void> whenWarm();
+
+  /**
+   * Accessor for the readiness of {@code link}, looking through any {@link ForwardingLink}s, such as the filters
+   * applied by a {@link LinkFactoryProvider}, that wrap a {@link Warmable} link.
+   *
+   * @param link A {@link Link}.
+   *
+   * @return The {@link #whenWarm()} of the first {@link Warmable} link found, or a completed future if there is none.
+   */
+  static CompletableFuture<Void> whenWarm(final Link<?> link) {
+    Objects.requireNonNull(link, "link must not be null");
+    Link<?> current = link;
+    while (true) {
+      if (current instanceof Warmable) {
+        return ((Warmable) current).whenWarm();
+      } else if (current instanceof ForwardingLink) {
+        current = ((ForwardingLink<?>) current).getDelegate();
+      } else {
+        return CompletableFuture.completedFuture(null);
+      }
+    }
+  }
+}
@@ -0,0 +1,58 @@
+package org.interledger.link;
+
+import org.interledger.core.InterledgerAddress;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * A {@link LinkFactory} that begins warming up every {@link Warmable} link constructed by another factory before
+ * returning it. Links that are not {@link Warmable} are returned unchanged. The readiness of a constructed link is
+ * available via {@link Warmable#whenWarm(Link)}.
+ */
+public class WarmingLinkFactory implements LinkFactory {
+
+  private final LinkFactory delegate;
+  private final LinkWarmUpSettings warmUpSettings;
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param delegate       The {@link LinkFactory} that constructs the links to warm up.
+   * @param warmUpSettings A {@link LinkWarmUpSettings} that determines how much to warm up each link.
+   */
+  public WarmingLinkFactory(final LinkFactory delegate, final LinkWarmUpSettings warmUpSettings) {
+    this.delegate = Objects.requireNonNull(delegate, "delegate must not be null");
+    this.warmUpSettings = Objects.requireNonNull(warmUpSettings, "warmUpSettings must not be null");
+  }
+
+  @Override
+  public Link<?> constructLink(
+      final Supplier<InterledgerAddress> operatorAddressSupplier, final LinkSettings linkSettings
+  ) {
+    final Link<?> link = delegate.constructLink(operatorAddressSupplier, linkSettings);
+    if (link instanceof Warmable) {
+      ((Warmable) link).warmUp(warmUpSettings);
+    }
+    return link;
+  }
+
+  @Override
+  public LinkSettings applyCustomSettings(final LinkSettings linkSettings) {
+    return delegate.applyCustomSettings(linkSettings);
+  }
+
+  @Override
+  public boolean supports(final LinkType linkType) {
+    return delegate.supports(linkType);
+  }
+
+  /**
+   * Accessor for the factory whose links are warmed up.
+   *
+   * @return A {@link LinkFactory}.
+   */
+  public LinkFactory getDelegate() {
+    return delegate;
+  }
+}
@@ -0,0 +1,74 @@
+package org.interledger.link.filters;
+
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerResponsePacket;
+import org.interledger.link.ForwardingLink;
+import org.interledger.link.Link;
+import org.interledger.link.LinkSender;
+import org.interledger.link.LinkSettings;
+import org.interledger.link.filters.chain.DefaultLinkFilterChain;
+import org.interledger.link.filters.chain.LinkFilterChain;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * <p>A {@link Link} that passes every outgoing packet through a chain of {@link LinkFilter} before sending it over the
+ * wrapped link. The chain is built once, so filtering a packet allocates nothing beyond what the filters themselves
+ * allocate.</p>
+ *
+ * <p>{@link #sendPacketAsync(InterledgerPreparePacket)} passes packets through
+ * {@link LinkFilter#doFilterAsync(Link, InterledgerPreparePacket, LinkFilterChain)}, ending in the wrapped link's
+ * {@link LinkSender#sendPacketAsync(InterledgerPreparePacket)}, so no thread is parked by the chain unless a filter
+ * only implements the synchronous {@link LinkFilter#doFilter}. Incoming packets are not filtered.</p>
+ */
+public class FilteringLink<L extends LinkSettings> extends ForwardingLink<L> {
+
+  private final List<LinkFilter> linkFilters;
+  private final LinkFilterChain filterChain;
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param delegate    The {@link Link} to send filtered packets with.
+   * @param linkFilters The {@link LinkFilter}s to apply to every outgoing packet, in order.
+   */
+  public FilteringLink(final Link<L> delegate, final List<LinkFilter> linkFilters) {
+    super(delegate);
+    this.linkFilters = ImmutableList.copyOf(Objects.requireNonNull(linkFilters, "linkFilters must not be null"));
+    this.filterChain = new DefaultLinkFilterChain(this.linkFilters, this, delegate);
+  }
+
+  @Override
+  public InterledgerResponsePacket sendPacket(final InterledgerPreparePacket preparePacket) {
+    Objects.requireNonNull(preparePacket, "preparePacket must not be null");
+    return filterChain.doFilter(preparePacket);
+  }
+
+  @Override
+  public CompletableFuture<InterledgerResponsePacket> sendPacketAsync(final InterledgerPreparePacket preparePacket) {
+    Objects.requireNonNull(preparePacket, "preparePacket must not be null");
+    return filterChain.doFilterAsync(preparePacket);
+  }
+
+  /**
+   * Accessor for the filters applied by this link.
+   *
+   * @return An immutable {@link List} of {@link LinkFilter}.
+   */
+  public List<LinkFilter> getLinkFilters() {
+    return linkFilters;
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", FilteringLink.class.getSimpleName() + "[", "]")
+        .add("delegate=" + getDelegate())
+        .add("linkFilters=" + linkFilters)
+        .toString();
+  }
+}
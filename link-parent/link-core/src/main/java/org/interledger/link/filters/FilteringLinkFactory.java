@@ -0,0 +1,65 @@
+package org.interledger.link.filters;
+
+import org.interledger.core.InterledgerAddress;
+import org.interledger.link.Link;
+import org.interledger.link.LinkFactory;
+import org.interledger.link.LinkSettings;
+import org.interledger.link.LinkType;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * A {@link LinkFactory} that wraps every {@link Link} constructed by another factory in a {@link FilteringLink}. Note
+ * that links constructed by this factory are therefore {@link FilteringLink} instances, and not instances of the type
+ * the wrapped factory constructs, which remain available via {@link FilteringLink#getDelegate()}.
+ */
+public class FilteringLinkFactory implements LinkFactory {
+
+  private final LinkFactory delegate;
+  private final List<LinkFilter> linkFilters;
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param delegate    The {@link LinkFactory} that constructs the links to wrap.
+   * @param linkFilters The {@link LinkFilter}s to apply to every outgoing packet of every constructed link, in order.
+   */
+  public FilteringLinkFactory(final LinkFactory delegate, final List<LinkFilter> linkFilters) {
+    this.delegate = Objects.requireNonNull(delegate, "delegate must not be null");
+    this.linkFilters = ImmutableList.copyOf(Objects.requireNonNull(linkFilters, "linkFilters must not be null"));
+  }
+
+  @Override
+  public Link<?> constructLink(
+      final Supplier<InterledgerAddress> operatorAddressSupplier, final LinkSettings linkSettings
+  ) {
+    return filtered(delegate.constructLink(operatorAddressSupplier, linkSettings));
+  }
+
+  @Override
+  public LinkSettings applyCustomSettings(final LinkSettings linkSettings) {
+    return delegate.applyCustomSettings(linkSettings);
+  }
+
+  @Override
+  public boolean supports(final LinkType linkType) {
+    return delegate.supports(linkType);
+  }
+
+  /**
+   * Accessor for the factory whose links are wrapped.
+   *
+   * @return A {@link LinkFactory}.
+   */
+  public LinkFactory getDelegate() {
+    return delegate;
+  }
+
+  private <L extends LinkSettings> FilteringLink<L> filtered(final Link<L> link) {
+    return new FilteringLink<>(link, linkFilters);
+  }
+}
@@ -0,0 +1,60 @@
+package org.interledger.link.filters;
+
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerResponsePacket;
+import org.interledger.link.Link;
+import org.interledger.link.LinkSender;
+import org.interledger.link.filters.chain.LinkFilterChain;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * <p>A filter that intercepts every packet sent over a {@link Link}, e.g. to record metrics, enforce limits, check
+ * expiry or log.</p>
+ *
+ * <p>A filter either continues processing by calling {@link LinkFilterChain#doFilter(InterledgerPreparePacket)}
+ * (possibly with a different packet) and returning or inspecting its response, or short-circuits the chain by
+ * returning a response itself, typically a reject. Filters are shared by every packet sent over a link, possibly from
+ * many threads at once, so they should be stateless or thread-safe.</p>
+ *
+ * <p>Packets sent with {@link Link#sendPacketAsync(InterledgerPreparePacket)} are filtered with {@link
+ * #doFilterAsync(Link, InterledgerPreparePacket, LinkFilterChain)} instead. A filter that does not override it runs
+ * its synchronous {@link #doFilter} on the caller's thread, which blocks until the wrapped link responds, so filters
+ * used with non-blocking links SHOULD override it and continue with
+ * {@link LinkFilterChain#doFilterAsync(InterledgerPreparePacket)}.</p>
+ */
+@FunctionalInterface
+public interface LinkFilter {
+
+  /**
+   * Filter a packet that is being sent over {@code link}.
+   *
+   * @param link          The {@link Link} that the packet is being sent over, e.g. for its {@link
+   *                      Link#getLinkId()} when constructing a reject.
+   * @param preparePacket The {@link InterledgerPreparePacket} being sent.
+   * @param filterChain   The {@link LinkFilterChain} that this filter is operating inside of.
+   *
+   * @return An {@link InterledgerResponsePacket}.
+   */
+  InterledgerResponsePacket doFilter(
+      Link<?> link, InterledgerPreparePacket preparePacket, LinkFilterChain filterChain
+  );
+
+  /**
+   * Filter a packet that is being sent over {@code link} without blocking, continuing with {@link
+   * LinkFilterChain#doFilterAsync(InterledgerPreparePacket)}. The default implementation calls {@link #doFilter} on
+   * the caller's thread and returns an already-completed future.
+   *
+   * @param link          The {@link Link} that the packet is being sent over.
+   * @param preparePacket The {@link InterledgerPreparePacket} being sent.
+   * @param filterChain   The {@link LinkFilterChain} that this filter is operating inside of.
+   *
+   * @return A {@link CompletableFuture} that completes with an {@link InterledgerResponsePacket}.
+   */
+  default CompletableFuture<InterledgerResponsePacket> doFilterAsync(
+      final Link<?> link, final InterledgerPreparePacket preparePacket, final LinkFilterChain filterChain
+  ) {
+    return LinkSender.completedResponse(() -> doFilter(link, preparePacket, filterChain));
+  }
+
+}
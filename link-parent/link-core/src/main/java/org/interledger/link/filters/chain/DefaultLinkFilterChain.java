@@ -0,0 +1,122 @@
+package org.interledger.link.filters.chain;
+
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerResponsePacket;
+import org.interledger.link.Link;
+import org.interledger.link.LinkSender;
+import org.interledger.link.filters.LinkFilter;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * <p>A default implementation of {@link LinkFilterChain}.</p>
+ *
+ * <p>Unlike a filter-chain that tracks its position in a mutable index (and so must be constructed for every packet),
+ * this chain is built once, when a link is constructed, as one immutable position per filter, each holding the index
+ * of its filter and a reference to the next position. Passing a packet through the chain therefore allocates nothing,
+ * and one chain can be used by any number of threads at once.</p>
+ *
+ * <pre>
+ *   ┌────────────────────────────────────┐
+ *   │            LinkFilter 0            │
+ *   └────△───────────────────────────┬───┘
+ * Fulfill/Reject                 Prepare
+ *   ┌────┴───────────────────────────▽───┐
+ *   │            LinkFilter n            │
+ *   └────△───────────────────────────┬───┘
+ * Fulfill/Reject                 Prepare
+ *   ┌────┴───────────────────────────▽───┐
+ *   │             LinkSender             │
+ *   └────────────────────────────────────┘
+ * </pre>
+ */
+public class DefaultLinkFilterChain implements LinkFilterChain {
+
+  private final LinkFilterChain head;
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param linkFilters    The {@link LinkFilter}s to apply, in order. The list is copied.
+   * @param link           The {@link Link} that is passed to every filter.
+   * @param outboundSender The {@link LinkSender} that sends packets once they have passed every filter.
+   */
+  public DefaultLinkFilterChain(
+      final List<LinkFilter> linkFilters, final Link<?> link, final LinkSender outboundSender
+  ) {
+    Objects.requireNonNull(linkFilters, "linkFilters must not be null");
+    Objects.requireNonNull(link, "link must not be null");
+    Objects.requireNonNull(outboundSender, "outboundSender must not be null");
+
+    final LinkFilter[] filters = linkFilters.toArray(new LinkFilter[0]);
+    LinkFilterChain chain = new OutboundPosition(outboundSender);
+    for (int index = filters.length - 1; index >= 0; index--) {
+      chain = new FilterPosition(filters, index, link, chain);
+    }
+    this.head = chain;
+  }
+
+  @Override
+  public InterledgerResponsePacket doFilter(final InterledgerPreparePacket preparePacket) {
+    return head.doFilter(preparePacket);
+  }
+
+  @Override
+  public CompletableFuture<InterledgerResponsePacket> doFilterAsync(final InterledgerPreparePacket preparePacket) {
+    return head.doFilterAsync(preparePacket);
+  }
+
+  /**
+   * The position of a single filter in the chain.
+   */
+  private static final class FilterPosition implements LinkFilterChain {
+
+    private final LinkFilter[] filters;
+    private final int index;
+    private final Link<?> link;
+    private final LinkFilterChain next;
+
+    private FilterPosition(
+        final LinkFilter[] filters, final int index, final Link<?> link, final LinkFilterChain next
+    ) {
+      this.filters = filters;
+      this.index = index;
+      this.link = link;
+      this.next = next;
+    }
+
+    @Override
+    public InterledgerResponsePacket doFilter(final InterledgerPreparePacket preparePacket) {
+      return filters[index].doFilter(link, preparePacket, next);
+    }
+
+    @Override
+    public CompletableFuture<InterledgerResponsePacket> doFilterAsync(final InterledgerPreparePacket preparePacket) {
+      return filters[index].doFilterAsync(link, preparePacket, next);
+    }
+  }
+
+  /**
+   * The end of the chain, which sends packets over the wrapped link.
+   */
+  private static final class OutboundPosition implements LinkFilterChain {
+
+    private final LinkSender outboundSender;
+
+    private OutboundPosition(final LinkSender outboundSender) {
+      this.outboundSender = outboundSender;
+    }
+
+    @Override
+    public InterledgerResponsePacket doFilter(final InterledgerPreparePacket preparePacket) {
+      return outboundSender.sendPacket(preparePacket);
+    }
+
+    @Override
+    public CompletableFuture<InterledgerResponsePacket> doFilterAsync(final InterledgerPreparePacket preparePacket) {
+      return outboundSender.sendPacketAsync(preparePacket);
+    }
+  }
+}
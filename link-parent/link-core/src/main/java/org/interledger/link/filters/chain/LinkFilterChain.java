@@ -0,0 +1,48 @@
+package org.interledger.link.filters.chain;
+
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerResponsePacket;
+import org.interledger.link.Link;
+import org.interledger.link.LinkSender;
+import org.interledger.link.filters.LinkFilter;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * <p>Provides a filter-chain that executes a sequence of {@link LinkFilter} around every packet sent over a
+ * {@link Link}.</p>
+ *
+ * <p>Filters use this contract to invoke the next filter in the chain, or if the calling filter is the last filter
+ * in the chain, to invoke {@link Link#sendPacket(InterledgerPreparePacket)} on the wrapped link, which exists at the
+ * end of the chain. {@link #doFilterAsync(InterledgerPreparePacket)} is the non-blocking counterpart, which ends in
+ * {@link Link#sendPacketAsync(InterledgerPreparePacket)}.</p>
+ */
+@FunctionalInterface
+public interface LinkFilterChain {
+
+  /**
+   * Pass {@code preparePacket} to the next filter in this chain, or send it over the link if there are no more
+   * filters.
+   *
+   * @param preparePacket The {@link InterledgerPreparePacket} to pass on.
+   *
+   * @return An {@link InterledgerResponsePacket}.
+   */
+  InterledgerResponsePacket doFilter(InterledgerPreparePacket preparePacket);
+
+  /**
+   * Pass {@code preparePacket} to the next filter in this chain via {@link LinkFilter#doFilterAsync}, or send it over
+   * the link using {@link Link#sendPacketAsync(InterledgerPreparePacket)} if there are no more filters.
+   *
+   * <p>The default implementation calls {@link #doFilter(InterledgerPreparePacket)} on the caller's thread and
+   * returns an already-completed future.</p>
+   *
+   * @param preparePacket The {@link InterledgerPreparePacket} to pass on.
+   *
+   * @return A {@link CompletableFuture} that completes with an {@link InterledgerResponsePacket}.
+   */
+  default CompletableFuture<InterledgerResponsePacket> doFilterAsync(final InterledgerPreparePacket preparePacket) {
+    return LinkSender.completedResponse(() -> doFilter(preparePacket));
+  }
+
+}
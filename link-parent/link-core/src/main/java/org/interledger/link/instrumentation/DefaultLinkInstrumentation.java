@@ -0,0 +1,116 @@
+package org.interledger.link.instrumentation;
+
+import org.interledger.core.InterledgerRejectPacket;
+import org.interledger.core.InterledgerResponsePacket;
+import org.interledger.link.LinkId;
+
+import com.google.common.collect.ImmutableMap;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>A {@link LinkInstrumentation} that keeps metrics in memory, per {@link LinkId}.</p>
+ *
+ * <p>Counters are striped {@link LongAdder}s, so threads sending over the same link do not contend on a single
+ * counter, and latencies are recorded in a {@link LatencyHistogram}. Once a link and an error code have been seen,
+ * recording allocates nothing. Metrics are kept until {@link #remove(LinkId)} is called.</p>
+ */
+public class DefaultLinkInstrumentation implements LinkInstrumentation {
+
+  private final Map<LinkId, LinkRecorder> recorders = new ConcurrentHashMap<>();
+
+  @Override
+  public void onPacketSent(final LinkId linkId) {
+    final LinkRecorder recorder = recorder(linkId);
+    recorder.packetsSent.increment();
+    recorder.packetsInFlight.increment();
+  }
+
+  @Override
+  public void onPacketResponse(
+      final LinkId linkId, final InterledgerResponsePacket responsePacket, final long latencyNanos
+  ) {
+    final LinkRecorder recorder = recorder(linkId);
+    recorder.packetsInFlight.decrement();
+    recorder.latency.record(latencyNanos);
+    if (responsePacket instanceof InterledgerRejectPacket) {
+      recorder.rejectCounter(((InterledgerRejectPacket) responsePacket).getCode().getCode()).increment();
+    } else {
+      recorder.packetsFulfilled.increment();
+    }
+  }
+
+  @Override
+  public void onPacketFailure(final LinkId linkId, final Throwable error, final long latencyNanos) {
+    final LinkRecorder recorder = recorder(linkId);
+    recorder.packetsInFlight.decrement();
+    recorder.latency.record(latencyNanos);
+    recorder.packetsFailed.increment();
+  }
+
+  @Override
+  public Optional<LinkMetricsSnapshot> snapshot(final LinkId linkId) {
+    Objects.requireNonNull(linkId, "linkId must not be null");
+    return Optional.ofNullable(recorders.get(linkId)).map(recorder -> recorder.snapshot(linkId));
+  }
+
+  @Override
+  public Map<LinkId, LinkMetricsSnapshot> snapshot() {
+    final ImmutableMap.Builder<LinkId, LinkMetricsSnapshot> snapshots = ImmutableMap.builder();
+    recorders.forEach((linkId, recorder) -> snapshots.put(linkId, recorder.snapshot(linkId)));
+    return snapshots.build();
+  }
+
+  /**
+   * Forget the metrics recorded for a link, e.g. because the link was closed.
+   *
+   * @param linkId The {@link LinkId} of the link.
+   */
+  public void remove(final LinkId linkId) {
+    Objects.requireNonNull(linkId, "linkId must not be null");
+    recorders.remove(linkId);
+  }
+
+  private LinkRecorder recorder(final LinkId linkId) {
+    // A plain get avoids locking the bin on the hot path once the link has been seen.
+    final LinkRecorder recorder = recorders.get(linkId);
+    return recorder != null ? recorder : recorders.computeIfAbsent(linkId, id -> new LinkRecorder());
+  }
+
+  /**
+   * The metrics for a single link.
+   */
+  private static final class LinkRecorder {
+
+    private final LongAdder packetsSent = new LongAdder();
+    private final LongAdder packetsFulfilled = new LongAdder();
+    private final LongAdder packetsFailed = new LongAdder();
+    private final LongAdder packetsInFlight = new LongAdder();
+    private final Map<String, LongAdder> packetsRejectedByErrorCode = new ConcurrentHashMap<>();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    private LongAdder rejectCounter(final String errorCode) {
+      final LongAdder counter = packetsRejectedByErrorCode.get(errorCode);
+      return counter != null ? counter : packetsRejectedByErrorCode.computeIfAbsent(errorCode, code -> new LongAdder());
+    }
+
+    private LinkMetricsSnapshot snapshot(final LinkId linkId) {
+      final ImmutableMap.Builder<String, Long> rejectsByErrorCode = ImmutableMap.builder();
+      packetsRejectedByErrorCode.forEach((errorCode, counter) -> rejectsByErrorCode.put(errorCode, counter.sum()));
+
+      return LinkMetricsSnapshot.builder()
+          .linkId(linkId)
+          .packetsSent(packetsSent.sum())
+          .packetsFulfilled(packetsFulfilled.sum())
+          .packetsRejectedByErrorCode(rejectsByErrorCode.build())
+          .packetsFailed(packetsFailed.sum())
+          .packetsInFlight(packetsInFlight.sum())
+          .latency(latency.snapshot())
+          .build();
+    }
+  }
+}
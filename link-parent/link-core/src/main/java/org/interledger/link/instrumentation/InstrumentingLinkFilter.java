@@ -0,0 +1,86 @@
+package org.interledger.link.instrumentation;
+
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerResponsePacket;
+import org.interledger.link.Link;
+import org.interledger.link.LinkFactoryProvider;
+import org.interledger.link.LinkId;
+import org.interledger.link.filters.LinkFilter;
+import org.interledger.link.filters.chain.LinkFilterChain;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * <p>A {@link LinkFilter} that records the outcome and latency of every packet with a {@link LinkInstrumentation}.
+ * Register it for any link type using {@link LinkFactoryProvider#registerLinkFilters}, typically as the first filter
+ * so that latency includes every other filter.</p>
+ */
+public class InstrumentingLinkFilter implements LinkFilter {
+
+  private final LinkInstrumentation linkInstrumentation;
+  private final Ticker ticker;
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param linkInstrumentation The {@link LinkInstrumentation} to record with.
+   */
+  public InstrumentingLinkFilter(final LinkInstrumentation linkInstrumentation) {
+    this(linkInstrumentation, Ticker.systemTicker());
+  }
+
+  @VisibleForTesting
+  InstrumentingLinkFilter(final LinkInstrumentation linkInstrumentation, final Ticker ticker) {
+    this.linkInstrumentation = Objects.requireNonNull(linkInstrumentation, "linkInstrumentation must not be null");
+    this.ticker = Objects.requireNonNull(ticker, "ticker must not be null");
+  }
+
+  @Override
+  public InterledgerResponsePacket doFilter(
+      final Link<?> link, final InterledgerPreparePacket preparePacket, final LinkFilterChain filterChain
+  ) {
+    final LinkId linkId = link.getLinkId();
+    linkInstrumentation.onPacketSent(linkId);
+    final long startNanos = ticker.read();
+
+    final InterledgerResponsePacket responsePacket;
+    try {
+      responsePacket = filterChain.doFilter(preparePacket);
+    } catch (RuntimeException e) {
+      linkInstrumentation.onPacketFailure(linkId, e, ticker.read() - startNanos);
+      throw e;
+    }
+    linkInstrumentation.onPacketResponse(linkId, responsePacket, ticker.read() - startNanos);
+    return responsePacket;
+  }
+
+  @Override
+  public CompletableFuture<InterledgerResponsePacket> doFilterAsync(
+      final Link<?> link, final InterledgerPreparePacket preparePacket, final LinkFilterChain filterChain
+  ) {
+    final LinkId linkId = link.getLinkId();
+    linkInstrumentation.onPacketSent(linkId);
+    final long startNanos = ticker.read();
+
+    final CompletableFuture<InterledgerResponsePacket> responseFuture;
+    try {
+      responseFuture = filterChain.doFilterAsync(preparePacket);
+    } catch (RuntimeException e) {
+      linkInstrumentation.onPacketFailure(linkId, e, ticker.read() - startNanos);
+      throw e;
+    }
+    return responseFuture.whenComplete((responsePacket, error) -> {
+      if (error != null) {
+        linkInstrumentation.onPacketFailure(linkId, error instanceof CompletionException && error.getCause() != null
+            ? error.getCause() : error, ticker.read() - startNanos);
+      } else {
+        linkInstrumentation.onPacketResponse(linkId, responsePacket, ticker.read() - startNanos);
+      }
+    });
+  }
+}
@@ -0,0 +1,135 @@
+package org.interledger.link.instrumentation;
+
+import com.google.common.base.Preconditions;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>A concurrent, fixed-size latency histogram with log-linear buckets, in the style of HdrHistogram.</p>
+ *
+ * <p>Values below 16 are counted exactly. Larger values are counted in one of 16 equally-sized sub-buckets per power
+ * of two, so every recorded value is accurate to within 1/16 (about 6%) of its magnitude. Values up to roughly 2.4
+ * hours in nanoseconds are tracked, and larger values are clamped.</p>
+ *
+ * <p>Recording is lock-free and allocation-free, so it is suitable for hot paths. Snapshots are only approximately
+ * consistent with concurrent recording.</p>
+ */
+public class LatencyHistogram {
+
+  /**
+   * The number of sub-buckets per power of two, as a power of two.
+   */
+  private static final int SUB_BUCKET_BITS = 4;
+
+  static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+  /**
+   * The position of the highest bit of the largest trackable value.
+   */
+  private static final int MAX_MAGNITUDE = 42;
+
+  static final long MAX_TRACKABLE_VALUE = (1L << (MAX_MAGNITUDE + 1)) - 1;
+
+  private static final int BUCKET_COUNT = (MAX_MAGNITUDE - SUB_BUCKET_BITS + 2) * SUB_BUCKET_COUNT;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+  private final LongAdder totalCount = new LongAdder();
+  private final LongAdder totalValue = new LongAdder();
+  private final LongAccumulator maxValue = new LongAccumulator(Math::max, 0);
+
+  /**
+   * Record a single value.
+   *
+   * @param value A non-negative value, typically a latency in nanoseconds. Negative values are recorded as 0.
+   */
+  public void record(final long value) {
+    final long clampedValue = Math.min(Math.max(value, 0), MAX_TRACKABLE_VALUE);
+    counts.incrementAndGet(bucketIndex(clampedValue));
+    totalCount.increment();
+    totalValue.add(clampedValue);
+    maxValue.accumulate(clampedValue);
+  }
+
+  /**
+   * Take a snapshot of the values recorded so far.
+   *
+   * @return A {@link LatencySnapshot}.
+   */
+  public LatencySnapshot snapshot() {
+    final long[] bucketCounts = copyBucketCounts();
+    final long count = Arrays.stream(bucketCounts).sum();
+    final long max = maxValue.get();
+    // Read once, so that a concurrent record() cannot change the divisor after it has been checked.
+    final long recordedCount = totalCount.sum();
+
+    return LatencySnapshot.builder()
+        .count(count)
+        .mean(recordedCount == 0 ? 0 : (double) totalValue.sum() / recordedCount)
+        .max(max)
+        .p50(valueAtPercentile(bucketCounts, count, max, 50.0))
+        .p90(valueAtPercentile(bucketCounts, count, max, 90.0))
+        .p99(valueAtPercentile(bucketCounts, count, max, 99.0))
+        .p999(valueAtPercentile(bucketCounts, count, max, 99.9))
+        .build();
+  }
+
+  /**
+   * Compute the value below which {@code percentile} percent of the recorded values fall.
+   *
+   * @param percentile A percentile between 0 and 100.
+   *
+   * @return The highest value that is equivalent, within the precision of this histogram, to the value at {@code
+   *     percentile}, or 0 if nothing has been recorded.
+   */
+  public long valueAtPercentile(final double percentile) {
+    Preconditions.checkArgument(percentile >= 0 && percentile <= 100, "percentile must be between 0 and 100");
+    final long[] bucketCounts = copyBucketCounts();
+    return valueAtPercentile(bucketCounts, Arrays.stream(bucketCounts).sum(), maxValue.get(), percentile);
+  }
+
+  private long[] copyBucketCounts() {
+    final long[] bucketCounts = new long[BUCKET_COUNT];
+    for (int index = 0; index < BUCKET_COUNT; index++) {
+      bucketCounts[index] = counts.get(index);
+    }
+    return bucketCounts;
+  }
+
+  private static long valueAtPercentile(
+      final long[] bucketCounts, final long count, final long max, final double percentile
+  ) {
+    if (count == 0) {
+      return 0;
+    }
+    final long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+    long seen = 0;
+    for (int index = 0; index < bucketCounts.length; index++) {
+      seen += bucketCounts[index];
+      if (seen >= rank) {
+        return Math.min(highestEquivalentValue(index), max);
+      }
+    }
+    return max;
+  }
+
+  static int bucketIndex(final long value) {
+    if (value < SUB_BUCKET_COUNT) {
+      return (int) value;
+    }
+    final int magnitude = 63 - Long.numberOfLeadingZeros(value);
+    final int subBucket = (int) (value >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+    return (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+  }
+
+  static long highestEquivalentValue(final int index) {
+    if (index < SUB_BUCKET_COUNT) {
+      return index;
+    }
+    final int shift = index / SUB_BUCKET_COUNT - 1;
+    final long lowestValue = (long) (SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT) << shift;
+    return lowestValue + (1L << shift) - 1;
+  }
+}
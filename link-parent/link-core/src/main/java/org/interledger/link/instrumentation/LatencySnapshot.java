@@ -0,0 +1,65 @@
+package org.interledger.link.instrumentation;
+
+import org.immutables.value.Value;
+
+/**
+ * A point-in-time summary of a {@link LatencyHistogram}. All values are in the unit that was recorded, which for link
+ * instrumentation is nanoseconds.
+ */
+@Value.Immutable
+public interface LatencySnapshot {
+
+  static ImmutableLatencySnapshot.Builder builder() {
+    return ImmutableLatencySnapshot.builder();
+  }
+
+  /**
+   * The number of recorded values.
+   *
+   * @return A long.
+   */
+  long count();
+
+  /**
+   * The arithmetic mean of all recorded values.
+   *
+   * @return A double.
+   */
+  double mean();
+
+  /**
+   * The largest recorded value.
+   *
+   * @return A long.
+   */
+  long max();
+
+  /**
+   * The median.
+   *
+   * @return A long.
+   */
+  long p50();
+
+  /**
+   * The 90th percentile.
+   *
+   * @return A long.
+   */
+  long p90();
+
+  /**
+   * The 99th percentile.
+   *
+   * @return A long.
+   */
+  long p99();
+
+  /**
+   * The 99.9th percentile.
+   *
+   * @return A long.
+   */
+  long p999();
+
+}
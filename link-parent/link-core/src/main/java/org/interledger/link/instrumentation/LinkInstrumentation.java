@@ -0,0 +1,69 @@
+package org.interledger.link.instrumentation;
+
+import org.interledger.core.InterledgerResponsePacket;
+import org.interledger.link.LinkId;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * <p>A service-provider interface for recording the outcome and latency of packets sent over links, e.g. by an
+ * {@link InstrumentingLinkFilter}.</p>
+ *
+ * <p>Recording methods are called for every packet, so implementations MUST be thread-safe and SHOULD NOT allocate.
+ * Use {@link #noOp()} to disable recording, or {@link DefaultLinkInstrumentation} to keep in-memory metrics.</p>
+ */
+public interface LinkInstrumentation {
+
+  /**
+   * Accessor for an instrumentation that records nothing.
+   *
+   * @return A {@link LinkInstrumentation}.
+   */
+  static LinkInstrumentation noOp() {
+    return NoOpLinkInstrumentation.INSTANCE;
+  }
+
+  /**
+   * Record that a packet is about to be sent over a link.
+   *
+   * @param linkId The {@link LinkId} of the link.
+   */
+  void onPacketSent(LinkId linkId);
+
+  /**
+   * Record the response to a packet previously recorded using {@link #onPacketSent(LinkId)}.
+   *
+   * @param linkId         The {@link LinkId} of the link.
+   * @param responsePacket The fulfill or reject that the link returned.
+   * @param latencyNanos   The time, in nanoseconds, that the link took to respond.
+   */
+  void onPacketResponse(LinkId linkId, InterledgerResponsePacket responsePacket, long latencyNanos);
+
+  /**
+   * Record that a link threw an exception instead of responding to a packet previously recorded using {@link
+   * #onPacketSent(LinkId)}.
+   *
+   * @param linkId       The {@link LinkId} of the link.
+   * @param error        The exception that was thrown.
+   * @param latencyNanos The time, in nanoseconds, until the exception was thrown.
+   */
+  void onPacketFailure(LinkId linkId, Throwable error, long latencyNanos);
+
+  /**
+   * Take a snapshot of the metrics recorded for a single link.
+   *
+   * @param linkId The {@link LinkId} of the link.
+   *
+   * @return A {@link LinkMetricsSnapshot}, or empty if nothing was recorded for {@code linkId}.
+   */
+  Optional<LinkMetricsSnapshot> snapshot(LinkId linkId);
+
+  /**
+   * Take a snapshot of the metrics recorded for every link.
+   *
+   * @return A {@link Map} of {@link LinkId} to {@link LinkMetricsSnapshot}.
+   */
+  Map<LinkId, LinkMetricsSnapshot> snapshot();
+
+}
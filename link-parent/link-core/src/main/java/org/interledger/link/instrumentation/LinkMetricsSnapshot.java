@@ -0,0 +1,79 @@
+package org.interledger.link.instrumentation;
+
+import org.interledger.core.InterledgerErrorCode;
+import org.interledger.link.LinkId;
+
+import org.immutables.value.Value;
+
+import java.util.Map;
+
+/**
+ * A point-in-time view of the packets sent over a single link, as recorded by a {@link LinkInstrumentation}.
+ */
+@Value.Immutable
+public interface LinkMetricsSnapshot {
+
+  static ImmutableLinkMetricsSnapshot.Builder builder() {
+    return ImmutableLinkMetricsSnapshot.builder();
+  }
+
+  /**
+   * The link these metrics were recorded for.
+   *
+   * @return A {@link LinkId}.
+   */
+  LinkId linkId();
+
+  /**
+   * The number of packets sent over the link.
+   *
+   * @return A long.
+   */
+  long packetsSent();
+
+  /**
+   * The number of packets that were fulfilled.
+   *
+   * @return A long.
+   */
+  long packetsFulfilled();
+
+  /**
+   * The number of packets that were rejected, by {@link InterledgerErrorCode#getCode()} (e.g., {@code T02}).
+   *
+   * @return A {@link Map} of error code to count.
+   */
+  Map<String, Long> packetsRejectedByErrorCode();
+
+  /**
+   * The total number of packets that were rejected.
+   *
+   * @return A long.
+   */
+  @Value.Derived
+  default long packetsRejected() {
+    return packetsRejectedByErrorCode().values().stream().mapToLong(Long::longValue).sum();
+  }
+
+  /**
+   * The number of packets for which the link threw an exception instead of returning a response.
+   *
+   * @return A long.
+   */
+  long packetsFailed();
+
+  /**
+   * The number of packets in-flight when this snapshot was taken.
+   *
+   * @return A long.
+   */
+  long packetsInFlight();
+
+  /**
+   * The round-trip latency, in nanoseconds, of every packet that completed, including rejected and failed packets.
+   *
+   * @return A {@link LatencySnapshot}.
+   */
+  LatencySnapshot latency();
+
+}
@@ -0,0 +1,40 @@
+package org.interledger.link.instrumentation;
+
+import org.interledger.core.InterledgerResponsePacket;
+import org.interledger.link.LinkId;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A {@link LinkInstrumentation} that records nothing.
+ */
+enum NoOpLinkInstrumentation implements LinkInstrumentation {
+
+  INSTANCE;
+
+  @Override
+  public void onPacketSent(final LinkId linkId) {
+  }
+
+  @Override
+  public void onPacketResponse(
+      final LinkId linkId, final InterledgerResponsePacket responsePacket, final long latencyNanos
+  ) {
+  }
+
+  @Override
+  public void onPacketFailure(final LinkId linkId, final Throwable error, final long latencyNanos) {
+  }
+
+  @Override
+  public Optional<LinkMetricsSnapshot> snapshot(final LinkId linkId) {
+    return Optional.empty();
+  }
+
+  @Override
+  public Map<LinkId, LinkMetricsSnapshot> snapshot() {
+    return Collections.emptyMap();
+  }
+}
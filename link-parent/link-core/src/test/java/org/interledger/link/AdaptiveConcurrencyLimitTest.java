@@ -0,0 +1,172 @@
+package org.interledger.link;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.common.base.Ticker;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unit tests for {@link AdaptiveConcurrencyLimit}.
+ */
+public class AdaptiveConcurrencyLimitTest {
+
+  private final AtomicLong nanoTime = new AtomicLong();
+
+  @Test
+  public void tryAcquireRespectsLimit() {
+    final AdaptiveConcurrencyLimit limit = newLimit(
+        ConcurrencyLimitSettings.builder().minLimit(1).initialLimit(2).build()
+    );
+
+    assertThat(limit.tryAcquire()).isTrue();
+    assertThat(limit.tryAcquire()).isTrue();
+    assertThat(limit.tryAcquire()).isFalse();
+    assertThat(limit.getInFlight()).isEqualTo(2);
+
+    limit.release();
+    assertThat(limit.getInFlight()).isEqualTo(1);
+    assertThat(limit.getLimit()).isEqualTo(2);
+    assertThat(limit.tryAcquire()).isTrue();
+  }
+
+  @Test
+  public void growsOnlyWhileUtilized() {
+    final AdaptiveConcurrencyLimit limit = newLimit(
+        ConcurrencyLimitSettings.builder().initialLimit(4).maxLimit(5).build()
+    );
+
+    // One of four in-flight is under half of the limit.
+    limit.tryAcquire();
+    limit.onSample(1000, false);
+    assertThat(limit.getLimit()).isEqualTo(4);
+
+    limit.tryAcquire();
+    limit.tryAcquire();
+    limit.onSample(1000, false);
+    limit.onSample(1000, false);
+    assertThat(limit.getLimit()).isEqualTo(5);
+
+    // Capped at maxLimit.
+    for (int i = 0; i < 5; i++) {
+      limit.tryAcquire();
+    }
+    limit.onSample(1000, false);
+    assertThat(limit.getLimit()).isEqualTo(5);
+  }
+
+  @Test
+  public void backsOffOnDropsDownToMinLimit() {
+    final AdaptiveConcurrencyLimit limit = newLimit(
+        ConcurrencyLimitSettings.builder().minLimit(8).initialLimit(10).backoffRatio(0.5).build()
+    );
+
+    limit.tryAcquire();
+    limit.onSample(1000, true);
+    assertThat(limit.getLimit()).isEqualTo(8);
+    assertThat(limit.getInFlight()).isEqualTo(0);
+  }
+
+  @Test
+  public void backsOffWhenLatencyExceedsTolerance() {
+    final AdaptiveConcurrencyLimit limit = newLimit(
+        ConcurrencyLimitSettings.builder().initialLimit(100).latencyTolerance(2.0).build()
+    );
+
+    limit.tryAcquire();
+    limit.onSample(1000, false);
+    limit.tryAcquire();
+    limit.onSample(2000, false);
+    assertThat(limit.getLimit()).isEqualTo(100);
+
+    limit.tryAcquire();
+    limit.onSample(2001, false);
+    assertThat(limit.getLimit()).isEqualTo(90);
+  }
+
+  @Test
+  public void minimumRttIsForgottenAfterWindow() {
+    final AdaptiveConcurrencyLimit limit = newLimit(
+        ConcurrencyLimitSettings.builder().initialLimit(100).latencyTolerance(2.0).minRttWindowSize(2).build()
+    );
+
+    sample(limit, 1000);
+    sample(limit, 1000);
+    // The peer's baseline latency rises. Until a whole window has been observed at the new latency, it is congestion.
+    sample(limit, 5000);
+    assertThat(limit.getLimit()).isEqualTo(90);
+    sample(limit, 5000);
+    sample(limit, 5000);
+    assertThat(limit.getLimit()).isEqualTo(90);
+  }
+
+  @Test
+  public void congestedSampleAtWindowBoundaryDoesNotBecomeTheMinimum() {
+    final AdaptiveConcurrencyLimit limit = newLimit(
+        ConcurrencyLimitSettings.builder().initialLimit(100).latencyTolerance(2.0).minRttWindowSize(2).build()
+    );
+
+    sample(limit, 1000);
+    sample(limit, 1000);
+    sample(limit, 1000);
+    // Completes a window, whose minimum is the earlier 1000ns sample.
+    sample(limit, 9000);
+    assertThat(limit.getLimit()).isEqualTo(90);
+    sample(limit, 3000);
+    assertThat(limit.getLimit()).isEqualTo(81);
+  }
+
+  @Test
+  public void burstOfDropsOnlyBacksOffOnce() {
+    final AdaptiveConcurrencyLimit limit = newLimit(
+        ConcurrencyLimitSettings.builder().initialLimit(100).backoffRatio(0.5).build()
+    );
+
+    // Every packet in the burst was sent before the first of them failed.
+    for (int i = 0; i < 10; i++) {
+      assertThat(limit.tryAcquire()).isTrue();
+    }
+    nanoTime.addAndGet(1000);
+    for (int i = 0; i < 10; i++) {
+      limit.onSample(1000, true);
+    }
+    assertThat(limit.getLimit()).isEqualTo(50);
+    assertThat(limit.getInFlight()).isEqualTo(0);
+
+    // A packet sent after the back-off can back off again.
+    assertThat(limit.tryAcquire()).isTrue();
+    nanoTime.addAndGet(1000);
+    limit.onSample(1000, true);
+    assertThat(limit.getLimit()).isEqualTo(25);
+  }
+
+  @Test
+  public void settingsAreValidated() {
+    assertThatThrownBy(() -> ConcurrencyLimitSettings.builder().initialLimit(0).build())
+        .isInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(() -> ConcurrencyLimitSettings.builder().backoffRatio(1.0).build())
+        .isInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(() -> ConcurrencyLimitSettings.builder().latencyTolerance(1.0).build())
+        .isInstanceOf(IllegalStateException.class);
+  }
+
+  private AdaptiveConcurrencyLimit newLimit(final ConcurrencyLimitSettings settings) {
+    return new AdaptiveConcurrencyLimit(settings, new Ticker() {
+      @Override
+      public long read() {
+        return nanoTime.get();
+      }
+    });
+  }
+
+  /**
+   * Send a packet, and receive its response {@code rttNanos} later.
+   */
+  private void sample(final AdaptiveConcurrencyLimit limit, final long rttNanos) {
+    assertThat(limit.tryAcquire()).isTrue();
+    nanoTime.addAndGet(rttNanos);
+    limit.onSample(rttNanos, false);
+  }
+}
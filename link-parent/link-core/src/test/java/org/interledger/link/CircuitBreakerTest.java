@@ -0,0 +1,117 @@
+package org.interledger.link;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.base.Ticker;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unit tests for {@link CircuitBreaker}.
+ */
+public class CircuitBreakerTest {
+
+  private static final Duration OPEN_DURATION = Duration.ofSeconds(10);
+
+  private final AtomicLong nanoTime = new AtomicLong();
+
+  private CircuitBreaker circuitBreaker;
+
+  @Before
+  public void setUp() {
+    this.circuitBreaker = new CircuitBreaker(2, OPEN_DURATION, new Ticker() {
+      @Override
+      public long read() {
+        return nanoTime.get();
+      }
+    });
+  }
+
+  @Test
+  public void opensAfterConsecutiveFailures() {
+    final CircuitBreaker.Permit permit = circuitBreaker.tryAcquirePermission();
+    circuitBreaker.onFailure(permit);
+    circuitBreaker.onSuccess(permit);
+    circuitBreaker.onFailure(permit);
+    assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+    circuitBreaker.onFailure(permit);
+    assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    assertThat(circuitBreaker.tryAcquirePermission()).isNull();
+  }
+
+  @Test
+  public void admitsSingleProbeAfterOpenDuration() {
+    circuitBreaker.trip();
+    nanoTime.addAndGet(OPEN_DURATION.toNanos() - 1);
+    assertThat(circuitBreaker.tryAcquirePermission()).isNull();
+
+    nanoTime.incrementAndGet();
+    final CircuitBreaker.Permit probe = circuitBreaker.tryAcquirePermission();
+    assertThat(probe).isNotNull();
+    assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+    assertThat(circuitBreaker.tryAcquirePermission()).isNull();
+
+    circuitBreaker.onSuccess(probe);
+    assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    assertThat(circuitBreaker.tryAcquirePermission()).isNotNull();
+  }
+
+  @Test
+  public void failedProbeReopens() {
+    circuitBreaker.trip();
+    nanoTime.addAndGet(OPEN_DURATION.toNanos());
+    final CircuitBreaker.Permit probe = circuitBreaker.tryAcquirePermission();
+    assertThat(probe).isNotNull();
+
+    circuitBreaker.onFailure(probe);
+    assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    assertThat(circuitBreaker.tryAcquirePermission()).isNull();
+  }
+
+  @Test
+  public void lateFailuresDoNotExtendOpenPeriod() {
+    final CircuitBreaker.Permit permit = circuitBreaker.tryAcquirePermission();
+    circuitBreaker.trip();
+    nanoTime.addAndGet(OPEN_DURATION.toNanos() / 2);
+    circuitBreaker.onFailure(permit);
+    circuitBreaker.trip(permit);
+
+    nanoTime.addAndGet(OPEN_DURATION.toNanos() / 2);
+    assertThat(circuitBreaker.tryAcquirePermission()).isNotNull();
+  }
+
+  @Test
+  public void staleOutcomesDoNotDecideTheProbe() {
+    final CircuitBreaker.Permit stalePermit = circuitBreaker.tryAcquirePermission();
+    circuitBreaker.trip();
+    nanoTime.addAndGet(OPEN_DURATION.toNanos());
+    final CircuitBreaker.Permit probe = circuitBreaker.tryAcquirePermission();
+    assertThat(probe).isNotNull();
+
+    circuitBreaker.onSuccess(stalePermit);
+    assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+    circuitBreaker.onFailure(stalePermit);
+    circuitBreaker.trip(stalePermit);
+    assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+
+    circuitBreaker.onSuccess(probe);
+    assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+  }
+
+  @Test
+  public void failuresFromBeforeReopeningAreNotCounted() {
+    final CircuitBreaker.Permit stalePermit = circuitBreaker.tryAcquirePermission();
+    circuitBreaker.trip();
+    nanoTime.addAndGet(OPEN_DURATION.toNanos());
+    circuitBreaker.onSuccess(circuitBreaker.tryAcquirePermission());
+    assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+    circuitBreaker.onFailure(stalePermit);
+    circuitBreaker.onFailure(stalePermit);
+    assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+  }
+}
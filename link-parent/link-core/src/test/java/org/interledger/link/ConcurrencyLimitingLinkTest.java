@@ -0,0 +1,192 @@
+package org.interledger.link;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.interledger.core.DateUtils;
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerConstants;
+import org.interledger.core.InterledgerErrorCode;
+import org.interledger.core.InterledgerFulfillPacket;
+import org.interledger.core.InterledgerFulfillment;
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerRejectPacket;
+import org.interledger.core.InterledgerResponsePacket;
+import org.interledger.link.exceptions.LinkException;
+
+import com.google.common.base.Ticker;
+import com.google.common.primitives.UnsignedLong;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unit tests for {@link ConcurrencyLimitingLink}.
+ */
+public class ConcurrencyLimitingLinkTest {
+
+  private static final InterledgerAddress OPERATOR_ADDRESS = InterledgerAddress.of("test.operator");
+  private static final LinkId LINK_ID = LinkId.of("foo");
+
+  private static final InterledgerFulfillPacket FULFILL_PACKET = InterledgerFulfillPacket.builder()
+      .fulfillment(InterledgerFulfillment.of(new byte[32]))
+      .build();
+
+  @Mock
+  private Link<LinkSettings> delegateMock;
+
+  private final AtomicLong nanoTime = new AtomicLong();
+
+  private ConcurrencyLimitingLink<LinkSettings> link;
+
+  @Before
+  public void setUp() {
+    MockitoAnnotations.initMocks(this);
+    when(delegateMock.getOperatorAddressSupplier()).thenReturn(() -> OPERATOR_ADDRESS);
+    when(delegateMock.getLinkId()).thenReturn(LINK_ID);
+
+    this.link = newLink(ConcurrencyLimitSettings.builder()
+        .initialLimit(2)
+        .failureThreshold(3)
+        .openDuration(Duration.ofSeconds(5))
+        .build());
+  }
+
+  @Test
+  public void sendPacketForwardsWhileUnderLimit() {
+    when(delegateMock.sendPacket(any())).thenReturn(FULFILL_PACKET);
+
+    assertThat(link.sendPacket(preparePacket())).isEqualTo(FULFILL_PACKET);
+
+    verify(delegateMock).sendPacket(any());
+    assertThat(link.getConcurrencyLimit().getInFlight()).isEqualTo(0);
+    // One packet in-flight used half of the limit, so the limit grew.
+    assertThat(link.getConcurrencyLimit().getLimit()).isEqualTo(3);
+  }
+
+  @Test
+  public void sendPacketAsyncRejectsWithPeerBusyWhenSaturated() {
+    final CompletableFuture<InterledgerResponsePacket> pendingResponse = new CompletableFuture<>();
+    when(delegateMock.sendPacketAsync(any())).thenReturn(pendingResponse);
+
+    link.sendPacketAsync(preparePacket());
+    link.sendPacketAsync(preparePacket());
+    final InterledgerResponsePacket shedResponse = link.sendPacketAsync(preparePacket()).join();
+
+    assertThat(shedResponse).isInstanceOf(InterledgerRejectPacket.class);
+    assertThat(((InterledgerRejectPacket) shedResponse).getCode()).isEqualTo(InterledgerErrorCode.T02_PEER_BUSY);
+    assertThat(((InterledgerRejectPacket) shedResponse).getTriggeredBy()).hasValue(OPERATOR_ADDRESS);
+    verify(delegateMock, times(2)).sendPacketAsync(any());
+
+    pendingResponse.complete(FULFILL_PACKET);
+    assertThat(link.getConcurrencyLimit().getInFlight()).isEqualTo(0);
+  }
+
+  @Test
+  public void slowResponsesShrinkTheLimit() {
+    this.link = newLink(ConcurrencyLimitSettings.builder().initialLimit(100).build());
+    when(delegateMock.sendPacket(any())).thenAnswer(invocation -> {
+      nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(10));
+      return FULFILL_PACKET;
+    }).thenAnswer(invocation -> {
+      nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(50));
+      return FULFILL_PACKET;
+    });
+
+    link.sendPacket(preparePacket());
+    assertThat(link.getConcurrencyLimit().getLimit()).isEqualTo(100);
+    link.sendPacket(preparePacket());
+    assertThat(link.getConcurrencyLimit().getLimit()).isEqualTo(90);
+  }
+
+  @Test
+  public void linkExceptionOpensCircuitBreaker() {
+    when(delegateMock.sendPacket(any()))
+        .thenThrow(new LinkException("connection refused", LINK_ID))
+        .thenReturn(FULFILL_PACKET);
+
+    assertThatThrownBy(() -> link.sendPacket(preparePacket())).isInstanceOf(LinkException.class);
+    assertThat(link.getCircuitBreaker().getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+    final InterledgerResponsePacket shedResponse = link.sendPacket(preparePacket());
+    assertThat(((InterledgerRejectPacket) shedResponse).getCode())
+        .isEqualTo(InterledgerErrorCode.T01_PEER_UNREACHABLE);
+    verify(delegateMock, times(1)).sendPacket(any());
+    assertThat(link.getConcurrencyLimit().getInFlight()).isEqualTo(0);
+
+    // After the open period, a probe is sent and its success closes the breaker.
+    nanoTime.addAndGet(Duration.ofSeconds(5).toNanos());
+    assertThat(link.sendPacket(preparePacket())).isEqualTo(FULFILL_PACKET);
+    assertThat(link.getCircuitBreaker().getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+  }
+
+  @Test
+  public void sustainedTemporaryRejectsOpenCircuitBreaker() {
+    when(delegateMock.sendPacket(any())).thenReturn(reject(InterledgerErrorCode.T02_PEER_BUSY));
+
+    link.sendPacket(preparePacket());
+    link.sendPacket(preparePacket());
+    assertThat(link.getCircuitBreaker().getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    link.sendPacket(preparePacket());
+    assertThat(link.getCircuitBreaker().getState()).isEqualTo(CircuitBreaker.State.OPEN);
+  }
+
+  @Test
+  public void insufficientLiquidityAndFinalRejectsAreNotFailures() {
+    when(delegateMock.sendPacket(any()))
+        .thenReturn(reject(InterledgerErrorCode.T04_INSUFFICIENT_LIQUIDITY))
+        .thenReturn(reject(InterledgerErrorCode.F02_UNREACHABLE));
+
+    for (int i = 0; i < 6; i++) {
+      link.sendPacket(preparePacket());
+    }
+    assertThat(link.getCircuitBreaker().getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+  }
+
+  @Test
+  public void exceptionalAsyncCompletionCountsAsFailure() {
+    final CompletableFuture<InterledgerResponsePacket> failedResponse = new CompletableFuture<>();
+    failedResponse.completeExceptionally(new LinkException("connection reset", LINK_ID));
+    when(delegateMock.sendPacketAsync(any())).thenReturn(failedResponse);
+
+    assertThat(link.sendPacketAsync(preparePacket())).isCompletedExceptionally();
+    assertThat(link.getCircuitBreaker().getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    assertThat(link.getConcurrencyLimit().getInFlight()).isEqualTo(0);
+  }
+
+  private ConcurrencyLimitingLink<LinkSettings> newLink(final ConcurrencyLimitSettings settings) {
+    return new ConcurrencyLimitingLink<>(delegateMock, settings, new Ticker() {
+      @Override
+      public long read() {
+        return nanoTime.get();
+      }
+    });
+  }
+
+  private InterledgerRejectPacket reject(final InterledgerErrorCode errorCode) {
+    return InterledgerRejectPacket.builder()
+        .triggeredBy(OPERATOR_ADDRESS)
+        .code(errorCode)
+        .message("")
+        .build();
+  }
+
+  private InterledgerPreparePacket preparePacket() {
+    return InterledgerPreparePacket.builder()
+        .amount(UnsignedLong.valueOf(10L))
+        .executionCondition(InterledgerConstants.ALL_ZEROS_CONDITION)
+        .destination(OPERATOR_ADDRESS)
+        .expiresAt(DateUtils.now())
+        .build();
+  }
+}
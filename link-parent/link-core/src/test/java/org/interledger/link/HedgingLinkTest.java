@@ -0,0 +1,342 @@
+package org.interledger.link;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import org.interledger.core.DateUtils;
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerConstants;
+import org.interledger.core.InterledgerErrorCode;
+import org.interledger.core.InterledgerFulfillPacket;
+import org.interledger.core.InterledgerFulfillment;
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerRejectPacket;
+import org.interledger.core.InterledgerResponsePacket;
+import org.interledger.link.exceptions.LinkException;
+
+import com.google.common.base.Ticker;
+import com.google.common.primitives.UnsignedLong;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Unit tests for {@link HedgingLink}.
+ */
+public class HedgingLinkTest {
+
+  private static final InterledgerAddress OPERATOR_ADDRESS = InterledgerAddress.of("test.operator");
+
+  private static final InterledgerFulfillPacket FULFILL_PACKET = InterledgerFulfillPacket.builder()
+      .fulfillment(InterledgerFulfillment.of(new byte[32]))
+      .build();
+
+  private static final InterledgerRejectPacket REJECT_PACKET = InterledgerRejectPacket.builder()
+      .triggeredBy(OPERATOR_ADDRESS)
+      .code(InterledgerErrorCode.F99_APPLICATION_ERROR)
+      .message("")
+      .build();
+
+  @Mock
+  private Link<LinkSettings> delegateMock;
+
+  @Mock
+  private Link<LinkSettings> hedgeLinkMock;
+
+  @Mock
+  private ScheduledExecutorService schedulerMock;
+
+  private final AtomicLong nanoTime = new AtomicLong();
+  private final Deque<ScheduledTask> scheduledTasks = new ArrayDeque<>();
+  private final Deque<Runnable> hedgeSends = new ArrayDeque<>();
+
+  @Before
+  public void setUp() {
+    MockitoAnnotations.initMocks(this);
+    when(schedulerMock.schedule(any(Runnable.class), anyLong(), any())).thenAnswer(invocation -> {
+      final TimeUnit unit = invocation.getArgument(2);
+      scheduledTasks.add(new ScheduledTask(invocation.getArgument(0), unit.toMillis(invocation.getArgument(1))));
+      return mock(ScheduledFuture.class);
+    });
+  }
+
+  @Test
+  public void packetsThatAreNotHedgeableAreForwarded() {
+    final HedgingLink<LinkSettings> link = newLink(preparePacket -> false, HedgingSettings.builder().build());
+    when(delegateMock.sendPacketAsync(any())).thenReturn(new CompletableFuture<>());
+    when(delegateMock.sendPacket(any())).thenReturn(FULFILL_PACKET);
+
+    assertThat(link.sendPacketAsync(preparePacket())).isNotDone();
+    assertThat(link.sendPacket(preparePacket())).isEqualTo(FULFILL_PACKET);
+
+    verifyNoInteractions(schedulerMock);
+    verifyNoInteractions(hedgeLinkMock);
+  }
+
+  @Test
+  public void hedgesAfterInitialDelayAndFirstResponseWins() {
+    final HedgingLink<LinkSettings> link = newLink(preparePacket -> true, HedgingSettings.builder().build());
+    final CompletableFuture<InterledgerResponsePacket> originalResponse = new CompletableFuture<>();
+    when(delegateMock.sendPacketAsync(any())).thenReturn(originalResponse);
+    when(hedgeLinkMock.sendPacketAsync(any())).thenReturn(CompletableFuture.completedFuture(FULFILL_PACKET));
+
+    final CompletableFuture<InterledgerResponsePacket> response = link.sendPacketAsync(preparePacket());
+    assertThat(response).isNotDone();
+
+    assertThat(runNextTask()).isEqualTo(200);
+    assertThat(response).isCompletedWithValue(FULFILL_PACKET);
+    assertThat(link.getHedgesSent()).isEqualTo(1);
+    assertThat(link.getHedgesWon()).isEqualTo(1);
+
+    originalResponse.complete(REJECT_PACKET);
+    assertThat(response).isCompletedWithValue(FULFILL_PACKET);
+  }
+
+  @Test
+  public void doesNotHedgeOnceOriginalIsAnswered() {
+    final HedgingLink<LinkSettings> link = newLink(preparePacket -> true, HedgingSettings.builder().build());
+    final CompletableFuture<InterledgerResponsePacket> originalResponse = new CompletableFuture<>();
+    when(delegateMock.sendPacketAsync(any())).thenReturn(originalResponse);
+
+    final CompletableFuture<InterledgerResponsePacket> response = link.sendPacketAsync(preparePacket());
+    originalResponse.complete(REJECT_PACKET);
+    runNextTask();
+
+    assertThat(response).isCompletedWithValue(REJECT_PACKET);
+    verify(hedgeLinkMock, never()).sendPacketAsync(any());
+    assertThat(link.getHedgesSent()).isZero();
+  }
+
+  @Test
+  public void hedgeDelayFollowsObservedLatencyPercentile() {
+    final HedgingLink<LinkSettings> link = newLink(
+        preparePacket -> true, HedgingSettings.builder().minSamples(3).hedgePercentile(50).build()
+    );
+    when(delegateMock.sendPacketAsync(any())).thenAnswer(invocation -> {
+      nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(40));
+      return CompletableFuture.completedFuture(REJECT_PACKET);
+    });
+    for (int i = 0; i < 3; i++) {
+      assertThat(link.sendPacketAsync(preparePacket())).isCompletedWithValue(REJECT_PACKET);
+    }
+    assertThat(scheduledTasks).isEmpty();
+
+    when(delegateMock.sendPacketAsync(any())).thenReturn(new CompletableFuture<>());
+    when(hedgeLinkMock.sendPacketAsync(any())).thenReturn(new CompletableFuture<>());
+    link.sendPacketAsync(preparePacket());
+
+    assertThat(runNextTask()).isEqualTo(40);
+  }
+
+  @Test
+  public void hedgeDelayIsClampedToMaxHedgeDelay() {
+    final HedgingLink<LinkSettings> link = newLink(preparePacket -> true, HedgingSettings.builder()
+        .minSamples(1)
+        .initialHedgeDelay(Duration.ofMillis(50))
+        .maxHedgeDelay(Duration.ofMillis(100))
+        .build());
+    when(delegateMock.sendPacketAsync(any())).thenAnswer(invocation -> {
+      nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(5));
+      return CompletableFuture.completedFuture(REJECT_PACKET);
+    });
+    link.sendPacketAsync(preparePacket());
+
+    when(delegateMock.sendPacketAsync(any())).thenReturn(new CompletableFuture<>());
+    when(hedgeLinkMock.sendPacketAsync(any())).thenReturn(new CompletableFuture<>());
+    link.sendPacketAsync(preparePacket());
+
+    assertThat(runNextTask()).isEqualTo(100);
+  }
+
+  @Test
+  public void hedgeDelayForgetsLatenciesFromOlderWindows() {
+    final HedgingLink<LinkSettings> link = newLink(preparePacket -> true, HedgingSettings.builder()
+        .minSamples(3)
+        .latencyWindowSize(3)
+        .hedgePercentile(50)
+        .build());
+    when(hedgeLinkMock.sendPacketAsync(any())).thenReturn(new CompletableFuture<>());
+
+    respondAfterMillis(link, 40, 3);
+    when(delegateMock.sendPacketAsync(any())).thenReturn(new CompletableFuture<>());
+    link.sendPacketAsync(preparePacket());
+    assertThat(runNextTask()).isEqualTo(40);
+
+    respondAfterMillis(link, 100, 3);
+    when(delegateMock.sendPacketAsync(any())).thenReturn(new CompletableFuture<>());
+    link.sendPacketAsync(preparePacket());
+    assertThat(runNextTask()).isEqualTo(100);
+  }
+
+  @Test
+  public void hedgeLinkReturningNullFailsOnlyTheHedgedCopy() {
+    final HedgingLink<LinkSettings> link = newLink(preparePacket -> true, HedgingSettings.builder().build());
+    final CompletableFuture<InterledgerResponsePacket> originalResponse = new CompletableFuture<>();
+    when(delegateMock.sendPacketAsync(any())).thenReturn(originalResponse);
+
+    final CompletableFuture<InterledgerResponsePacket> response = link.sendPacketAsync(preparePacket());
+    runNextTask();
+    assertThat(response).isNotDone();
+
+    originalResponse.complete(FULFILL_PACKET);
+    assertThat(response).isCompletedWithValue(FULFILL_PACKET);
+  }
+
+  @Test
+  public void failedCopyWaitsForTheOtherCopy() {
+    final HedgingLink<LinkSettings> link = newLink(preparePacket -> true, HedgingSettings.builder().build());
+    final CompletableFuture<InterledgerResponsePacket> originalResponse = new CompletableFuture<>();
+    final CompletableFuture<InterledgerResponsePacket> hedgeResponse = new CompletableFuture<>();
+    when(delegateMock.sendPacketAsync(any())).thenReturn(originalResponse);
+    when(hedgeLinkMock.sendPacketAsync(any())).thenReturn(hedgeResponse);
+
+    final CompletableFuture<InterledgerResponsePacket> response = link.sendPacketAsync(preparePacket());
+    runNextTask();
+    originalResponse.completeExceptionally(new LinkException("connection reset", LinkId.of("foo")));
+    assertThat(response).isNotDone();
+
+    hedgeResponse.complete(FULFILL_PACKET);
+    assertThat(response).isCompletedWithValue(FULFILL_PACKET);
+  }
+
+  @Test
+  public void failsOnlyWhenEveryCopyFails() {
+    final HedgingLink<LinkSettings> link = newLink(preparePacket -> true, HedgingSettings.builder().build());
+    final CompletableFuture<InterledgerResponsePacket> originalResponse = new CompletableFuture<>();
+    when(delegateMock.sendPacketAsync(any())).thenReturn(originalResponse);
+    when(hedgeLinkMock.sendPacketAsync(any())).thenThrow(new LinkException("connection refused", LinkId.of("bar")));
+
+    final CompletableFuture<InterledgerResponsePacket> response = link.sendPacketAsync(preparePacket());
+    runNextTask();
+    assertThat(response).isNotDone();
+
+    originalResponse.completeExceptionally(new LinkException("connection reset", LinkId.of("foo")));
+    assertThat(response).isCompletedExceptionally();
+  }
+
+  @Test
+  public void hedgeIsSentFromTheHedgeExecutorRatherThanTheTimer() {
+    final HedgingLink<LinkSettings> link = newLink(preparePacket -> true, HedgingSettings.builder().build());
+    when(delegateMock.sendPacketAsync(any())).thenReturn(new CompletableFuture<>());
+    when(hedgeLinkMock.sendPacketAsync(any())).thenReturn(CompletableFuture.completedFuture(FULFILL_PACKET));
+
+    final CompletableFuture<InterledgerResponsePacket> response = link.sendPacketAsync(preparePacket());
+    scheduledTasks.poll().runnable.run();
+    verify(hedgeLinkMock, never()).sendPacketAsync(any());
+    assertThat(hedgeSends).hasSize(1);
+
+    hedgeSends.poll().run();
+    assertThat(response).isCompletedWithValue(FULFILL_PACKET);
+    assertThat(link.getHedgesWon()).isEqualTo(1);
+  }
+
+  @Test
+  public void rejectedHedgeCountsAsAFailedCopy() {
+    final HedgingLink<LinkSettings> link = new HedgingLink<>(
+        delegateMock, hedgeLinkMock, preparePacket -> true, HedgingSettings.builder().build(), schedulerMock,
+        runnable -> {
+          throw new RejectedExecutionException("shut down");
+        },
+        Ticker.systemTicker()
+    );
+    final CompletableFuture<InterledgerResponsePacket> originalResponse = new CompletableFuture<>();
+    when(delegateMock.sendPacketAsync(any())).thenReturn(originalResponse);
+
+    final CompletableFuture<InterledgerResponsePacket> response = link.sendPacketAsync(preparePacket());
+    runNextTask();
+    assertThat(response).isNotDone();
+
+    originalResponse.completeExceptionally(new LinkException("connection reset", LinkId.of("foo")));
+    assertThat(response).isCompletedExceptionally();
+  }
+
+  @Test
+  public void sendPacketThrowsTheFailureOfTheOnlyCopy() {
+    final HedgingLink<LinkSettings> link = newLink(preparePacket -> true, HedgingSettings.builder().build());
+    when(delegateMock.sendPacketAsync(any())).thenThrow(new LinkException("connection refused", LinkId.of("foo")));
+
+    assertThatThrownBy(() -> link.sendPacket(preparePacket())).isInstanceOf(LinkException.class);
+    assertThat(scheduledTasks).isEmpty();
+  }
+
+  private HedgingLink<LinkSettings> newLink(
+      final Predicate<InterledgerPreparePacket> isHedgeable, final HedgingSettings settings
+  ) {
+    final Ticker ticker = new Ticker() {
+      @Override
+      public long read() {
+        return nanoTime.get();
+      }
+    };
+    return new HedgingLink<>(
+        delegateMock, hedgeLinkMock, isHedgeable, settings, schedulerMock, hedgeSends::add, ticker
+    );
+  }
+
+  /**
+   * Send {@code count} packets that the delegate answers after {@code latencyMillis}, without hedging any of them.
+   */
+  private void respondAfterMillis(final HedgingLink<LinkSettings> link, final long latencyMillis, final int count) {
+    when(delegateMock.sendPacketAsync(any())).thenAnswer(invocation -> {
+      nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+      return CompletableFuture.completedFuture(REJECT_PACKET);
+    });
+    for (int i = 0; i < count; i++) {
+      assertThat(link.sendPacketAsync(preparePacket())).isCompletedWithValue(REJECT_PACKET);
+    }
+  }
+
+  /**
+   * Run the earliest-scheduled task, and then send any hedge that it handed off.
+   *
+   * @return The delay, in milliseconds, that the task was scheduled with.
+   */
+  private long runNextTask() {
+    assertThat(scheduledTasks).isNotEmpty();
+    final ScheduledTask task = scheduledTasks.poll();
+    task.runnable.run();
+    while (!hedgeSends.isEmpty()) {
+      hedgeSends.poll().run();
+    }
+    return task.delayMillis;
+  }
+
+  private InterledgerPreparePacket preparePacket() {
+    return InterledgerPreparePacket.builder()
+        .amount(UnsignedLong.valueOf(10L))
+        .executionCondition(InterledgerConstants.ALL_ZEROS_CONDITION)
+        .destination(OPERATOR_ADDRESS)
+        .expiresAt(DateUtils.now())
+        .build();
+  }
+
+  private static final class ScheduledTask {
+
+    private final Runnable runnable;
+    private final long delayMillis;
+
+    private ScheduledTask(final Runnable runnable, final long delayMillis) {
+      this.runnable = runnable;
+      this.delayMillis = delayMillis;
+    }
+  }
+}
@@ -1,14 +1,25 @@
 package org.interledger.link;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
 
+import org.interledger.core.InterledgerAddress;
 import org.interledger.link.exceptions.LinkException;
+import org.interledger.link.filters.FilteringLinkFactory;
+import org.interledger.link.filters.LinkFilter;
 
+import com.google.common.collect.ImmutableList;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Unit test for {@link LinkFactoryProvider}.
  */
@@ -62,4 +73,62 @@ public class LinkFactoryProviderTest {
       throw e;
     }
   }
+
+  @Test
+  public void registeredLinkFiltersWrapLinkFactory() {
+    final LinkFilter linkFilter = (link, preparePacket, filterChain) -> filterChain.doFilter(preparePacket);
+    linkFactoryProvider.registerLinkFactory(TEST_LINK_TYPE, linkFactoryMock);
+    assertThat(linkFactoryProvider.registerLinkFilters(TEST_LINK_TYPE, ImmutableList.of(linkFilter))).isNull();
+
+    final LinkFactory linkFactory = linkFactoryProvider.getLinkFactory(TEST_LINK_TYPE);
+    assertThat(linkFactory).isInstanceOf(FilteringLinkFactory.class);
+    assertThat(((FilteringLinkFactory) linkFactory).getDelegate()).isEqualTo(linkFactoryMock);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void registerLinkFiltersWithNullLinkFilters() {
+    try {
+      linkFactoryProvider.registerLinkFilters(TEST_LINK_TYPE, null);
+    } catch (NullPointerException e) {
+      assertThat(e.getMessage()).isEqualTo("linkFilters must not be null");
+      throw e;
+    }
+  }
+
+  @Test
+  public void registeredLinkWarmUpWarmsConstructedLinks() {
+    final LinkWarmUpSettings warmUpSettings = LinkWarmUpSettings.builder().connections(4).build();
+    final CompletableFuture<Void> warmUpFuture = new CompletableFuture<>();
+    final Link<?> warmableLinkMock = mock(Link.class, withSettings().extraInterfaces(Warmable.class));
+    when(((Warmable) warmableLinkMock).warmUp(any())).thenReturn(warmUpFuture);
+    when(((Warmable) warmableLinkMock).whenWarm()).thenReturn(warmUpFuture);
+    when(linkFactoryMock.constructLink(any(), any())).thenAnswer(invocation -> warmableLinkMock);
+
+    linkFactoryProvider.registerLinkFactory(TEST_LINK_TYPE, linkFactoryMock);
+    assertThat(linkFactoryProvider.registerLinkWarmUp(TEST_LINK_TYPE, warmUpSettings)).isNull();
+    linkFactoryProvider.registerLinkFilters(
+        TEST_LINK_TYPE, ImmutableList.of((link, preparePacket, filterChain) -> filterChain.doFilter(preparePacket))
+    );
+
+    final Link<?> link = linkFactoryProvider.getLinkFactory(TEST_LINK_TYPE)
+        .constructLink(() -> InterledgerAddress.of("test.operator"), mock(LinkSettings.class));
+
+    verify((Warmable) warmableLinkMock).warmUp(warmUpSettings);
+    assertThat(Warmable.whenWarm(link)).isSameAs(warmUpFuture);
+  }
+
+  @Test
+  public void linkThatIsNotWarmableIsAlwaysWarm() {
+    assertThat(Warmable.whenWarm(mock(Link.class))).isCompleted();
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void registerLinkWarmUpWithNullSettings() {
+    try {
+      linkFactoryProvider.registerLinkWarmUp(TEST_LINK_TYPE, null);
+    } catch (NullPointerException e) {
+      assertThat(e.getMessage()).isEqualTo("warmUpSettings must not be null");
+      throw e;
+    }
+  }
 }
@@ -0,0 +1,277 @@
+package org.interledger.link;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.interledger.core.DateUtils;
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerConstants;
+import org.interledger.core.InterledgerErrorCode;
+import org.interledger.core.InterledgerFulfillPacket;
+import org.interledger.core.InterledgerFulfillment;
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerRejectPacket;
+import org.interledger.core.InterledgerResponsePacket;
+import org.interledger.link.LinkGroupSettings.RoutingStrategy;
+import org.interledger.link.exceptions.LinkException;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.UnsignedLong;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unit tests for {@link LinkGroup}.
+ */
+public class LinkGroupTest {
+
+  private static final InterledgerAddress OPERATOR_ADDRESS = InterledgerAddress.of("test.operator");
+  private static final InterledgerAddress PEER_ADDRESS = InterledgerAddress.of("test.peer");
+
+  private static final InterledgerFulfillPacket FULFILL_PACKET = InterledgerFulfillPacket.builder()
+      .fulfillment(InterledgerFulfillment.of(new byte[32]))
+      .build();
+
+  @Mock
+  private Link<LinkSettings> firstLinkMock;
+
+  @Mock
+  private Link<LinkSettings> secondLinkMock;
+
+  @Mock
+  private Link<LinkSettings> thirdLinkMock;
+
+  private final AtomicLong nanoTime = new AtomicLong();
+
+  @Before
+  public void setUp() {
+    MockitoAnnotations.initMocks(this);
+  }
+
+  @Test
+  public void leastOutstandingSpreadsInFlightPackets() {
+    final LinkGroup<LinkSettings> group = newGroup(
+        LinkGroupSettings.builder().build(), firstLinkMock, secondLinkMock, thirdLinkMock
+    );
+    final CompletableFuture<InterledgerResponsePacket> pendingResponse = new CompletableFuture<>();
+    when(firstLinkMock.sendPacketAsync(any())).thenReturn(pendingResponse);
+    when(secondLinkMock.sendPacketAsync(any())).thenReturn(pendingResponse);
+    when(thirdLinkMock.sendPacketAsync(any())).thenReturn(pendingResponse);
+
+    for (int i = 0; i < 6; i++) {
+      group.sendPacketAsync(preparePacket());
+    }
+
+    verify(firstLinkMock, times(2)).sendPacketAsync(any());
+    verify(secondLinkMock, times(2)).sendPacketAsync(any());
+    verify(thirdLinkMock, times(2)).sendPacketAsync(any());
+    assertThat(group.getMembers()).allSatisfy(member -> assertThat(member.getInFlight()).isEqualTo(2));
+
+    pendingResponse.complete(FULFILL_PACKET);
+    assertThat(group.getMembers()).allSatisfy(member -> assertThat(member.getInFlight()).isZero());
+  }
+
+  @Test
+  public void leastOutstandingAvoidsBusyMember() {
+    final LinkGroup<LinkSettings> group = newGroup(
+        LinkGroupSettings.builder().build(), firstLinkMock, secondLinkMock
+    );
+    when(firstLinkMock.sendPacketAsync(any())).thenReturn(new CompletableFuture<>());
+    when(secondLinkMock.sendPacketAsync(any())).thenReturn(CompletableFuture.completedFuture(FULFILL_PACKET));
+
+    for (int i = 0; i < 5; i++) {
+      group.sendPacketAsync(preparePacket());
+    }
+
+    // The first member never answers, so once it has a packet in-flight every other packet goes to the second.
+    verify(firstLinkMock, times(1)).sendPacketAsync(any());
+    verify(secondLinkMock, times(4)).sendPacketAsync(any());
+  }
+
+  @Test
+  public void lowestLatencyPrefersFasterMember() {
+    final LinkGroup<LinkSettings> group = newGroup(
+        LinkGroupSettings.builder().routingStrategy(RoutingStrategy.LOWEST_LATENCY).build(),
+        firstLinkMock, secondLinkMock
+    );
+    when(firstLinkMock.sendPacket(any())).thenAnswer(invocation -> {
+      nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(50));
+      return FULFILL_PACKET;
+    });
+    when(secondLinkMock.sendPacket(any())).thenAnswer(invocation -> {
+      nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(10));
+      return FULFILL_PACKET;
+    });
+
+    for (int i = 0; i < 10; i++) {
+      assertThat(group.sendPacket(preparePacket())).isEqualTo(FULFILL_PACKET);
+    }
+
+    verify(firstLinkMock, times(1)).sendPacket(any());
+    verify(secondLinkMock, times(9)).sendPacket(any());
+    assertThat(group.getMembers().get(0).getLatencyEwma()).isEqualTo(Duration.ofMillis(50));
+    assertThat(group.getMembers().get(1).getLatencyEwma()).isEqualTo(Duration.ofMillis(10));
+  }
+
+  @Test
+  public void linkExceptionEjectsMemberUntilProbeSucceeds() {
+    final LinkGroup<LinkSettings> group = newGroup(
+        LinkGroupSettings.builder().ejectionDuration(Duration.ofSeconds(5)).build(), firstLinkMock, secondLinkMock
+    );
+    when(firstLinkMock.sendPacket(any()))
+        .thenThrow(new LinkException("connection refused", LinkId.of("first")))
+        .thenReturn(FULFILL_PACKET);
+    when(secondLinkMock.sendPacket(any())).thenReturn(FULFILL_PACKET);
+
+    assertThatThrownBy(() -> group.sendPacket(preparePacket())).isInstanceOf(LinkException.class);
+    assertThat(group.getMembers().get(0).isEjected()).isTrue();
+
+    for (int i = 0; i < 4; i++) {
+      assertThat(group.sendPacket(preparePacket())).isEqualTo(FULFILL_PACKET);
+    }
+    verify(firstLinkMock, times(1)).sendPacket(any());
+    verify(secondLinkMock, times(4)).sendPacket(any());
+
+    nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(5));
+    assertThat(group.sendPacket(preparePacket())).isEqualTo(FULFILL_PACKET);
+
+    verify(firstLinkMock, times(2)).sendPacket(any());
+    assertThat(group.getMembers().get(0).isEjected()).isFalse();
+  }
+
+  @Test
+  public void consecutiveTemporaryRejectsEjectMember() {
+    final LinkGroup<LinkSettings> group = newGroup(
+        LinkGroupSettings.builder().failureThreshold(2).build(), firstLinkMock, secondLinkMock
+    );
+    final InterledgerRejectPacket internalError = reject(InterledgerErrorCode.T00_INTERNAL_ERROR);
+    final InterledgerRejectPacket insufficientLiquidity = reject(InterledgerErrorCode.T04_INSUFFICIENT_LIQUIDITY);
+    when(firstLinkMock.sendPacket(any())).thenReturn(internalError);
+    when(secondLinkMock.sendPacket(any())).thenReturn(insufficientLiquidity);
+
+    for (int i = 0; i < 6; i++) {
+      group.sendPacket(preparePacket());
+    }
+
+    assertThat(group.getMembers().get(0).isEjected()).isTrue();
+    assertThat(group.getMembers().get(1).isEjected()).isFalse();
+    verify(firstLinkMock, times(2)).sendPacket(any());
+    verify(secondLinkMock, times(4)).sendPacket(any());
+  }
+
+  @Test
+  public void onlyTemporaryRejectsFromThePeerOrThisNodeEjectMember() {
+    final LinkGroup<LinkSettings> group = newGroup(
+        LinkGroupSettings.builder().failureThreshold(2).peerAddress(PEER_ADDRESS).build(), firstLinkMock, secondLinkMock
+    );
+    final InterledgerRejectPacket downstreamReject = reject(
+        InterledgerErrorCode.T00_INTERNAL_ERROR, InterledgerAddress.of("test.peer.downstream")
+    );
+    final InterledgerRejectPacket peerReject = reject(InterledgerErrorCode.T00_INTERNAL_ERROR, PEER_ADDRESS);
+    when(firstLinkMock.sendPacket(any())).thenReturn(downstreamReject);
+    when(secondLinkMock.sendPacket(any())).thenReturn(peerReject);
+
+    for (int i = 0; i < 4; i++) {
+      group.sendPacket(preparePacket());
+    }
+
+    assertThat(group.getMembers().get(0).isEjected()).isFalse();
+    assertThat(group.getMembers().get(1).isEjected()).isTrue();
+    verify(firstLinkMock, times(2)).sendPacket(any());
+    verify(secondLinkMock, times(2)).sendPacket(any());
+  }
+
+  @Test
+  public void rejectsWithPeerUnreachableWhenEveryMemberIsEjected() {
+    final LinkGroup<LinkSettings> group = newGroup(LinkGroupSettings.builder().build(), firstLinkMock);
+    when(firstLinkMock.sendPacketAsync(any())).thenThrow(new LinkException("connection refused", LinkId.of("first")));
+
+    assertThat(group.sendPacketAsync(preparePacket())).isCompletedExceptionally();
+    final InterledgerResponsePacket response = group.sendPacketAsync(preparePacket()).join();
+
+    assertThat(response).isInstanceOf(InterledgerRejectPacket.class);
+    assertThat(((InterledgerRejectPacket) response).getCode()).isEqualTo(InterledgerErrorCode.T01_PEER_UNREACHABLE);
+    assertThat(((InterledgerRejectPacket) response).getTriggeredBy()).hasValue(OPERATOR_ADDRESS);
+    verify(firstLinkMock, times(1)).sendPacketAsync(any());
+    verify(firstLinkMock, never()).sendPacket(any());
+  }
+
+  @Test
+  public void linkHandlerIsRegisteredOnEveryMember() {
+    final LinkGroup<LinkSettings> group = newGroup(
+        LinkGroupSettings.builder().build(), firstLinkMock, secondLinkMock
+    );
+    final LinkHandler linkHandler = preparePacket -> FULFILL_PACKET;
+
+    group.registerLinkHandler(linkHandler);
+    verify(firstLinkMock).registerLinkHandler(linkHandler);
+    verify(secondLinkMock).registerLinkHandler(linkHandler);
+    assertThat(group.getLinkHandler()).hasValue(linkHandler);
+
+    group.unregisterLinkHandler();
+    verify(firstLinkMock).unregisterLinkHandler();
+    verify(secondLinkMock).unregisterLinkHandler();
+    assertThat(group.getLinkHandler()).isEmpty();
+  }
+
+  @Test
+  public void groupMustHaveMembers() {
+    assertThatThrownBy(() -> new LinkGroup<>(
+        () -> OPERATOR_ADDRESS, linkSettings(), ImmutableList.of(), LinkGroupSettings.builder().build()
+    )).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @SafeVarargs
+  private final LinkGroup<LinkSettings> newGroup(final LinkGroupSettings settings, final Link<LinkSettings>... links) {
+    final LinkGroup<LinkSettings> group = new LinkGroup<>(
+        () -> OPERATOR_ADDRESS, linkSettings(), ImmutableList.copyOf(links), settings, new Ticker() {
+          @Override
+          public long read() {
+            return nanoTime.get();
+          }
+        }
+    );
+    group.setLinkId(LinkId.of("group"));
+    return group;
+  }
+
+  private LinkSettings linkSettings() {
+    return LinkSettings.builder()
+        .linkType(LinkType.of("GROUP"))
+        .build();
+  }
+
+  private InterledgerRejectPacket reject(final InterledgerErrorCode errorCode) {
+    return reject(errorCode, OPERATOR_ADDRESS);
+  }
+
+  private InterledgerRejectPacket reject(final InterledgerErrorCode errorCode, final InterledgerAddress triggeredBy) {
+    return InterledgerRejectPacket.builder()
+        .triggeredBy(triggeredBy)
+        .code(errorCode)
+        .message("")
+        .build();
+  }
+
+  private InterledgerPreparePacket preparePacket() {
+    return InterledgerPreparePacket.builder()
+        .amount(UnsignedLong.valueOf(10L))
+        .executionCondition(InterledgerConstants.ALL_ZEROS_CONDITION)
+        .destination(OPERATOR_ADDRESS)
+        .expiresAt(DateUtils.now())
+        .build();
+  }
+}
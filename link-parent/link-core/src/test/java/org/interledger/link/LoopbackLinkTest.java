@@ -7,11 +7,13 @@ import static org.junit.Assert.fail;
 import com.google.common.collect.Maps;
 import com.google.common.primitives.UnsignedLong;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import org.interledger.core.DateUtils;
 import org.interledger.core.InterledgerAddress;
 import org.interledger.core.InterledgerConstants;
 import org.interledger.core.InterledgerErrorCode;
 import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerResponsePacket;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -195,6 +197,53 @@ public class LoopbackLinkTest {
     );
   }
 
+  @Test
+  public void sendPacketAsyncCompletesImmediately() {
+    link.setLinkId(LinkId.of("foo"));
+
+    final InterledgerPreparePacket preparePacket = preparePacket();
+    final CompletableFuture<InterledgerResponsePacket> future = link.sendPacketAsync(preparePacket);
+
+    assertThat(future).isCompleted();
+    future.join().handle(
+      fulfillPacket -> assertThat(fulfillPacket.getData()).isEqualTo(preparePacket.getData()),
+      rejectPacket -> fail("Expected a Fulfill")
+    );
+  }
+
+  @Test
+  public void sendPacketAsyncWithT99CompletesExceptionally() {
+    final Map<String, String> customSettings = Maps.newHashMap();
+    customSettings.put(SIMULATED_REJECT_ERROR_CODE, "T99");
+    this.link = new LoopbackLink(
+      () -> OPERATOR_ADDRESS,
+      LinkSettings.builder().linkType(LoopbackLink.LINK_TYPE).customSettings(customSettings).build(),
+      packetRejector
+    );
+    link.setLinkId(LinkId.of("foo"));
+
+    final CompletableFuture<InterledgerResponsePacket> future = link.sendPacketAsync(preparePacket());
+
+    assertThat(future).isCompletedExceptionally();
+  }
+
+  @Test
+  public void sendPacketAsyncWithT03DoesNotBlockTheCaller() {
+    final Map<String, String> customSettings = Maps.newHashMap();
+    customSettings.put(SIMULATED_REJECT_ERROR_CODE, InterledgerErrorCode.T03_CONNECTOR_BUSY_CODE);
+    this.link = new LoopbackLink(
+      () -> OPERATOR_ADDRESS,
+      LinkSettings.builder().linkType(LoopbackLink.LINK_TYPE).customSettings(customSettings).build(),
+      packetRejector
+    );
+    link.setLinkId(LinkId.of("foo"));
+
+    final CompletableFuture<InterledgerResponsePacket> future = link.sendPacketAsync(preparePacket());
+
+    // The reject only completes the future once the simulated timeout has elapsed.
+    assertThat(future).isNotDone();
+  }
+
   private InterledgerPreparePacket preparePacket() {
     return InterledgerPreparePacket.builder()
       .amount(UnsignedLong.valueOf(10L))
@@ -13,6 +13,8 @@ import com.google.common.primitives.UnsignedLong;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.concurrent.atomic.AtomicReference;
+
 /**
  * Unit tests for {@link PacketRejector}.
  */
@@ -100,4 +102,66 @@ public class PacketRejectorTest {
     assertThat(reject.getData().length).isEqualTo(0);
   }
 
+  @Test
+  public void testRejectWithoutTemplatesBuildsNewPackets() {
+    InterledgerRejectPacket reject1 = packetRejector
+        .reject(LINK_ID, PREPARE_PACKET, InterledgerErrorCode.T04_INSUFFICIENT_LIQUIDITY, "");
+    InterledgerRejectPacket reject2 = packetRejector
+        .reject(LINK_ID, PREPARE_PACKET, InterledgerErrorCode.T04_INSUFFICIENT_LIQUIDITY, "");
+
+    assertThat(reject1).isEqualTo(reject2);
+    assertThat(reject1).isNotSameAs(reject2);
+  }
+
+  @Test
+  public void testRejectWithTemplates() {
+    final PacketRejector templatedRejector = new PacketRejector(() -> OPERATOR_ADDRESS, true);
+
+    InterledgerRejectPacket reject1 = templatedRejector
+        .reject(LINK_ID, PREPARE_PACKET, InterledgerErrorCode.T04_INSUFFICIENT_LIQUIDITY, "");
+    InterledgerRejectPacket reject2 = templatedRejector
+        .reject(LINK_ID, PREPARE_PACKET, InterledgerErrorCode.T04_INSUFFICIENT_LIQUIDITY, "");
+    InterledgerRejectPacket reject3 = templatedRejector
+        .reject(LINK_ID, PREPARE_PACKET, InterledgerErrorCode.T02_PEER_BUSY, "");
+
+    assertThat(reject1).isSameAs(reject2);
+    assertThat(reject1.getCode()).isEqualTo(InterledgerErrorCode.T04_INSUFFICIENT_LIQUIDITY);
+    assertThat(reject1.getTriggeredBy().get()).isEqualTo(OPERATOR_ADDRESS);
+    assertThat(reject1.getMessage()).isEmpty();
+    assertThat(reject3).isNotSameAs(reject1);
+    assertThat(reject3.getCode()).isEqualTo(InterledgerErrorCode.T02_PEER_BUSY);
+  }
+
+  @Test
+  public void testRejectWithTemplatesAndDifferentMessage() {
+    final PacketRejector templatedRejector = new PacketRejector(() -> OPERATOR_ADDRESS, true);
+
+    InterledgerRejectPacket reject1 = templatedRejector
+        .reject(LINK_ID, PREPARE_PACKET, InterledgerErrorCode.T02_PEER_BUSY, "first");
+    InterledgerRejectPacket reject2 = templatedRejector
+        .reject(LINK_ID, PREPARE_PACKET, InterledgerErrorCode.T02_PEER_BUSY, "second");
+    InterledgerRejectPacket reject3 = templatedRejector
+        .reject(LINK_ID, PREPARE_PACKET, InterledgerErrorCode.T02_PEER_BUSY, "first");
+
+    assertThat(reject1.getMessage()).isEqualTo("first");
+    assertThat(reject2.getMessage()).isEqualTo("second");
+    assertThat(reject3).isSameAs(reject1);
+  }
+
+  @Test
+  public void testRejectWithTemplatesAndChangingOperatorAddress() {
+    final InterledgerAddress otherOperatorAddress = InterledgerAddress.of("test.other-operator");
+    final AtomicReference<InterledgerAddress> operatorAddress = new AtomicReference<>(OPERATOR_ADDRESS);
+    final PacketRejector templatedRejector = new PacketRejector(operatorAddress::get, true);
+
+    InterledgerRejectPacket reject1 = templatedRejector
+        .reject(LINK_ID, PREPARE_PACKET, InterledgerErrorCode.T02_PEER_BUSY, "");
+    operatorAddress.set(otherOperatorAddress);
+    InterledgerRejectPacket reject2 = templatedRejector
+        .reject(LINK_ID, PREPARE_PACKET, InterledgerErrorCode.T02_PEER_BUSY, "");
+
+    assertThat(reject1.getTriggeredBy().get()).isEqualTo(OPERATOR_ADDRESS);
+    assertThat(reject2.getTriggeredBy().get()).isEqualTo(otherOperatorAddress);
+  }
+
 }
@@ -12,6 +12,7 @@ import org.interledger.core.InterledgerErrorCode;
 import org.interledger.core.InterledgerFulfillment;
 import org.interledger.core.InterledgerPreparePacket;
 import org.interledger.core.InterledgerRejectPacket;
+import org.interledger.core.InterledgerResponsePacket;
 
 import com.google.common.primitives.UnsignedLong;
 import org.junit.Before;
@@ -23,6 +24,7 @@ import org.slf4j.LoggerFactory;
 
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Unit tests for {@link PingLoopbackLink}.
@@ -163,4 +165,22 @@ public class PingLoopbackLinkTest {
     );
   }
 
+  @Test
+  public void sendPacketAsyncCompletesImmediately() {
+    final InterledgerPreparePacket preparePacket = InterledgerPreparePacket.builder()
+        .amount(UnsignedLong.valueOf(10L))
+        .executionCondition(PING_PROTOCOL_CONDITION)
+        .destination(OPERATOR_ADDRESS)
+        .expiresAt(DateUtils.now())
+        .build();
+
+    final CompletableFuture<InterledgerResponsePacket> future = link.sendPacketAsync(preparePacket);
+
+    assertThat(future).isCompleted();
+    future.join().handle(
+        fulfillPacket -> assertThat(fulfillPacket.getFulfillment()).isEqualTo(PING_PROTOCOL_FULFILLMENT),
+        rejectPacket -> fail("Expected a Fulfill!")
+    );
+  }
+
 }
@@ -0,0 +1,101 @@
+package org.interledger.link;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import org.interledger.core.InterledgerAddress;
+import org.interledger.link.exceptions.LinkException;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Optional;
+
+/**
+ * Unit tests for {@link SimulatedLinkFactory}.
+ */
+public class SimulatedLinkFactoryTest {
+
+  private static final InterledgerAddress OPERATOR_ADDRESS = InterledgerAddress.of("test.operator");
+  private final LinkId linkId = LinkId.of("foo");
+
+  @Mock
+  private LinkSettings linkSettingsMock;
+
+  @Mock
+  private PacketRejector packetRejectorMock;
+
+
+  private SimulatedLinkFactory simulatedLinkFactory;
+
+  @Before
+  public void setUp() {
+    MockitoAnnotations.initMocks(this);
+    this.simulatedLinkFactory = new SimulatedLinkFactory(packetRejectorMock);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void constructWithNulPacketRejector() {
+    try {
+      new SimulatedLinkFactory(null);
+      fail();
+    } catch (NullPointerException e) {
+      assertThat(e.getMessage()).isEqualTo("packetRejector must not be null");
+      throw e;
+    }
+  }
+
+  @Test
+  public void supports() {
+    assertThat(simulatedLinkFactory.supports(SimulatedLink.LINK_TYPE)).isEqualTo(true);
+    assertThat(simulatedLinkFactory.supports(LinkType.of("foo"))).isEqualTo(false);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void constructLinkWithNullOperator() {
+    try {
+      simulatedLinkFactory.constructLink(null, linkSettingsMock);
+      fail();
+    } catch (NullPointerException e) {
+      assertThat(e.getMessage()).isEqualTo("operatorAddressSupplier must not be null");
+      throw e;
+    }
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void constructLinkWithNullLinkSettings() {
+    try {
+      simulatedLinkFactory.constructLink(() -> OPERATOR_ADDRESS, null);
+      fail();
+    } catch (NullPointerException e) {
+      assertThat(e.getMessage()).isEqualTo("linkSettings must not be null");
+      throw e;
+    }
+  }
+
+  @Test(expected = LinkException.class)
+  public void constructLinkWithUnsupportedLinkType() {
+    try {
+      LinkSettings linkSettings = LinkSettings.builder()
+          .linkType(LinkType.of("foo"))
+          .build();
+      simulatedLinkFactory.constructLink(() -> OPERATOR_ADDRESS, linkSettings);
+      fail();
+    } catch (NullPointerException e) {
+      assertThat(e.getMessage()).isEqualTo("LinkType not supported by this factory. linkType=LinkType(FOO)");
+      throw e;
+    }
+  }
+
+  @Test
+  public void constructLink() {
+    LinkSettings linkSettings = LinkSettings.builder()
+        .linkType(SimulatedLink.LINK_TYPE)
+        .build();
+    Link<?> link = simulatedLinkFactory.constructLink(() -> OPERATOR_ADDRESS, linkSettings);
+    link.setLinkId(linkId);
+    assertThat(link.getLinkId()).isEqualTo(linkId);
+  }
+}
@@ -0,0 +1,393 @@
+package org.interledger.link;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.interledger.core.AmountTooLargeErrorData;
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerConstants;
+import org.interledger.core.InterledgerErrorCode;
+import org.interledger.core.InterledgerFulfillPacket;
+import org.interledger.core.InterledgerFulfillment;
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerRejectPacket;
+import org.interledger.core.InterledgerResponsePacket;
+import org.interledger.link.exceptions.LinkException;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.primitives.UnsignedLong;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for {@link SimulatedLink} and {@link LinkPair}.
+ */
+public class SimulatedLinkTest {
+
+  private static final InterledgerAddress OPERATOR_ADDRESS = InterledgerAddress.of("test.operator");
+  private static final LinkId LINK_ID = LinkId.of("foo");
+  private static final Instant NOW = Instant.parse("2020-01-01T00:00:00Z");
+
+  private static final InterledgerFulfillPacket FULFILL_PACKET = InterledgerFulfillPacket.builder()
+      .fulfillment(InterledgerFulfillment.of(new byte[32]))
+      .build();
+
+  @Mock
+  private ScheduledExecutorService schedulerMock;
+
+  @Mock
+  private LinkHandler peerLinkHandlerMock;
+
+  private final Deque<ScheduledTask> scheduledTasks = new ArrayDeque<>();
+  private final Deque<Runnable> deliveries = new ArrayDeque<>();
+
+  @Before
+  public void setUp() {
+    MockitoAnnotations.initMocks(this);
+    when(schedulerMock.schedule(any(Runnable.class), anyLong(), any())).thenAnswer(invocation -> {
+      final TimeUnit unit = invocation.getArgument(2);
+      scheduledTasks.add(new ScheduledTask(invocation.getArgument(0), unit.toMillis(invocation.getArgument(1))));
+      return null;
+    });
+    when(peerLinkHandlerMock.handleIncomingPacket(any())).thenReturn(FULFILL_PACKET);
+  }
+
+  @Test
+  public void deliversToPeerAfterHalfTheLatency() {
+    final SimulatedLink link = simulatedLink(ImmutableMap.of(SimulatedLink.SIMULATED_LATENCY_MILLIS, 100));
+
+    final CompletableFuture<InterledgerResponsePacket> response = link.sendPacketAsync(preparePacket(10));
+    verify(peerLinkHandlerMock, never()).handleIncomingPacket(any());
+    assertThat(runNextTask()).isEqualTo(50);
+
+    verify(peerLinkHandlerMock).handleIncomingPacket(any());
+    assertThat(response).isNotDone();
+    assertThat(runNextTask()).isEqualTo(50);
+
+    assertThat(response).isCompletedWithValue(FULFILL_PACKET);
+    assertThat(scheduledTasks).isEmpty();
+  }
+
+  @Test
+  public void sampledLatencyStaysWithinJitter() {
+    final SimulatedLink link = simulatedLink(ImmutableMap.of(
+        SimulatedLink.SIMULATED_LATENCY_MILLIS, 100,
+        SimulatedLink.SIMULATED_JITTER_MILLIS, 20,
+        SimulatedLink.SIMULATED_RANDOM_SEED, 42
+    ));
+
+    for (int i = 0; i < 100; i++) {
+      link.sendPacketAsync(preparePacket(10));
+      assertThat(runNextTask()).isBetween(40L, 60L);
+      runNextTask();
+    }
+  }
+
+  @Test
+  public void exponentialLatencyNeverFallsBelowTheMean() {
+    final SimulatedLink link = simulatedLink(ImmutableMap.of(
+        SimulatedLink.SIMULATED_LATENCY_MILLIS, 100,
+        SimulatedLink.SIMULATED_JITTER_MILLIS, 20,
+        SimulatedLink.SIMULATED_LATENCY_DISTRIBUTION, SimulatedLink.LatencyDistribution.EXPONENTIAL
+    ));
+
+    for (int i = 0; i < 100; i++) {
+      link.sendPacketAsync(preparePacket(10));
+      final long forwardMillis = runNextTask();
+      final long returnMillis = runNextTask();
+      assertThat(forwardMillis + returnMillis).isGreaterThanOrEqualTo(100);
+    }
+  }
+
+  @Test
+  public void rejectsLargePacketsWithF08() {
+    final SimulatedLink link = simulatedLink(ImmutableMap.of(SimulatedLink.SIMULATED_MAX_PACKET_AMOUNT, "5"));
+
+    final CompletableFuture<InterledgerResponsePacket> response = link.sendPacketAsync(preparePacket(10));
+    runNextTask();
+
+    final InterledgerRejectPacket rejectPacket = rejectOf(response);
+    assertThat(rejectPacket.getCode()).isEqualTo(InterledgerErrorCode.F08_AMOUNT_TOO_LARGE);
+    assertThat(rejectPacket.getData()).isNotEmpty();
+    assertThat(rejectPacket.typedData()).contains(AmountTooLargeErrorData.builder()
+        .maximumAmount(UnsignedLong.valueOf(5))
+        .receivedAmount(UnsignedLong.valueOf(10))
+        .build());
+    verify(peerLinkHandlerMock, never()).handleIncomingPacket(any());
+  }
+
+  @Test
+  public void rejectsPacketsAboveTheRateWithT05() {
+    final SimulatedLink link = simulatedLink(ImmutableMap.of(SimulatedLink.SIMULATED_PACKETS_PER_SECOND, 1));
+
+    final CompletableFuture<InterledgerResponsePacket> first = link.sendPacketAsync(preparePacket(10));
+    final CompletableFuture<InterledgerResponsePacket> second = link.sendPacketAsync(preparePacket(10));
+    runAllTasks();
+
+    assertThat(first).isCompletedWithValue(FULFILL_PACKET);
+    assertThat(rejectOf(second).getCode()).isEqualTo(InterledgerErrorCode.T05_RATE_LIMITED);
+  }
+
+  @Test
+  public void rejectsPacketsAboveTheLiquidityWithT04() {
+    final SimulatedLink link = simulatedLink(ImmutableMap.of(SimulatedLink.SIMULATED_LIQUIDITY, "15"));
+
+    final CompletableFuture<InterledgerResponsePacket> first = link.sendPacketAsync(preparePacket(10));
+    assertThat(link.getAmountInFlight()).isEqualTo(UnsignedLong.valueOf(10));
+    final CompletableFuture<InterledgerResponsePacket> second = link.sendPacketAsync(preparePacket(10));
+    runAllTasks();
+
+    assertThat(first).isCompletedWithValue(FULFILL_PACKET);
+    assertThat(rejectOf(second).getCode())
+        .isEqualTo(InterledgerErrorCode.T04_INSUFFICIENT_LIQUIDITY);
+    assertThat(link.getAmountInFlight()).isEqualTo(UnsignedLong.ZERO);
+
+    final CompletableFuture<InterledgerResponsePacket> third = link.sendPacketAsync(preparePacket(10));
+    runAllTasks();
+    assertThat(third).isCompletedWithValue(FULFILL_PACKET);
+  }
+
+  @Test
+  public void droppedPacketsExpireWithR00() {
+    final SimulatedLink link = simulatedLink(ImmutableMap.of(SimulatedLink.SIMULATED_DROP_RATE, 1));
+
+    final CompletableFuture<InterledgerResponsePacket> response = link.sendPacketAsync(preparePacket(10));
+    assertThat(runNextTask()).isEqualTo(30_000);
+
+    assertThat(rejectOf(response).getCode())
+        .isEqualTo(InterledgerErrorCode.R00_TRANSFER_TIMED_OUT);
+    verify(peerLinkHandlerMock, never()).handleIncomingPacket(any());
+  }
+
+  @Test
+  public void latencyBeyondExpiryExpiresWithR00() {
+    final SimulatedLink link = simulatedLink(ImmutableMap.of(SimulatedLink.SIMULATED_LATENCY_MILLIS, 60_000));
+
+    final CompletableFuture<InterledgerResponsePacket> response = link.sendPacketAsync(preparePacket(10));
+    assertThat(runNextTask()).isEqualTo(30_000);
+
+    assertThat(rejectOf(response).getCode())
+        .isEqualTo(InterledgerErrorCode.R00_TRANSFER_TIMED_OUT);
+  }
+
+  @Test
+  public void rejectsWithSimulatedRejectErrorCode() {
+    final SimulatedLink link = simulatedLink(ImmutableMap.of(LoopbackLink.SIMULATED_REJECT_ERROR_CODE, "T02"));
+
+    final CompletableFuture<InterledgerResponsePacket> response = link.sendPacketAsync(preparePacket(10));
+    runNextTask();
+
+    assertThat(rejectOf(response).getCode()).isEqualTo(InterledgerErrorCode.T02_PEER_BUSY);
+  }
+
+  @Test
+  public void peerExceptionsCompleteExceptionally() {
+    when(peerLinkHandlerMock.handleIncomingPacket(any())).thenThrow(new RuntimeException("boom"));
+    final SimulatedLink link = simulatedLink(ImmutableMap.of(SimulatedLink.SIMULATED_LIQUIDITY, "15"));
+
+    final CompletableFuture<InterledgerResponsePacket> response = link.sendPacketAsync(preparePacket(10));
+    runAllTasks();
+
+    assertThat(response).isCompletedExceptionally();
+    assertThat(link.getAmountInFlight()).isEqualTo(UnsignedLong.ZERO);
+  }
+
+  @Test
+  public void peerHandlerRunsOnTheDeliveryExecutorRatherThanTheTimer() {
+    final SimulatedLink link = simulatedLink(ImmutableMap.of(SimulatedLink.SIMULATED_LATENCY_MILLIS, 100));
+
+    final CompletableFuture<InterledgerResponsePacket> response = link.sendPacketAsync(preparePacket(10));
+    scheduledTasks.poll().runnable.run();
+    verify(peerLinkHandlerMock, never()).handleIncomingPacket(any());
+    assertThat(deliveries).hasSize(1);
+
+    deliveries.poll().run();
+    verify(peerLinkHandlerMock).handleIncomingPacket(any());
+
+    scheduledTasks.poll().runnable.run();
+    assertThat(response).isNotDone();
+    deliveries.poll().run();
+    assertThat(response).isCompletedWithValue(FULFILL_PACKET);
+  }
+
+  @Test
+  public void rejectedDeliveryCompletesExceptionally() {
+    final SimulatedLink link = simulatedLink(
+        ImmutableMap.of(SimulatedLink.SIMULATED_LIQUIDITY, "15"),
+        runnable -> {
+          throw new RejectedExecutionException("shut down");
+        }
+    );
+
+    final CompletableFuture<InterledgerResponsePacket> response = link.sendPacketAsync(preparePacket(10));
+    runAllTasks();
+
+    assertThat(response).isCompletedExceptionally();
+    verify(peerLinkHandlerMock, never()).handleIncomingPacket(any());
+    assertThat(link.getAmountInFlight()).isEqualTo(UnsignedLong.ZERO);
+  }
+
+  @Test
+  public void sendWithoutConnecting() {
+    final SimulatedLink link = new SimulatedLink(
+        () -> OPERATOR_ADDRESS, linkSettings(ImmutableMap.of()), new PacketRejector(() -> OPERATOR_ADDRESS)
+    );
+    link.setLinkId(LINK_ID);
+
+    assertThatThrownBy(() -> link.sendPacket(preparePacket(10)))
+        .isInstanceOf(LinkException.class)
+        .hasMessage("SimulatedLink must be connected before sending packets");
+  }
+
+  @Test
+  public void connectTwice() {
+    final SimulatedLink link = simulatedLink(ImmutableMap.of());
+
+    assertThatThrownBy(() -> link.connect(peerLinkHandlerMock))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("SimulatedLink may only be connected once");
+  }
+
+  @Test
+  public void invalidDropRate() {
+    assertThatThrownBy(() -> simulatedLink(ImmutableMap.of(SimulatedLink.SIMULATED_DROP_RATE, 2)))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("simulatedDropRate must be between 0 and 1");
+  }
+
+  @Test
+  public void linkPairSendsInBothDirections() {
+    final PacketRejector packetRejector = new PacketRejector(() -> OPERATOR_ADDRESS);
+    final SimulatedLink left = new SimulatedLink(
+        () -> OPERATOR_ADDRESS, linkSettings(ImmutableMap.of(SimulatedLink.SIMULATED_LATENCY_MILLIS, 2)), packetRejector
+    );
+    left.setLinkId(LinkId.of("left"));
+    final SimulatedLink right = new SimulatedLink(
+        () -> OPERATOR_ADDRESS, linkSettings(ImmutableMap.of()), packetRejector
+    );
+    right.setLinkId(LinkId.of("right"));
+
+    final LinkPair linkPair = LinkPair.connect(left, right);
+    left.registerLinkHandler(preparePacket -> packetRejector.reject(
+        LinkId.of("left"), preparePacket, InterledgerErrorCode.F99_APPLICATION_ERROR, "left"
+    ));
+    right.registerLinkHandler(preparePacket -> FULFILL_PACKET);
+
+    assertThat(linkPair.getLeft()).isSameAs(left);
+    assertThat(linkPair.getRight()).isSameAs(right);
+    assertThat(left.sendPacket(realPreparePacket())).isEqualTo(FULFILL_PACKET);
+    assertThat(((InterledgerRejectPacket) right.sendPacket(realPreparePacket())).getCode())
+        .isEqualTo(InterledgerErrorCode.F99_APPLICATION_ERROR);
+  }
+
+  private SimulatedLink simulatedLink(final Map<String, Object> customSettings) {
+    return simulatedLink(customSettings, deliveries::add);
+  }
+
+  private SimulatedLink simulatedLink(final Map<String, Object> customSettings, final Executor deliveryExecutor) {
+    final SimulatedLink link = new SimulatedLink(
+        () -> OPERATOR_ADDRESS,
+        linkSettings(customSettings),
+        new PacketRejector(() -> OPERATOR_ADDRESS),
+        schedulerMock,
+        deliveryExecutor,
+        new Ticker() {
+          @Override
+          public long read() {
+            return 0;
+          }
+        },
+        Clock.fixed(NOW, ZoneOffset.UTC)
+    );
+    link.setLinkId(LINK_ID);
+    link.connect(peerLinkHandlerMock);
+    return link;
+  }
+
+  private LinkSettings linkSettings(final Map<String, Object> customSettings) {
+    return LinkSettings.builder()
+        .linkType(SimulatedLink.LINK_TYPE)
+        .customSettings(customSettings)
+        .build();
+  }
+
+  /**
+   * Run the earliest-scheduled task, along with anything it handed off to the delivery executor.
+   *
+   * @return The delay, in milliseconds, that the task was scheduled with.
+   */
+  private long runNextTask() {
+    assertThat(scheduledTasks).isNotEmpty();
+    final ScheduledTask task = scheduledTasks.poll();
+    task.runnable.run();
+    while (!deliveries.isEmpty()) {
+      deliveries.poll().run();
+    }
+    return task.delayMillis;
+  }
+
+  /**
+   * Accessor for the reject that {@code response} has already completed with. This never blocks, so a response that was
+   * never scheduled fails the test instead of hanging it.
+   */
+  private InterledgerRejectPacket rejectOf(final CompletableFuture<InterledgerResponsePacket> response) {
+    assertThat(response).isCompleted();
+    assertThat(response.getNow(null)).isInstanceOf(InterledgerRejectPacket.class);
+    return (InterledgerRejectPacket) response.getNow(null);
+  }
+
+  private void runAllTasks() {
+    while (!scheduledTasks.isEmpty()) {
+      runNextTask();
+    }
+  }
+
+  private InterledgerPreparePacket preparePacket(final long amount) {
+    return InterledgerPreparePacket.builder()
+        .amount(UnsignedLong.valueOf(amount))
+        .executionCondition(InterledgerConstants.ALL_ZEROS_CONDITION)
+        .destination(OPERATOR_ADDRESS)
+        .expiresAt(NOW.plusSeconds(30))
+        .build();
+  }
+
+  private InterledgerPreparePacket realPreparePacket() {
+    return InterledgerPreparePacket.builder()
+        .amount(UnsignedLong.valueOf(10))
+        .executionCondition(InterledgerConstants.ALL_ZEROS_CONDITION)
+        .destination(OPERATOR_ADDRESS)
+        .expiresAt(Instant.now().plusSeconds(30))
+        .build();
+  }
+
+  private static final class ScheduledTask {
+
+    private final Runnable runnable;
+    private final long delayMillis;
+
+    private ScheduledTask(final Runnable runnable, final long delayMillis) {
+      this.runnable = runnable;
+      this.delayMillis = delayMillis;
+    }
+  }
+}
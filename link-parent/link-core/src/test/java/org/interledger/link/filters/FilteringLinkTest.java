@@ -0,0 +1,162 @@
+package org.interledger.link.filters;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.interledger.core.DateUtils;
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerConstants;
+import org.interledger.core.InterledgerFulfillPacket;
+import org.interledger.core.InterledgerFulfillment;
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerResponsePacket;
+import org.interledger.link.Link;
+import org.interledger.link.LinkFactory;
+import org.interledger.link.LinkId;
+import org.interledger.link.LinkSettings;
+import org.interledger.link.LinkType;
+import org.interledger.link.filters.chain.LinkFilterChain;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.UnsignedLong;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for {@link FilteringLink} and {@link FilteringLinkFactory}.
+ */
+public class FilteringLinkTest {
+
+  private static final InterledgerAddress OPERATOR_ADDRESS = InterledgerAddress.of("test.operator");
+
+  private static final InterledgerFulfillPacket FULFILL_PACKET = InterledgerFulfillPacket.builder()
+      .fulfillment(InterledgerFulfillment.of(new byte[32]))
+      .build();
+
+  @Mock
+  private Link<LinkSettings> delegateMock;
+
+  @Mock
+  private LinkFactory linkFactoryMock;
+
+  @Mock
+  private LinkSettings linkSettingsMock;
+
+  private final AtomicInteger filterInvocations = new AtomicInteger();
+
+  private final LinkFilter countingFilter = (link, preparePacket, filterChain) -> {
+    filterInvocations.incrementAndGet();
+    return filterChain.doFilter(preparePacket);
+  };
+
+  @Before
+  public void setUp() {
+    MockitoAnnotations.initMocks(this);
+  }
+
+  @Test
+  public void sendPacketPassesThroughFilters() {
+    when(delegateMock.sendPacket(any())).thenReturn(FULFILL_PACKET);
+    final FilteringLink<LinkSettings> link = new FilteringLink<>(delegateMock, ImmutableList.of(countingFilter));
+
+    assertThat(link.sendPacket(preparePacket())).isEqualTo(FULFILL_PACKET);
+    assertThat(link.sendPacket(preparePacket())).isEqualTo(FULFILL_PACKET);
+    assertThat(filterInvocations).hasValue(2);
+  }
+
+  @Test
+  public void filtersSeeTheFilteringLink() {
+    when(delegateMock.getLinkId()).thenReturn(LinkId.of("foo"));
+    when(delegateMock.sendPacket(any())).thenReturn(FULFILL_PACKET);
+    final FilteringLink<LinkSettings> link = new FilteringLink<>(delegateMock, ImmutableList.of(
+        (filteredLink, preparePacket, filterChain) -> {
+          assertThat(filteredLink.getLinkId()).isEqualTo(LinkId.of("foo"));
+          assertThat(filteredLink).isInstanceOf(FilteringLink.class);
+          return filterChain.doFilter(preparePacket);
+        }
+    ));
+
+    assertThat(link.sendPacket(preparePacket())).isEqualTo(FULFILL_PACKET);
+  }
+
+  @Test
+  public void sendPacketAsyncPassesThroughFilters() {
+    when(delegateMock.sendPacket(any())).thenReturn(FULFILL_PACKET);
+    final FilteringLink<LinkSettings> link = new FilteringLink<>(delegateMock, ImmutableList.of(countingFilter));
+
+    assertThat(link.sendPacketAsync(preparePacket()).join()).isEqualTo(FULFILL_PACKET);
+    assertThat(filterInvocations).hasValue(1);
+  }
+
+  @Test
+  public void sendPacketAsyncWithoutFiltersUsesDelegateAsync() {
+    final CompletableFuture<InterledgerResponsePacket> response = CompletableFuture.completedFuture(FULFILL_PACKET);
+    when(delegateMock.sendPacketAsync(any())).thenReturn(response);
+    final FilteringLink<LinkSettings> link = new FilteringLink<>(delegateMock, ImmutableList.of());
+
+    assertThat(link.sendPacketAsync(preparePacket())).isSameAs(response);
+    verify(delegateMock, never()).sendPacket(any());
+  }
+
+  @Test
+  public void sendPacketAsyncWithAsyncFiltersUsesDelegateAsync() {
+    final CompletableFuture<InterledgerResponsePacket> response = new CompletableFuture<>();
+    when(delegateMock.sendPacketAsync(any())).thenReturn(response);
+    final LinkFilter asyncFilter = new LinkFilter() {
+      @Override
+      public InterledgerResponsePacket doFilter(
+          final Link<?> link, final InterledgerPreparePacket preparePacket, final LinkFilterChain filterChain
+      ) {
+        throw new AssertionError("the synchronous chain must not be used");
+      }
+
+      @Override
+      public CompletableFuture<InterledgerResponsePacket> doFilterAsync(
+          final Link<?> link, final InterledgerPreparePacket preparePacket, final LinkFilterChain filterChain
+      ) {
+        filterInvocations.incrementAndGet();
+        return filterChain.doFilterAsync(preparePacket);
+      }
+    };
+    final FilteringLink<LinkSettings> link = new FilteringLink<>(delegateMock, ImmutableList.of(asyncFilter));
+
+    final CompletableFuture<InterledgerResponsePacket> result = link.sendPacketAsync(preparePacket());
+    assertThat(result).isNotDone();
+    response.complete(FULFILL_PACKET);
+    assertThat(result).isCompletedWithValue(FULFILL_PACKET);
+    assertThat(filterInvocations).hasValue(1);
+    verify(delegateMock, never()).sendPacket(any());
+  }
+
+  @Test
+  public void factoryWrapsConstructedLinks() {
+    when(linkFactoryMock.constructLink(any(), any())).thenAnswer(invocation -> delegateMock);
+    when(linkFactoryMock.supports(LinkType.of("FOO"))).thenReturn(true);
+    final FilteringLinkFactory linkFactory = new FilteringLinkFactory(
+        linkFactoryMock, ImmutableList.of(countingFilter)
+    );
+
+    final Link<?> link = linkFactory.constructLink(() -> OPERATOR_ADDRESS, linkSettingsMock);
+    assertThat(link).isInstanceOf(FilteringLink.class);
+    assertThat(((FilteringLink<?>) link).getDelegate()).isSameAs(delegateMock);
+    assertThat(((FilteringLink<?>) link).getLinkFilters()).containsExactly(countingFilter);
+    assertThat(linkFactory.supports(LinkType.of("FOO"))).isTrue();
+  }
+
+  private InterledgerPreparePacket preparePacket() {
+    return InterledgerPreparePacket.builder()
+        .amount(UnsignedLong.valueOf(10L))
+        .executionCondition(InterledgerConstants.ALL_ZEROS_CONDITION)
+        .destination(OPERATOR_ADDRESS)
+        .expiresAt(DateUtils.now())
+        .build();
+  }
+}
@@ -0,0 +1,147 @@
+package org.interledger.link.filters.chain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.interledger.core.DateUtils;
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerConstants;
+import org.interledger.core.InterledgerErrorCode;
+import org.interledger.core.InterledgerFulfillPacket;
+import org.interledger.core.InterledgerFulfillment;
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerRejectPacket;
+import org.interledger.core.InterledgerResponsePacket;
+import org.interledger.link.Link;
+import org.interledger.link.LinkSender;
+import org.interledger.link.filters.LinkFilter;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.UnsignedLong;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for {@link DefaultLinkFilterChain}.
+ */
+public class DefaultLinkFilterChainTest {
+
+  private static final InterledgerAddress OPERATOR_ADDRESS = InterledgerAddress.of("test.operator");
+
+  private static final InterledgerFulfillPacket FULFILL_PACKET = InterledgerFulfillPacket.builder()
+      .fulfillment(InterledgerFulfillment.of(new byte[32]))
+      .build();
+
+  @Mock
+  private Link<?> linkMock;
+
+  @Mock
+  private LinkSender outboundSenderMock;
+
+  private final List<String> invocations = new ArrayList<>();
+
+  @Before
+  public void setUp() {
+    MockitoAnnotations.initMocks(this);
+  }
+
+  @Test
+  public void withoutFiltersSendsDirectly() {
+    when(outboundSenderMock.sendPacket(any())).thenReturn(FULFILL_PACKET);
+    final DefaultLinkFilterChain filterChain = new DefaultLinkFilterChain(
+        ImmutableList.of(), linkMock, outboundSenderMock
+    );
+
+    assertThat(filterChain.doFilter(preparePacket())).isEqualTo(FULFILL_PACKET);
+    verify(outboundSenderMock).sendPacket(any());
+  }
+
+  @Test
+  public void filtersRunInOrderAroundTheSender() {
+    when(outboundSenderMock.sendPacket(any())).thenAnswer(invocation -> {
+      invocations.add("send");
+      return FULFILL_PACKET;
+    });
+    final DefaultLinkFilterChain filterChain = new DefaultLinkFilterChain(
+        ImmutableList.of(recordingFilter("a"), recordingFilter("b")), linkMock, outboundSenderMock
+    );
+
+    assertThat(filterChain.doFilter(preparePacket())).isEqualTo(FULFILL_PACKET);
+    assertThat(invocations).containsExactly("a-before", "b-before", "send", "b-after", "a-after");
+  }
+
+  @Test
+  public void filterCanShortCircuit() {
+    final InterledgerRejectPacket rejectPacket = InterledgerRejectPacket.builder()
+        .triggeredBy(OPERATOR_ADDRESS)
+        .code(InterledgerErrorCode.T05_RATE_LIMITED)
+        .message("")
+        .build();
+    final LinkFilter rejectingFilter = (link, preparePacket, filterChain) -> rejectPacket;
+    final DefaultLinkFilterChain filterChain = new DefaultLinkFilterChain(
+        ImmutableList.of(rejectingFilter, recordingFilter("never")), linkMock, outboundSenderMock
+    );
+
+    assertThat(filterChain.doFilter(preparePacket())).isEqualTo(rejectPacket);
+    assertThat(invocations).isEmpty();
+    verify(outboundSenderMock, never()).sendPacket(any());
+  }
+
+  @Test
+  public void filterReceivesLinkAndCanReplacePacket() {
+    final InterledgerPreparePacket replacementPacket = preparePacket();
+    when(outboundSenderMock.sendPacket(replacementPacket)).thenReturn(FULFILL_PACKET);
+    final LinkFilter replacingFilter = (link, preparePacket, filterChain) -> {
+      assertThat(link).isSameAs(linkMock);
+      return filterChain.doFilter(replacementPacket);
+    };
+    final DefaultLinkFilterChain filterChain = new DefaultLinkFilterChain(
+        ImmutableList.of(replacingFilter), linkMock, outboundSenderMock
+    );
+
+    assertThat(filterChain.doFilter(preparePacket())).isEqualTo(FULFILL_PACKET);
+    verify(outboundSenderMock).sendPacket(replacementPacket);
+  }
+
+  @Test
+  public void chainIsReusableAcrossPackets() {
+    when(outboundSenderMock.sendPacket(any())).thenReturn(FULFILL_PACKET);
+    final DefaultLinkFilterChain filterChain = new DefaultLinkFilterChain(
+        ImmutableList.of(recordingFilter("a")), linkMock, outboundSenderMock
+    );
+
+    for (int i = 0; i < 3; i++) {
+      final InterledgerResponsePacket responsePacket = filterChain.doFilter(preparePacket());
+      assertThat(responsePacket).isEqualTo(FULFILL_PACKET);
+    }
+    assertThat(invocations).hasSize(6);
+    verify(outboundSenderMock, times(3)).sendPacket(any());
+  }
+
+  private LinkFilter recordingFilter(final String name) {
+    return (link, preparePacket, filterChain) -> {
+      invocations.add(name + "-before");
+      final InterledgerResponsePacket responsePacket = filterChain.doFilter(preparePacket);
+      invocations.add(name + "-after");
+      return responsePacket;
+    };
+  }
+
+  private InterledgerPreparePacket preparePacket() {
+    return InterledgerPreparePacket.builder()
+        .amount(UnsignedLong.valueOf(10L))
+        .executionCondition(InterledgerConstants.ALL_ZEROS_CONDITION)
+        .destination(OPERATOR_ADDRESS)
+        .expiresAt(DateUtils.now())
+        .build();
+  }
+}
@@ -0,0 +1,189 @@
+package org.interledger.link.instrumentation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.interledger.core.DateUtils;
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerConstants;
+import org.interledger.core.InterledgerErrorCode;
+import org.interledger.core.InterledgerFulfillPacket;
+import org.interledger.core.InterledgerFulfillment;
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerRejectPacket;
+import org.interledger.core.InterledgerResponsePacket;
+import org.interledger.link.Link;
+import org.interledger.link.LinkId;
+import org.interledger.link.LinkSettings;
+import org.interledger.link.exceptions.LinkException;
+import org.interledger.link.filters.FilteringLink;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.UnsignedLong;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unit tests for {@link InstrumentingLinkFilter} and {@link DefaultLinkInstrumentation}.
+ */
+public class InstrumentingLinkFilterTest {
+
+  private static final InterledgerAddress OPERATOR_ADDRESS = InterledgerAddress.of("test.operator");
+  private static final LinkId LINK_ID = LinkId.of("foo");
+
+  private static final InterledgerFulfillPacket FULFILL_PACKET = InterledgerFulfillPacket.builder()
+      .fulfillment(InterledgerFulfillment.of(new byte[32]))
+      .build();
+
+  @Mock
+  private Link<LinkSettings> delegateMock;
+
+  private final AtomicLong nanoTime = new AtomicLong();
+
+  private DefaultLinkInstrumentation linkInstrumentation;
+
+  private FilteringLink<LinkSettings> link;
+
+  @Before
+  public void setUp() {
+    MockitoAnnotations.initMocks(this);
+    when(delegateMock.getLinkId()).thenReturn(LINK_ID);
+
+    this.linkInstrumentation = new DefaultLinkInstrumentation();
+    final InstrumentingLinkFilter filter = new InstrumentingLinkFilter(linkInstrumentation, new Ticker() {
+      @Override
+      public long read() {
+        return nanoTime.get();
+      }
+    });
+    this.link = new FilteringLink<>(delegateMock, ImmutableList.of(filter));
+  }
+
+  @Test
+  public void recordsOutcomesAndLatency() {
+    when(delegateMock.sendPacket(any()))
+        .thenAnswer(invocation -> respondAfter(2, FULFILL_PACKET))
+        .thenAnswer(invocation -> respondAfter(4, reject(InterledgerErrorCode.T02_PEER_BUSY)))
+        .thenAnswer(invocation -> respondAfter(6, reject(InterledgerErrorCode.T02_PEER_BUSY)))
+        .thenAnswer(invocation -> respondAfter(8, reject(InterledgerErrorCode.F99_APPLICATION_ERROR)));
+
+    for (int i = 0; i < 4; i++) {
+      link.sendPacket(preparePacket());
+    }
+
+    final LinkMetricsSnapshot snapshot = linkInstrumentation.snapshot(LINK_ID).get();
+    assertThat(snapshot.linkId()).isEqualTo(LINK_ID);
+    assertThat(snapshot.packetsSent()).isEqualTo(4);
+    assertThat(snapshot.packetsFulfilled()).isEqualTo(1);
+    assertThat(snapshot.packetsRejected()).isEqualTo(3);
+    assertThat(snapshot.packetsRejectedByErrorCode()).containsEntry("T02", 2L).containsEntry("F99", 1L);
+    assertThat(snapshot.packetsFailed()).isEqualTo(0);
+    assertThat(snapshot.packetsInFlight()).isEqualTo(0);
+    assertThat(snapshot.latency().count()).isEqualTo(4);
+    assertThat(snapshot.latency().max()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(8));
+    assertThat(snapshot.latency().mean()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(5));
+    assertThat(linkInstrumentation.snapshot()).containsOnlyKeys(LINK_ID);
+  }
+
+  @Test
+  public void recordsFailures() {
+    when(delegateMock.sendPacket(any())).thenThrow(new LinkException("connection refused", LINK_ID));
+
+    assertThatThrownBy(() -> link.sendPacket(preparePacket())).isInstanceOf(LinkException.class);
+
+    final LinkMetricsSnapshot snapshot = linkInstrumentation.snapshot(LINK_ID).get();
+    assertThat(snapshot.packetsSent()).isEqualTo(1);
+    assertThat(snapshot.packetsFailed()).isEqualTo(1);
+    assertThat(snapshot.packetsInFlight()).isEqualTo(0);
+    assertThat(snapshot.latency().count()).isEqualTo(1);
+  }
+
+  @Test
+  public void recordsAsyncOutcomesWhenTheyComplete() {
+    final CompletableFuture<InterledgerResponsePacket> fulfilled = new CompletableFuture<>();
+    final CompletableFuture<InterledgerResponsePacket> failed = new CompletableFuture<>();
+    when(delegateMock.sendPacketAsync(any())).thenReturn(fulfilled, failed);
+
+    link.sendPacketAsync(preparePacket());
+    link.sendPacketAsync(preparePacket());
+    assertThat(linkInstrumentation.snapshot(LINK_ID).get().packetsInFlight()).isEqualTo(2);
+
+    respondAfter(3, FULFILL_PACKET);
+    fulfilled.complete(FULFILL_PACKET);
+    failed.completeExceptionally(new LinkException("connection refused", LINK_ID));
+
+    final LinkMetricsSnapshot snapshot = linkInstrumentation.snapshot(LINK_ID).get();
+    assertThat(snapshot.packetsSent()).isEqualTo(2);
+    assertThat(snapshot.packetsFulfilled()).isEqualTo(1);
+    assertThat(snapshot.packetsFailed()).isEqualTo(1);
+    assertThat(snapshot.packetsInFlight()).isEqualTo(0);
+    assertThat(snapshot.latency().max()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(3));
+    verify(delegateMock, never()).sendPacket(any());
+  }
+
+  @Test
+  public void tracksPacketsInFlight() {
+    final CompletableFuture<Void> inFlight = new CompletableFuture<>();
+    when(delegateMock.sendPacket(any())).thenAnswer(invocation -> {
+      assertThat(linkInstrumentation.snapshot(LINK_ID).get().packetsInFlight()).isEqualTo(1);
+      inFlight.complete(null);
+      return FULFILL_PACKET;
+    });
+
+    link.sendPacket(preparePacket());
+    assertThat(inFlight).isCompleted();
+    assertThat(linkInstrumentation.snapshot(LINK_ID).get().packetsInFlight()).isEqualTo(0);
+  }
+
+  @Test
+  public void removeForgetsLink() {
+    when(delegateMock.sendPacket(any())).thenReturn(FULFILL_PACKET);
+    link.sendPacket(preparePacket());
+
+    linkInstrumentation.remove(LINK_ID);
+    assertThat(linkInstrumentation.snapshot(LINK_ID)).isEmpty();
+    assertThat(linkInstrumentation.snapshot()).isEmpty();
+  }
+
+  @Test
+  public void noOpRecordsNothing() {
+    final LinkInstrumentation noOp = LinkInstrumentation.noOp();
+    noOp.onPacketSent(LINK_ID);
+    noOp.onPacketResponse(LINK_ID, FULFILL_PACKET, 1);
+    assertThat(noOp.snapshot(LINK_ID)).isEmpty();
+    assertThat(noOp.snapshot()).isEmpty();
+  }
+
+  private InterledgerResponsePacket respondAfter(final long millis, final InterledgerResponsePacket responsePacket) {
+    nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    return responsePacket;
+  }
+
+  private InterledgerRejectPacket reject(final InterledgerErrorCode errorCode) {
+    return InterledgerRejectPacket.builder()
+        .triggeredBy(OPERATOR_ADDRESS)
+        .code(errorCode)
+        .message("")
+        .build();
+  }
+
+  private InterledgerPreparePacket preparePacket() {
+    return InterledgerPreparePacket.builder()
+        .amount(UnsignedLong.valueOf(10L))
+        .executionCondition(InterledgerConstants.ALL_ZEROS_CONDITION)
+        .destination(OPERATOR_ADDRESS)
+        .expiresAt(DateUtils.now())
+        .build();
+  }
+}
@@ -0,0 +1,76 @@
+package org.interledger.link.instrumentation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link LatencyHistogram}.
+ */
+public class LatencyHistogramTest {
+
+  @Test
+  public void emptySnapshot() {
+    final LatencySnapshot snapshot = new LatencyHistogram().snapshot();
+    assertThat(snapshot.count()).isEqualTo(0);
+    assertThat(snapshot.mean()).isEqualTo(0.0);
+    assertThat(snapshot.max()).isEqualTo(0);
+    assertThat(snapshot.p99()).isEqualTo(0);
+  }
+
+  @Test
+  public void smallValuesAreExact() {
+    final LatencyHistogram histogram = new LatencyHistogram();
+    for (long value = 1; value <= 10; value++) {
+      histogram.record(value);
+    }
+
+    final LatencySnapshot snapshot = histogram.snapshot();
+    assertThat(snapshot.count()).isEqualTo(10);
+    assertThat(snapshot.mean()).isEqualTo(5.5);
+    assertThat(snapshot.max()).isEqualTo(10);
+    assertThat(snapshot.p50()).isEqualTo(5);
+    assertThat(snapshot.p90()).isEqualTo(9);
+    assertThat(histogram.valueAtPercentile(100)).isEqualTo(10);
+  }
+
+  @Test
+  public void largeValuesAreWithinRelativePrecision() {
+    final LatencyHistogram histogram = new LatencyHistogram();
+    for (long micros = 1; micros <= 1000; micros++) {
+      histogram.record(micros * 1000);
+    }
+
+    final LatencySnapshot snapshot = histogram.snapshot();
+    assertThat(snapshot.count()).isEqualTo(1000);
+    assertThat((double) snapshot.p50()).isCloseTo(500_000, within(500_000 / 16.0));
+    assertThat((double) snapshot.p99()).isCloseTo(990_000, within(990_000 / 16.0));
+    assertThat((double) snapshot.p999()).isCloseTo(999_000, within(999_000 / 16.0));
+    assertThat(snapshot.max()).isEqualTo(1_000_000);
+    assertThat(snapshot.p999()).isLessThanOrEqualTo(snapshot.max());
+  }
+
+  @Test
+  public void outOfRangeValuesAreClamped() {
+    final LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(-5);
+    histogram.record(Long.MAX_VALUE);
+
+    final LatencySnapshot snapshot = histogram.snapshot();
+    assertThat(snapshot.count()).isEqualTo(2);
+    assertThat(snapshot.max()).isEqualTo(LatencyHistogram.MAX_TRACKABLE_VALUE);
+    assertThat(histogram.valueAtPercentile(0)).isEqualTo(0);
+  }
+
+  @Test
+  public void bucketBoundsContainTheirValues() {
+    for (long value : new long[] {0, 15, 16, 17, 31, 32, 1000, 123_456_789, LatencyHistogram.MAX_TRACKABLE_VALUE}) {
+      final int index = LatencyHistogram.bucketIndex(value);
+      assertThat(LatencyHistogram.highestEquivalentValue(index)).isGreaterThanOrEqualTo(value);
+      if (index > 0) {
+        assertThat(LatencyHistogram.highestEquivalentValue(index - 1)).isLessThan(value);
+      }
+    }
+  }
+}
@@ -5,7 +5,6 @@ import static com.google.common.net.HttpHeaders.CONTENT_TYPE;
 import static com.google.common.net.HttpHeaders.PRAGMA;
 import static com.google.common.net.MediaType.OCTET_STREAM;
 import static org.interledger.link.http.IlpOverHttpConstants.APPLICATION_OCTET_STREAM;
-import static org.interledger.link.http.IlpOverHttpConstants.BEARER;
 import static org.interledger.link.http.IlpOverHttpConstants.ILP_OPERATOR_ADDRESS_VALUE;
 import static org.interledger.link.http.IlpOverHttpConstants.OCTET_STREAM_STRING;
 
@@ -20,13 +19,18 @@ import org.interledger.encoding.asn.framework.CodecContext;
 import org.interledger.link.AbstractLink;
 import org.interledger.link.Link;
 import org.interledger.link.LinkHandler;
+import org.interledger.link.LinkId;
 import org.interledger.link.LinkType;
+import org.interledger.link.LinkWarmUpSettings;
+import org.interledger.link.Warmable;
 import org.interledger.link.exceptions.LinkException;
 import org.interledger.link.http.auth.BearerTokenSupplier;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.io.CharStreams;
 import com.google.common.net.HttpHeaders;
+import okhttp3.Call;
+import okhttp3.Callback;
 import okhttp3.Headers;
 import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
@@ -41,11 +45,14 @@ import org.zalando.problem.ThrowableProblem;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.time.Duration;
 import java.time.Instant;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
@@ -55,18 +62,30 @@ import java.util.stream.Stream;
  *
  * <p>To handle incoming HTTP requests, use {@link #registerLinkHandler(LinkHandler)}.</p>
  *
+ * <p>To open connections to the remote peer before the first packet is sent, use {@link
+ * #warmUp(LinkWarmUpSettings)}.</p>
+ *
  * @see "https://github.com/interledger/rfcs/blob/master/0035-ilp-over-http/0035-ilp-over-http.md"
  */
-public class IlpOverHttpLink extends AbstractLink<IlpOverHttpLinkSettings> implements Link<IlpOverHttpLinkSettings> {
+public class IlpOverHttpLink extends AbstractLink<IlpOverHttpLinkSettings>
+    implements Link<IlpOverHttpLinkSettings>, Warmable {
 
-  private static final String BEARER_WITH_SPACE = BEARER + " ";
   public static final String LINK_TYPE_STRING = "ILP_OVER_HTTP";
   public static final LinkType LINK_TYPE = LinkType.of(LINK_TYPE_STRING);
 
-  private static final InterledgerPreparePacket UNFULFILLABLE_PACKET = InterledgerPreparePacket.builder()
-      .executionCondition(InterledgerConstants.ALL_ZEROS_CONDITION)
-      .expiresAt(DateUtils.now().plusSeconds(30))
-      .destination(InterledgerAddress.of("peer.ilp_over_http_connection_test_that_should_always_reject"))
+  private static final InterledgerAddress UNFULFILLABLE_DESTINATION =
+      InterledgerAddress.of("peer.ilp_over_http_connection_test_that_should_always_reject");
+
+  /**
+   * Headers that are identical for every ILP-over-HTTP request.
+   */
+  private static final Headers STATIC_HEADERS = new Headers.Builder()
+      // Defaults to ILP_OCTET_STREAM, but is replaced by whatever testConnection returns if it's a valid media-type.
+      .add(HttpHeaders.ACCEPT, OCTET_STREAM.toString())
+      .add(CONTENT_TYPE, OCTET_STREAM.toString())
+      // Disable HTTP Caching of packets...
+      .add(CACHE_CONTROL, "private, max-age=0, no-cache")
+      .add(PRAGMA, "no-cache")
       .build();
 
   private final Logger logger = LoggerFactory.getLogger(this.getClass());
@@ -81,10 +100,14 @@ public class IlpOverHttpLink extends AbstractLink<IlpOverHttpLinkSettings> imple
    * around in memory) and 2) they have when they're JWTs, they have short expiries (the signing key is not persisted as
    * a String).
    */
-  private final Supplier<String> authTokenSupplier;
+  private final BearerTokenSupplier authTokenSupplier;
 
   private final HttpUrl outgoingUrl;
 
+  private final AtomicReference<CachedHeaders> cachedHeadersReference = new AtomicReference<>();
+
+  private final AtomicReference<CompletableFuture<Void>> warmUpReference = new AtomicReference<>();
+
 
   /**
    * Required-args Constructor.
@@ -125,78 +148,129 @@ public class IlpOverHttpLink extends AbstractLink<IlpOverHttpLinkSettings> imple
   public InterledgerResponsePacket sendPacket(final InterledgerPreparePacket preparePacket) {
     Objects.requireNonNull(preparePacket);
 
-    if (preparePacket.getExpiresAt() != null &&
-        okHttpClient.readTimeoutMillis() <= Duration.between(Instant.now(), preparePacket.getExpiresAt()).toMillis()) {
-      logger.warn("OkHttpClient read timeout is shorter than the Prepare Packet's timeout.  " +
-          "This may result in an HTTP timeout while unexpired ILP packets are in flight.");
+    final Request okHttpRequest = this.constructSendPacketRequest(preparePacket);
+
+    try (Response response = okHttpClient.newCall(okHttpRequest).execute()) {
+      return this.toResponsePacket(preparePacket, response);
+    } catch (IOException e) {
+      throw new LinkException(
+          String.format("Unable to sendPacket. preparePacket=%s error=%s", preparePacket, e.getMessage()),
+          e,
+          getLinkId()
+      );
     }
+  }
+
+  /**
+   * Sends {@code preparePacket} using {@link Call#enqueue(Callback)}, so that the calling thread is never blocked and
+   * no thread is parked while the packet is in-flight; the returned future is completed on an OkHttp dispatcher
+   * thread.
+   *
+   * @param preparePacket An {@link InterledgerPreparePacket} to send to the remote peer.
+   *
+   * @return A {@link CompletableFuture} that completes with an {@link InterledgerResponsePacket}, or exceptionally with
+   *     a {@link LinkException} if the request could not be sent or its response could not be read.
+   */
+  @Override
+  public CompletableFuture<InterledgerResponsePacket> sendPacketAsync(final InterledgerPreparePacket preparePacket) {
+    Objects.requireNonNull(preparePacket);
 
+    final CompletableFuture<InterledgerResponsePacket> responseFuture = new CompletableFuture<>();
     final Request okHttpRequest;
     try {
-      final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-      ilpCodecContext.write(preparePacket, byteArrayOutputStream);
       okHttpRequest = this.constructSendPacketRequest(preparePacket);
-    } catch (IOException e) {
-      throw new LinkException(e.getMessage(), e, getLinkId());
+    } catch (RuntimeException e) {
+      responseFuture.completeExceptionally(e);
+      return responseFuture;
     }
 
-    try (Response response = okHttpClient.newCall(okHttpRequest).execute()) {
-      if (response.isSuccessful()) {
-        //////////
-        // Success
-        return ilpCodecContext.read(InterledgerResponsePacket.class, response.body().byteStream());
-      } else {
-        //////////
-        // Reject!
-        final String errorResponseBody = CharStreams.toString(response.body().charStream());
-        Optional<ThrowableProblem> problem = parseThrowableProblem(preparePacket, errorResponseBody);
-        final InterledgerRejectPacket rejectPacket;
-
-        if (response.code() >= 400 && response.code() < 500) {
-          String customErrorMessage = null;
-          if (response.code() == 401 || response.code() == 403) {
-            // If this code is returned, we know the Link is misconfigured
-            customErrorMessage = String.format("Unable to connect to remote ILP-over-HTTP Link: Invalid Bearer " +
-                "Token. response=%s", response);
-            logger.error(customErrorMessage);
-          }
+    okHttpClient.newCall(okHttpRequest).enqueue(new Callback() {
+      @Override
+      public void onFailure(final Call call, final IOException e) {
+        responseFuture.completeExceptionally(new LinkException(
+            String.format("Unable to sendPacket. preparePacket=%s error=%s", preparePacket, e.getMessage()),
+            e,
+            getLinkId()
+        ));
+      }
 
-          String message = Stream.of(
-              customErrorMessage,
-              problem.map(Problem::getTitle).orElse(null),
-              errorResponseBody
-          )
-              .filter(Objects::nonNull)
-              .findFirst()
-              .get();
-          // The request was bad for some reason, likely due to whatever is in the packet.
-          rejectPacket = InterledgerRejectPacket.builder()
-              .triggeredBy(getOperatorAddressSupplier().get())
-              .code(InterledgerErrorCode.F00_BAD_REQUEST)
-              .message(message)
-              .build();
-        } else {
-          // Something else went wrong on the server...try again later.
-          rejectPacket = InterledgerRejectPacket.builder()
-              .triggeredBy(getOperatorAddressSupplier().get())
-              .code(InterledgerErrorCode.T00_INTERNAL_ERROR)
-              .message(problem.map(Problem::getTitle).orElse(errorResponseBody))
-              .build();
+      @Override
+      public void onResponse(final Call call, final Response response) {
+        try (Response closeableResponse = response) {
+          responseFuture.complete(toResponsePacket(preparePacket, closeableResponse));
+        } catch (IOException e) {
+          onFailure(call, e);
+        } catch (RuntimeException e) {
+          responseFuture.completeExceptionally(e);
+        }
+      }
+    });
+
+    return responseFuture;
+  }
+
+  /**
+   * Helper method to map an HTTP {@link Response} for {@code preparePacket} into an ILP response packet.
+   *
+   * @param preparePacket The {@link InterledgerPreparePacket} that was sent.
+   * @param response      The {@link Response} returned by the remote ILP-over-HTTP endpoint.
+   *
+   * @return An {@link InterledgerResponsePacket}.
+   *
+   * @throws IOException If the response body could not be read.
+   */
+  private InterledgerResponsePacket toResponsePacket(
+      final InterledgerPreparePacket preparePacket, final Response response
+  ) throws IOException {
+    if (response.isSuccessful()) {
+      //////////
+      // Success
+      return ilpCodecContext.read(InterledgerResponsePacket.class, response.body().byteStream());
+    } else {
+      //////////
+      // Reject!
+      final String errorResponseBody = CharStreams.toString(response.body().charStream());
+      Optional<ThrowableProblem> problem = parseThrowableProblem(preparePacket, errorResponseBody);
+      final InterledgerRejectPacket rejectPacket;
+
+      if (response.code() >= 400 && response.code() < 500) {
+        String customErrorMessage = null;
+        if (response.code() == 401 || response.code() == 403) {
+          // If this code is returned, we know the Link is misconfigured
+          customErrorMessage = String.format("Unable to connect to remote ILP-over-HTTP Link: Invalid Bearer " +
+              "Token. response=%s", response);
+          logger.error(customErrorMessage);
         }
 
-        logger.error(
-            "Unable to send ILP-over-HTTP packet. preparePacket={} httpResponseCode={} errorResponse={} "
-                + "rejectPacket={}",
-            preparePacket, response.code(), CharStreams.toString(response.body().charStream()), rejectPacket
-        );
-        return rejectPacket;
+        String message = Stream.of(
+            customErrorMessage,
+            problem.map(Problem::getTitle).orElse(null),
+            errorResponseBody
+        )
+            .filter(Objects::nonNull)
+            .findFirst()
+            .get();
+        // The request was bad for some reason, likely due to whatever is in the packet.
+        rejectPacket = InterledgerRejectPacket.builder()
+            .triggeredBy(getOperatorAddressSupplier().get())
+            .code(InterledgerErrorCode.F00_BAD_REQUEST)
+            .message(message)
+            .build();
+      } else {
+        // Something else went wrong on the server...try again later.
+        rejectPacket = InterledgerRejectPacket.builder()
+            .triggeredBy(getOperatorAddressSupplier().get())
+            .code(InterledgerErrorCode.T00_INTERNAL_ERROR)
+            .message(problem.map(Problem::getTitle).orElse(errorResponseBody))
+            .build();
       }
-    } catch (IOException e) {
-      throw new LinkException(
-          String.format("Unable to sendPacket. preparePacket=%s error=%s", preparePacket, e.getMessage()),
-          e,
-          getLinkId()
+
+      logger.error(
+          "Unable to send ILP-over-HTTP packet. preparePacket={} httpResponseCode={} errorResponse={} "
+              + "rejectPacket={}",
+          preparePacket, response.code(), errorResponseBody, rejectPacket
       );
+      return rejectPacket;
     }
   }
 
@@ -209,7 +283,7 @@ public class IlpOverHttpLink extends AbstractLink<IlpOverHttpLinkSettings> imple
    */
   public void testConnection() {
     try {
-      final Request okHttpRequest = this.constructSendPacketRequest(UNFULFILLABLE_PACKET);
+      final Request okHttpRequest = this.constructSendPacketRequest(newUnfulfillablePacket());
 
       try (Response response = okHttpClient.newCall(okHttpRequest).execute()) {
         if (response.isSuccessful()) {
@@ -253,25 +327,144 @@ public class IlpOverHttpLink extends AbstractLink<IlpOverHttpLinkSettings> imple
   }
 
   /**
-   * Construct headers for an ILP-over-HTTP request.
+   * <p>Warm up this link by sending {@link LinkWarmUpSettings#connections()} unfulfillable packets to the remote peer
+   * at the same time, each of which the peer will reject.</p>
+   *
+   * <p>The bearer token, and the request headers built from it, are minted on the calling thread. The packets are then
+   * sent using {@link Call#enqueue(Callback)}. Because they are in-flight together, OkHttp resolves the peer's address
+   * and opens a separate pooled connection, including any TLS handshake, for each of them over HTTP/1.1, up to the
+   * dispatcher's per-host request limit. Over HTTP/2 they share a single connection.</p>
    *
-   * @return A newly constructed instance of {@link Headers}.
+   * <p>Any other HTTP response, even a reject, means a connection was opened, so the returned future completes once
+   * every packet has been answered, and completes exceptionally if none of them reached the peer. A {@code 401} or
+   * {@code 403} means the peer refused this link's credentials, so the future completes exceptionally as soon as one
+   * is received.</p>
+   *
+   * @param warmUpSettings A {@link LinkWarmUpSettings} that determines how many connections to open.
+   *
+   * @return A {@link CompletableFuture} that completes once this link is warm.
    */
-  private Headers constructHttpRequestHeaders() {
-    final Headers.Builder headers = new Headers.Builder()
-        // Defaults to ILP_OCTET_STREAM, but is replaced by whatever testConnection returns if it's a valid media-type.
-        .add(HttpHeaders.ACCEPT, OCTET_STREAM.toString())
-        .add(CONTENT_TYPE, OCTET_STREAM.toString())
-        // Disable HTTP Caching of packets...
-        .add(CACHE_CONTROL, "private, max-age=0, no-cache")
-        .add(PRAGMA, "no-cache");
+  @Override
+  public CompletableFuture<Void> warmUp(final LinkWarmUpSettings warmUpSettings) {
+    Objects.requireNonNull(warmUpSettings);
+
+    final CompletableFuture<Void> warmUpFuture = new CompletableFuture<>();
+    if (!warmUpReference.compareAndSet(null, warmUpFuture)) {
+      return warmUpReference.get();
+    }
+
+    final Request okHttpRequest;
+    try {
+      okHttpRequest = this.constructSendPacketRequest(newUnfulfillablePacket(), warmUpLinkId());
+    } catch (RuntimeException e) {
+      warmUpFuture.completeExceptionally(e);
+      return warmUpFuture;
+    }
+
+    final AtomicInteger remainingPackets = new AtomicInteger(warmUpSettings.connections());
+    final AtomicBoolean reachedPeer = new AtomicBoolean();
+    for (int i = 0; i < warmUpSettings.connections(); i++) {
+      okHttpClient.newCall(okHttpRequest).enqueue(new Callback() {
+        @Override
+        public void onFailure(final Call call, final IOException e) {
+          logger.warn("Unable to warm up ILP-over-HTTP connection. url={} error={}", outgoingUrl, e.getMessage());
+          if (remainingPackets.decrementAndGet() == 0) {
+            if (reachedPeer.get()) {
+              warmUpFuture.complete(null);
+            } else {
+              warmUpFuture.completeExceptionally(new LinkException(
+                  String.format("Unable to warm up ILP-over-HTTP. url=%s error=%s", outgoingUrl, e.getMessage()),
+                  e,
+                  warmUpLinkId()
+              ));
+            }
+          }
+        }
+
+        @Override
+        public void onResponse(final Call call, final Response response) {
+          final int code;
+          try (Response closeableResponse = response) {
+            code = closeableResponse.code();
+          }
+          if (code == 401 || code == 403) {
+            logger.error("Warm-up of ILP-over-HTTP Link was refused: Invalid Bearer Token. url={} response={}",
+                outgoingUrl, response
+            );
+            remainingPackets.decrementAndGet();
+            warmUpFuture.completeExceptionally(new LinkException(
+                String.format("Warm-up of ILP-over-HTTP was refused: Invalid Bearer Token. url=%s httpResponseCode=%s",
+                    outgoingUrl, code),
+                warmUpLinkId()
+            ));
+            return;
+          }
+          reachedPeer.set(true);
+          if (remainingPackets.decrementAndGet() == 0) {
+            logger.info("ILP-over-HTTP Link is warm. url={}", outgoingUrl);
+            warmUpFuture.complete(null);
+          }
+        }
+      });
+    }
+    return warmUpFuture;
+  }
 
-    // Set the Operator Address header, if present.
-    headers.set(ILP_OPERATOR_ADDRESS_VALUE, getOperatorAddressSupplier().get().getValue());
+  @Override
+  public CompletableFuture<Void> whenWarm() {
+    final CompletableFuture<Void> warmUpFuture = warmUpReference.get();
+    return warmUpFuture == null ? CompletableFuture.completedFuture(null) : warmUpFuture;
+  }
 
-    headers.add(HttpHeaders.AUTHORIZATION, BEARER_WITH_SPACE + this.authTokenSupplier.get());
+  /**
+   * Construct a packet that the peer will always reject, with an expiry relative to now so that a peer does not reject
+   * it as already expired.
+   *
+   * @return An {@link InterledgerPreparePacket}.
+   */
+  private static InterledgerPreparePacket newUnfulfillablePacket() {
+    return InterledgerPreparePacket.builder()
+        .executionCondition(InterledgerConstants.ALL_ZEROS_CONDITION)
+        .expiresAt(DateUtils.now().plusSeconds(30))
+        .destination(UNFULFILLABLE_DESTINATION)
+        .build();
+  }
+
+  /**
+   * Warm-up usually begins while a link is being constructed, which may be before its {@link LinkId} has been set.
+   *
+   * @return The {@link LinkId} of this link, if set.
+   */
+  private LinkId warmUpLinkId() {
+    try {
+      return getLinkId();
+    } catch (IllegalStateException e) {
+      return LinkId.of("n/a");
+    }
+  }
+
+  /**
+   * Accessor for the headers of an ILP-over-HTTP request. Only the operator address and the bearer token can change
+   * between requests, so the previously constructed {@link Headers} are reused until one of those changes.
+   *
+   * @return An instance of {@link Headers}.
+   */
+  private Headers constructHttpRequestHeaders() {
+    final String operatorAddress = getOperatorAddressSupplier().get().getValue();
+    final String authorization = this.authTokenSupplier.getAuthorizationHeaderValue();
+
+    final CachedHeaders cachedHeaders = this.cachedHeadersReference.get();
+    if (cachedHeaders != null && cachedHeaders.matches(operatorAddress, authorization)) {
+      return cachedHeaders.headers;
+    }
 
-    return headers.build();
+    final Headers headers = STATIC_HEADERS.newBuilder()
+        // Set the Operator Address header, if present.
+        .set(ILP_OPERATOR_ADDRESS_VALUE, operatorAddress)
+        .add(HttpHeaders.AUTHORIZATION, authorization)
+        .build();
+    this.cachedHeadersReference.set(new CachedHeaders(operatorAddress, authorization, headers));
+    return headers;
   }
 
   /**
@@ -309,22 +502,41 @@ public class IlpOverHttpLink extends AbstractLink<IlpOverHttpLinkSettings> imple
    * @return A {@link Request} that can be used with an OkHttp client.
    */
   private Request constructSendPacketRequest(final InterledgerPreparePacket preparePacket) {
+    return constructSendPacketRequest(preparePacket, getLinkId());
+  }
+
+  /**
+   * Helper method to construct a {@link Request} containing the supplied {@code preparePacket}.
+   *
+   * @param preparePacket A {@link InterledgerPreparePacket} to send to the remote HTTP endpoint.
+   * @param linkId        The {@link LinkId} to report if the request cannot be constructed, which is supplied so that
+   *                      a request can be constructed before this link's {@link LinkId} has been set.
+   *
+   * @return A {@link Request} that can be used with an OkHttp client.
+   */
+  private Request constructSendPacketRequest(final InterledgerPreparePacket preparePacket, final LinkId linkId) {
     Objects.requireNonNull(preparePacket);
+    Objects.requireNonNull(linkId);
+
+    if (preparePacket.getExpiresAt() != null && okHttpClient.readTimeoutMillis() > 0 && logger.isWarnEnabled() &&
+        !preparePacket.getExpiresAt().isBefore(Instant.now().plusMillis(okHttpClient.readTimeoutMillis()))) {
+      logger.warn("OkHttpClient read timeout is shorter than the Prepare Packet's timeout.  " +
+          "This may result in an HTTP timeout while unexpired ILP packets are in flight.");
+    }
 
     try {
-      final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+      // Encode exactly once; OkHttp writes the encoded bytes straight from this buffer into its sink.
+      final ExposedByteArrayOutputStream byteArrayOutputStream = new ExposedByteArrayOutputStream();
       ilpCodecContext.write(preparePacket, byteArrayOutputStream);
 
       return new Builder()
           .headers(constructHttpRequestHeaders())
           .url(outgoingUrl)
-          .post(
-              RequestBody.create(byteArrayOutputStream.toByteArray(), APPLICATION_OCTET_STREAM)
-          )
+          .post(byteArrayOutputStream.toRequestBody())
           .build();
 
     } catch (Exception e) {
-      throw new LinkException(e.getMessage(), e, getLinkId());
+      throw new LinkException(e.getMessage(), e, linkId);
     }
   }
 
@@ -346,4 +558,40 @@ public class IlpOverHttpLink extends AbstractLink<IlpOverHttpLinkSettings> imple
   public HttpUrl getOutgoingUrl() {
     return this.outgoingUrl;
   }
+
+  /**
+   * The {@link Headers} built for a particular operator address and bearer token.
+   */
+  private static final class CachedHeaders {
+
+    private final String operatorAddress;
+    private final String authorization;
+    private final Headers headers;
+
+    private CachedHeaders(final String operatorAddress, final String authorization, final Headers headers) {
+      this.operatorAddress = operatorAddress;
+      this.authorization = authorization;
+      this.headers = headers;
+    }
+
+    private boolean matches(final String operatorAddress, final String authorization) {
+      // Suppliers typically hand out the same instances until they change, so this is usually an identity check.
+      return this.authorization.equals(authorization) && this.operatorAddress.equals(operatorAddress);
+    }
+  }
+
+  /**
+   * A {@link ByteArrayOutputStream} whose buffer can be handed to OkHttp without the copy made by {@link
+   * ByteArrayOutputStream#toByteArray()}.
+   */
+  private static final class ExposedByteArrayOutputStream extends ByteArrayOutputStream {
+
+    private ExposedByteArrayOutputStream() {
+      super(256);
+    }
+
+    private RequestBody toRequestBody() {
+      return RequestBody.create(buf, APPLICATION_OCTET_STREAM, 0, count);
+    }
+  }
 }
@@ -19,7 +19,12 @@ import java.util.Objects;
 import java.util.function.Supplier;
 
 /**
- * An implementation of {@link LinkFactory} for creating Ilp-over-Http Links.
+ * <p>An implementation of {@link LinkFactory} for creating Ilp-over-Http Links.</p>
+ *
+ * <p>Links are returned without opening any connection to the remote peer. To warm them up as they are constructed,
+ * register {@link org.interledger.link.LinkWarmUpSettings} for {@link IlpOverHttpLink#LINK_TYPE} with a {@link
+ * org.interledger.link.LinkFactoryProvider}, or wrap this factory in a {@link org.interledger.link.WarmingLinkFactory}.
+ * </p>
  */
 public class IlpOverHttpLinkFactory implements LinkFactory {
 
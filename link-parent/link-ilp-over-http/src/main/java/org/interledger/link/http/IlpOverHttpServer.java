@@ -0,0 +1,342 @@
+package org.interledger.link.http;
+
+import static com.google.common.net.HttpHeaders.AUTHORIZATION;
+import static com.google.common.net.HttpHeaders.CONTENT_TYPE;
+import static com.google.common.net.HttpHeaders.WWW_AUTHENTICATE;
+import static org.interledger.link.http.IlpOverHttpConstants.BEARER;
+import static org.interledger.link.http.IlpOverHttpConstants.OCTET_STREAM_STRING;
+
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerResponsePacket;
+import org.interledger.encoding.asn.framework.CodecContext;
+import org.interledger.link.LinkHandler;
+import org.interledger.link.http.auth.BearerTokenVerifier;
+import org.interledger.link.http.auth.CachingBearerTokenVerifier;
+import org.interledger.link.http.auth.Decryptor;
+import org.interledger.link.http.auth.JwtHs256BearerTokenVerifier;
+import org.interledger.link.http.auth.SimpleBearerTokenVerifier;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>A lightweight, embedded server for the incoming side of ILP-over-HTTP, built on the JDK's {@link HttpServer}.</p>
+ *
+ * <p>Each request to {@link #getPath()} must be a {@code POST} of an OER-encoded {@link InterledgerPreparePacket} with
+ * a content-type of {@code application/octet-stream} and a bearer token accepted by the configured {@link
+ * BearerTokenVerifier}. Valid packets are dispatched to a {@link LinkHandler}, and the resulting ILP response packet is
+ * returned as the body of a {@code 200} response.</p>
+ *
+ * <p>Connections are accepted using non-blocking I/O on a single dispatcher thread, and are kept alive between
+ * requests, so the number of open connections is not bounded by the number of threads. Once a request arrives, the
+ * whole exchange (authentication, reading and decoding the body, invoking the {@link LinkHandler} and writing the
+ * response) runs on the worker executor, so each in-flight request occupies one worker thread. Requests that a client
+ * pipelines on a connection are processed in order.</p>
+ *
+ * <p>The JDK server writes response headers and body separately, so unless {@code TCP_NODELAY} is enabled every
+ * response waits for the client's delayed ACK (~40ms). The JDK only supports enabling it JVM-wide, via the {@code
+ * sun.net.httpserver.nodelay} system property, which it reads once when the first server is created. This class does
+ * not set it: either start the JVM with {@code -Dsun.net.httpserver.nodelay=true}, or call {@link
+ * #enableTcpNoDelay()} before constructing the first server.</p>
+ *
+ * @see "https://github.com/interledger/rfcs/blob/master/0035-ilp-over-http/0035-ilp-over-http.md"
+ */
+public class IlpOverHttpServer implements AutoCloseable {
+
+  /**
+   * The default path that ILP packets are accepted on.
+   */
+  public static final String DEFAULT_PATH = "/ilp";
+
+  /**
+   * The default number of threads used to invoke the {@link LinkHandler}.
+   */
+  public static final int DEFAULT_WORKER_THREADS = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+  private static final String BEARER_WITH_SPACE = BEARER + " ";
+  private static final String APPLICATION_PROBLEM_JSON = "application/problem+json";
+  private static final byte[] INTERNAL_SERVER_ERROR_PROBLEM =
+      "{\"title\":\"Internal Server Error\",\"status\":500}".getBytes(StandardCharsets.UTF_8);
+  private static final int NO_RESPONSE_BODY = -1;
+  private static final int SOCKET_BACKLOG = 1024;
+
+  private static final String HTTPSERVER_NODELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+  private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+  private final String path;
+  private final BearerTokenVerifier bearerTokenVerifier;
+  private final CodecContext ilpCodecContext;
+  private final LinkHandler linkHandler;
+  private final ExecutorService executorService;
+  private final HttpServer httpServer;
+
+  /**
+   * Required-args Constructor. Authenticates incoming requests according to {@code incomingLinkSettings}.
+   *
+   * @param bindAddress          The {@link InetSocketAddress} to listen on. A port of {@code 0} binds an ephemeral
+   *                             port, which can be obtained from {@link #getAddress()}.
+   * @param incomingLinkSettings The {@link IncomingLinkSettings} that incoming requests must authenticate against.
+   * @param decryptor            A {@link Decryptor} for the encrypted shared secret or token in {@code
+   *                             incomingLinkSettings}.
+   * @param ilpCodecContext      A {@link CodecContext} for ILP.
+   * @param linkHandler          The {@link LinkHandler} that incoming Prepare packets are dispatched to.
+   */
+  public IlpOverHttpServer(
+      final InetSocketAddress bindAddress,
+      final IncomingLinkSettings incomingLinkSettings,
+      final Decryptor decryptor,
+      final CodecContext ilpCodecContext,
+      final LinkHandler linkHandler
+  ) {
+    this(bindAddress, newBearerTokenVerifier(incomingLinkSettings, decryptor), ilpCodecContext, linkHandler);
+  }
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param bindAddress         The {@link InetSocketAddress} to listen on. A port of {@code 0} binds an ephemeral
+   *                            port, which can be obtained from {@link #getAddress()}.
+   * @param bearerTokenVerifier A {@link BearerTokenVerifier} for the bearer token of each incoming request.
+   * @param ilpCodecContext     A {@link CodecContext} for ILP.
+   * @param linkHandler         The {@link LinkHandler} that incoming Prepare packets are dispatched to.
+   */
+  public IlpOverHttpServer(
+      final InetSocketAddress bindAddress,
+      final BearerTokenVerifier bearerTokenVerifier,
+      final CodecContext ilpCodecContext,
+      final LinkHandler linkHandler
+  ) {
+    this(
+        bindAddress,
+        DEFAULT_PATH,
+        bearerTokenVerifier,
+        ilpCodecContext,
+        linkHandler,
+        Executors.newFixedThreadPool(
+            DEFAULT_WORKER_THREADS,
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("ilp-over-http-server-%d").build()
+        )
+    );
+  }
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param bindAddress         The {@link InetSocketAddress} to listen on. A port of {@code 0} binds an ephemeral
+   *                            port, which can be obtained from {@link #getAddress()}.
+   * @param path                The path that ILP packets are accepted on.
+   * @param bearerTokenVerifier A {@link BearerTokenVerifier} for the bearer token of each incoming request.
+   * @param ilpCodecContext     A {@link CodecContext} for ILP.
+   * @param linkHandler         The {@link LinkHandler} that incoming Prepare packets are dispatched to.
+   * @param executorService     The {@link ExecutorService} that invokes {@code linkHandler}. It is shut down when this
+   *                            server is closed.
+   */
+  public IlpOverHttpServer(
+      final InetSocketAddress bindAddress,
+      final String path,
+      final BearerTokenVerifier bearerTokenVerifier,
+      final CodecContext ilpCodecContext,
+      final LinkHandler linkHandler,
+      final ExecutorService executorService
+  ) {
+    Objects.requireNonNull(bindAddress, "bindAddress must not be null");
+    this.path = Objects.requireNonNull(path, "path must not be null");
+    this.bearerTokenVerifier = Objects.requireNonNull(bearerTokenVerifier, "bearerTokenVerifier must not be null");
+    this.ilpCodecContext = Objects.requireNonNull(ilpCodecContext, "ilpCodecContext must not be null");
+    this.linkHandler = Objects.requireNonNull(linkHandler, "linkHandler must not be null");
+    this.executorService = Objects.requireNonNull(executorService, "executorService must not be null");
+
+    try {
+      this.httpServer = HttpServer.create(bindAddress, SOCKET_BACKLOG);
+    } catch (IOException e) {
+      throw new UncheckedIOException(String.format("Unable to bind ILP-over-HTTP server to %s", bindAddress), e);
+    }
+    this.httpServer.createContext(path, this::handle);
+    this.httpServer.setExecutor(executorService);
+  }
+
+  /**
+   * Construct a {@link BearerTokenVerifier} for the supplied settings.
+   *
+   * @param incomingLinkSettings The {@link IncomingLinkSettings} that incoming requests must authenticate against.
+   * @param decryptor            A {@link Decryptor} for the encrypted shared secret or token in {@code
+   *                             incomingLinkSettings}.
+   *
+   * @return A {@link BearerTokenVerifier}.
+   */
+  private static BearerTokenVerifier newBearerTokenVerifier(
+      final IncomingLinkSettings incomingLinkSettings, final Decryptor decryptor
+  ) {
+    Objects.requireNonNull(incomingLinkSettings, "incomingLinkSettings must not be null");
+    Objects.requireNonNull(decryptor, "decryptor must not be null");
+
+    switch (incomingLinkSettings.authType()) {
+      case SIMPLE: {
+        // For the SIMPLE profile, the encrypted value decrypts to the actual bearer token.
+        return new SimpleBearerTokenVerifier(new String(
+            decryptor.decrypt(
+                incomingLinkSettings.simpleAuthSettings().get().authToken().getBytes(StandardCharsets.UTF_8)
+            ),
+            StandardCharsets.UTF_8
+        ));
+      }
+      case JWT_HS_256: {
+        final JwtAuthSettings jwtAuthSettings = incomingLinkSettings.jwtAuthSettings().get();
+        // Peers reuse each JWT for many requests, so only verify the HMAC of a given token once.
+        return new CachingBearerTokenVerifier(new JwtHs256BearerTokenVerifier(
+            () -> decryptor.decrypt(
+                jwtAuthSettings.encryptedTokenSharedSecret().get().getBytes(StandardCharsets.UTF_8)
+            ),
+            jwtAuthSettings.tokenSubject()
+        ));
+      }
+      default: {
+        throw new IllegalArgumentException(
+            "Unsupported incoming authType for IlpOverHttpServer: " + incomingLinkSettings.authType()
+        );
+      }
+    }
+  }
+
+  /**
+   * Opt in to {@code TCP_NODELAY} for every JDK {@link HttpServer} in this JVM by setting the {@code
+   * sun.net.httpserver.nodelay} system property, unless the application has already configured it. This only has an
+   * effect if called before the first {@link HttpServer} in the JVM is created; setting the property on the command
+   * line is preferred.
+   */
+  public static void enableTcpNoDelay() {
+    if (System.getProperty(HTTPSERVER_NODELAY_PROPERTY) == null) {
+      System.setProperty(HTTPSERVER_NODELAY_PROPERTY, "true");
+    }
+  }
+
+  /**
+   * Start accepting connections.
+   */
+  public void start() {
+    httpServer.start();
+    logger.info("ILP-over-HTTP server started. address={} path={}", getAddress(), path);
+  }
+
+  /**
+   * Stop accepting connections, close all open connections, and shut down the worker executor.
+   */
+  @Override
+  public void close() {
+    httpServer.stop(0);
+    executorService.shutdown();
+    try {
+      if (!executorService.awaitTermination(5, TimeUnit.SECONDS)) {
+        executorService.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      executorService.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Accessor for the address this server is bound to.
+   *
+   * @return An {@link InetSocketAddress}.
+   */
+  public InetSocketAddress getAddress() {
+    return httpServer.getAddress();
+  }
+
+  /**
+   * Accessor for the path that ILP packets are accepted on.
+   *
+   * @return A {@link String}.
+   */
+  public String getPath() {
+    return path;
+  }
+
+  /**
+   * Handle a single ILP-over-HTTP request.
+   *
+   * @param exchange The {@link HttpExchange} for the request.
+   */
+  private void handle(final HttpExchange exchange) throws IOException {
+    try {
+      if (!"POST".equals(exchange.getRequestMethod())) {
+        exchange.sendResponseHeaders(405, NO_RESPONSE_BODY);
+        return;
+      }
+
+      final String authorization = exchange.getRequestHeaders().getFirst(AUTHORIZATION);
+      if (authorization == null
+          || !authorization.regionMatches(true, 0, BEARER_WITH_SPACE, 0, BEARER_WITH_SPACE.length())
+          || !bearerTokenVerifier.isValid(authorization.substring(BEARER_WITH_SPACE.length()))) {
+        exchange.getResponseHeaders().set(WWW_AUTHENTICATE, BEARER);
+        exchange.sendResponseHeaders(401, NO_RESPONSE_BODY);
+        return;
+      }
+
+      final String contentType = exchange.getRequestHeaders().getFirst(CONTENT_TYPE);
+      if (contentType == null || !contentType.startsWith(OCTET_STREAM_STRING)) {
+        exchange.sendResponseHeaders(415, NO_RESPONSE_BODY);
+        return;
+      }
+
+      final InterledgerPreparePacket preparePacket;
+      try (InputStream requestBody = exchange.getRequestBody()) {
+        preparePacket = ilpCodecContext.read(InterledgerPreparePacket.class, requestBody);
+      } catch (IOException | RuntimeException e) {
+        logger.debug("Unable to decode incoming ILP-over-HTTP packet. error={}", e.getMessage());
+        exchange.sendResponseHeaders(400, NO_RESPONSE_BODY);
+        return;
+      }
+
+      final InterledgerResponsePacket responsePacket = linkHandler.handleIncomingPacket(preparePacket);
+
+      final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(256);
+      ilpCodecContext.write(responsePacket, byteArrayOutputStream);
+      respond(exchange, 200, OCTET_STREAM_STRING, byteArrayOutputStream);
+    } catch (RuntimeException e) {
+      logger.error("Unable to handle incoming ILP-over-HTTP request. error={}", e.getMessage(), e);
+      final ByteArrayOutputStream problem = new ByteArrayOutputStream(INTERNAL_SERVER_ERROR_PROBLEM.length);
+      problem.write(INTERNAL_SERVER_ERROR_PROBLEM, 0, INTERNAL_SERVER_ERROR_PROBLEM.length);
+      respond(exchange, 500, APPLICATION_PROBLEM_JSON, problem);
+    } finally {
+      // Closing the exchange drains any unread request body so that the connection can be reused.
+      exchange.close();
+    }
+  }
+
+  private void respond(
+      final HttpExchange exchange, final int code, final String contentType, final ByteArrayOutputStream body
+  ) throws IOException {
+    exchange.getResponseHeaders().set(CONTENT_TYPE, contentType);
+    exchange.sendResponseHeaders(code, body.size());
+    try (OutputStream responseBody = exchange.getResponseBody()) {
+      body.writeTo(responseBody);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", IlpOverHttpServer.class.getSimpleName() + "[", "]")
+        .add("address=" + getAddress())
+        .add("path=" + path)
+        .toString();
+  }
+}
@@ -1,5 +1,7 @@
 package org.interledger.link.http.auth;
 
+import static org.interledger.link.http.IlpOverHttpConstants.BEARER;
+
 import java.util.function.Supplier;
 
 /**
@@ -21,4 +23,15 @@ public interface BearerTokenSupplier extends Supplier<String> {
   @Override
   String get();
 
+  /**
+   * Gets the complete value of an HTTP {@code Authorization} header for the token returned by {@link #get()}.
+   * Implementations that hold on to a token SHOULD override this method to return a pre-built value, so that senders
+   * do not concatenate a new header value for every request.
+   *
+   * @return A {@link String} of the form {@code Bearer <token>}.
+   */
+  default String getAuthorizationHeaderValue() {
+    return BEARER + " " + get();
+  }
+
 }
@@ -0,0 +1,34 @@
+package org.interledger.link.http.auth;
+
+import java.util.Optional;
+
+/**
+ * <p>Defines how to verify a bearer token presented by a remote peer on an incoming ILP-over-HTTP request.</p>
+ *
+ * <p>This is the incoming counterpart of {@link BearerTokenSupplier}: whatever a peer's supplier produces for its
+ * outgoing requests must be accepted by the verifier configured for the corresponding incoming link.</p>
+ */
+@FunctionalInterface
+public interface BearerTokenVerifier {
+
+  /**
+   * Verify {@code bearerToken}.
+   *
+   * @param bearerToken The bearer token presented by the remote peer, without the {@code Bearer } prefix.
+   *
+   * @return A {@link VerifiedBearerToken} if the token is valid; otherwise empty.
+   */
+  Optional<VerifiedBearerToken> verify(String bearerToken);
+
+  /**
+   * Determines whether {@code bearerToken} authenticates the remote peer.
+   *
+   * @param bearerToken The bearer token presented by the remote peer, without the {@code Bearer } prefix.
+   *
+   * @return {@code true} if the token is valid; {@code false} otherwise.
+   */
+  default boolean isValid(final String bearerToken) {
+    return verify(bearerToken).isPresent();
+  }
+
+}
@@ -0,0 +1,155 @@
+package org.interledger.link.http.auth;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>A {@link BearerTokenVerifier} that remembers the tokens a delegate has verified, so that a token which a peer
+ * reuses for many requests (e.g., a JWT that is valid for 15 minutes) is only cryptographically verified once.</p>
+ *
+ * <p>Verified tokens are keyed by their SHA-256 hash, so raw tokens are never retained, and the lookup compares hashes
+ * in constant time. Each entry expires at the earlier of its token's expiry and {@code maxCacheDuration}, and expired
+ * entries are evicted proactively (on JDK 9+, using the system-wide scheduler) as well as on access. Tokens that fail
+ * verification are not cached.</p>
+ */
+public class CachingBearerTokenVerifier implements BearerTokenVerifier {
+
+  /**
+   * The default maximum number of verified tokens to remember.
+   */
+  public static final long DEFAULT_MAX_CACHED_TOKENS = 10_000;
+
+  /**
+   * The default maximum amount of time to remember a verified token, which also bounds how long a token without an
+   * expiry is trusted without re-verification.
+   */
+  public static final Duration DEFAULT_MAX_CACHE_DURATION = Duration.ofMinutes(30);
+
+  private final BearerTokenVerifier delegate;
+  private final Clock clock;
+  private final Cache<HashCode, VerifiedBearerToken> verifiedTokens;
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param delegate A {@link BearerTokenVerifier} that performs the actual verification.
+   */
+  public CachingBearerTokenVerifier(final BearerTokenVerifier delegate) {
+    this(delegate, DEFAULT_MAX_CACHED_TOKENS, DEFAULT_MAX_CACHE_DURATION);
+  }
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param delegate         A {@link BearerTokenVerifier} that performs the actual verification.
+   * @param maxCachedTokens  The maximum number of verified tokens to remember.
+   * @param maxCacheDuration The maximum amount of time to remember a verified token.
+   */
+  public CachingBearerTokenVerifier(
+      final BearerTokenVerifier delegate, final long maxCachedTokens, final Duration maxCacheDuration
+  ) {
+    this(delegate, maxCachedTokens, maxCacheDuration, Ticker.systemTicker(), Clock.systemUTC());
+  }
+
+  @VisibleForTesting
+  CachingBearerTokenVerifier(
+      final BearerTokenVerifier delegate,
+      final long maxCachedTokens,
+      final Duration maxCacheDuration,
+      final Ticker ticker,
+      final Clock clock
+  ) {
+    this.delegate = Objects.requireNonNull(delegate, "delegate must not be null");
+    Objects.requireNonNull(maxCacheDuration, "maxCacheDuration must not be null");
+    Objects.requireNonNull(ticker, "ticker must not be null");
+    this.clock = Objects.requireNonNull(clock, "clock must not be null");
+
+    final long maxCacheNanos = maxCacheDuration.toNanos();
+    this.verifiedTokens = Caffeine.newBuilder()
+        .maximumSize(maxCachedTokens)
+        .ticker(ticker)
+        .scheduler(Scheduler.systemScheduler())
+        .expireAfter(new Expiry<HashCode, VerifiedBearerToken>() {
+          @Override
+          public long expireAfterCreate(
+              final HashCode tokenHash, final VerifiedBearerToken verifiedBearerToken, final long currentTime
+          ) {
+            return verifiedBearerToken.expiresAt()
+                .map(expiresAt -> Math.min(maxCacheNanos, nanosUntil(expiresAt.toEpochMilli())))
+                .orElse(maxCacheNanos);
+          }
+
+          @Override
+          public long expireAfterUpdate(
+              final HashCode tokenHash, final VerifiedBearerToken verifiedBearerToken, final long currentTime,
+              final long currentDuration
+          ) {
+            return expireAfterCreate(tokenHash, verifiedBearerToken, currentTime);
+          }
+
+          @Override
+          public long expireAfterRead(
+              final HashCode tokenHash, final VerifiedBearerToken verifiedBearerToken, final long currentTime,
+              final long currentDuration
+          ) {
+            return currentDuration;
+          }
+        })
+        .build();
+  }
+
+  @Override
+  public Optional<VerifiedBearerToken> verify(final String bearerToken) {
+    Objects.requireNonNull(bearerToken);
+
+    // HashCode#equals compares the hash bytes in constant time.
+    final HashCode tokenHash = Hashing.sha256().hashString(bearerToken, StandardCharsets.UTF_8);
+    final VerifiedBearerToken cachedToken = verifiedTokens.getIfPresent(tokenHash);
+    if (cachedToken != null && !isExpired(cachedToken)) {
+      return Optional.of(cachedToken);
+    }
+
+    final Optional<VerifiedBearerToken> verifiedToken = delegate.verify(bearerToken);
+    if (verifiedToken.isPresent() && !isExpired(verifiedToken.get())) {
+      verifiedTokens.put(tokenHash, verifiedToken.get());
+    } else {
+      verifiedTokens.invalidate(tokenHash);
+    }
+    return verifiedToken;
+  }
+
+  /**
+   * The number of verified tokens currently remembered, which is approximate until pending evictions run.
+   *
+   * @return The estimated number of cached tokens.
+   */
+  @VisibleForTesting
+  long cachedTokenCount() {
+    verifiedTokens.cleanUp();
+    return verifiedTokens.estimatedSize();
+  }
+
+  private boolean isExpired(final VerifiedBearerToken verifiedBearerToken) {
+    return verifiedBearerToken.expiresAt()
+        .map(expiresAt -> !expiresAt.isAfter(clock.instant()))
+        .orElse(false);
+  }
+
+  private long nanosUntil(final long epochMillis) {
+    // TimeUnit conversions saturate rather than overflow for far-future expiries.
+    return Math.max(0, TimeUnit.MILLISECONDS.toNanos(epochMillis - clock.millis()));
+  }
+}
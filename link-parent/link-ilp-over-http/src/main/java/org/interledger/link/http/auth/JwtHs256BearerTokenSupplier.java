@@ -1,26 +1,32 @@
 package org.interledger.link.http.auth;
 
-import org.interledger.core.DateUtils;
+import static org.interledger.link.http.IlpOverHttpConstants.BEARER;
+
 import org.interledger.link.http.JwtAuthSettings;
 import org.interledger.link.http.OutgoingLinkSettings;
 
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
-import com.google.common.cache.RemovalListener;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.ref.WeakReference;
+import java.time.Clock;
 import java.time.Duration;
+import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
 /**
@@ -30,13 +36,55 @@ import java.util.function.Supplier;
  * generating an authentication token that conforms to `JWT_HS_256`, and then wiping the shared-secret from it allocated
  * memory. Additionally, generated auth tokens have short durations (i.e, they expire), so typing them as Strings is
  * tolerable for this implementation.</p>
+ *
+ * <p>Tokens are refreshed ahead of time: once a token has been handed out, a replacement is minted on a background
+ * scheduler after {@code refreshFraction} of its lifetime has elapsed (or sooner, once it is within {@code clockSkew}
+ * of its expiry), and swapped in atomically together with its pre-built {@code Authorization} header value. Senders
+ * therefore never pay for signing a JWT, except for the very first token, after a link has been idle for a whole token
+ * lifetime, or for tokens whose lifetime is too short to refresh ahead of time.</p>
+ *
+ * <p>A token is only handed out while it has at least {@code clockSkew} left before it expires, so that a request is
+ * not rejected because it was in-flight as the token expired, or because the remote server's clock is ahead.</p>
  */
 public class JwtHs256BearerTokenSupplier implements BearerTokenSupplier {
 
-  private final Logger logger = LoggerFactory.getLogger(this.getClass());
+  /**
+   * The default fraction of a token's lifetime after which a replacement is minted.
+   */
+  public static final double DEFAULT_REFRESH_FRACTION = 0.8;
+
+  /**
+   * Tokens with a shorter lifetime than this are minted on demand instead of being refreshed ahead of time.
+   */
+  public static final Duration MIN_REFRESH_AHEAD_LIFETIME = Duration.ofSeconds(1);
+
+  /**
+   * The default margin before a token's expiry after which it is no longer handed out.
+   */
+  public static final Duration DEFAULT_CLOCK_SKEW = Duration.ofSeconds(5);
+
+  private static final Duration DEFAULT_TOKEN_EXPIRY = Duration.of(15, ChronoUnit.MINUTES);
+
+  private static final ScheduledExecutorService SHARED_REFRESH_SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+      new ThreadFactoryBuilder().setDaemon(true).setNameFormat("jwt-bearer-token-refresh-%d").build()
+  );
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(JwtHs256BearerTokenSupplier.class);
 
-  private final LoadingCache<String, String> ilpOverHttpAuthTokens;
+  private final SharedSecretBytesSupplier sharedSecretBytesSupplier;
   private final OutgoingLinkSettings outgoingLinkSettings;
+  private final Duration tokenExpiry;
+  private final double refreshFraction;
+  private final Duration clockSkew;
+  private final ScheduledExecutorService refreshScheduler;
+  private final Clock clock;
+
+  private final AtomicReference<BearerToken> currentToken = new AtomicReference<>();
+
+  /**
+   * The only pending refresh, if any. Guarded by {@code this}.
+   */
+  private ScheduledFuture<?> pendingRefresh;
 
   /**
    * Required-args Constructor.
@@ -50,46 +98,77 @@ public class JwtHs256BearerTokenSupplier implements BearerTokenSupplier {
       final SharedSecretBytesSupplier sharedSecretBytesSupplier,
       final OutgoingLinkSettings outgoingLinkSettings
   ) {
-    Objects.requireNonNull(sharedSecretBytesSupplier);
-    Objects.requireNonNull(outgoingLinkSettings);
+    this(sharedSecretBytesSupplier, outgoingLinkSettings, DEFAULT_REFRESH_FRACTION);
+  }
 
-    this.outgoingLinkSettings = Objects.requireNonNull(outgoingLinkSettings);
+  /**
+   * Required-args Constructor.
+   *
+   * @param sharedSecretBytesSupplier A {@link SharedSecretBytesSupplier} that returns a copy of the shared secret used
+   *                                  to sign JWTs using the HS_256 algorithm.
+   * @param outgoingLinkSettings      A {@link OutgoingLinkSettings} that contains all settings required to construct a
+   *                                  bearer token that can auth an outgoing request.
+   * @param refreshFraction           The fraction of a token's lifetime, greater than 0 and less than 1, after which a
+   *                                  replacement token is minted in the background.
+   */
+  public JwtHs256BearerTokenSupplier(
+      final SharedSecretBytesSupplier sharedSecretBytesSupplier,
+      final OutgoingLinkSettings outgoingLinkSettings,
+      final double refreshFraction
+  ) {
+    this(sharedSecretBytesSupplier, outgoingLinkSettings, refreshFraction, DEFAULT_CLOCK_SKEW);
+  }
 
-    ilpOverHttpAuthTokens = CacheBuilder.newBuilder()
-        // There should only ever be 1 or 2 tokens in-memory for a given client instance.
-        .maximumSize(3)
-        // Expire after this duration, which will correspond to the last incoming request from the peer.
-        .expireAfterAccess(getExpiryInMinutes(Duration.of(30, ChronoUnit.MINUTES)).toMinutes(), TimeUnit.MINUTES)
-        .removalListener((RemovalListener<String, String>) notification ->
-            logger.debug("Removing IlpOverHttp AuthToken from Cache for Principal: {}", notification.getKey())
-        )
-        .build(new CacheLoader<String, String>() {
-          public String load(final String authSubject) {
-            Objects.requireNonNull(authSubject);
-
-            final byte[] sharedSecretBytes = sharedSecretBytesSupplier.get();
-            try {
-              return JWT.create()
-                  .withSubject(outgoingLinkSettings.jwtAuthSettings().get().tokenSubject()) // account identifier at the remote server.
-                  // Expire at the appointed time, or else after 15 minutes.
-                  .withExpiresAt(
-                      Date.from(DateUtils.now().plus(getExpiryInMinutes(Duration.of(15, ChronoUnit.MINUTES))))
-                  )
-                  .sign(Algorithm.HMAC256(sharedSecretBytes));
-            } finally {
-              // Zero-out all bytes in the `sharedSecretBytes` array.
-              Arrays.fill(sharedSecretBytes, (byte) 0);
-            }
-          }
-        });
+  /**
+   * Required-args Constructor.
+   *
+   * @param sharedSecretBytesSupplier A {@link SharedSecretBytesSupplier} that returns a copy of the shared secret used
+   *                                  to sign JWTs using the HS_256 algorithm.
+   * @param outgoingLinkSettings      A {@link OutgoingLinkSettings} that contains all settings required to construct a
+   *                                  bearer token that can auth an outgoing request.
+   * @param refreshFraction           The fraction of a token's lifetime, greater than 0 and less than 1, after which a
+   *                                  replacement token is minted in the background.
+   * @param clockSkew                 How long before its expiry a token stops being handed out. It is capped at half
+   *                                  of the token lifetime, so that each token is still used for a while.
+   */
+  public JwtHs256BearerTokenSupplier(
+      final SharedSecretBytesSupplier sharedSecretBytesSupplier,
+      final OutgoingLinkSettings outgoingLinkSettings,
+      final double refreshFraction,
+      final Duration clockSkew
+  ) {
+    this(
+        sharedSecretBytesSupplier, outgoingLinkSettings, refreshFraction, clockSkew, SHARED_REFRESH_SCHEDULER,
+        Clock.systemUTC()
+    );
   }
 
-  private Duration getExpiryInMinutes(Duration defaultExpiry) {
-    return this.outgoingLinkSettings.jwtAuthSettings()
+  @VisibleForTesting
+  JwtHs256BearerTokenSupplier(
+      final SharedSecretBytesSupplier sharedSecretBytesSupplier,
+      final OutgoingLinkSettings outgoingLinkSettings,
+      final double refreshFraction,
+      final Duration clockSkew,
+      final ScheduledExecutorService refreshScheduler,
+      final Clock clock
+  ) {
+    this.sharedSecretBytesSupplier = Objects.requireNonNull(sharedSecretBytesSupplier);
+    this.outgoingLinkSettings = Objects.requireNonNull(outgoingLinkSettings);
+    Preconditions.checkArgument(
+        refreshFraction > 0 && refreshFraction < 1, "refreshFraction must be greater than 0 and less than 1"
+    );
+    this.refreshFraction = refreshFraction;
+    this.refreshScheduler = Objects.requireNonNull(refreshScheduler);
+    this.clock = Objects.requireNonNull(clock);
+    this.tokenExpiry = this.outgoingLinkSettings.jwtAuthSettings()
         .map(JwtAuthSettings::tokenExpiry)
         .filter(Optional::isPresent)
         .map(Optional::get)
-        .orElse(defaultExpiry);
+        .orElse(DEFAULT_TOKEN_EXPIRY);
+    Objects.requireNonNull(clockSkew);
+    Preconditions.checkArgument(!clockSkew.isNegative(), "clockSkew must not be negative");
+    final Duration halfTokenExpiry = tokenExpiry.dividedBy(2);
+    this.clockSkew = clockSkew.compareTo(halfTokenExpiry) > 0 ? halfTokenExpiry : clockSkew;
   }
 
   /**
@@ -100,11 +179,135 @@ public class JwtHs256BearerTokenSupplier implements BearerTokenSupplier {
    */
   @Override
   public String get() {
+    return currentBearerToken().token;
+  }
+
+  @Override
+  public String getAuthorizationHeaderValue() {
+    return currentBearerToken().authorizationHeaderValue;
+  }
+
+  private BearerToken currentBearerToken() {
+    final BearerToken bearerToken = currentToken.get();
+    if (bearerToken != null && bearerToken.isUsableAt(clock.instant())) {
+      bearerToken.markAccessed();
+      return bearerToken;
+    }
+    return mintOnDemand();
+  }
+
+  /**
+   * Slow path for when there is no usable token, which only the first sender waiting on it pays for.
+   */
+  private synchronized BearerToken mintOnDemand() {
+    final BearerToken bearerToken = currentToken.get();
+    if (bearerToken != null && bearerToken.isUsableAt(clock.instant())) {
+      bearerToken.markAccessed();
+      return bearerToken;
+    }
+
+    final BearerToken newToken = mintToken();
+    newToken.markAccessed();
+    currentToken.set(newToken);
+    scheduleRefresh();
+    return newToken;
+  }
+
+  private BearerToken mintToken() {
+    final Instant now = clock.instant();
+    // The `exp` claim only has second precision, so never consider the token valid for longer than the remote will.
+    final Instant expiresAt = now.plus(tokenExpiry).truncatedTo(ChronoUnit.SECONDS);
+
+    final byte[] sharedSecretBytes = sharedSecretBytesSupplier.get();
+    try {
+      final String token = JWT.create()
+          .withSubject(outgoingLinkSettings.jwtAuthSettings().get().tokenSubject()) // account identifier at the remote server.
+          // Expire at the appointed time, or else after 15 minutes.
+          .withExpiresAt(Date.from(expiresAt))
+          .sign(Algorithm.HMAC256(sharedSecretBytes));
+      return new BearerToken(token, expiresAt.minus(clockSkew));
+    } finally {
+      // Zero-out all bytes in the `sharedSecretBytes` array.
+      Arrays.fill(sharedSecretBytes, (byte) 0);
+    }
+  }
+
+  /**
+   * Schedules the refresh of the current token, replacing any refresh that is still pending so that only one is ever
+   * outstanding.
+   */
+  private synchronized void scheduleRefresh() {
+    if (tokenExpiry.compareTo(MIN_REFRESH_AHEAD_LIFETIME) < 0) {
+      return;
+    }
+    if (pendingRefresh != null) {
+      pendingRefresh.cancel(false);
+    }
+    // Refresh before the current token stops being handed out, or senders would have to mint one on demand.
+    final long refreshDelayMillis = Math.min(
+        (long) (tokenExpiry.toMillis() * refreshFraction), tokenExpiry.minus(clockSkew).toMillis()
+    );
+    // Only weakly reference this supplier so that a pending refresh does not keep a discarded link alive.
+    final WeakReference<JwtHs256BearerTokenSupplier> supplierReference = new WeakReference<>(this);
+    pendingRefresh = refreshScheduler.schedule(() -> {
+      final JwtHs256BearerTokenSupplier supplier = supplierReference.get();
+      if (supplier != null) {
+        supplier.refresh();
+      }
+    }, refreshDelayMillis, TimeUnit.MILLISECONDS);
+  }
+
+  @VisibleForTesting
+  synchronized void refresh() {
+    final BearerToken bearerToken = currentToken.get();
+    if (bearerToken == null || !bearerToken.accessed) {
+      // Idle since the last refresh, so stop refreshing; the next sender will mint a token on demand if this one has
+      // expired by then.
+      LOGGER.debug("Not refreshing idle JWT bearer token for subject {}", tokenSubject());
+      return;
+    }
     try {
-      return this.ilpOverHttpAuthTokens.get(outgoingLinkSettings.jwtAuthSettings().get().tokenSubject());
-    } catch (ExecutionException e) {
-      throw new RuntimeException(e);
+      currentToken.set(mintToken());
+      scheduleRefresh();
+    } catch (RuntimeException e) {
+      // Senders keep the current token until it expires, and then mint one on demand.
+      LOGGER.error("Unable to refresh JWT bearer token for subject {}", tokenSubject(), e);
     }
   }
 
+  private String tokenSubject() {
+    return outgoingLinkSettings.jwtAuthSettings().map(JwtAuthSettings::tokenSubject).orElse(null);
+  }
+
+  /**
+   * A signed JWT together with its pre-built {@code Authorization} header value.
+   */
+  private static final class BearerToken {
+
+    private final String token;
+    private final String authorizationHeaderValue;
+    private final Instant usableUntil;
+
+    /**
+     * Whether any sender has used this token, which determines whether it is worth refreshing. Racy updates are fine.
+     */
+    private volatile boolean accessed;
+
+    private BearerToken(final String token, final Instant usableUntil) {
+      this.token = token;
+      this.authorizationHeaderValue = BEARER + " " + token;
+      this.usableUntil = usableUntil;
+    }
+
+    private void markAccessed() {
+      // Read before writing so that the send path does not contend on this field once it has been set.
+      if (!accessed) {
+        accessed = true;
+      }
+    }
+
+    private boolean isUsableAt(final Instant now) {
+      return now.isBefore(usableUntil);
+    }
+  }
 }
@@ -0,0 +1,72 @@
+package org.interledger.link.http.auth;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * <p>A {@link BearerTokenVerifier} that accepts JWTs conforming to `JWT_HS_256`, as produced by a remote {@link
+ * JwtHs256BearerTokenSupplier}.</p>
+ *
+ * <p>A token is valid if it is signed with the shared secret, carries the expected `sub` claim, and carries an `exp`
+ * claim that has not passed. Tokens without an `exp` claim would never expire, so they are rejected.
+ * The shared secret is only decrypted once, when this verifier is constructed.</p>
+ */
+public class JwtHs256BearerTokenVerifier implements BearerTokenVerifier {
+
+  private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+  private final JWTVerifier jwtVerifier;
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param sharedSecretBytesSupplier A {@link SharedSecretBytesSupplier} that returns a copy of the shared secret used
+   *                                  to verify JWTs using the HS_256 algorithm.
+   * @param tokenSubject              The expected `sub` claim of incoming tokens.
+   */
+  public JwtHs256BearerTokenVerifier(
+      final SharedSecretBytesSupplier sharedSecretBytesSupplier, final String tokenSubject
+  ) {
+    Objects.requireNonNull(sharedSecretBytesSupplier);
+    Objects.requireNonNull(tokenSubject);
+
+    final byte[] sharedSecretBytes = sharedSecretBytesSupplier.get();
+    try {
+      this.jwtVerifier = JWT.require(Algorithm.HMAC256(sharedSecretBytes))
+          .withSubject(tokenSubject)
+          .build();
+    } finally {
+      // Algorithm keeps its own copy, so zero-out all bytes in the `sharedSecretBytes` array.
+      Arrays.fill(sharedSecretBytes, (byte) 0);
+    }
+  }
+
+  @Override
+  public Optional<VerifiedBearerToken> verify(final String bearerToken) {
+    Objects.requireNonNull(bearerToken);
+    try {
+      final DecodedJWT decodedJwt = jwtVerifier.verify(bearerToken);
+      if (decodedJwt.getExpiresAt() == null) {
+        logger.debug("Invalid JWT_HS_256 bearer token: missing `exp` claim");
+        return Optional.empty();
+      }
+      return Optional.of(VerifiedBearerToken.builder()
+          .principal(decodedJwt.getSubject())
+          .expiresAt(decodedJwt.getExpiresAt().toInstant())
+          .build());
+    } catch (JWTVerificationException e) {
+      logger.debug("Invalid JWT_HS_256 bearer token: {}", e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+}
@@ -1,5 +1,7 @@
 package org.interledger.link.http.auth;
 
+import static org.interledger.link.http.IlpOverHttpConstants.BEARER;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -18,6 +20,7 @@ public class SimpleBearerTokenSupplier implements BearerTokenSupplier {
   private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
   private final String bearerAuthToken;
+  private final String authorizationHeaderValue;
 
   /**
    * Required-args Constructor.
@@ -26,6 +29,7 @@ public class SimpleBearerTokenSupplier implements BearerTokenSupplier {
    */
   public SimpleBearerTokenSupplier(final String bearerAuthToken) {
     this.bearerAuthToken = Objects.requireNonNull(bearerAuthToken);
+    this.authorizationHeaderValue = BEARER + " " + bearerAuthToken;
   }
 
   /**
@@ -39,4 +43,9 @@ public class SimpleBearerTokenSupplier implements BearerTokenSupplier {
     return bearerAuthToken;
   }
 
+  @Override
+  public String getAuthorizationHeaderValue() {
+    return authorizationHeaderValue;
+  }
+
 }
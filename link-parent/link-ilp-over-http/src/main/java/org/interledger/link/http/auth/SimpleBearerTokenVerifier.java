@@ -0,0 +1,56 @@
+package org.interledger.link.http.auth;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * <p>A {@link BearerTokenVerifier} that accepts a single plain-text bearer token, as produced by a remote {@link
+ * SimpleBearerTokenSupplier}.</p>
+ *
+ * <p>WARNING: This implementation is intended for testing and debugging purposes, and should not be used in a
+ * production environment because the token never expires, and is held in memory. Instead, consider using {@link
+ * JwtHs256BearerTokenVerifier} instead.</p>
+ */
+public class SimpleBearerTokenVerifier implements BearerTokenVerifier {
+
+  /**
+   * The principal reported for the token when none is configured, since SIMPLE auth settings do not carry one.
+   */
+  public static final String DEFAULT_PRINCIPAL = "simple";
+
+  private final byte[] expectedBearerToken;
+  private final VerifiedBearerToken verifiedBearerToken;
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param expectedBearerToken The plaintext bearer token that remote peers must present.
+   */
+  public SimpleBearerTokenVerifier(final String expectedBearerToken) {
+    this(expectedBearerToken, DEFAULT_PRINCIPAL);
+  }
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param expectedBearerToken The plaintext bearer token that remote peers must present.
+   * @param principal           The principal that the token authenticates.
+   */
+  public SimpleBearerTokenVerifier(final String expectedBearerToken, final String principal) {
+    this.expectedBearerToken = Objects.requireNonNull(expectedBearerToken).getBytes(StandardCharsets.UTF_8);
+    this.verifiedBearerToken = VerifiedBearerToken.builder().principal(principal).build();
+  }
+
+  @Override
+  public Optional<VerifiedBearerToken> verify(final String bearerToken) {
+    Objects.requireNonNull(bearerToken);
+    // Constant-time comparison so that response timing does not leak how much of the token was correct.
+    if (MessageDigest.isEqual(expectedBearerToken, bearerToken.getBytes(StandardCharsets.UTF_8))) {
+      return Optional.of(verifiedBearerToken);
+    }
+    return Optional.empty();
+  }
+
+}
@@ -0,0 +1,32 @@
+package org.interledger.link.http.auth;
+
+import org.immutables.value.Value;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * The outcome of successfully verifying a bearer token presented on an incoming ILP-over-HTTP request.
+ */
+@Value.Immutable
+public interface VerifiedBearerToken {
+
+  static ImmutableVerifiedBearerToken.Builder builder() {
+    return ImmutableVerifiedBearerToken.builder();
+  }
+
+  /**
+   * The principal that the token authenticates (e.g., the `sub` claim of a JWT).
+   *
+   * @return A {@link String}.
+   */
+  String principal();
+
+  /**
+   * The instant after which the token is no longer valid.
+   *
+   * @return An optionally-present {@link Instant}, which is empty if the token never expires.
+   */
+  Optional<Instant> expiresAt();
+
+}
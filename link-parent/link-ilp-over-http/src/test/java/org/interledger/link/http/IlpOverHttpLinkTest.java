@@ -1,9 +1,12 @@
 package org.interledger.link.http;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -14,11 +17,13 @@ import org.interledger.core.InterledgerPreparePacket;
 import org.interledger.core.InterledgerResponsePacket;
 import org.interledger.encoding.asn.framework.CodecContext;
 import org.interledger.link.LinkId;
+import org.interledger.link.LinkWarmUpSettings;
 import org.interledger.link.exceptions.LinkException;
 import org.interledger.link.http.auth.BearerTokenSupplier;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import okhttp3.Call;
+import okhttp3.Callback;
 import okhttp3.HttpUrl;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
@@ -30,11 +35,17 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
 
 import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Unit tests for {@link IlpOverHttpLink}.
@@ -53,7 +64,7 @@ public class IlpOverHttpLinkTest {
   private ObjectMapper objectMapperMock;
   @Mock
   private CodecContext codecContextMock;
-  @Mock
+  @Mock(answer = Answers.CALLS_REAL_METHODS)
   private BearerTokenSupplier bearerTokenSupplierMock;
   @Mock
   private InterledgerPreparePacket packetMock;
@@ -140,6 +151,80 @@ public class IlpOverHttpLinkTest {
     verify(codecContextMock, times(1)).read(any(), any());
   }
 
+  @Test
+  public void sendPacketAsyncSuccess() throws Exception {
+    mockEnqueue(200);
+    InterledgerResponsePacket success = mock(InterledgerResponsePacket.class);
+    when(codecContextMock.read(any(), any())).thenReturn(success);
+    CompletableFuture<InterledgerResponsePacket> future = link.sendPacketAsync(packetMock);
+    assertThat(future).isCompletedWithValue(success);
+    verify(codecContextMock, times(1)).read(any(), any());
+  }
+
+  @Test
+  public void sendPacketAsyncRejectOnInternalError() throws Exception {
+    mockEnqueue(500);
+    CompletableFuture<InterledgerResponsePacket> future = link.sendPacketAsync(packetMock);
+    assertThat(future.join()).extracting("code", "message")
+        .containsExactly(InterledgerErrorCode.T00_INTERNAL_ERROR, "{}");
+  }
+
+  @Test
+  public void sendPacketAsyncFailsOnBadWrite() throws Exception {
+    doThrow(IOException.class).when(codecContextMock).write(any(), any());
+    CompletableFuture<InterledgerResponsePacket> future = link.sendPacketAsync(packetMock);
+    assertThat(future).isCompletedExceptionally();
+    verify(httpClientMock, never()).newCall(any());
+  }
+
+  @Test
+  public void sendPacketAsyncFailsOnNetworkError() {
+    Call call = mock(Call.class);
+    when(httpClientMock.newCall(any())).thenReturn(call);
+    doAnswer(invocation -> {
+      ((Callback) invocation.getArgument(0)).onFailure(call, new IOException("hey a penny"));
+      return null;
+    }).when(call).enqueue(any());
+
+    CompletableFuture<InterledgerResponsePacket> future = link.sendPacketAsync(packetMock);
+
+    assertThat(future).isCompletedExceptionally();
+    assertThatThrownBy(future::join)
+        .isInstanceOf(CompletionException.class)
+        .hasCauseInstanceOf(LinkException.class)
+        .hasMessageContaining("hey a penny");
+  }
+
+  @Test
+  public void headersAreReusedUntilTokenChanges() throws Exception {
+    mockCall(200);
+    when(codecContextMock.read(any(), any())).thenReturn(mock(InterledgerResponsePacket.class));
+    when(bearerTokenSupplierMock.get()).thenReturn("token1", "token1", "token2");
+
+    link.sendPacket(packetMock);
+    link.sendPacket(packetMock);
+    link.sendPacket(packetMock);
+
+    ArgumentCaptor<Request> requestCaptor = ArgumentCaptor.forClass(Request.class);
+    verify(httpClientMock, times(3)).newCall(requestCaptor.capture());
+    List<Request> requests = requestCaptor.getAllValues();
+    assertThat(requests.get(0).headers()).isEqualTo(requests.get(1).headers());
+    assertThat(requests.get(0).header("Authorization")).isEqualTo("Bearer token1");
+    assertThat(requests.get(2).header("Authorization")).isEqualTo("Bearer token2");
+    assertThat(requests.get(2).header("ILP-Operator-Address")).isEqualTo("example.destination");
+    assertThat(requests.get(2).header("Cache-Control")).isEqualTo("private, max-age=0, no-cache");
+  }
+
+  @Test
+  public void preparePacketIsEncodedOnce() throws Exception {
+    mockCall(200);
+    when(codecContextMock.read(any(), any())).thenReturn(mock(InterledgerResponsePacket.class));
+
+    link.sendPacket(packetMock);
+
+    verify(codecContextMock, times(1)).write(any(), any());
+  }
+
   @Test
   public void testConnection() throws Exception {
     mockCall(200);
@@ -201,21 +286,113 @@ public class IlpOverHttpLinkTest {
     link.testConnection();
   }
 
+  @Test
+  public void warmUpSendsOnePacketPerConnection() {
+    mockEnqueue(500);
+    LinkWarmUpSettings warmUpSettings = LinkWarmUpSettings.builder().connections(3).build();
+    assertThat(link.whenWarm()).isCompleted();
+
+    CompletableFuture<Void> future = link.warmUp(warmUpSettings);
+
+    assertThat(future).isCompleted().isNotCompletedExceptionally();
+    assertThat(link.whenWarm()).isSameAs(future);
+    assertThat(link.warmUp(warmUpSettings)).isSameAs(future);
+    verify(httpClientMock, times(3)).newCall(any());
+    verify(bearerTokenSupplierMock, times(1)).getAuthorizationHeaderValue();
+  }
+
+  @Test
+  public void warmUpFailsWhenPeerIsUnreachable() {
+    Call call = mock(Call.class);
+    when(httpClientMock.newCall(any())).thenReturn(call);
+    doAnswer(invocation -> {
+      ((Callback) invocation.getArgument(0)).onFailure(call, new IOException("hey a penny"));
+      return null;
+    }).when(call).enqueue(any());
+
+    CompletableFuture<Void> future = link.warmUp(LinkWarmUpSettings.builder().build());
+
+    assertThatThrownBy(future::join)
+        .isInstanceOf(CompletionException.class)
+        .hasCauseInstanceOf(LinkException.class)
+        .hasMessageContaining("hey a penny");
+    verify(call, times(2)).enqueue(any());
+  }
+
+  @Test
+  public void warmUpFailsWhenBearerTokenIsRefused() {
+    mockEnqueue(401);
+
+    CompletableFuture<Void> future = link.warmUp(LinkWarmUpSettings.builder().build());
+
+    assertThatThrownBy(future::join)
+        .isInstanceOf(CompletionException.class)
+        .hasCauseInstanceOf(LinkException.class)
+        .hasMessageContaining("Invalid Bearer Token");
+  }
+
+  @Test
+  public void warmUpSendsAFreshlyExpiringPacket() throws Exception {
+    mockEnqueue(500);
+    ArgumentCaptor<InterledgerPreparePacket> packetCaptor = ArgumentCaptor.forClass(InterledgerPreparePacket.class);
+
+    link.warmUp(LinkWarmUpSettings.builder().build()).join();
+
+    verify(codecContextMock).write(packetCaptor.capture(), any());
+    assertThat(packetCaptor.getValue().getExpiresAt()).isAfter(Instant.now().plusSeconds(29));
+  }
+
+  @Test
+  public void warmUpBeforeLinkIdIsSetReportsTheTokenSupplierFailure() {
+    IlpOverHttpLink unnamedLink = new IlpOverHttpLink(
+        () -> InterledgerAddress.of("example.destination"),
+        HttpUrl.get("https://cannotspellsurgerywithouturges.com"),
+        httpClientMock,
+        objectMapperMock,
+        codecContextMock,
+        bearerTokenSupplierMock
+    );
+    doThrow(new IllegalStateException("shared secret unavailable")).when(bearerTokenSupplierMock).getAuthorizationHeaderValue();
+
+    CompletableFuture<Void> future = unnamedLink.warmUp(LinkWarmUpSettings.builder().build());
+
+    assertThatThrownBy(future::join)
+        .isInstanceOf(CompletionException.class)
+        .hasCauseInstanceOf(LinkException.class)
+        .hasRootCauseInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("shared secret unavailable");
+    verify(httpClientMock, never()).newCall(any());
+  }
+
+  private void mockEnqueue(int code) {
+    Response response = mockResponse(code);
+    Call call = mock(Call.class);
+    when(httpClientMock.newCall(any())).thenReturn(call);
+    doAnswer(invocation -> {
+      ((Callback) invocation.getArgument(0)).onResponse(call, response);
+      return null;
+    }).when(call).enqueue(any());
+  }
+
   private Response mockCall(int code) throws Exception {
+    Response response = mockResponse(code);
+    Call call = mock(Call.class);
+    when(httpClientMock.newCall(any())).thenReturn(call);
+    when(call.execute()).thenReturn(response);
+    return response;
+  }
+
+  private Response mockResponse(int code) {
     Request request = new Request.Builder()
         .url("https://existentialcrisis.com")
         .build();
 
-    Response response = new Response.Builder()
+    return new Response.Builder()
         .request(request)
         .protocol(Protocol.HTTP_2)
         .code(code)
         .message("stop asking me to set stuff")
         .body(ResponseBody.create("{}", MediaType.get("application/json; charset=utf-8")))
         .build();
-    Call call = mock(Call.class);
-    when(httpClientMock.newCall(any())).thenReturn(call);
-    when(call.execute()).thenReturn(response);
-    return response;
   }
 }
@@ -0,0 +1,325 @@
+package org.interledger.link.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.interledger.core.InterledgerConstants.ALL_ZEROS_FULFILLMENT;
+
+import org.interledger.codecs.ilp.InterledgerCodecContextFactory;
+import org.interledger.core.DateUtils;
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerConstants;
+import org.interledger.core.InterledgerErrorCode;
+import org.interledger.core.InterledgerFulfillPacket;
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerRejectPacket;
+import org.interledger.core.InterledgerResponsePacket;
+import org.interledger.encoding.asn.framework.CodecContext;
+import org.interledger.link.LinkHandler;
+import org.interledger.link.LinkId;
+import org.interledger.link.http.auth.JwtHs256BearerTokenSupplier;
+import org.interledger.link.http.auth.SimpleBearerTokenSupplier;
+import org.interledger.link.http.auth.SimpleBearerTokenVerifier;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.primitives.UnsignedLong;
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Unit tests for {@link IlpOverHttpServer}, exercised over loopback using {@link IlpOverHttpLink} as the client.
+ */
+public class IlpOverHttpServerTest {
+
+  private static final String AUTH_TOKEN = "shh";
+  private static final InterledgerAddress OPERATOR_ADDRESS = InterledgerAddress.of("test.client");
+  private static final CodecContext ILP_CODEC_CONTEXT = InterledgerCodecContextFactory.oer();
+
+  private final AtomicReference<LinkHandler> linkHandler = new AtomicReference<>(
+      preparePacket -> InterledgerFulfillPacket.builder()
+          .fulfillment(ALL_ZEROS_FULFILLMENT)
+          .data(preparePacket.getData())
+          .build()
+  );
+
+  private IlpOverHttpServer server;
+  private OkHttpClient okHttpClient;
+  private HttpUrl url;
+
+  @Before
+  public void setUp() {
+    server = new IlpOverHttpServer(
+        new InetSocketAddress("127.0.0.1", 0),
+        new SimpleBearerTokenVerifier(AUTH_TOKEN),
+        ILP_CODEC_CONTEXT,
+        preparePacket -> linkHandler.get().handleIncomingPacket(preparePacket)
+    );
+    server.start();
+    okHttpClient = new OkHttpClient();
+    url = HttpUrl.get("http://127.0.0.1:" + server.getAddress().getPort() + IlpOverHttpServer.DEFAULT_PATH);
+  }
+
+  @After
+  public void tearDown() {
+    server.close();
+    okHttpClient.dispatcher().executorService().shutdown();
+    okHttpClient.connectionPool().evictAll();
+  }
+
+  @Test
+  public void sendPacketIsFulfilled() {
+    final InterledgerPreparePacket preparePacket = preparePacket();
+
+    final InterledgerResponsePacket responsePacket = link(AUTH_TOKEN).sendPacket(preparePacket);
+
+    assertThat(responsePacket).isInstanceOf(InterledgerFulfillPacket.class);
+    assertThat(responsePacket.getData()).isEqualTo(preparePacket.getData());
+  }
+
+  @Test
+  public void sequentialPacketsReuseOneConnection() {
+    final IlpOverHttpLink link = link(AUTH_TOKEN);
+    for (int i = 0; i < 20; i++) {
+      assertThat(link.sendPacket(preparePacket())).isInstanceOf(InterledgerFulfillPacket.class);
+    }
+    assertThat(okHttpClient.connectionPool().connectionCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void sendPacketAsyncIsFulfilled() {
+    final IlpOverHttpLink link = link(AUTH_TOKEN);
+    final List<CompletableFuture<InterledgerResponsePacket>> futures = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      futures.add(link.sendPacketAsync(preparePacket()));
+    }
+
+    for (CompletableFuture<InterledgerResponsePacket> future : futures) {
+      assertThat(future.join()).isInstanceOf(InterledgerFulfillPacket.class);
+    }
+  }
+
+  @Test
+  public void invalidTokenIsRejected() {
+    final InterledgerResponsePacket responsePacket = link("wrong").sendPacket(preparePacket());
+
+    assertThat(responsePacket).isInstanceOf(InterledgerRejectPacket.class);
+    assertThat(((InterledgerRejectPacket) responsePacket).getCode()).isEqualTo(InterledgerErrorCode.F00_BAD_REQUEST);
+    assertThat(((InterledgerRejectPacket) responsePacket).getMessage()).contains("Invalid Bearer Token");
+  }
+
+  @Test
+  public void linkHandlerErrorIsInternalError() {
+    linkHandler.set(preparePacket -> {
+      throw new IllegalStateException("boom");
+    });
+
+    final InterledgerResponsePacket responsePacket = link(AUTH_TOKEN).sendPacket(preparePacket());
+
+    assertThat(responsePacket).isInstanceOf(InterledgerRejectPacket.class);
+    assertThat(((InterledgerRejectPacket) responsePacket).getCode())
+        .isEqualTo(InterledgerErrorCode.T00_INTERNAL_ERROR);
+  }
+
+  @Test
+  public void missingAuthorizationIs401() throws IOException {
+    final Request request = new Request.Builder()
+        .url(url)
+        .post(RequestBody.create(encode(preparePacket()), IlpOverHttpConstants.APPLICATION_OCTET_STREAM))
+        .build();
+
+    try (Response response = okHttpClient.newCall(request).execute()) {
+      assertThat(response.code()).isEqualTo(401);
+      assertThat(response.header("WWW-Authenticate")).isEqualTo("Bearer");
+    }
+  }
+
+  @Test
+  public void wrongContentTypeIs415() throws IOException {
+    final Request request = new Request.Builder()
+        .url(url)
+        .header("Authorization", "Bearer " + AUTH_TOKEN)
+        .post(RequestBody.create("{}", MediaType.get("application/json")))
+        .build();
+
+    try (Response response = okHttpClient.newCall(request).execute()) {
+      assertThat(response.code()).isEqualTo(415);
+    }
+  }
+
+  @Test
+  public void getIs405() throws IOException {
+    final Request request = new Request.Builder()
+        .url(url)
+        .header("Authorization", "Bearer " + AUTH_TOKEN)
+        .get()
+        .build();
+
+    try (Response response = okHttpClient.newCall(request).execute()) {
+      assertThat(response.code()).isEqualTo(405);
+    }
+  }
+
+  @Test
+  public void undecodablePacketIs400() throws IOException {
+    final Request request = new Request.Builder()
+        .url(url)
+        .header("Authorization", "Bearer " + AUTH_TOKEN)
+        .post(RequestBody.create(new byte[] {1, 2, 3}, IlpOverHttpConstants.APPLICATION_OCTET_STREAM))
+        .build();
+
+    try (Response response = okHttpClient.newCall(request).execute()) {
+      assertThat(response.code()).isEqualTo(400);
+    }
+  }
+
+  @Test
+  public void pipelinedRequestsAreAnsweredInOrder() throws IOException {
+    final InterledgerPreparePacket first = preparePacket((byte) 1);
+    final InterledgerPreparePacket second = preparePacket((byte) 2);
+
+    final ByteArrayOutputStream pipelined = new ByteArrayOutputStream();
+    writeRequest(pipelined, encode(first));
+    writeRequest(pipelined, encode(second));
+
+    try (Socket socket = new Socket("127.0.0.1", server.getAddress().getPort())) {
+      final OutputStream outputStream = socket.getOutputStream();
+      outputStream.write(pipelined.toByteArray());
+      outputStream.flush();
+
+      final DataInputStream inputStream = new DataInputStream(socket.getInputStream());
+      assertThat(readResponsePacket(inputStream).getData()).isEqualTo(first.getData());
+      assertThat(readResponsePacket(inputStream).getData()).isEqualTo(second.getData());
+    }
+  }
+
+  @Test
+  public void authenticatesUsingIncomingJwtSettings() {
+    final IncomingLinkSettings incomingLinkSettings = IncomingLinkSettings.builder()
+        .authType(IlpOverHttpLinkSettings.AuthType.JWT_HS_256)
+        .jwtAuthSettings(JwtAuthSettings.builder()
+            .encryptedTokenSharedSecret("shared-secret")
+            .tokenSubject("client")
+            .build())
+        .build();
+    final OutgoingLinkSettings outgoingLinkSettings = OutgoingLinkSettings.builder()
+        .authType(IlpOverHttpLinkSettings.AuthType.JWT_HS_256)
+        .jwtAuthSettings(JwtAuthSettings.builder()
+            .encryptedTokenSharedSecret("shared-secret")
+            .tokenSubject("client")
+            .build())
+        .url(url)
+        .build();
+
+    try (IlpOverHttpServer jwtServer = new IlpOverHttpServer(
+        new InetSocketAddress("127.0.0.1", 0), incomingLinkSettings, cipherMessage -> cipherMessage,
+        ILP_CODEC_CONTEXT, linkHandler.get()
+    )) {
+      jwtServer.start();
+      final IlpOverHttpLink link = new IlpOverHttpLink(
+          () -> OPERATOR_ADDRESS,
+          HttpUrl.get("http://127.0.0.1:" + jwtServer.getAddress().getPort() + jwtServer.getPath()),
+          okHttpClient,
+          new ObjectMapper(),
+          ILP_CODEC_CONTEXT,
+          new JwtHs256BearerTokenSupplier("shared-secret"::getBytes, outgoingLinkSettings)
+      );
+      link.setLinkId(LinkId.of("ilp-over-http-server-jwt-test"));
+
+      assertThat(link.sendPacket(preparePacket())).isInstanceOf(InterledgerFulfillPacket.class);
+    }
+  }
+
+  private IlpOverHttpLink link(final String authToken) {
+    final IlpOverHttpLink link = new IlpOverHttpLink(
+        () -> OPERATOR_ADDRESS,
+        url,
+        okHttpClient,
+        new ObjectMapper(),
+        ILP_CODEC_CONTEXT,
+        new SimpleBearerTokenSupplier(authToken)
+    );
+    link.setLinkId(LinkId.of("ilp-over-http-server-test"));
+    return link;
+  }
+
+  private void writeRequest(final OutputStream outputStream, final byte[] body) throws IOException {
+    final String headers = "POST " + IlpOverHttpServer.DEFAULT_PATH + " HTTP/1.1\r\n"
+        + "Host: 127.0.0.1\r\n"
+        + "Authorization: Bearer " + AUTH_TOKEN + "\r\n"
+        + "Content-Type: application/octet-stream\r\n"
+        + "Content-Length: " + body.length + "\r\n"
+        + "\r\n";
+    outputStream.write(headers.getBytes(StandardCharsets.US_ASCII));
+    outputStream.write(body);
+  }
+
+  private InterledgerResponsePacket readResponsePacket(final DataInputStream inputStream) throws IOException {
+    assertThat(readLine(inputStream)).startsWith("HTTP/1.1 200");
+    int contentLength = -1;
+    String line;
+    while (!(line = readLine(inputStream)).isEmpty()) {
+      if (line.toLowerCase().startsWith("content-length:")) {
+        contentLength = Integer.parseInt(line.substring("content-length:".length()).trim());
+      }
+    }
+    assertThat(contentLength).isPositive();
+    final byte[] body = new byte[contentLength];
+    inputStream.readFully(body);
+    return ILP_CODEC_CONTEXT.read(InterledgerResponsePacket.class, new ByteArrayInputStream(body));
+  }
+
+  private String readLine(final InputStream inputStream) throws IOException {
+    final StringBuilder line = new StringBuilder();
+    int read;
+    while ((read = inputStream.read()) != '\n') {
+      if (read == -1) {
+        throw new IOException("Unexpected end of stream");
+      }
+      if (read != '\r') {
+        line.append((char) read);
+      }
+    }
+    return line.toString();
+  }
+
+  private byte[] encode(final InterledgerPreparePacket preparePacket) throws IOException {
+    final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    ILP_CODEC_CONTEXT.write(preparePacket, byteArrayOutputStream);
+    return byteArrayOutputStream.toByteArray();
+  }
+
+  private InterledgerPreparePacket preparePacket() {
+    return preparePacket((byte) 7);
+  }
+
+  private InterledgerPreparePacket preparePacket(final byte dataByte) {
+    final byte[] data = new byte[32];
+    data[0] = dataByte;
+    return InterledgerPreparePacket.builder()
+        .amount(UnsignedLong.ONE)
+        .executionCondition(InterledgerConstants.ALL_ZEROS_CONDITION)
+        .destination(InterledgerAddress.of("test.server"))
+        .expiresAt(DateUtils.now().plusSeconds(30))
+        .data(data)
+        .build();
+  }
+}
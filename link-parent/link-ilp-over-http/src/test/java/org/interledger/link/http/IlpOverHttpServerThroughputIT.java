@@ -0,0 +1,148 @@
+package org.interledger.link.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.interledger.core.InterledgerConstants.ALL_ZEROS_FULFILLMENT;
+
+import org.interledger.codecs.ilp.InterledgerCodecContextFactory;
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerConstants;
+import org.interledger.core.InterledgerFulfillPacket;
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerResponsePacket;
+import org.interledger.encoding.asn.framework.CodecContext;
+import org.interledger.link.LinkId;
+import org.interledger.link.http.auth.SimpleBearerTokenSupplier;
+import org.interledger.link.http.auth.SimpleBearerTokenVerifier;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.primitives.UnsignedLong;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetSocketAddress;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput benchmark for {@link IlpOverHttpServer}, driven over loopback by {@link IlpOverHttpLink}, measuring
+ * fulfilled packets per second for blocking sends on one thread and for asynchronous sends with many packets
+ * in-flight.
+ */
+public class IlpOverHttpServerThroughputIT {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(IlpOverHttpServerThroughputIT.class);
+
+  private static final String AUTH_TOKEN = "benchmark";
+  private static final CodecContext ILP_CODEC_CONTEXT = InterledgerCodecContextFactory.oer();
+
+  private static final int NUM_PACKETS = 10_000;
+  private static final int MAX_IN_FLIGHT = 64;
+  private static final int WARMUP_ROUNDS = 2;
+
+  private static IlpOverHttpServer server;
+  private static OkHttpClient okHttpClient;
+  private static IlpOverHttpLink link;
+  private static InterledgerPreparePacket preparePacket;
+
+  @BeforeClass
+  public static void setUp() {
+    IlpOverHttpServer.enableTcpNoDelay();
+    server = new IlpOverHttpServer(
+        new InetSocketAddress("127.0.0.1", 0),
+        new SimpleBearerTokenVerifier(AUTH_TOKEN),
+        ILP_CODEC_CONTEXT,
+        incomingPreparePacket -> InterledgerFulfillPacket.builder()
+            .fulfillment(ALL_ZEROS_FULFILLMENT)
+            .data(incomingPreparePacket.getData())
+            .build()
+    );
+    server.start();
+
+    final Dispatcher dispatcher = new Dispatcher();
+    dispatcher.setMaxRequests(MAX_IN_FLIGHT);
+    dispatcher.setMaxRequestsPerHost(MAX_IN_FLIGHT);
+    okHttpClient = new OkHttpClient.Builder()
+        .dispatcher(dispatcher)
+        .connectionPool(new ConnectionPool(MAX_IN_FLIGHT, 5, TimeUnit.MINUTES))
+        .build();
+
+    link = new IlpOverHttpLink(
+        () -> InterledgerAddress.of("test.benchmark"),
+        HttpUrl.get("http://127.0.0.1:" + server.getAddress().getPort() + server.getPath()),
+        okHttpClient,
+        new ObjectMapper(),
+        ILP_CODEC_CONTEXT,
+        new SimpleBearerTokenSupplier(AUTH_TOKEN)
+    );
+    link.setLinkId(LinkId.of("ilp-over-http-benchmark"));
+
+    preparePacket = InterledgerPreparePacket.builder()
+        .amount(UnsignedLong.ONE)
+        .executionCondition(InterledgerConstants.ALL_ZEROS_CONDITION)
+        .destination(InterledgerAddress.of("test.benchmark.receiver"))
+        .expiresAt(Instant.now().plus(1, ChronoUnit.DAYS))
+        .data(new byte[32])
+        .build();
+  }
+
+  @AfterClass
+  public static void tearDown() {
+    server.close();
+    okHttpClient.dispatcher().executorService().shutdown();
+    okHttpClient.connectionPool().evictAll();
+  }
+
+  @Test
+  public void blockingThroughput() {
+    for (int i = 0; i < WARMUP_ROUNDS; i++) {
+      runBlockingRound();
+    }
+    final long startNanos = System.nanoTime();
+    runBlockingRound();
+    logThroughput("blocking", System.nanoTime() - startNanos);
+  }
+
+  @Test
+  public void asyncThroughput() throws Exception {
+    for (int i = 0; i < WARMUP_ROUNDS; i++) {
+      runAsyncRound();
+    }
+    final long startNanos = System.nanoTime();
+    runAsyncRound();
+    logThroughput("async", System.nanoTime() - startNanos);
+  }
+
+  private void runBlockingRound() {
+    for (int i = 0; i < NUM_PACKETS; i++) {
+      assertThat(link.sendPacket(preparePacket)).isInstanceOf(InterledgerFulfillPacket.class);
+    }
+  }
+
+  private void runAsyncRound() throws Exception {
+    final List<CompletableFuture<InterledgerResponsePacket>> futures = new ArrayList<>(NUM_PACKETS);
+    for (int i = 0; i < NUM_PACKETS; i++) {
+      futures.add(link.sendPacketAsync(preparePacket));
+    }
+    CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5, TimeUnit.MINUTES);
+    for (CompletableFuture<InterledgerResponsePacket> future : futures) {
+      assertThat(future.get()).isInstanceOf(InterledgerFulfillPacket.class);
+    }
+  }
+
+  private void logThroughput(final String mode, final long elapsedNanos) {
+    final double packetsPerSecond = NUM_PACKETS / (elapsedNanos / 1_000_000_000d);
+    LOGGER.info("IlpOverHttpServer mode={} packets={} packetsPerSecond={}",
+        mode, NUM_PACKETS, String.format("%.0f", packetsPerSecond));
+  }
+}
@@ -0,0 +1,145 @@
+package org.interledger.link.http.auth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unit tests for {@link CachingBearerTokenVerifier}.
+ */
+public class CachingBearerTokenVerifierTest {
+
+  private static final Instant START = Instant.parse("2020-01-01T00:00:00Z");
+
+  private BearerTokenVerifier delegate;
+  private AtomicLong nanos;
+  private MutableClock clock;
+  private CachingBearerTokenVerifier verifier;
+
+  @Before
+  public void setUp() {
+    delegate = mock(BearerTokenVerifier.class);
+    nanos = new AtomicLong();
+    clock = new MutableClock(START);
+    verifier = new CachingBearerTokenVerifier(delegate, 2, Duration.ofMinutes(30), nanos::get, clock);
+  }
+
+  @Test
+  public void verifiesEachTokenOnce() {
+    final VerifiedBearerToken verifiedToken = verifiedToken(Optional.of(START.plusSeconds(900)));
+    when(delegate.verify("token")).thenReturn(Optional.of(verifiedToken));
+
+    for (int i = 0; i < 10; i++) {
+      assertThat(verifier.verify("token")).contains(verifiedToken);
+    }
+
+    verify(delegate, times(1)).verify("token");
+  }
+
+  @Test
+  public void invalidTokensAreNotCached() {
+    when(delegate.verify("bad")).thenReturn(Optional.empty());
+
+    assertThat(verifier.isValid("bad")).isFalse();
+    assertThat(verifier.isValid("bad")).isFalse();
+
+    verify(delegate, times(2)).verify("bad");
+    assertThat(verifier.cachedTokenCount()).isZero();
+  }
+
+  @Test
+  public void tokenIsReverifiedAfterItExpires() {
+    when(delegate.verify("token"))
+        .thenReturn(Optional.of(verifiedToken(Optional.of(START.plusSeconds(60)))))
+        .thenReturn(Optional.empty());
+
+    assertThat(verifier.isValid("token")).isTrue();
+    advance(Duration.ofSeconds(61));
+
+    assertThat(verifier.isValid("token")).isFalse();
+    verify(delegate, times(2)).verify("token");
+    assertThat(verifier.cachedTokenCount()).isZero();
+  }
+
+  @Test
+  public void tokenWithoutExpiryIsReverifiedAfterMaxCacheDuration() {
+    when(delegate.verify("token")).thenReturn(Optional.of(verifiedToken(Optional.empty())));
+
+    assertThat(verifier.isValid("token")).isTrue();
+    advance(Duration.ofMinutes(29));
+    assertThat(verifier.isValid("token")).isTrue();
+    verify(delegate, times(1)).verify("token");
+
+    advance(Duration.ofMinutes(2));
+    assertThat(verifier.isValid("token")).isTrue();
+    verify(delegate, times(2)).verify("token");
+  }
+
+  @Test
+  public void alreadyExpiredTokenIsNotCached() {
+    when(delegate.verify("token")).thenReturn(Optional.of(verifiedToken(Optional.of(START.minusSeconds(1)))));
+
+    verifier.verify("token");
+
+    assertThat(verifier.cachedTokenCount()).isZero();
+  }
+
+  @Test
+  public void cacheIsBounded() {
+    for (int i = 0; i < 10; i++) {
+      when(delegate.verify("token" + i)).thenReturn(Optional.of(verifiedToken(Optional.empty())));
+      verifier.verify("token" + i);
+    }
+
+    assertThat(verifier.cachedTokenCount()).isLessThanOrEqualTo(2);
+  }
+
+  private void advance(final Duration duration) {
+    nanos.addAndGet(duration.toNanos());
+    clock.instant = clock.instant.plus(duration);
+  }
+
+  private VerifiedBearerToken verifiedToken(final Optional<Instant> expiresAt) {
+    return VerifiedBearerToken.builder()
+        .principal("peer")
+        .expiresAt(expiresAt)
+        .build();
+  }
+
+  private static final class MutableClock extends Clock {
+
+    private Instant instant;
+
+    private MutableClock(final Instant instant) {
+      this.instant = instant;
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(final ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return instant;
+    }
+  }
+}
@@ -1,5 +1,13 @@
 package org.interledger.link.http.auth;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -11,10 +19,16 @@ import org.interledger.link.http.OutgoingLinkSettings;
 import okhttp3.HttpUrl;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.time.Clock;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Unit tests for {@link JwtHs256BearerTokenSupplier}.
@@ -23,8 +37,14 @@ public class JwtHs256BearerTokenSupplierTest {
 
   private static final byte[] EMPTY_BYTES = new byte[32];
 
+  private static final Instant NOW = Instant.parse("2020-01-01T00:00:00Z");
+
   @Mock
   private SharedSecretBytesSupplier secretBytesSupplier;
+  @Mock
+  private ScheduledExecutorService refreshSchedulerMock;
+  @Mock
+  private Clock clockMock;
 
   @Before
   public void setUp() {
@@ -60,6 +80,127 @@ public class JwtHs256BearerTokenSupplierTest {
     verify(secretBytesSupplier, times(2)).get();
   }
 
+  @Test
+  public void authorizationHeaderValueIsPrebuilt() {
+    OutgoingLinkSettings linkSettings = createOutgoingSettings(Duration.ofMinutes(5));
+    JwtHs256BearerTokenSupplier tokenSupplier = new JwtHs256BearerTokenSupplier(secretBytesSupplier, linkSettings);
+
+    String headerValue = tokenSupplier.getAuthorizationHeaderValue();
+    assertThat(headerValue).isEqualTo("Bearer " + tokenSupplier.get());
+    assertThat(tokenSupplier.getAuthorizationHeaderValue()).isSameAs(headerValue);
+    verify(secretBytesSupplier).get();
+  }
+
+  @Test
+  public void refreshesAheadOfExpiry() {
+    when(clockMock.instant()).thenReturn(NOW);
+    JwtHs256BearerTokenSupplier tokenSupplier = newSupplierWithMockScheduler(Duration.ofMinutes(10));
+
+    String firstToken = tokenSupplier.get();
+    ArgumentCaptor<Runnable> refreshTask = ArgumentCaptor.forClass(Runnable.class);
+    verify(refreshSchedulerMock).schedule(refreshTask.capture(), eq(Duration.ofMinutes(8).toMillis()),
+        eq(TimeUnit.MILLISECONDS));
+
+    when(clockMock.instant()).thenReturn(NOW.plus(Duration.ofMinutes(8)));
+    refreshTask.getValue().run();
+    verify(secretBytesSupplier, times(2)).get();
+
+    // Senders pick up the replacement token without signing anything themselves.
+    String secondToken = tokenSupplier.get();
+    assertThat(secondToken).isNotEqualTo(firstToken);
+    assertThat(tokenSupplier.get()).isSameAs(secondToken);
+    verify(secretBytesSupplier, times(2)).get();
+    verify(refreshSchedulerMock, times(2)).schedule(any(Runnable.class), anyLong(), eq(TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  public void idleTokenIsNotRefreshed() {
+    when(clockMock.instant()).thenReturn(NOW);
+    JwtHs256BearerTokenSupplier tokenSupplier = newSupplierWithMockScheduler(Duration.ofMinutes(10));
+    tokenSupplier.get();
+
+    // The first refresh replaces the token that was used...
+    when(clockMock.instant()).thenReturn(NOW.plus(Duration.ofMinutes(8)));
+    tokenSupplier.refresh();
+    verify(secretBytesSupplier, times(2)).get();
+
+    // ...but nobody used the replacement, so the next refresh stops.
+    when(clockMock.instant()).thenReturn(NOW.plus(Duration.ofMinutes(16)));
+    tokenSupplier.refresh();
+    verify(secretBytesSupplier, times(2)).get();
+    verify(refreshSchedulerMock, times(2)).schedule(any(Runnable.class), anyLong(), eq(TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  public void expiredTokenIsMintedOnDemand() {
+    when(clockMock.instant()).thenReturn(NOW);
+    JwtHs256BearerTokenSupplier tokenSupplier = newSupplierWithMockScheduler(Duration.ofMinutes(10));
+    String firstToken = tokenSupplier.get();
+
+    when(clockMock.instant()).thenReturn(NOW.plus(Duration.ofMinutes(10)));
+    assertThat(tokenSupplier.get()).isNotEqualTo(firstToken);
+    verify(secretBytesSupplier, times(2)).get();
+  }
+
+  @Test
+  public void tokenIsNotHandedOutWithinClockSkewOfExpiry() {
+    when(clockMock.instant()).thenReturn(NOW);
+    JwtHs256BearerTokenSupplier tokenSupplier = newSupplierWithMockScheduler(Duration.ofMinutes(10));
+    String firstToken = tokenSupplier.get();
+
+    when(clockMock.instant()).thenReturn(NOW.plus(Duration.ofMinutes(10)).minus(Duration.ofSeconds(6)));
+    assertThat(tokenSupplier.get()).isSameAs(firstToken);
+
+    when(clockMock.instant()).thenReturn(NOW.plus(Duration.ofMinutes(10)).minus(Duration.ofSeconds(5)));
+    assertThat(tokenSupplier.get()).isNotEqualTo(firstToken);
+    verify(secretBytesSupplier, times(2)).get();
+  }
+
+  @Test
+  public void onlyOneRefreshIsEverPending() {
+    when(clockMock.instant()).thenReturn(NOW);
+    ScheduledFuture<?> firstRefresh = mock(ScheduledFuture.class);
+    ScheduledFuture<?> secondRefresh = mock(ScheduledFuture.class);
+    ScheduledFuture<?> thirdRefresh = mock(ScheduledFuture.class);
+    doReturn(firstRefresh, secondRefresh, thirdRefresh)
+        .when(refreshSchedulerMock).schedule(any(Runnable.class), anyLong(), eq(TimeUnit.MILLISECONDS));
+    // The clock skew is capped at 3s, so the refresh is due before the 4.8s refresh fraction would have it.
+    JwtHs256BearerTokenSupplier tokenSupplier = newSupplierWithMockScheduler(Duration.ofSeconds(6));
+
+    tokenSupplier.get();
+    verify(refreshSchedulerMock).schedule(any(Runnable.class), eq(3000L), eq(TimeUnit.MILLISECONDS));
+
+    // The refresh has not run yet when the token stops being handed out, so a sender mints one on demand...
+    when(clockMock.instant()).thenReturn(NOW.plusSeconds(3));
+    tokenSupplier.get();
+    verify(firstRefresh).cancel(false);
+
+    // ...and the refresh scheduled for that token then replaces itself rather than stacking another one.
+    tokenSupplier.refresh();
+    verify(secondRefresh).cancel(false);
+    verify(thirdRefresh, never()).cancel(anyBoolean());
+    verify(refreshSchedulerMock, times(3)).schedule(any(Runnable.class), eq(3000L), eq(TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  public void shortLivedTokensAreNotRefreshedAhead() {
+    when(clockMock.instant()).thenReturn(NOW);
+    JwtHs256BearerTokenSupplier tokenSupplier = newSupplierWithMockScheduler(Duration.ofMillis(500));
+    tokenSupplier.get();
+    verify(refreshSchedulerMock, never()).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+  }
+
+  private JwtHs256BearerTokenSupplier newSupplierWithMockScheduler(Duration tokenExpiry) {
+    return new JwtHs256BearerTokenSupplier(
+        secretBytesSupplier,
+        createOutgoingSettings(tokenExpiry),
+        JwtHs256BearerTokenSupplier.DEFAULT_REFRESH_FRACTION,
+        JwtHs256BearerTokenSupplier.DEFAULT_CLOCK_SKEW,
+        refreshSchedulerMock,
+        clockMock
+    );
+  }
+
   private OutgoingLinkSettings createOutgoingSettings(Duration duration) {
     return OutgoingLinkSettings.builder()
         .authType(IlpOverHttpLinkSettings.AuthType.JWT_HS_256)
@@ -0,0 +1,105 @@
+package org.interledger.link.http.auth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.interledger.link.http.IlpOverHttpLinkSettings;
+import org.interledger.link.http.JwtAuthSettings;
+import org.interledger.link.http.OutgoingLinkSettings;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import okhttp3.HttpUrl;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+
+/**
+ * Unit tests for {@link JwtHs256BearerTokenVerifier}.
+ */
+public class JwtHs256BearerTokenVerifierTest {
+
+  private static final String SUBJECT = "about last night";
+  private static final byte[] SHARED_SECRET = "i am a terrible bowler".getBytes(StandardCharsets.UTF_8);
+
+  private final JwtHs256BearerTokenVerifier verifier =
+      new JwtHs256BearerTokenVerifier(SHARED_SECRET::clone, SUBJECT);
+
+  @Test
+  public void acceptsTokenFromSupplier() {
+    final JwtHs256BearerTokenSupplier tokenSupplier = new JwtHs256BearerTokenSupplier(
+        SHARED_SECRET::clone, createOutgoingSettings(SUBJECT)
+    );
+    assertThat(verifier.isValid(tokenSupplier.get())).isTrue();
+  }
+
+  @Test
+  public void reportsSubjectAndExpiry() {
+    final Instant expiresAt = Instant.now().plusSeconds(60);
+    final String token = JWT.create()
+        .withSubject(SUBJECT)
+        .withExpiresAt(Date.from(expiresAt))
+        .sign(Algorithm.HMAC256(SHARED_SECRET));
+
+    final VerifiedBearerToken verifiedBearerToken = verifier.verify(token).get();
+
+    assertThat(verifiedBearerToken.principal()).isEqualTo(SUBJECT);
+    assertThat(verifiedBearerToken.expiresAt()).contains(expiresAt.truncatedTo(ChronoUnit.SECONDS));
+  }
+
+  @Test
+  public void rejectsWrongSubject() {
+    final JwtHs256BearerTokenSupplier tokenSupplier = new JwtHs256BearerTokenSupplier(
+        SHARED_SECRET::clone, createOutgoingSettings("someone else")
+    );
+    assertThat(verifier.isValid(tokenSupplier.get())).isFalse();
+  }
+
+  @Test
+  public void rejectsWrongSecret() {
+    final String token = JWT.create()
+        .withSubject(SUBJECT)
+        .withExpiresAt(Date.from(Instant.now().plusSeconds(60)))
+        .sign(Algorithm.HMAC256("not the secret"));
+    assertThat(verifier.isValid(token)).isFalse();
+  }
+
+  @Test
+  public void rejectsExpiredToken() {
+    final String token = JWT.create()
+        .withSubject(SUBJECT)
+        .withExpiresAt(Date.from(Instant.now().minusSeconds(60)))
+        .sign(Algorithm.HMAC256(SHARED_SECRET));
+    assertThat(verifier.isValid(token)).isFalse();
+  }
+
+  @Test
+  public void rejectsTokenWithoutExpiry() {
+    final String token = JWT.create()
+        .withSubject(SUBJECT)
+        .sign(Algorithm.HMAC256(SHARED_SECRET));
+    assertThat(verifier.isValid(token)).isFalse();
+  }
+
+  @Test
+  public void rejectsGarbage() {
+    assertThat(verifier.isValid("not-a-jwt")).isFalse();
+  }
+
+  private OutgoingLinkSettings createOutgoingSettings(String subject) {
+    return OutgoingLinkSettings.builder()
+        .authType(IlpOverHttpLinkSettings.AuthType.JWT_HS_256)
+        .jwtAuthSettings(
+            JwtAuthSettings.builder()
+                .encryptedTokenSharedSecret("i am a terrible bowler")
+                .tokenExpiry(Duration.ofMinutes(5))
+                .tokenSubject(subject)
+                .build()
+        )
+        .url(HttpUrl.get("https://www.ripple.com"))
+        .build();
+  }
+}
@@ -0,0 +1,30 @@
+package org.interledger.link.http.auth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link SimpleBearerTokenVerifier}.
+ */
+public class SimpleBearerTokenVerifierTest {
+
+  private final SimpleBearerTokenVerifier verifier = new SimpleBearerTokenVerifier("password");
+
+  @Test
+  public void acceptsExpectedToken() {
+    assertThat(verifier.isValid("password")).isTrue();
+  }
+
+  @Test
+  public void rejectsOtherTokens() {
+    assertThat(verifier.isValid("passwor")).isFalse();
+    assertThat(verifier.isValid("password1")).isFalse();
+    assertThat(verifier.isValid("")).isFalse();
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void rejectsNull() {
+    verifier.isValid(null);
+  }
+}
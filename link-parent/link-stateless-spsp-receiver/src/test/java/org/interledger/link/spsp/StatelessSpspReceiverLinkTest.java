@@ -13,6 +13,7 @@ import org.interledger.core.InterledgerAddress;
 import org.interledger.core.InterledgerConstants;
 import org.interledger.core.InterledgerFulfillPacket;
 import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerResponsePacket;
 import org.interledger.link.LinkId;
 import org.interledger.stream.receiver.StreamReceiver;
 
@@ -26,6 +27,8 @@ import org.mockito.MockitoAnnotations;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Unit tests for {@link StatelessSpspReceiverLink}.
  */
@@ -127,6 +130,27 @@ public class StatelessSpspReceiverLinkTest {
     verifyZeroInteractions(streamReceiverMock);
   }
 
+  @Test
+  public void sendPacketAsyncCompletesImmediately() {
+    final InterledgerFulfillPacket actualFulfillPacket = InterledgerFulfillPacket.builder()
+      .fulfillment(ALL_ZEROS_FULFILLMENT)
+      .build();
+    when(streamReceiverMock.receiveMoney(any(), any(), any())).thenReturn(actualFulfillPacket);
+
+    final CompletableFuture<InterledgerResponsePacket> future = link.sendPacketAsync(preparePacket());
+
+    assertThat(future).isCompletedWithValue(actualFulfillPacket);
+  }
+
+  @Test
+  public void sendPacketAsyncWithReceiverErrorCompletesExceptionally() {
+    when(streamReceiverMock.receiveMoney(any(), any(), any())).thenThrow(new IllegalStateException("boom"));
+
+    final CompletableFuture<InterledgerResponsePacket> future = link.sendPacketAsync(preparePacket());
+
+    assertThat(future).isCompletedExceptionally();
+  }
+
   private InterledgerPreparePacket preparePacket() {
     return InterledgerPreparePacket.builder()
       .amount(UnsignedLong.valueOf(10L))
@@ -10,6 +10,7 @@ import org.interledger.core.InterledgerResponsePacket;
 import org.interledger.core.SharedSecret;
 import org.interledger.fx.Denomination;
 import org.interledger.stream.connection.StreamConnection;
+import org.interledger.stream.crypto.CryptoPrimitives;
 import org.interledger.stream.crypto.Random;
 import org.interledger.stream.crypto.StreamEncryptionUtils;
 import org.interledger.stream.crypto.StreamPacketEncryptionService;
@@ -24,12 +25,10 @@ import org.interledger.stream.frames.StreamFrameType;
 import org.interledger.stream.frames.StreamMoneyMaxFrame;
 
 import com.google.common.collect.Sets;
-import com.google.common.hash.Hashing;
 import com.google.common.primitives.UnsignedLong;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.Collection;
 import java.util.Objects;
@@ -37,9 +36,6 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
-import javax.crypto.SecretKey;
-import javax.crypto.spec.SecretKeySpec;
-
 /**
  * Utilities for helping interact with Stream packets.
  */
@@ -56,17 +52,6 @@ public class StreamPacketUtils {
     StreamFrameType.StreamClose
   );
 
-  /**
-   * The string "ilp_stream_fulfillment" is encoded as UTF-8 or ASCII (the byte representation is the same with both
-   * encodings).
-   */
-  private static final byte[] ILP_STREAM_FULFILLMENT = "ilp_stream_fulfillment".getBytes(StandardCharsets.UTF_8);
-
-  /**
-   * The algorithm name for STREAM HMAC operations.
-   */
-  private static final String HMAC_SHA256_ALG_NAME = "HmacSHA256";
-
   /**
    * The default STREAM id.
    */
@@ -119,13 +104,9 @@ public class StreamPacketUtils {
     Objects.requireNonNull(sharedSecret);
     Objects.requireNonNull(data);
 
-    // hmac_key = hmac_sha256(shared_secret, "ilp_stream_fulfillment");
-    final SecretKey secretKey = new SecretKeySpec(sharedSecret.key(), HMAC_SHA256_ALG_NAME);
-    final byte[] hmacKey = Hashing.hmacSha256(secretKey).hashBytes(ILP_STREAM_FULFILLMENT).asBytes();
-
+    // hmac_key = hmac_sha256(shared_secret, "ilp_stream_fulfillment"), which is cached by the shared secret.
     // fulfillment = hmac_sha256(hmac_key, data);
-    final SecretKey hmacSecretKey = new SecretKeySpec(hmacKey, HMAC_SHA256_ALG_NAME);
-    final byte[] fulfillmentBytes = Hashing.hmacSha256(hmacSecretKey).hashBytes(data).asBytes();
+    final byte[] fulfillmentBytes = CryptoPrimitives.hmacSha256(sharedSecret.fulfillmentKey(), data);
 
     return InterledgerFulfillment.of(fulfillmentBytes);
   }
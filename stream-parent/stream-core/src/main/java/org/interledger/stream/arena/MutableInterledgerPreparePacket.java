@@ -0,0 +1,128 @@
+package org.interledger.stream.arena;
+
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerCondition;
+import org.interledger.core.InterledgerPreparePacket;
+
+import com.google.common.primitives.UnsignedLong;
+
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * <p>A mutable, recyclable implementation of {@link InterledgerPreparePacket} that is owned by a {@link PacketArena}.
+ * Instances can be written by any codec registered for {@link InterledgerPreparePacket}.</p>
+ *
+ * <p>Unlike the immutable variant, {@link #getData()} returns the backing array without copying it, and this class
+ * uses identity equality. Instances MUST NOT be retained beyond the {@link PacketArena.Scope} they were obtained in;
+ * use {@link #toImmutable()} to obtain a copy that outlives the scope.</p>
+ */
+public final class MutableInterledgerPreparePacket implements InterledgerPreparePacket, Recyclable {
+
+  private static final byte[] EMPTY_DATA = new byte[0];
+
+  private UnsignedLong amount;
+  private Instant expiresAt;
+  private InterledgerCondition executionCondition;
+  private InterledgerAddress destination;
+  private byte[] data;
+  private Optional<Object> typedData;
+
+  MutableInterledgerPreparePacket() {
+    this.reset();
+  }
+
+  @Override
+  public UnsignedLong getAmount() {
+    return amount;
+  }
+
+  public MutableInterledgerPreparePacket amount(final UnsignedLong amount) {
+    this.amount = Objects.requireNonNull(amount, "amount must not be null");
+    return this;
+  }
+
+  @Override
+  public Instant getExpiresAt() {
+    return expiresAt;
+  }
+
+  public MutableInterledgerPreparePacket expiresAt(final Instant expiresAt) {
+    this.expiresAt = Objects.requireNonNull(expiresAt, "expiresAt must not be null");
+    return this;
+  }
+
+  @Override
+  public InterledgerCondition getExecutionCondition() {
+    return executionCondition;
+  }
+
+  public MutableInterledgerPreparePacket executionCondition(final InterledgerCondition executionCondition) {
+    this.executionCondition = Objects.requireNonNull(executionCondition, "executionCondition must not be null");
+    return this;
+  }
+
+  @Override
+  public InterledgerAddress getDestination() {
+    return destination;
+  }
+
+  public MutableInterledgerPreparePacket destination(final InterledgerAddress destination) {
+    this.destination = Objects.requireNonNull(destination, "destination must not be null");
+    return this;
+  }
+
+  @Override
+  public byte[] getData() {
+    return data;
+  }
+
+  public MutableInterledgerPreparePacket data(final byte[] data) {
+    this.data = Objects.requireNonNull(data, "data must not be null");
+    return this;
+  }
+
+  @Override
+  public Optional<Object> typedData() {
+    return typedData;
+  }
+
+  public MutableInterledgerPreparePacket typedData(final Object typedData) {
+    this.typedData = Optional.of(typedData);
+    return this;
+  }
+
+  /**
+   * Copy the current state of this packet into an immutable {@link InterledgerPreparePacket} that may be retained
+   * after the owning scope is closed.
+   *
+   * @return An immutable {@link InterledgerPreparePacket}.
+   */
+  public InterledgerPreparePacket toImmutable() {
+    return InterledgerPreparePacket.builder().from(this).build();
+  }
+
+  @Override
+  public void reset() {
+    this.amount = UnsignedLong.ZERO;
+    this.expiresAt = null;
+    this.executionCondition = null;
+    this.destination = null;
+    this.data = EMPTY_DATA;
+    this.typedData = Optional.empty();
+  }
+
+  @Override
+  public String toString() {
+    return "MutableInterledgerPreparePacket{"
+        + "amount=" + getAmount()
+        + ", expiresAt=" + getExpiresAt()
+        + ", executionCondition=" + getExecutionCondition()
+        + ", destination=" + getDestination()
+        + ", data=" + Base64.getEncoder().encodeToString(getData())
+        + ", typedData=" + typedData().orElse("n/a")
+        + "}";
+  }
+}
@@ -0,0 +1,64 @@
+package org.interledger.stream.arena;
+
+import org.interledger.stream.frames.StreamMoneyFrame;
+
+import com.google.common.primitives.UnsignedLong;
+
+import java.util.Objects;
+
+/**
+ * A mutable, recyclable implementation of {@link StreamMoneyFrame} that is owned by a {@link PacketArena}. Instances
+ * use identity equality and MUST NOT be retained beyond the {@link PacketArena.Scope} they were obtained in.
+ */
+public final class MutableStreamMoneyFrame implements StreamMoneyFrame, Recyclable {
+
+  private UnsignedLong streamId;
+  private UnsignedLong shares;
+
+  MutableStreamMoneyFrame() {
+    this.reset();
+  }
+
+  @Override
+  public UnsignedLong streamId() {
+    return streamId;
+  }
+
+  public MutableStreamMoneyFrame streamId(final UnsignedLong streamId) {
+    this.streamId = Objects.requireNonNull(streamId, "streamId must not be null");
+    return this;
+  }
+
+  @Override
+  public UnsignedLong shares() {
+    return shares;
+  }
+
+  public MutableStreamMoneyFrame shares(final UnsignedLong shares) {
+    this.shares = Objects.requireNonNull(shares, "shares must not be null");
+    return this;
+  }
+
+  /**
+   * Copy the current state of this frame into an immutable {@link StreamMoneyFrame}.
+   *
+   * @return An immutable {@link StreamMoneyFrame}.
+   */
+  public StreamMoneyFrame toImmutable() {
+    return StreamMoneyFrame.builder().from(this).build();
+  }
+
+  @Override
+  public void reset() {
+    this.streamId = null;
+    this.shares = null;
+  }
+
+  @Override
+  public String toString() {
+    return "MutableStreamMoneyFrame{"
+        + "streamId=" + streamId
+        + ", shares=" + shares
+        + "}";
+  }
+}
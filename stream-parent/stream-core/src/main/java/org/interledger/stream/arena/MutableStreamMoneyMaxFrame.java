@@ -0,0 +1,77 @@
+package org.interledger.stream.arena;
+
+import org.interledger.stream.frames.StreamMoneyMaxFrame;
+
+import com.google.common.primitives.UnsignedLong;
+
+import java.util.Objects;
+
+/**
+ * A mutable, recyclable implementation of {@link StreamMoneyMaxFrame} that is owned by a {@link PacketArena}.
+ * Instances use identity equality and MUST NOT be retained beyond the {@link PacketArena.Scope} they were obtained in.
+ */
+public final class MutableStreamMoneyMaxFrame implements StreamMoneyMaxFrame, Recyclable {
+
+  private UnsignedLong streamId;
+  private UnsignedLong receiveMax;
+  private UnsignedLong totalReceived;
+
+  MutableStreamMoneyMaxFrame() {
+    this.reset();
+  }
+
+  @Override
+  public UnsignedLong streamId() {
+    return streamId;
+  }
+
+  public MutableStreamMoneyMaxFrame streamId(final UnsignedLong streamId) {
+    this.streamId = Objects.requireNonNull(streamId, "streamId must not be null");
+    return this;
+  }
+
+  @Override
+  public UnsignedLong receiveMax() {
+    return receiveMax;
+  }
+
+  public MutableStreamMoneyMaxFrame receiveMax(final UnsignedLong receiveMax) {
+    this.receiveMax = Objects.requireNonNull(receiveMax, "receiveMax must not be null");
+    return this;
+  }
+
+  @Override
+  public UnsignedLong totalReceived() {
+    return totalReceived;
+  }
+
+  public MutableStreamMoneyMaxFrame totalReceived(final UnsignedLong totalReceived) {
+    this.totalReceived = Objects.requireNonNull(totalReceived, "totalReceived must not be null");
+    return this;
+  }
+
+  /**
+   * Copy the current state of this frame into an immutable {@link StreamMoneyMaxFrame}.
+   *
+   * @return An immutable {@link StreamMoneyMaxFrame}.
+   */
+  public StreamMoneyMaxFrame toImmutable() {
+    return StreamMoneyMaxFrame.builder().from(this).build();
+  }
+
+  @Override
+  public void reset() {
+    this.streamId = null;
+    this.receiveMax = null;
+    this.totalReceived = UnsignedLong.ZERO;
+  }
+
+  @Override
+  public String toString() {
+    return "MutableStreamMoneyMaxFrame{"
+        + "streamId=" + streamId
+        + ", receiveMax=" + receiveMax
+        + ", totalReceived=" + totalReceived
+        + "}";
+  }
+}
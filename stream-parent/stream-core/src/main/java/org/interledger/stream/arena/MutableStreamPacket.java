@@ -0,0 +1,133 @@
+package org.interledger.stream.arena;
+
+import org.interledger.core.InterledgerPacketType;
+import org.interledger.core.SharedSecret;
+import org.interledger.stream.StreamPacket;
+import org.interledger.stream.StreamPacketBuilder;
+import org.interledger.stream.frames.StreamFrame;
+
+import com.google.common.primitives.UnsignedLong;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * <p>A mutable, recyclable implementation of {@link StreamPacket} that is owned by a {@link PacketArena}. Instances
+ * can be written by any codec registered for {@link StreamPacket}.</p>
+ *
+ * <p>The list returned by {@link #frames()} is a read-only view over a reusable backing list, and this class uses
+ * identity equality. Instances MUST NOT be retained beyond the {@link PacketArena.Scope} they were obtained in; use
+ * {@link #toImmutable()} to obtain a copy that outlives the scope.</p>
+ */
+public final class MutableStreamPacket implements StreamPacket, Recyclable {
+
+  private final List<StreamFrame> frames;
+  private final List<StreamFrame> framesView;
+
+  private InterledgerPacketType interledgerPacketType;
+  private UnsignedLong sequence;
+  private UnsignedLong prepareAmount;
+  private Optional<SharedSecret> sharedSecret;
+
+  MutableStreamPacket() {
+    this.frames = new ArrayList<>();
+    this.framesView = Collections.unmodifiableList(frames);
+    this.reset();
+  }
+
+  @Override
+  public InterledgerPacketType interledgerPacketType() {
+    return interledgerPacketType;
+  }
+
+  public MutableStreamPacket interledgerPacketType(final InterledgerPacketType interledgerPacketType) {
+    this.interledgerPacketType = Objects.requireNonNull(interledgerPacketType, "interledgerPacketType must not be null");
+    return this;
+  }
+
+  @Override
+  public UnsignedLong sequence() {
+    return sequence;
+  }
+
+  public MutableStreamPacket sequence(final UnsignedLong sequence) {
+    this.sequence = Objects.requireNonNull(sequence, "sequence must not be null");
+    return this;
+  }
+
+  @Override
+  public UnsignedLong prepareAmount() {
+    return prepareAmount;
+  }
+
+  public MutableStreamPacket prepareAmount(final UnsignedLong prepareAmount) {
+    this.prepareAmount = Objects.requireNonNull(prepareAmount, "prepareAmount must not be null");
+    return this;
+  }
+
+  @Override
+  public List<StreamFrame> frames() {
+    return framesView;
+  }
+
+  public MutableStreamPacket addFrame(final StreamFrame frame) {
+    this.frames.add(Objects.requireNonNull(frame, "frame must not be null"));
+    return this;
+  }
+
+  @Override
+  public Optional<SharedSecret> sharedSecret() {
+    return sharedSecret;
+  }
+
+  public MutableStreamPacket sharedSecret(final SharedSecret sharedSecret) {
+    this.sharedSecret = Optional.of(sharedSecret);
+    return this;
+  }
+
+  /**
+   * Copy the current state of this packet, including any arena-owned frames, into an immutable {@link StreamPacket}
+   * that may be retained after the owning scope is closed.
+   *
+   * @return An immutable {@link StreamPacket}.
+   */
+  public StreamPacket toImmutable() {
+    final StreamPacketBuilder builder = StreamPacket.builder()
+        .interledgerPacketType(interledgerPacketType)
+        .sequence(sequence)
+        .prepareAmount(prepareAmount)
+        .sharedSecret(sharedSecret);
+    for (final StreamFrame frame : frames) {
+      if (frame instanceof MutableStreamMoneyFrame) {
+        builder.addFrames(((MutableStreamMoneyFrame) frame).toImmutable());
+      } else if (frame instanceof MutableStreamMoneyMaxFrame) {
+        builder.addFrames(((MutableStreamMoneyMaxFrame) frame).toImmutable());
+      } else {
+        builder.addFrames(frame);
+      }
+    }
+    return builder.build();
+  }
+
+  @Override
+  public void reset() {
+    this.interledgerPacketType = null;
+    this.sequence = null;
+    this.prepareAmount = null;
+    this.frames.clear();
+    this.sharedSecret = Optional.empty();
+  }
+
+  @Override
+  public String toString() {
+    return "MutableStreamPacket{"
+        + "interledgerPacketType=" + interledgerPacketType
+        + ", sequence=" + sequence
+        + ", prepareAmount=" + prepareAmount
+        + ", frames=" + frames
+        + "}";
+  }
+}
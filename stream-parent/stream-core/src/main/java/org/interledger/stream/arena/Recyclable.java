@@ -0,0 +1,13 @@
+package org.interledger.stream.arena;
+
+/**
+ * A mutable object owned by a {@link PacketArena} that can be returned to its initial state and handed out again.
+ */
+interface Recyclable {
+
+  /**
+   * Clear every field of this object so that no state from a previous use leaks into the next one.
+   */
+  void reset();
+
+}
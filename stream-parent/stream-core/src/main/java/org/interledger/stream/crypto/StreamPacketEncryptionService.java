@@ -7,6 +7,7 @@ import org.interledger.stream.StreamPacket;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Objects;
 
 /**
@@ -46,10 +47,13 @@ public class StreamPacketEncryptionService {
     Objects.requireNonNull(streamPacket);
 
     try {
-      final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+      final ExposedByteArrayOutputStream baos = new ExposedByteArrayOutputStream();
       streamCodecContext.write(streamPacket, baos);
-      final byte[] streamPacketBytes = baos.toByteArray();
-      return streamSharedSecretCrypto.encrypt(streamSharedSecret, streamPacketBytes);
+
+      // Encrypt straight out of the encoder's buffer into an exactly-sized cipher message.
+      final byte[] cipherMessage = new byte[baos.size() + StreamSharedSecretCrypto.ENCRYPTION_OVERHEAD_BYTES];
+      streamSharedSecretCrypto.encrypt(streamSharedSecret, baos.asByteBuffer(), ByteBuffer.wrap(cipherMessage));
+      return cipherMessage;
     } catch (IOException e) {
       throw new StreamException(e.getMessage(), e);
     }
@@ -93,10 +97,16 @@ public class StreamPacketEncryptionService {
     Objects.requireNonNull(streamSharedSecret);
     Objects.requireNonNull(encryptedStreamPacketBytes);
 
-    final byte[] streamPacketBytes = this.streamSharedSecretCrypto
-      .decrypt(streamSharedSecret, encryptedStreamPacketBytes);
+    final byte[] streamPacketBytes = new byte[
+      Math.max(0, encryptedStreamPacketBytes.length - StreamSharedSecretCrypto.ENCRYPTION_OVERHEAD_BYTES)
+    ];
+    final int streamPacketLength = this.streamSharedSecretCrypto.decrypt(
+      streamSharedSecret, ByteBuffer.wrap(encryptedStreamPacketBytes), ByteBuffer.wrap(streamPacketBytes)
+    );
     try {
-      return streamCodecContext.read(StreamPacket.class, new ByteArrayInputStream(streamPacketBytes));
+      return streamCodecContext.read(
+        StreamPacket.class, new ByteArrayInputStream(streamPacketBytes, 0, streamPacketLength)
+      );
     } catch (IOException e) {
       throw new StreamException(e.getMessage(), e);
     }
@@ -124,4 +134,14 @@ public class StreamPacketEncryptionService {
   ) {
     return fromEncrypted(StreamSharedSecret.of(sharedSecret.key()), encryptedStreamPacketBytes);
   }
-}
\ No newline at end of file
+
+  /**
+   * A {@link ByteArrayOutputStream} whose written bytes can be read without the copy made by {@link #toByteArray()}.
+   */
+  private static final class ExposedByteArrayOutputStream extends ByteArrayOutputStream {
+
+    private ByteBuffer asByteBuffer() {
+      return ByteBuffer.wrap(buf, 0, count);
+    }
+  }
+}
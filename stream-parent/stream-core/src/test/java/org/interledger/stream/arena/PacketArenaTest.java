@@ -0,0 +1,120 @@
+package org.interledger.stream.arena;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.interledger.core.InterledgerPacketType;
+
+import com.google.common.primitives.UnsignedLong;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Unit tests for {@link PacketArena}.
+ */
+public class PacketArenaTest {
+
+  private PacketArena arena;
+
+  @Before
+  public void setUp() {
+    this.arena = new PacketArena();
+  }
+
+  @Test
+  public void forCurrentThreadReturnsSameArena() {
+    assertThat(PacketArena.forCurrentThread()).isSameAs(PacketArena.forCurrentThread());
+  }
+
+  @Test
+  public void acquireOutsideOfScope() {
+    assertThatThrownBy(() -> arena.preparePacket())
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("Arena objects may only be acquired inside of an open Scope");
+  }
+
+  @Test
+  public void acquireFromOtherThread() throws InterruptedException {
+    try (PacketArena.Scope scope = arena.openScope()) {
+      final CompletableFuture<Object> future = CompletableFuture.supplyAsync(arena::streamPacket);
+      assertThatThrownBy(future::get)
+          .isInstanceOf(ExecutionException.class)
+          .hasCauseInstanceOf(IllegalStateException.class);
+    }
+  }
+
+  @Test
+  public void objectsAreRecycledWhenScopeCloses() {
+    final MutableStreamPacket firstStreamPacket;
+    final MutableStreamMoneyFrame firstFrame;
+    try (PacketArena.Scope scope = arena.openScope()) {
+      firstFrame = arena.streamMoneyFrame().streamId(UnsignedLong.ONE).shares(UnsignedLong.ONE);
+      firstStreamPacket = arena.streamPacket()
+          .interledgerPacketType(InterledgerPacketType.PREPARE)
+          .sequence(UnsignedLong.ONE)
+          .prepareAmount(UnsignedLong.valueOf(10))
+          .addFrame(firstFrame);
+      assertThat(firstStreamPacket.frames()).containsExactly(firstFrame);
+    }
+
+    // Recycled objects are cleared.
+    assertThat(firstStreamPacket.sequence()).isNull();
+    assertThat(firstStreamPacket.frames()).isEmpty();
+    assertThat(firstFrame.streamId()).isNull();
+
+    try (PacketArena.Scope scope = arena.openScope()) {
+      assertThat(arena.streamPacket()).isSameAs(firstStreamPacket);
+      assertThat(arena.streamMoneyFrame()).isSameAs(firstFrame);
+      // The pool grows on demand.
+      assertThat(arena.streamMoneyFrame()).isNotSameAs(firstFrame);
+    }
+  }
+
+  @Test
+  public void nestedScopes() {
+    try (PacketArena.Scope outer = arena.openScope()) {
+      final MutableStreamMoneyMaxFrame outerFrame = arena.streamMoneyMaxFrame()
+          .streamId(UnsignedLong.ONE)
+          .receiveMax(UnsignedLong.MAX_VALUE);
+      final MutableStreamMoneyMaxFrame innerFrame;
+      try (PacketArena.Scope inner = arena.openScope()) {
+        innerFrame = arena.streamMoneyMaxFrame().streamId(UnsignedLong.valueOf(2));
+      }
+      assertThat(innerFrame.streamId()).isNull();
+      assertThat(outerFrame.streamId()).isEqualTo(UnsignedLong.ONE);
+      assertThat(outerFrame.totalReceived()).isEqualTo(UnsignedLong.ZERO);
+      assertThat(arena.streamMoneyMaxFrame()).isSameAs(innerFrame);
+    }
+  }
+
+  @Test
+  public void closingScopesOutOfOrder() {
+    final PacketArena.Scope outer = arena.openScope();
+    final PacketArena.Scope inner = arena.openScope();
+    assertThatThrownBy(outer::close)
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("Scopes must be closed in the reverse order in which they were opened");
+    inner.close();
+    outer.close();
+    // Closing twice is a no-op.
+    outer.close();
+  }
+
+  @Test
+  public void preparePacketDefaults() {
+    try (PacketArena.Scope scope = arena.openScope()) {
+      final MutableInterledgerPreparePacket preparePacket = arena.preparePacket();
+      assertThat(preparePacket.getAmount()).isEqualTo(UnsignedLong.ZERO);
+      assertThat(preparePacket.getData()).isEmpty();
+      assertThat(preparePacket.typedData()).isEmpty();
+
+      preparePacket.amount(UnsignedLong.ONE).data(new byte[] {1, 2, 3}).typedData("foo");
+      assertThat(preparePacket.getAmount()).isEqualTo(UnsignedLong.ONE);
+      assertThat(preparePacket.getData()).containsExactly(1, 2, 3);
+      assertThat(preparePacket.typedData()).contains("foo");
+    }
+  }
+}
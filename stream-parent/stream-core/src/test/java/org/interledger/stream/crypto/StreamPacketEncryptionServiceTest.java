@@ -15,6 +15,7 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 /**
  * Unit tests for {@link StreamPacketEncryptionService}.
@@ -42,7 +43,7 @@ public class StreamPacketEncryptionServiceTest {
     streamPacketEncryptionService.toEncrypted(StreamSharedSecret.of(new byte[32]), mock(StreamPacket.class));
 
     verify(streamCodecContextMock).write(any(), any());
-    verify(streamSharedSecretCryptoMock).encrypt(any(), any());
+    verify(streamSharedSecretCryptoMock).encrypt(any(), any(ByteBuffer.class), any(ByteBuffer.class));
 
     verifyNoMoreInteractions(streamCodecContextMock);
     verifyNoMoreInteractions(streamSharedSecretCryptoMock);
@@ -50,11 +51,11 @@ public class StreamPacketEncryptionServiceTest {
 
   @Test
   public void fromEncrypted() throws IOException {
-    when(streamSharedSecretCryptoMock.decrypt(any(), any())).thenReturn(new byte[32]);
+    when(streamSharedSecretCryptoMock.decrypt(any(), any(ByteBuffer.class), any(ByteBuffer.class))).thenReturn(4);
     streamPacketEncryptionService.fromEncrypted(StreamSharedSecret.of(new byte[32]), new byte[32]);
 
     verify(streamCodecContextMock).read(any(), any());
-    verify(streamSharedSecretCryptoMock).decrypt(any(), any());
+    verify(streamSharedSecretCryptoMock).decrypt(any(), any(ByteBuffer.class), any(ByteBuffer.class));
 
     verifyNoMoreInteractions(streamCodecContextMock);
     verifyNoMoreInteractions(streamSharedSecretCryptoMock);
@@ -2,29 +2,25 @@ package org.interledger.stream.crypto;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
-import com.google.common.hash.Hashing;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.nio.ByteBuffer;
-import java.nio.charset.StandardCharsets;
-import java.security.InvalidAlgorithmParameterException;
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
+import java.security.GeneralSecurityException;
 import java.util.Arrays;
 import java.util.Objects;
 import java.util.StringJoiner;
 
-import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
-import javax.crypto.IllegalBlockSizeException;
-import javax.crypto.NoSuchPaddingException;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.GCMParameterSpec;
-import javax.crypto.spec.SecretKeySpec;
 
 /**
- * An {@link StreamSharedSecretCrypto} that uses a JavaKeystore for underlying key storage.
+ * <p>An {@link StreamSharedSecretCrypto} that uses a JavaKeystore for underlying key storage.</p>
+ *
+ * <p>All operations are implemented on top of {@link ByteBuffer}s using {@link Cipher#update(ByteBuffer, ByteBuffer)}
+ * and {@link Cipher#doFinal(ByteBuffer, ByteBuffer)}, writing the nonce, authentication tag and ciphertext directly into
+ * the destination buffer. The byte-array variants simply allocate the exactly-sized output array and delegate.</p>
  */
 public class AesGcmStreamSharedSecretCrypto implements StreamSharedSecretCrypto {
 
@@ -37,10 +33,18 @@ public class AesGcmStreamSharedSecretCrypto implements StreamSharedSecretCrypto
   @VisibleForTesting
   static final int AES_GCM_NONCE_IV_LENGTH = 12;
 
-  private static final String CIPHER_ALGO = "AES/GCM/NoPadding";
-  private static final byte[] ENCRYPTION_KEY_STRING = "ilp_stream_encryption".getBytes(StandardCharsets.US_ASCII);
   private static final int AUTH_TAG_LENGTH_BITS = 128;
   private static final int AUTH_TAG_LENGTH_BYTES = AUTH_TAG_LENGTH_BITS / 8;
+
+  private static final ByteBuffer EMPTY_BUFFER = ByteBuffer.allocate(0).asReadOnlyBuffer();
+
+  /**
+   * Holds the trailing output of a non-standard-mode encryption (any ciphertext the Cipher buffered internally, plus the
+   * authentication tag) so that the tag can be moved to the front of the message without shifting the ciphertext.
+   */
+  private static final ThreadLocal<ByteBuffer> localTailBuffer =
+    ThreadLocal.withInitial(() -> ByteBuffer.allocate(4 * AUTH_TAG_LENGTH_BYTES));
+
   private final EncryptionMode encryptionMode;
   private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
@@ -72,9 +76,28 @@ public class AesGcmStreamSharedSecretCrypto implements StreamSharedSecretCrypto
     // https://nvlpubs.nist.gov/nistpubs/Legacy/SP/nistspecialpublication800-38d.pdf
     final byte[] iv = Random.randBytes(AES_GCM_NONCE_IV_LENGTH);
 
-    return encryptWithIv(streamSharedSecret, plainText, iv);
+    final byte[] cipherMessage = new byte[plainText.length + ENCRYPTION_OVERHEAD_BYTES];
+    encryptWithIv(streamSharedSecret, ByteBuffer.wrap(plainText), ByteBuffer.wrap(cipherMessage), iv, true);
+    return cipherMessage;
   }
 
+  @Override
+  public int encrypt(
+    final StreamSharedSecret streamSharedSecret, final ByteBuffer plainText, final ByteBuffer cipherMessage
+  ) {
+    Objects.requireNonNull(streamSharedSecret);
+    Objects.requireNonNull(plainText);
+    Objects.requireNonNull(cipherMessage);
+
+    final byte[] iv = Random.randBytes(AES_GCM_NONCE_IV_LENGTH);
+    return encryptWithIv(streamSharedSecret, plainText, cipherMessage, iv, true);
+  }
+
+  /**
+   * Encrypt with a caller-supplied IV, e.g. a fixed IV in tests. A GCM {@link Cipher} refuses to be re-initialized for
+   * encryption with the key and IV it was last initialized with, so this uses its own unshared {@link Cipher} rather
+   * than the one bound to the calling thread.
+   */
   @VisibleForTesting
   byte[] encryptWithIv(final StreamSharedSecret streamSharedSecret, final byte[] plainText, final byte[] iv)
     throws EncryptionException {
@@ -82,10 +105,37 @@ public class AesGcmStreamSharedSecretCrypto implements StreamSharedSecretCrypto
     Objects.requireNonNull(plainText);
     Objects.requireNonNull(iv);
 
-    if (this.encryptionMode == EncryptionMode.ENCRYPT_NON_STANDARD) {
-      return this.nonStandardModeEncryptWithIv(streamSharedSecret, plainText, iv);
-    } else {
-      return this.standardModeEncryptWithIv(streamSharedSecret, plainText, iv);
+    final byte[] cipherMessage = new byte[plainText.length + ENCRYPTION_OVERHEAD_BYTES];
+    encryptWithIv(streamSharedSecret, ByteBuffer.wrap(plainText), ByteBuffer.wrap(cipherMessage), iv, false);
+    return cipherMessage;
+  }
+
+  private int encryptWithIv(
+    final StreamSharedSecret streamSharedSecret, final ByteBuffer plainText, final ByteBuffer cipherMessage,
+    final byte[] iv, final boolean sharedCipher
+  ) throws EncryptionException {
+    Preconditions.checkArgument(iv.length == AES_GCM_NONCE_IV_LENGTH);
+
+    final int cipherMessageLength = plainText.remaining() + ENCRYPTION_OVERHEAD_BYTES;
+    if (cipherMessage.remaining() < cipherMessageLength) {
+      throw new EncryptionException(String.format(
+        "Unable to Encrypt: cipherMessage buffer too small (required=%s remaining=%s)",
+        cipherMessageLength, cipherMessage.remaining()
+      ));
+    }
+
+    try {
+      if (this.encryptionMode == EncryptionMode.ENCRYPT_NON_STANDARD) {
+        this.nonStandardModeEncryptWithIv(streamSharedSecret, plainText, cipherMessage, iv, sharedCipher);
+      } else {
+        this.standardModeEncryptWithIv(streamSharedSecret, plainText, cipherMessage, iv, sharedCipher);
+      }
+      return cipherMessageLength;
+    } finally {
+      // It is best practice to try to wipe sensible data like a cryptographic key or IV from memory as fast as
+      // possible. Since Java is a language with automatic memory management, we don’t have any guarantees that the
+      // following works as intended, but it should in most cases
+      Arrays.fill(iv, (byte) 0); //overwrite the content of key with zeros
     }
   }
 
@@ -94,53 +144,30 @@ public class AesGcmStreamSharedSecretCrypto implements StreamSharedSecretCrypto
    * AuthTag goes last, as specified by NIST.</p>
    *
    * @param streamSharedSecret A {@link StreamSharedSecret} used for encryption.
-   * @param plainText          A byte-array to encrypt.
+   * @param plainText          A {@link ByteBuffer} to encrypt.
+   * @param cipherMessage      A {@link ByteBuffer} that will receive the iv plus ciphertext plus AuthTag.
    * @param iv                 An initialization vector used AES/GCM.
-   *
-   * @return A byte-array containing encrypted cipherMessage, which consists of the iv plus ciphertext (note this is
-   *   inverted from the NIST specification).
+   * @param sharedCipher       {@code true} to use the {@link Cipher} bound to the calling thread.
    *
    * @see "https://nvlpubs.nist.gov/nistpubs/Legacy/SP/nistspecialpublication800-38d.pdf"
    */
-  private byte[] standardModeEncryptWithIv(
-    final StreamSharedSecret streamSharedSecret, final byte[] plainText, final byte[] iv
+  private void standardModeEncryptWithIv(
+    final StreamSharedSecret streamSharedSecret, final ByteBuffer plainText, final ByteBuffer cipherMessage,
+    final byte[] iv, final boolean sharedCipher
   ) throws EncryptionException {
-    Objects.requireNonNull(plainText);
-    Preconditions.checkArgument(iv.length == AES_GCM_NONCE_IV_LENGTH);
-
-    byte[] encryptionKey = Hashing.hmacSha256(streamSharedSecret.key()).hashBytes(ENCRYPTION_KEY_STRING).asBytes();
-    final SecretKey typedEncryptionKey = new SecretKeySpec(encryptionKey, "AES");
+    final SecretKey typedEncryptionKey = streamSharedSecret.encryptionKey();
 
     // See https://proandroiddev.com/security-best-practices-symmetric-encryption-with-aes-in-java-7616beaaade9
     try {
-      final Cipher cipher = Cipher.getInstance(CIPHER_ALGO);
       // 128 is the recommended authentication tag length for GCM. More info can be found in pdf mentioned above.
       // After each encryption operation using GCM mode, callers should re-initialize the cipher objects with GCM
       // parameters using a different IV value.
-      final GCMParameterSpec parameterSpec = new GCMParameterSpec(AUTH_TAG_LENGTH_BITS, iv);
-      cipher.init(Cipher.ENCRYPT_MODE, typedEncryptionKey, parameterSpec);
-      byte[] cipherText = cipher.doFinal(plainText);
-
-      // Concatenate to a single message
-      final ByteBuffer cipherMessageByteBuffer = ByteBuffer.allocate(iv.length + cipherText.length);
-      cipherMessageByteBuffer.put(iv);
-      cipherMessageByteBuffer.put(cipherText);
-      final byte[] cipherMessage = cipherMessageByteBuffer.array();
-
-      // It is best practice to try to wipe sensible data like a cryptographic key or IV from memory as fast as
-      // possible. Since Java is a language with automatic memory management, we don’t have any guarantees that the
-      // following works as intended, but it should in most cases
-      Arrays.fill(iv, (byte) 0); //overwrite the content of key with zeros
-      Arrays.fill(encryptionKey, (byte) 0);
-
-      return cipherMessage;
-    } catch (NoSuchAlgorithmException
-      | NoSuchPaddingException
-      | InvalidAlgorithmParameterException
-      | InvalidKeyException
-      | BadPaddingException
-      | IllegalBlockSizeException e
-    ) {
+      final Cipher cipher = sharedCipher
+        ? this.initCipher(Cipher.ENCRYPT_MODE, typedEncryptionKey, iv)
+        : this.initCipher(CryptoPrimitives.newAesGcmCipher(), Cipher.ENCRYPT_MODE, typedEncryptionKey, iv);
+      cipherMessage.put(iv);
+      cipher.doFinal(plainText, cipherMessage);
+    } catch (GeneralSecurityException e) {
       throw new EncryptionException("Unable to Encrypt: ", e);
     }
   }
@@ -154,67 +181,58 @@ public class AesGcmStreamSharedSecretCrypto implements StreamSharedSecretCrypto
    * isn't technically broken, and  works as long as everyone uses the same arrangement when encrypting/decrypting,
    * which is the case in most Interledger deployments.</p>
    *
+   * <p>The ciphertext is written directly after the space reserved for the AuthTag. Only the bytes emitted by the
+   * final {@link Cipher#doFinal(ByteBuffer, ByteBuffer)} call (the AuthTag plus any partial block the Cipher buffered)
+   * pass through a small per-thread buffer, so no copy proportional to the message size is made.</p>
+   *
    * @param streamSharedSecret A {@link StreamSharedSecret} used for encryption.
-   * @param plainText          A byte-array to encrypt.
+   * @param plainText          A {@link ByteBuffer} to encrypt.
+   * @param cipherMessage      A {@link ByteBuffer} that will receive the iv plus AuthTag plus ciphertext (note this is
+   *                           inverted from the NIST specification).
    * @param iv                 An initialization vector used AES/GCM.
-   *
-   * @return A byte-array containing encrypted cipherMessage, which consists of the iv plus ciphertext (note this is
-   *   inverted from the NIST specification).
+   * @param sharedCipher       {@code true} to use the {@link Cipher} bound to the calling thread.
    *
    * @see "https://github.com/hyperledger/quilt/issues/237"
-   * @deprecated This method will be removed in a future version. Prefer {@link #standardModeEncryptWithIv(StreamSharedSecret,
-   *   byte[], byte[])} instead.
+   * @deprecated This method will be removed in a future version. Prefer {@link #standardModeEncryptWithIv(
+   *   StreamSharedSecret, ByteBuffer, ByteBuffer, byte[])} instead.
    */
   @Deprecated
-  private byte[] nonStandardModeEncryptWithIv(
-    final StreamSharedSecret streamSharedSecret, final byte[] plainText, final byte[] iv
+  private void nonStandardModeEncryptWithIv(
+    final StreamSharedSecret streamSharedSecret, final ByteBuffer plainText, final ByteBuffer cipherMessage,
+    final byte[] iv, final boolean sharedCipher
   ) throws EncryptionException {
-    Objects.requireNonNull(plainText);
-    Preconditions.checkArgument(iv.length == AES_GCM_NONCE_IV_LENGTH);
-
-    byte[] encryptionKey = Hashing.hmacSha256(streamSharedSecret.key()).hashBytes(ENCRYPTION_KEY_STRING).asBytes();
-    final SecretKey typedEncryptionKey = new SecretKeySpec(encryptionKey, "AES");
+    final SecretKey typedEncryptionKey = streamSharedSecret.encryptionKey();
 
     // See https://proandroiddev.com/security-best-practices-symmetric-encryption-with-aes-in-java-7616beaaade9
     try {
-      final Cipher cipher = Cipher.getInstance(CIPHER_ALGO);
       // 128 is the recommended authentication tag length for GCM. More info can be found in pdf mentioned above.
       // After each encryption operation using GCM mode, callers should re-initialize the cipher objects with GCM
       // parameters using a different IV value.
-      final GCMParameterSpec parameterSpec = new GCMParameterSpec(AUTH_TAG_LENGTH_BITS, iv);
-      cipher.init(Cipher.ENCRYPT_MODE, typedEncryptionKey, parameterSpec);
-      byte[] cipherText = cipher.doFinal(plainText);
-
-      byte[] rearrangedCipherText = new byte[cipherText.length];
-      // Rearrange the bytes so that the tag goes first (should have put it last in the JS implementation, but oh well)
-      System.arraycopy(
-        cipherText, cipherText.length - AUTH_TAG_LENGTH_BYTES, rearrangedCipherText, 0, AUTH_TAG_LENGTH_BYTES
-      );
-      // Put the cipherText last...
-      System.arraycopy(
-        cipherText, 0, rearrangedCipherText, AUTH_TAG_LENGTH_BYTES, cipherText.length - AUTH_TAG_LENGTH_BYTES
-      );
-
-      // Concatenate to a single message
-      final ByteBuffer cipherMessageByteBuffer = ByteBuffer.allocate(iv.length + cipherText.length);
-      cipherMessageByteBuffer.put(iv);
-      cipherMessageByteBuffer.put(rearrangedCipherText);
-      final byte[] cipherMessage = cipherMessageByteBuffer.array();
-
-      // It is best practice to try to wipe sensible data like a cryptographic key or IV from memory as fast as
-      // possible. Since Java is a language with automatic memory management, we don’t have any guarantees that the
-      // following works as intended, but it should in most cases
-      Arrays.fill(iv, (byte) 0); //overwrite the content of key with zeros
-      Arrays.fill(encryptionKey, (byte) 0);
-
-      return cipherMessage;
-    } catch (NoSuchAlgorithmException |
-      NoSuchPaddingException |
-      InvalidAlgorithmParameterException |
-      InvalidKeyException |
-      BadPaddingException |
-      IllegalBlockSizeException e
-    ) {
+      final Cipher cipher = sharedCipher
+        ? this.initCipher(Cipher.ENCRYPT_MODE, typedEncryptionKey, iv)
+        : this.initCipher(CryptoPrimitives.newAesGcmCipher(), Cipher.ENCRYPT_MODE, typedEncryptionKey, iv);
+      cipherMessage.put(iv);
+
+      // Reserve room for the tag (should have put it last in the JS implementation, but oh well), and write the
+      // ciphertext after it.
+      final int tagPosition = cipherMessage.position();
+      cipherMessage.position(tagPosition + AUTH_TAG_LENGTH_BYTES);
+      cipher.update(plainText, cipherMessage);
+
+      // The final output is any remaining ciphertext followed by the tag.
+      final ByteBuffer tail = tailBuffer(cipher.getOutputSize(0));
+      cipher.doFinal(EMPTY_BUFFER.duplicate(), tail);
+      tail.flip();
+
+      final int remainingCipherTextLength = tail.remaining() - AUTH_TAG_LENGTH_BYTES;
+      for (int i = 0; i < remainingCipherTextLength; i++) {
+        cipherMessage.put(tail.get());
+      }
+      final int endPosition = cipherMessage.position();
+      cipherMessage.position(tagPosition);
+      cipherMessage.put(tail);
+      cipherMessage.position(endPosition);
+    } catch (GeneralSecurityException e) {
       throw new EncryptionException("Unable to Encrypt: ", e);
     }
   }
@@ -224,19 +242,43 @@ public class AesGcmStreamSharedSecretCrypto implements StreamSharedSecretCrypto
     Objects.requireNonNull(streamSharedSecret);
     Objects.requireNonNull(cipherMessage);
 
+    final byte[] plainText = new byte[Math.max(0, cipherMessage.length - ENCRYPTION_OVERHEAD_BYTES)];
+    decrypt(streamSharedSecret, ByteBuffer.wrap(cipherMessage), ByteBuffer.wrap(plainText));
+    return plainText;
+  }
+
+  @Override
+  public int decrypt(
+    final StreamSharedSecret streamSharedSecret, final ByteBuffer cipherMessage, final ByteBuffer plainText
+  ) {
+    Objects.requireNonNull(streamSharedSecret);
+    Objects.requireNonNull(cipherMessage);
+    Objects.requireNonNull(plainText);
+
+    if (cipherMessage.remaining() < ENCRYPTION_OVERHEAD_BYTES) {
+      throw new EncryptionException(String.format(
+        "Unable to Decrypt: cipherMessage too short (length=%s)", cipherMessage.remaining()
+      ));
+    }
+
+    // Operate on duplicates so that a failed attempt leaves both buffers untouched for the fallback attempt.
+    final int plainTextStartPosition = plainText.position();
+    final ByteBuffer cipherMessageCopy = cipherMessage.duplicate();
+    int plainTextLength;
     if (this.encryptionMode == EncryptionMode.ENCRYPT_NON_STANDARD) {
       try {
-        return this.nonStandardModeDecrypt(streamSharedSecret, cipherMessage);
+        plainTextLength = this.nonStandardModeDecrypt(streamSharedSecret, cipherMessageCopy, plainText);
       } catch (EncryptionException e) {
         logger.warn(
           "Unable to decrypt payload in {} mode. Attempting {} mode as a fallback.",
           EncryptionMode.ENCRYPT_NON_STANDARD, EncryptionMode.ENCRYPT_STANDARD
         );
-        return this.standardModeDecrypt(streamSharedSecret, cipherMessage);
+        plainText.position(plainTextStartPosition);
+        plainTextLength = this.standardModeDecrypt(streamSharedSecret, cipherMessage.duplicate(), plainText);
       }
     } else {
       try {
-        return this.standardModeDecrypt(streamSharedSecret, cipherMessage);
+        plainTextLength = this.standardModeDecrypt(streamSharedSecret, cipherMessageCopy, plainText);
       } catch (EncryptionException e) {
         logger.warn(
           "Unable to decrypt payload in {} mode. Attempting {} mode as a fallback.",
@@ -244,9 +286,13 @@ public class AesGcmStreamSharedSecretCrypto implements StreamSharedSecretCrypto
           EncryptionMode.ENCRYPT_NON_STANDARD,
           e
         );
-        return this.nonStandardModeDecrypt(streamSharedSecret, cipherMessage);
+        plainText.position(plainTextStartPosition);
+        plainTextLength = this.nonStandardModeDecrypt(streamSharedSecret, cipherMessage.duplicate(), plainText);
       }
     }
+
+    cipherMessage.position(cipherMessage.limit());
+    return plainTextLength;
   }
 
   /**
@@ -254,39 +300,32 @@ public class AesGcmStreamSharedSecretCrypto implements StreamSharedSecretCrypto
    * AuthTag goes last, as specified by NIST.</p>
    *
    * @param streamSharedSecret A {@link StreamSharedSecret} used for encryption.
-   * @param cipherMessage      A byte-array to decrypt.
+   * @param cipherMessage      A {@link ByteBuffer} to decrypt.
+   * @param plainText          A {@link ByteBuffer} that will receive the decrypted plaintext.
    *
-   * @return A byte-array containing decrypted plaintext.
+   * @return The number of plaintext bytes written.
    *
    * @see "https://nvlpubs.nist.gov/nistpubs/Legacy/SP/nistspecialpublication800-38d.pdf"
    */
-  private byte[] standardModeDecrypt(final StreamSharedSecret streamSharedSecret, final byte[] cipherMessage) {
-    Objects.requireNonNull(cipherMessage);
-
-    byte[] encryptionKey = Hashing.hmacSha256(streamSharedSecret.key()).hashBytes(ENCRYPTION_KEY_STRING).asBytes();
-    final SecretKey typedEncryptionKey = new SecretKeySpec(encryptionKey, "AES");
+  private int standardModeDecrypt(
+    final StreamSharedSecret streamSharedSecret, final ByteBuffer cipherMessage, final ByteBuffer plainText
+  ) {
+    final SecretKey typedEncryptionKey = streamSharedSecret.encryptionKey();
 
     // First, deconstruct the message
+    final byte[] iv = new byte[AES_GCM_NONCE_IV_LENGTH];
     try {
-      ByteBuffer byteBuffer = ByteBuffer.wrap(cipherMessage);
-      byte[] iv = new byte[AES_GCM_NONCE_IV_LENGTH];
-      byteBuffer.get(iv);
-      byte[] cipherText = new byte[byteBuffer.remaining()];
-      byteBuffer.get(cipherText);
-
-      final Cipher cipher = Cipher.getInstance(CIPHER_ALGO);
-      cipher.init(Cipher.DECRYPT_MODE, typedEncryptionKey, new GCMParameterSpec(AUTH_TAG_LENGTH_BITS, iv));
-      byte[] plainText = cipher.doFinal(cipherText);
+      cipherMessage.get(iv);
 
+      final Cipher cipher = this.initCipher(Cipher.DECRYPT_MODE, typedEncryptionKey, iv);
+      return cipher.doFinal(cipherMessage, plainText);
+    } catch (Exception e) {
+      throw new EncryptionException(e.getMessage(), e);
+    } finally {
       // It is best practice to try to wipe sensible data like a cryptographic key or IV from memory as fast as
       // possible. Since Java is a language with automatic memory management, we don’t have any guarantees that the
       // following works as intended, but it should in most cases:
       Arrays.fill(iv, (byte) 0); //overwrite the content of key with zeros
-      Arrays.fill(encryptionKey, (byte) 0);
-
-      return plainText;
-    } catch (Exception e) {
-      throw new EncryptionException(e.getMessage(), e);
     }
   }
 
@@ -299,57 +338,86 @@ public class AesGcmStreamSharedSecretCrypto implements StreamSharedSecretCrypto
    * isn't technically broken, and  works as long as everyone uses the same arrangement when encrypting/decrypting,
    * which is the case in most Interledger deployments.</p>
    *
+   * <p>Rather than rearranging the bytes, the ciphertext is fed to the Cipher first and the AuthTag last, which is the
+   * order AES/GCM expects when decrypting.</p>
+   *
    * @param streamSharedSecret A {@link StreamSharedSecret} used for encryption.
-   * @param cipherMessage      A byte-array to decrypt.
+   * @param cipherMessage      A {@link ByteBuffer} to decrypt.
+   * @param plainText          A {@link ByteBuffer} that will receive the decrypted plaintext.
    *
-   * @return A byte-array containing decrypted plaintext.
+   * @return The number of plaintext bytes written.
    *
    * @see "https://github.com/hyperledger/quilt/issues/237"
    * @see "https://nvlpubs.nist.gov/nistpubs/Legacy/SP/nistspecialpublication800-38d.pdf"
    * @deprecated This method will be removed in a future version. Prefer {@link #standardModeDecrypt(StreamSharedSecret,
-   *   byte[])} instead.
+   *   ByteBuffer, ByteBuffer)} instead.
    */
   @Deprecated
-  private byte[] nonStandardModeDecrypt(final StreamSharedSecret streamSharedSecret, final byte[] cipherMessage) {
-    Objects.requireNonNull(cipherMessage);
-
-    byte[] encryptionKey = Hashing.hmacSha256(streamSharedSecret.key()).hashBytes(ENCRYPTION_KEY_STRING).asBytes();
-    final SecretKey typedEncryptionKey = new SecretKeySpec(encryptionKey, "AES");
+  private int nonStandardModeDecrypt(
+    final StreamSharedSecret streamSharedSecret, final ByteBuffer cipherMessage, final ByteBuffer plainText
+  ) {
+    final SecretKey typedEncryptionKey = streamSharedSecret.encryptionKey();
 
     // First, deconstruct the message
+    final byte[] iv = new byte[AES_GCM_NONCE_IV_LENGTH];
     try {
-      ByteBuffer byteBuffer = ByteBuffer.wrap(cipherMessage);
-      byte[] iv = new byte[AES_GCM_NONCE_IV_LENGTH];
-      byteBuffer.get(iv);
-      byte[] cipherText = new byte[byteBuffer.remaining()];
-      byteBuffer.get(cipherText);
+      cipherMessage.get(iv);
 
       // See https://github.com/hyperledger/quilt/issues/237
-      // Rearrange the bytes so that the `tag` goes last, after tha Additionally Authenticated Data (AAD). Prior to this
-      // reversal, the data is inverted because that's what the RFC specifies, and that's what JS and Rust do.
-      byte[] rearrangedCipherText = new byte[cipherText.length];
-      System.arraycopy(
-        cipherText, 0, rearrangedCipherText, cipherText.length - AUTH_TAG_LENGTH_BYTES, AUTH_TAG_LENGTH_BYTES
-      );
-      // Put the cipherText last...
-      System.arraycopy(
-        cipherText, AUTH_TAG_LENGTH_BYTES, rearrangedCipherText, 0, cipherText.length - AUTH_TAG_LENGTH_BYTES
-      );
-
-      final Cipher cipher = Cipher.getInstance(CIPHER_ALGO);
-      cipher.init(Cipher.DECRYPT_MODE, typedEncryptionKey, new GCMParameterSpec(AUTH_TAG_LENGTH_BITS, iv));
-      byte[] plainText = cipher.doFinal(rearrangedCipherText);
-
+      // The `tag` precedes the ciphertext because that's what the RFC specifies, and that's what JS and Rust do. AES/GCM
+      // expects the tag last, so slice the message into its tag and ciphertext and supply them in that order.
+      final ByteBuffer tag = cipherMessage.duplicate();
+      tag.limit(tag.position() + AUTH_TAG_LENGTH_BYTES);
+      final ByteBuffer cipherText = cipherMessage.duplicate();
+      cipherText.position(tag.limit());
+
+      final Cipher cipher = this.initCipher(Cipher.DECRYPT_MODE, typedEncryptionKey, iv);
+      final int updateLength = cipher.update(cipherText, plainText);
+      return updateLength + cipher.doFinal(tag, plainText);
+    } catch (Exception e) {
+      throw new EncryptionException(e.getMessage(), e);
+    } finally {
       // It is best practice to try to wipe sensible data like a cryptographic key or IV from memory as fast as
       // possible. Since Java is a language with automatic memory management, we don’t have any guarantees that the
       // following works as intended, but it should in most cases:
       Arrays.fill(iv, (byte) 0); //overwrite the content of key with zeros
-      Arrays.fill(encryptionKey, (byte) 0);
+    }
+  }
 
-      return plainText;
-    } catch (Exception e) {
-      throw new EncryptionException(e.getMessage(), e);
+  /**
+   * Initialize the {@link Cipher} bound to the calling thread (see {@link CryptoPrimitives#aesGcmCipher()}) so that a
+   * JCA provider lookup is not required for every packet.
+   *
+   * @param mode               Either {@link Cipher#ENCRYPT_MODE} or {@link Cipher#DECRYPT_MODE}.
+   * @param typedEncryptionKey The AES {@link SecretKey} to operate with.
+   * @param iv                 An initialization vector used AES/GCM.
+   *
+   * @return An initialized {@link Cipher}.
+   */
+  private Cipher initCipher(final int mode, final SecretKey typedEncryptionKey, final byte[] iv)
+    throws GeneralSecurityException {
+    return initCipher(CryptoPrimitives.aesGcmCipher(), mode, typedEncryptionKey, iv);
+  }
+
+  private Cipher initCipher(final Cipher cipher, final int mode, final SecretKey typedEncryptionKey, final byte[] iv)
+    throws GeneralSecurityException {
+    // A GCM Cipher refuses to be re-initialized for encryption with the key and IV it was last initialized with, which
+    // guards against IV reuse, so any such failure is deliberately propagated.
+    cipher.init(mode, typedEncryptionKey, new GCMParameterSpec(AUTH_TAG_LENGTH_BITS, iv));
+    return cipher;
+  }
+
+  /**
+   * Accessor for the cleared per-thread tail buffer, growing it if it cannot hold {@code minimumCapacity} bytes.
+   */
+  private static ByteBuffer tailBuffer(final int minimumCapacity) {
+    ByteBuffer tail = localTailBuffer.get();
+    if (tail.capacity() < minimumCapacity) {
+      tail = ByteBuffer.allocate(minimumCapacity);
+      localTailBuffer.set(tail);
     }
+    tail.clear();
+    return tail;
   }
 
   /**
@@ -0,0 +1,93 @@
+package org.interledger.stream.crypto;
+
+import java.security.GeneralSecurityException;
+import java.security.InvalidKeyException;
+import java.security.Key;
+import java.security.NoSuchAlgorithmException;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.NoSuchPaddingException;
+
+/**
+ * <p>Thread-confined, reusable {@link Cipher} and {@link Mac} instances for the primitives used by STREAM.</p>
+ *
+ * <p>{@link Cipher#getInstance(String)} and {@link Mac#getInstance(String)} perform a JCA provider lookup on every
+ * call, which is a large fraction of the per-packet cost of STREAM encryption. Instances returned from this class are
+ * created once per thread and MUST only be used by the calling thread, and MUST be (re-)initialized with a key before
+ * every use.</p>
+ *
+ * @since 1.0.0
+ */
+public final class CryptoPrimitives {
+
+  /**
+   * The algorithm name for STREAM encryption.
+   */
+  public static final String AES_GCM_NO_PADDING = "AES/GCM/NoPadding";
+
+  /**
+   * The algorithm name for STREAM HMAC operations.
+   */
+  public static final String HMAC_SHA256 = "HmacSHA256";
+
+  private static final ThreadLocal<Cipher> localAesGcmCipher = ThreadLocal.withInitial(() -> {
+    try {
+      return newAesGcmCipher();
+    } catch (GeneralSecurityException e) {
+      throw new EncryptionException("Unable to construct Cipher: ", e);
+    }
+  });
+
+  private static final ThreadLocal<Mac> localHmacSha256 = ThreadLocal.withInitial(() -> {
+    try {
+      return Mac.getInstance(HMAC_SHA256);
+    } catch (NoSuchAlgorithmException e) {
+      throw new EncryptionException("Unable to construct Mac: ", e);
+    }
+  });
+
+  private CryptoPrimitives() {
+  }
+
+  /**
+   * Accessor for the {@code AES/GCM/NoPadding} {@link Cipher} bound to the calling thread.
+   *
+   * @return A {@link Cipher} that must be initialized before use.
+   */
+  public static Cipher aesGcmCipher() {
+    return localAesGcmCipher.get();
+  }
+
+  /**
+   * Construct a new, unshared {@code AES/GCM/NoPadding} {@link Cipher}. This is only required when the thread-local
+   * instance cannot be used, for example because it refuses to be re-initialized for encryption with the same key and
+   * IV that it was last initialized with.
+   *
+   * @return A new {@link Cipher} that must be initialized before use.
+   *
+   * @throws NoSuchAlgorithmException if AES/GCM is not supported by any provider.
+   * @throws NoSuchPaddingException   if NoPadding is not supported by any provider.
+   */
+  public static Cipher newAesGcmCipher() throws NoSuchAlgorithmException, NoSuchPaddingException {
+    return Cipher.getInstance(AES_GCM_NO_PADDING);
+  }
+
+  /**
+   * Compute {@code HMAC-SHA256(key, data)} using the {@link Mac} bound to the calling thread.
+   *
+   * @param key  A {@link Key} for {@link #HMAC_SHA256}.
+   * @param data The data to authenticate.
+   *
+   * @return A 32-byte array containing the HMAC.
+   */
+  public static byte[] hmacSha256(final Key key, final byte[] data) {
+    final Mac mac = localHmacSha256.get();
+    try {
+      mac.init(key);
+    } catch (InvalidKeyException e) {
+      throw new EncryptionException("Unable to initialize Mac: ", e);
+    }
+    return mac.doFinal(data);
+  }
+}
@@ -2,8 +2,12 @@ package org.interledger.stream.crypto;
 
 import org.immutables.value.Value;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
 /**
  * <p>Wrapper for a Shared Secret (32-byte, base64 encoded).</p>
  *
@@ -49,6 +53,43 @@ public interface StreamSharedSecret {
     }
   }
 
+  /**
+   * <p>The AES key used to encrypt and decrypt STREAM packets, derived as {@code hmac_sha256(shared_secret,
+   * "ilp_stream_encryption")}.</p>
+   *
+   * <p>This value is computed once, on first access, and then cached for the lifetime of this instance so that
+   * callers sending or receiving many packets with the same shared secret do not re-derive it per packet.</p>
+   *
+   * @return A {@link SecretKey} for AES.
+   */
+  @Value.Lazy
+  @Value.Auxiliary
+  default SecretKey encryptionKey() {
+    final SecretKey sharedSecretKey = new SecretKeySpec(key(), CryptoPrimitives.HMAC_SHA256);
+    return new SecretKeySpec(
+      CryptoPrimitives.hmacSha256(sharedSecretKey, "ilp_stream_encryption".getBytes(StandardCharsets.US_ASCII)), "AES"
+    );
+  }
+
+  /**
+   * <p>The HMAC key used to generate STREAM fulfillments, derived as {@code hmac_sha256(shared_secret,
+   * "ilp_stream_fulfillment")}.</p>
+   *
+   * <p>This value is computed once, on first access, and then cached for the lifetime of this instance so that
+   * callers sending or receiving many packets with the same shared secret do not re-derive it per packet.</p>
+   *
+   * @return A {@link SecretKey} for HmacSHA256.
+   */
+  @Value.Lazy
+  @Value.Auxiliary
+  default SecretKey fulfillmentKey() {
+    final SecretKey sharedSecretKey = new SecretKeySpec(key(), CryptoPrimitives.HMAC_SHA256);
+    return new SecretKeySpec(
+      CryptoPrimitives.hmacSha256(sharedSecretKey, "ilp_stream_fulfillment".getBytes(StandardCharsets.US_ASCII)),
+      CryptoPrimitives.HMAC_SHA256
+    );
+  }
+
   /**
    * Precondition check method.
    *
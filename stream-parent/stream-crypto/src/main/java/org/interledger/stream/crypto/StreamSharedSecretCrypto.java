@@ -1,5 +1,7 @@
 package org.interledger.stream.crypto;
 
+import java.nio.ByteBuffer;
+
 /**
  * Defines methods for performing low-level encryption and decryption using {@link StreamSharedSecret} for purposes of the
  * STREAM protocol, which relies upon a mutally shared-secret (generally obtained via SPSP) in order to encrypt and
@@ -9,6 +11,12 @@ package org.interledger.stream.crypto;
  */
 public interface StreamSharedSecretCrypto {
 
+  /**
+   * The number of bytes that encryption adds to a plaintext, which per IL-RFC-29 is a 12-byte nonce plus a 16-byte
+   * AES-GCM authentication tag.
+   */
+  int ENCRYPTION_OVERHEAD_BYTES = 12 + 16;
+
   /**
    * Encrypt {@code plainText} using the underlying key-store of this implementation.
    *
@@ -20,6 +28,31 @@ public interface StreamSharedSecretCrypto {
    */
   byte[] encrypt(final StreamSharedSecret streamSharedSecret, final byte[] plainText);
 
+  /**
+   * <p>Encrypt the remaining bytes of {@code plainText}, writing the resulting cipher message (nonce, authentication
+   * tag and ciphertext) into {@code cipherMessage} starting at its current position.</p>
+   *
+   * <p>On return, {@code plainText} has been fully consumed and the position of {@code cipherMessage} has advanced
+   * by the number of bytes written. The default implementation delegates to {@link #encrypt(StreamSharedSecret,
+   * byte[])}; implementations SHOULD override it to avoid the intermediate arrays.</p>
+   *
+   * @param streamSharedSecret The secret STREAM connection value shared between sender and receiver.
+   * @param plainText          A {@link ByteBuffer} containing the plaintext value to encrypt.
+   * @param cipherMessage      A {@link ByteBuffer} with at least {@code plainText.remaining() +
+   *                           ENCRYPTION_OVERHEAD_BYTES} bytes remaining.
+   *
+   * @return The number of bytes written into {@code cipherMessage}.
+   */
+  default int encrypt(
+    final StreamSharedSecret streamSharedSecret, final ByteBuffer plainText, final ByteBuffer cipherMessage
+  ) {
+    final byte[] plainTextBytes = new byte[plainText.remaining()];
+    plainText.get(plainTextBytes);
+    final byte[] cipherMessageBytes = encrypt(streamSharedSecret, plainTextBytes);
+    cipherMessage.put(cipherMessageBytes);
+    return cipherMessageBytes.length;
+  }
+
   /**
    * Decrypt the supplied {@code cipherText}.
    *
@@ -31,4 +64,29 @@ public interface StreamSharedSecretCrypto {
    */
   byte[] decrypt(final StreamSharedSecret streamSharedSecret, final byte[] cipherMessage);
 
+  /**
+   * <p>Decrypt the remaining bytes of {@code cipherMessage}, writing the resulting plaintext into {@code plainText}
+   * starting at its current position.</p>
+   *
+   * <p>On return, {@code cipherMessage} has been fully consumed and the position of {@code plainText} has advanced by
+   * the number of bytes written. The default implementation delegates to {@link #decrypt(StreamSharedSecret, byte[])};
+   * implementations SHOULD override it to avoid the intermediate arrays.</p>
+   *
+   * @param streamSharedSecret The secret STREAM connection value shared between sender and receiver.
+   * @param cipherMessage      A {@link ByteBuffer} containing a nonce, authentication tag and ciphertext.
+   * @param plainText          A {@link ByteBuffer} with at least {@code cipherMessage.remaining() -
+   *                           ENCRYPTION_OVERHEAD_BYTES} bytes remaining.
+   *
+   * @return The number of bytes written into {@code plainText}.
+   */
+  default int decrypt(
+    final StreamSharedSecret streamSharedSecret, final ByteBuffer cipherMessage, final ByteBuffer plainText
+  ) {
+    final byte[] cipherMessageBytes = new byte[cipherMessage.remaining()];
+    cipherMessage.get(cipherMessageBytes);
+    final byte[] plainTextBytes = decrypt(streamSharedSecret, cipherMessageBytes);
+    plainText.put(plainTextBytes);
+    return plainTextBytes.length;
+  }
+
 }
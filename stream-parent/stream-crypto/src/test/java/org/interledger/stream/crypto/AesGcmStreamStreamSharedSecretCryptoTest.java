@@ -1,11 +1,14 @@
 package org.interledger.stream.crypto;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import org.interledger.stream.crypto.AesGcmStreamSharedSecretCrypto.EncryptionMode;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.nio.ByteBuffer;
+
 /**
  * Unit tests for {@link AesGcmStreamSharedSecretCrypto}.
  *
@@ -100,4 +103,125 @@ public class AesGcmStreamStreamSharedSecretCryptoTest {
     // See NIST suggestion in JavaxStreamEncryptionService. This test should ALWAYS pass!
     assertThat(actualIvLength >= 12 || actualIvLength < 16);
   }
+
+  /**
+   * Encrypting twice with the same fixed IV must not trip the GCM IV-reuse guard of the cached per-thread Cipher.
+   */
+  @Test
+  public void testEncryptWithSameIvTwice() {
+    final byte[] iv = new byte[] {(byte) 119, (byte) 248, (byte) 213, (byte) 234, (byte) 63,
+        (byte) 200, (byte) 224, (byte) 140, (byte) 212, (byte) 222, (byte) 105, (byte) 159};
+
+    byte[] first = streamEncryptionService.encryptWithIv(SHARED_SECRET, PLAINTEXT, iv.clone());
+    byte[] second = streamEncryptionService.encryptWithIv(SHARED_SECRET, PLAINTEXT, iv.clone());
+    assertThat(first).isEqualTo(CIPHERTEXT);
+    assertThat(second).isEqualTo(CIPHERTEXT);
+  }
+
+  @Test
+  public void losslesslyEncryptAndDecryptsManyTimes() {
+    for (int i = 0; i < 100; i++) {
+      byte[] cipherMessage = streamEncryptionService.encrypt(SHARED_SECRET, PLAINTEXT);
+      assertThat(streamEncryptionService.decrypt(SHARED_SECRET, cipherMessage)).isEqualTo(PLAINTEXT);
+    }
+  }
+
+  @Test
+  public void testByteBufferDecryptToSameAsRustJs() {
+    final ByteBuffer cipherMessage = ByteBuffer.wrap(CIPHERTEXT);
+    final ByteBuffer plainText = ByteBuffer.allocate(PLAINTEXT.length);
+
+    final int length = streamEncryptionService.decrypt(SHARED_SECRET, cipherMessage, plainText);
+
+    assertThat(length).isEqualTo(PLAINTEXT.length);
+    assertThat(cipherMessage.hasRemaining()).isFalse();
+    assertThat(plainText.array()).isEqualTo(PLAINTEXT);
+  }
+
+  @Test
+  public void losslesslyEncryptAndDecryptsByteBuffersNonStandardMode() {
+    assertByteBufferRoundTrip(new AesGcmStreamSharedSecretCrypto(EncryptionMode.ENCRYPT_NON_STANDARD));
+  }
+
+  @Test
+  public void losslesslyEncryptAndDecryptsByteBuffersStandardMode() {
+    assertByteBufferRoundTrip(new AesGcmStreamSharedSecretCrypto(EncryptionMode.ENCRYPT_STANDARD));
+  }
+
+  /**
+   * Cipher messages produced by the {@link ByteBuffer} variant must be readable by the byte-array variant, and vice
+   * versa, for plaintexts that are not a multiple of the AES block size.
+   */
+  @Test
+  public void byteBufferAndByteArrayVariantsAreInterchangeable() {
+    for (int plainTextLength = 0; plainTextLength < 100; plainTextLength++) {
+      final byte[] plainText = Random.randBytes(plainTextLength);
+
+      final ByteBuffer cipherMessage = ByteBuffer.allocate(plainTextLength + 28);
+      streamEncryptionService.encrypt(SHARED_SECRET, ByteBuffer.wrap(plainText), cipherMessage);
+      assertThat(streamEncryptionService.decrypt(SHARED_SECRET, cipherMessage.array())).isEqualTo(plainText);
+
+      final ByteBuffer decrypted = ByteBuffer.allocate(plainTextLength);
+      streamEncryptionService.decrypt(
+          SHARED_SECRET, ByteBuffer.wrap(streamEncryptionService.encrypt(SHARED_SECRET, plainText)), decrypted
+      );
+      assertThat(decrypted.array()).isEqualTo(plainText);
+    }
+  }
+
+  @Test
+  public void encryptAndDecryptDirectByteBuffersAtOffset() {
+    final byte[] plainText = Random.randBytes(1000);
+    final ByteBuffer plainTextBuffer = ByteBuffer.allocateDirect(plainText.length);
+    plainTextBuffer.put(plainText).flip();
+
+    final ByteBuffer cipherMessage = ByteBuffer.allocateDirect(10 + plainText.length + 28);
+    cipherMessage.position(10);
+    final int cipherMessageLength = streamEncryptionService.encrypt(SHARED_SECRET, plainTextBuffer, cipherMessage);
+    assertThat(cipherMessageLength).isEqualTo(plainText.length + 28);
+    assertThat(cipherMessage.position()).isEqualTo(10 + cipherMessageLength);
+
+    cipherMessage.position(10);
+    final ByteBuffer decrypted = ByteBuffer.allocateDirect(plainText.length);
+    streamEncryptionService.decrypt(SHARED_SECRET, cipherMessage, decrypted);
+    decrypted.flip();
+    final byte[] decryptedBytes = new byte[decrypted.remaining()];
+    decrypted.get(decryptedBytes);
+    assertThat(decryptedBytes).isEqualTo(plainText);
+  }
+
+  @Test
+  public void encryptIntoByteBufferThatIsTooSmall() {
+    assertThatThrownBy(() -> streamEncryptionService.encrypt(
+        SHARED_SECRET, ByteBuffer.wrap(PLAINTEXT), ByteBuffer.allocate(PLAINTEXT.length + 27)
+    )).isInstanceOf(EncryptionException.class);
+  }
+
+  @Test
+  public void decryptByteBufferThatIsTooShort() {
+    assertThatThrownBy(() -> streamEncryptionService.decrypt(
+        SHARED_SECRET, ByteBuffer.allocate(27), ByteBuffer.allocate(0)
+    )).isInstanceOf(EncryptionException.class);
+  }
+
+  @Test
+  public void decryptTamperedByteBuffer() {
+    final byte[] tampered = CIPHERTEXT.clone();
+    tampered[tampered.length - 1] ^= 1;
+    assertThatThrownBy(() -> streamEncryptionService.decrypt(
+        SHARED_SECRET, ByteBuffer.wrap(tampered), ByteBuffer.allocate(PLAINTEXT.length)
+    )).isInstanceOf(EncryptionException.class);
+  }
+
+  private void assertByteBufferRoundTrip(final AesGcmStreamSharedSecretCrypto crypto) {
+    final ByteBuffer cipherMessage = ByteBuffer.allocate(PLAINTEXT.length + 28);
+    final int cipherMessageLength = crypto.encrypt(SHARED_SECRET, ByteBuffer.wrap(PLAINTEXT), cipherMessage);
+    assertThat(cipherMessageLength).isEqualTo(PLAINTEXT.length + 28);
+    assertThat(cipherMessage.hasRemaining()).isFalse();
+
+    cipherMessage.flip();
+    final ByteBuffer plainText = ByteBuffer.allocate(PLAINTEXT.length);
+    assertThat(crypto.decrypt(SHARED_SECRET, cipherMessage, plainText)).isEqualTo(PLAINTEXT.length);
+    assertThat(plainText.array()).isEqualTo(PLAINTEXT);
+  }
 }
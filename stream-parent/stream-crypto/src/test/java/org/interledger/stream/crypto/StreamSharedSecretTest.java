@@ -2,6 +2,8 @@ package org.interledger.stream.crypto;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.google.common.hash.Hashing;
+import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 import java.util.Random;
 import org.junit.Rule;
@@ -67,4 +69,36 @@ public class StreamSharedSecretTest {
     StreamSharedSecret.of(base64);
   }
 
+  @Test
+  public void derivedKeysAreCachedAndMatchSpec() {
+    final byte[] key = new byte[32];
+    new Random().nextBytes(key);
+    final StreamSharedSecret streamSharedSecret = StreamSharedSecret.of(key);
+
+    final byte[] expectedEncryptionKey = Hashing.hmacSha256(key)
+        .hashBytes("ilp_stream_encryption".getBytes(StandardCharsets.US_ASCII)).asBytes();
+    final byte[] expectedFulfillmentKey = Hashing.hmacSha256(key)
+        .hashBytes("ilp_stream_fulfillment".getBytes(StandardCharsets.US_ASCII)).asBytes();
+
+    assertThat(streamSharedSecret.encryptionKey().getEncoded()).isEqualTo(expectedEncryptionKey);
+    assertThat(streamSharedSecret.encryptionKey().getAlgorithm()).isEqualTo("AES");
+    assertThat(streamSharedSecret.encryptionKey()).isSameAs(streamSharedSecret.encryptionKey());
+
+    assertThat(streamSharedSecret.fulfillmentKey().getEncoded()).isEqualTo(expectedFulfillmentKey);
+    assertThat(streamSharedSecret.fulfillmentKey().getAlgorithm()).isEqualTo("HmacSHA256");
+    assertThat(streamSharedSecret.fulfillmentKey()).isSameAs(streamSharedSecret.fulfillmentKey());
+  }
+
+  @Test
+  public void derivedKeysDoNotAffectEquality() {
+    final byte[] key = new byte[32];
+    new Random().nextBytes(key);
+    final StreamSharedSecret first = StreamSharedSecret.of(key);
+    final StreamSharedSecret second = StreamSharedSecret.of(key);
+    first.encryptionKey();
+
+    assertThat(first).isEqualTo(second);
+    assertThat(first.hashCode()).isEqualTo(second.hashCode());
+  }
+
 }
@@ -8,6 +8,8 @@ import org.interledger.fx.Denomination;
 import org.interledger.fx.OracleExchangeRateService;
 import org.interledger.fx.ScaledExchangeRate;
 import org.interledger.fx.Slippage;
+import org.interledger.link.HedgingLink;
+import org.interledger.link.HedgingSettings;
 import org.interledger.link.Link;
 import org.interledger.link.LinkSettings;
 import org.interledger.spsp.PaymentPointer;
@@ -102,6 +104,7 @@ public interface StreamPayer {
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
     private final Link<? extends LinkSettings> link;
+    private final Link<?> probeLink;
     private final SpspClient spspClient;
     private final StreamPacketEncryptionService streamPacketEncryptionService;
     private final OracleExchangeRateService oracleOracleExchangeRateService;
@@ -121,6 +124,31 @@ public interface StreamPayer {
       this(streamPacketEncryptionService, link, oracleOracleExchangeRateService, new SimpleSpspClient());
     }
 
+    /**
+     * Required-args Constructor for a payer that hedges the unfulfillable packets it sends to probe exchange rates when
+     * quoting. A single {@link HedgingLink} is shared by every quote, so its hedge delay adapts to the latencies
+     * observed across quotes.
+     *
+     * @param streamPacketEncryptionService   A {@link StreamPacketEncryptionService}.
+     * @param link                            A {@link Link}.
+     * @param oracleOracleExchangeRateService An {@link ExchangeRateProvider}.
+     * @param hedgingSettings                 A {@link HedgingSettings} that determines when probe packets are hedged.
+     */
+    public Default(
+      final StreamPacketEncryptionService streamPacketEncryptionService,
+      final Link<? extends LinkSettings> link,
+      final OracleExchangeRateService oracleOracleExchangeRateService,
+      final HedgingSettings hedgingSettings
+    ) {
+      this(
+        streamPacketEncryptionService,
+        link,
+        DefaultExchangeRateProber.hedgingProbeLink(link, hedgingSettings),
+        oracleOracleExchangeRateService,
+        new SimpleSpspClient()
+      );
+    }
+
     /**
      * Required-args Constructor for testing.
      *
@@ -135,8 +163,19 @@ public interface StreamPayer {
       final Link<? extends LinkSettings> link,
       final OracleExchangeRateService oracleExchangeRateService,
       final SpspClient spspClient
+    ) {
+      this(streamPacketEncryptionService, link, link, oracleExchangeRateService, spspClient);
+    }
+
+    private Default(
+      final StreamPacketEncryptionService streamPacketEncryptionService,
+      final Link<? extends LinkSettings> link,
+      final Link<?> probeLink,
+      final OracleExchangeRateService oracleExchangeRateService,
+      final SpspClient spspClient
     ) {
       this.link = Objects.requireNonNull(link);
+      this.probeLink = Objects.requireNonNull(probeLink);
       this.spspClient = Objects.requireNonNull(spspClient);
       this.oracleOracleExchangeRateService = Objects.requireNonNull(oracleExchangeRateService);
       this.streamPacketEncryptionService = Objects.requireNonNull(streamPacketEncryptionService);
@@ -310,7 +349,9 @@ public interface StreamPayer {
      */
     @VisibleForTesting
     protected ExchangeRateProber newExchangeRateProber() {
-      return new DefaultExchangeRateProber(streamPacketEncryptionService, link, oracleOracleExchangeRateService);
+      return new DefaultExchangeRateProber(
+        streamPacketEncryptionService, link, probeLink, oracleOracleExchangeRateService
+      );
     }
 
     /**
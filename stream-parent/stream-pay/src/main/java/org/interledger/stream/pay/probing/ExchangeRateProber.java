@@ -3,7 +3,10 @@ package org.interledger.stream.pay.probing;
 import org.interledger.core.fluent.Ratio;
 import org.interledger.fx.Denomination;
 import org.interledger.fx.OracleExchangeRateService;
+import org.interledger.link.HedgingLink;
+import org.interledger.link.HedgingSettings;
 import org.interledger.link.Link;
+import org.interledger.link.LinkSettings;
 import org.interledger.stream.connection.StreamConnection;
 import org.interledger.stream.crypto.StreamPacketEncryptionService;
 import org.interledger.stream.pay.AbstractPayWrapper;
@@ -92,6 +95,7 @@ public interface ExchangeRateProber {
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
     private final Link<?> link;
+    private final Link<?> probeLink;
     private final OracleExchangeRateService oracleExchangeRateService;
     private final Map<StreamConnection, PaymentSharedStateTracker> paymentSharedStateTrackersMap;
     private final ExecutorService executorService;
@@ -111,9 +115,31 @@ public interface ExchangeRateProber {
       final StreamPacketEncryptionService streamPacketEncryptionService,
       final Link<?> link,
       final OracleExchangeRateService oracleExchangeRateService
+    ) {
+      this(streamPacketEncryptionService, link, link, oracleExchangeRateService);
+    }
+
+    /**
+     * Required-args Constructor for a prober that sends its probe packets on a different {@link Link} than {@code link},
+     * typically a {@link HedgingLink} that wraps {@code link}. Every probe packet is unfulfillable, so it is always safe
+     * to hedge, which keeps a single slow packet from holding up the whole probe. A {@link HedgingLink} only adapts its
+     * hedge delay once it has observed enough latencies, so a single instance should be shared by every prober that
+     * sends on the same link; see {@link #hedgingProbeLink(Link, HedgingSettings)}.
+     *
+     * @param streamPacketEncryptionService An instance of {@link StreamPacketEncryptionService}.
+     * @param link                          A {@link Link} used to close the connection once probing is done.
+     * @param probeLink                     A {@link Link} to send the ILPv4 probe packets on.
+     * @param oracleExchangeRateService     An {@link OracleExchangeRateService}.
+     */
+    public DefaultExchangeRateProber(
+      final StreamPacketEncryptionService streamPacketEncryptionService,
+      final Link<?> link,
+      final Link<?> probeLink,
+      final OracleExchangeRateService oracleExchangeRateService
     ) {
       super(streamPacketEncryptionService);
       this.link = Objects.requireNonNull(link);
+      this.probeLink = Objects.requireNonNull(probeLink);
       this.oracleExchangeRateService = Objects.requireNonNull(oracleExchangeRateService);
 
       this.paymentSharedStateTrackersMap = Maps.newConcurrentMap();
@@ -266,7 +292,7 @@ public interface ExchangeRateProber {
                 .setIsFulfillable(false)
                 .setSourceAmount(prepareAmount);
               final StreamPacketFilterChain filterChain = new DefaultStreamPacketFilterChain(
-                streamPacketFilters, link, getStreamEncryptionService(), paymentSharedStateTracker
+                streamPacketFilters, probeLink, getStreamEncryptionService(), paymentSharedStateTracker
               );
 
               // Handle SendState stuff...
@@ -362,5 +388,25 @@ public interface ExchangeRateProber {
     protected Link<?> getLink() {
       return this.link;
     }
+
+    /**
+     * Construct a {@link HedgingLink} that hedges every packet sent on {@code link}, for use as the {@code probeLink} of
+     * every {@link DefaultExchangeRateProber} that probes over {@code link}. Only probe packets, which are all
+     * unfulfillable, may be sent on the returned link. Receivers only reject replayed packets that they would otherwise
+     * fulfill, so whichever copy of a probe is answered first carries the receiver's encrypted STREAM response.
+     *
+     * @param link            The {@link Link} to send probe packets on.
+     * @param hedgingSettings A {@link HedgingSettings} that determines when probe packets are hedged.
+     * @param <L>             The type of {@link LinkSettings} of {@code link}.
+     *
+     * @return A {@link HedgingLink}.
+     */
+    public static <L extends LinkSettings> HedgingLink<L> hedgingProbeLink(
+      final Link<L> link, final HedgingSettings hedgingSettings
+    ) {
+      Objects.requireNonNull(link);
+      Objects.requireNonNull(hedgingSettings);
+      return new HedgingLink<>(link, preparePacket -> true, hedgingSettings);
+    }
   }
 }
\ No newline at end of file
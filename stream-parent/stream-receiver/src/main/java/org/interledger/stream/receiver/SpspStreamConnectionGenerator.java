@@ -2,28 +2,49 @@ package org.interledger.stream.receiver;
 
 import org.interledger.core.InterledgerAddress;
 import org.interledger.spsp.StreamConnectionDetails;
+import org.interledger.stream.crypto.CryptoPrimitives;
 import org.interledger.stream.crypto.Random;
 import org.interledger.core.SharedSecret;
+import org.interledger.stream.crypto.StreamSharedSecret;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.common.base.Preconditions;
-import com.google.common.hash.Hashing;
 
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.Base64;
 import java.util.Objects;
 import java.util.function.Supplier;
 
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
 /**
- * A {@link StreamConnectionGenerator} that generates SPSP-compatible connection details.
+ * <p>A {@link StreamConnectionGenerator} that generates SPSP-compatible connection details.</p>
+ *
+ * <p>Deriving a shared secret from a receiver address requires an HMAC of the server secret followed by an HMAC of the
+ * connection token, and every packet then needs keys derived from that shared secret. Because a busy receiver sees the
+ * same connections many times per second, this implementation computes the server-secret-derived generator once per
+ * server secret, and caches the derived {@link StreamSharedSecret} (including its lazily derived encryption and
+ * fulfillment keys) per connection token in a bounded cache.</p>
  */
-@SuppressWarnings("UnstableApiUsage")
 public class SpspStreamConnectionGenerator implements StreamConnectionGenerator {
 
+  /**
+   * The default maximum number of connection tokens whose derived secrets are cached.
+   */
+  public static final long DEFAULT_MAX_CACHED_CONNECTIONS = 10_000;
+
   private static final Charset US_ASCII = StandardCharsets.US_ASCII;
   // private static final byte[] STREAM_SERVER_SECRET_GENERATOR = "ilp_stream_secret_generator".getBytes(US_ASCII);
 
   private final byte[] streamServerSecretGenerator;
+  private final long maxCachedConnections;
+
+  // Replaced whenever the server secret changes, which also discards every secret derived from the previous one.
+  private volatile SecretGenerator secretGenerator;
 
   /**
    * No-args Constructor.
@@ -48,8 +69,22 @@ public class SpspStreamConnectionGenerator implements StreamConnectionGenerator
    *                                    is.
    */
   public SpspStreamConnectionGenerator(final String streamServerSecretGenerator) {
+    this(streamServerSecretGenerator, DEFAULT_MAX_CACHED_CONNECTIONS);
+  }
+
+  /**
+   * Required-args constructor.
+   *
+   * @param streamServerSecretGenerator A set of magic bytes that act as a secret-generator seed for generating SPSP
+   *                                    shared secrets (see {@link #SpspStreamConnectionGenerator(String)}).
+   * @param maxCachedConnections        The maximum number of connection tokens whose derived secrets are cached. A
+   *                                    value of {@code 0} disables caching.
+   */
+  public SpspStreamConnectionGenerator(final String streamServerSecretGenerator, final long maxCachedConnections) {
     this.streamServerSecretGenerator = Objects.requireNonNull(streamServerSecretGenerator)
         .getBytes(StandardCharsets.US_ASCII);
+    Preconditions.checkArgument(maxCachedConnections >= 0, "maxCachedConnections must not be negative");
+    this.maxCachedConnections = maxCachedConnections;
   }
 
   @Override
@@ -66,20 +101,24 @@ public class SpspStreamConnectionGenerator implements StreamConnectionGenerator
 
     // Note the shared-secret is generated from the token's base64-encoded String bytes rather than from the
     // _actual_ Base64-unencoded bytes. E.g., "foo".getBytes() is not the same as Base64.getDecoder().decode("foo")
-    final byte[] sharedSecret = Hashing
-        .hmacSha256(secretGenerator(serverSecretSupplier))
-        .hashBytes(tokenBase64.getBytes(StandardCharsets.US_ASCII))
-        .asBytes();
+    final StreamSharedSecret sharedSecret = secretGenerator(serverSecretSupplier).deriveSecret(tokenBase64);
 
     return StreamConnectionDetails.builder()
         .destinationAddress(destinationAddress)
-        .sharedSecret(SharedSecret.of(sharedSecret))
+        .sharedSecret(SharedSecret.of(sharedSecret.key()))
         .build();
   }
 
   @Override
   public SharedSecret deriveSecretFromAddress(
       final ServerSecretSupplier serverSecretSupplier, final InterledgerAddress receiverAddress
+  ) {
+    return SharedSecret.of(deriveStreamSharedSecretFromAddress(serverSecretSupplier, receiverAddress).key());
+  }
+
+  @Override
+  public StreamSharedSecret deriveStreamSharedSecretFromAddress(
+      final ServerSecretSupplier serverSecretSupplier, final InterledgerAddress receiverAddress
   ) {
     Objects.requireNonNull(receiverAddress);
 
@@ -87,23 +126,63 @@ public class SpspStreamConnectionGenerator implements StreamConnectionGenerator
     // For Javascript compatibility, the `localpart` is not treated as a base64-encoded string of bytes, but is instead
     // treated simply as US-ASCII bytes.
     final String localPart = receiverAddressAsString.substring(receiverAddressAsString.lastIndexOf(".") + 1);
-    final byte[] sharedSecret = Hashing
-        .hmacSha256(secretGenerator(serverSecretSupplier))
-        .hashBytes(localPart.getBytes(StandardCharsets.US_ASCII))
-        .asBytes();
-    return SharedSecret.of(sharedSecret);
+    return secretGenerator(serverSecretSupplier).deriveSecret(localPart);
   }
 
   /**
-   * Helper method to compute HmacSha256 on {@link #streamServerSecretGenerator}.
+   * Helper method to obtain the {@link SecretGenerator} for the current server secret, which holds the HmacSha256 of
+   * {@link #streamServerSecretGenerator}. This is only recomputed when the server secret changes.
    *
    * @param serverSecretSupplier A {@link Supplier} for this node's main secret, which is the root seed for all derived
    *                             secrets provided by this node.
    *
-   * @return A secret derived from a primary secret.
+   * @return A {@link SecretGenerator} for the current server secret.
    */
-  private byte[] secretGenerator(final ServerSecretSupplier serverSecretSupplier) {
+  private SecretGenerator secretGenerator(final ServerSecretSupplier serverSecretSupplier) {
     Objects.requireNonNull(serverSecretSupplier);
-    return Hashing.hmacSha256(serverSecretSupplier.get()).hashBytes(this.streamServerSecretGenerator).asBytes();
+
+    final byte[] serverSecret = serverSecretSupplier.get();
+    final SecretGenerator currentSecretGenerator = this.secretGenerator;
+    if (currentSecretGenerator != null && currentSecretGenerator.isFor(serverSecret)) {
+      return currentSecretGenerator;
+    }
+
+    final SecretGenerator newSecretGenerator = new SecretGenerator(serverSecret);
+    this.secretGenerator = newSecretGenerator;
+    return newSecretGenerator;
+  }
+
+  /**
+   * Holds the generator key derived from a single server secret, along with the shared secrets derived from it.
+   */
+  private final class SecretGenerator {
+
+    private final byte[] serverSecret;
+    private final SecretKey generatorKey;
+    private final Cache<String, StreamSharedSecret> derivedSecrets;
+
+    private SecretGenerator(final byte[] serverSecret) {
+      this.serverSecret = serverSecret.clone();
+      this.generatorKey = new SecretKeySpec(
+          CryptoPrimitives.hmacSha256(
+              new SecretKeySpec(serverSecret, CryptoPrimitives.HMAC_SHA256), streamServerSecretGenerator
+          ),
+          CryptoPrimitives.HMAC_SHA256
+      );
+      this.derivedSecrets = Caffeine.newBuilder()
+          .maximumSize(maxCachedConnections)
+          .build();
+    }
+
+    private boolean isFor(final byte[] serverSecret) {
+      // Constant-time comparison so that the check does not leak how much of the secret matched.
+      return MessageDigest.isEqual(this.serverSecret, serverSecret);
+    }
+
+    private StreamSharedSecret deriveSecret(final String token) {
+      return derivedSecrets.get(token, $ -> StreamSharedSecret.of(
+          CryptoPrimitives.hmacSha256(generatorKey, token.getBytes(US_ASCII))
+      ));
+    }
   }
 }
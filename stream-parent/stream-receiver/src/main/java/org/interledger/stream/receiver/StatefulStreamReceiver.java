@@ -0,0 +1,324 @@
+package org.interledger.stream.receiver;
+
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.encoding.asn.framework.CodecContext;
+import org.interledger.stream.Denomination;
+import org.interledger.stream.StreamPacket;
+import org.interledger.stream.crypto.StreamSharedSecretCrypto;
+import org.interledger.stream.frames.StreamFrame;
+import org.interledger.stream.frames.StreamFrameType;
+import org.interledger.stream.frames.StreamMoneyFrame;
+import org.interledger.stream.frames.StreamMoneyMaxFrame;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.primitives.UnsignedLong;
+
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * <p>A {@link StreamReceiver} that, unlike its parent {@link StatelessStreamReceiver}, tracks how much money has
+ * been received on every stream of every connection and advertises the real {@code totalReceived} and {@code
+ * receiveMax} in its {@link StreamMoneyMaxFrame}s. This allows senders to size their packets correctly instead of
+ * over-sending and relying on rejects.</p>
+ *
+ * <p>Per-stream totals are lock-free counters. Packets that would take a stream over its receive max are rejected, as
+ * are replayed packets, so that no packet is credited twice. Connections are identified by the destination address of
+ * their packets. The window of recently seen sequence numbers that detects replays (see {@link StreamReplayDetector})
+ * is part of each connection's state, so it can never be forgotten while the connection's totals are still held.</p>
+ *
+ * <p>Connection state is evicted once no packet has been received on it for the configured idle timeout, and the
+ * number of connections is bounded so that senders minting new connection tokens cannot exhaust memory. A connection
+ * evicted while its Prepare packets are still unexpired starts afresh if one of them is replayed, so the bound should
+ * comfortably exceed the number of connections expected to be active at once.</p>
+ */
+public class StatefulStreamReceiver extends StatelessStreamReceiver {
+
+  /**
+   * The default amount of time a connection may go without receiving packets before its state is discarded.
+   */
+  public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(5);
+
+  /**
+   * The default maximum number of connections whose state is held at once.
+   */
+  public static final long DEFAULT_MAX_CONNECTIONS = 100_000;
+
+  private final UnsignedLong streamReceiveMax;
+  private final Cache<InterledgerAddress, ConnectionState> connections;
+
+  /**
+   * Required-args Constructor that allows every stream to receive up to {@link UnsignedLong#MAX_VALUE}, holds up to
+   * {@link #DEFAULT_MAX_CONNECTIONS} connections and evicts them after {@link #DEFAULT_IDLE_TIMEOUT}.
+   *
+   * @param serverSecretSupplier      A {@link ServerSecretSupplier}.
+   * @param streamConnectionGenerator A {@link StreamConnectionGenerator}.
+   * @param streamSharedSecretCrypto  A {@link StreamSharedSecretCrypto}.
+   * @param streamCodecContext        A {@link CodecContext} that can handle Stream encoding and decoding.
+   */
+  public StatefulStreamReceiver(
+    final ServerSecretSupplier serverSecretSupplier,
+    final StreamConnectionGenerator streamConnectionGenerator,
+    final StreamSharedSecretCrypto streamSharedSecretCrypto,
+    final CodecContext streamCodecContext
+  ) {
+    this(
+      serverSecretSupplier, streamConnectionGenerator, streamSharedSecretCrypto, streamCodecContext,
+      UnsignedLong.MAX_VALUE, DEFAULT_IDLE_TIMEOUT
+    );
+  }
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param serverSecretSupplier      A {@link ServerSecretSupplier}.
+   * @param streamConnectionGenerator A {@link StreamConnectionGenerator}.
+   * @param streamSharedSecretCrypto  A {@link StreamSharedSecretCrypto}.
+   * @param streamCodecContext        A {@link CodecContext} that can handle Stream encoding and decoding.
+   * @param streamReceiveMax          The maximum amount that any single stream may receive.
+   * @param idleTimeout               The amount of time a connection may go without receiving packets before its
+   *                                  state is discarded.
+   */
+  public StatefulStreamReceiver(
+    final ServerSecretSupplier serverSecretSupplier,
+    final StreamConnectionGenerator streamConnectionGenerator,
+    final StreamSharedSecretCrypto streamSharedSecretCrypto,
+    final CodecContext streamCodecContext,
+    final UnsignedLong streamReceiveMax,
+    final Duration idleTimeout
+  ) {
+    this(
+      serverSecretSupplier, streamConnectionGenerator, streamSharedSecretCrypto, streamCodecContext,
+      streamReceiveMax, idleTimeout, DEFAULT_MAX_CONNECTIONS
+    );
+  }
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param serverSecretSupplier      A {@link ServerSecretSupplier}.
+   * @param streamConnectionGenerator A {@link StreamConnectionGenerator}.
+   * @param streamSharedSecretCrypto  A {@link StreamSharedSecretCrypto}.
+   * @param streamCodecContext        A {@link CodecContext} that can handle Stream encoding and decoding.
+   * @param streamReceiveMax          The maximum amount that any single stream may receive.
+   * @param idleTimeout               The amount of time a connection may go without receiving packets before its
+   *                                  state is discarded.
+   * @param maxConnections            The maximum number of connections whose state is held at once.
+   */
+  public StatefulStreamReceiver(
+    final ServerSecretSupplier serverSecretSupplier,
+    final StreamConnectionGenerator streamConnectionGenerator,
+    final StreamSharedSecretCrypto streamSharedSecretCrypto,
+    final CodecContext streamCodecContext,
+    final UnsignedLong streamReceiveMax,
+    final Duration idleTimeout,
+    final long maxConnections
+  ) {
+    this(
+      serverSecretSupplier, streamConnectionGenerator, streamSharedSecretCrypto, streamCodecContext,
+      streamReceiveMax, idleTimeout, maxConnections, Ticker.systemTicker()
+    );
+  }
+
+  @VisibleForTesting
+  StatefulStreamReceiver(
+    final ServerSecretSupplier serverSecretSupplier,
+    final StreamConnectionGenerator streamConnectionGenerator,
+    final StreamSharedSecretCrypto streamSharedSecretCrypto,
+    final CodecContext streamCodecContext,
+    final UnsignedLong streamReceiveMax,
+    final Duration idleTimeout,
+    final long maxConnections,
+    final Ticker ticker
+  ) {
+    // Replays are detected by isReplay using each connection's own sequence window, not by a separate detector.
+    super(
+      serverSecretSupplier, streamConnectionGenerator, streamSharedSecretCrypto, streamCodecContext, Optional.empty()
+    );
+    this.streamReceiveMax = Objects.requireNonNull(streamReceiveMax, "streamReceiveMax must not be null");
+    Objects.requireNonNull(idleTimeout, "idleTimeout must not be null");
+    Preconditions.checkArgument(!idleTimeout.isNegative() && !idleTimeout.isZero(), "idleTimeout must be positive");
+    Preconditions.checkArgument(maxConnections > 0, "maxConnections must be greater than 0");
+    this.connections = Caffeine.newBuilder()
+      .maximumSize(maxConnections)
+      .expireAfterAccess(idleTimeout)
+      .ticker(Objects.requireNonNull(ticker))
+      .build();
+  }
+
+  /**
+   * Accessor for the total amount received on a stream.
+   *
+   * @param destinationAddress The destination {@link InterledgerAddress} of the connection's packets.
+   * @param streamId           The identifier of a stream on that connection.
+   *
+   * @return The total amount received on the stream, or {@link Optional#empty()} if this receiver has no state for it.
+   */
+  public Optional<UnsignedLong> totalReceived(final InterledgerAddress destinationAddress, final UnsignedLong streamId) {
+    Objects.requireNonNull(destinationAddress);
+    Objects.requireNonNull(streamId);
+
+    return Optional.ofNullable(connections.getIfPresent(destinationAddress))
+      .map(connectionState -> connectionState.streams.get(streamId))
+      .map(streamState -> UnsignedLong.fromLongBits(streamState.totalReceived.get()));
+  }
+
+  /**
+   * Accessor for the number of connections whose state is currently held.
+   *
+   * @return A long.
+   */
+  @VisibleForTesting
+  long connectionCount() {
+    connections.cleanUp();
+    return connections.estimatedSize();
+  }
+
+  /**
+   * Replays are tracked in the same {@link ConnectionState} as the connection's totals, so they are evicted together
+   * and a replay can never be mistaken for a new packet while the totals it was credited to are still held.
+   */
+  @Override
+  protected boolean isReplay(final InterledgerPreparePacket preparePacket, final StreamPacket streamPacket) {
+    final ConnectionState connectionState = connections.get(preparePacket.getDestination(), $ -> new ConnectionState());
+    return !connectionState.sequenceWindow.markSeen(streamPacket.sequence().longValue());
+  }
+
+  @Override
+  protected boolean acceptMoney(final InterledgerPreparePacket preparePacket, final StreamPacket streamPacket) {
+    final List<StreamMoneyFrame> moneyFrames = moneyFrames(streamPacket);
+    if (moneyFrames.isEmpty()) {
+      return true;
+    }
+
+    final ConnectionState connectionState = connections.get(preparePacket.getDestination(), $ -> new ConnectionState());
+    final long[] amounts = splitAmount(preparePacket.getAmount(), moneyFrames);
+
+    // Credit each stream, undoing any credits already applied if one of them would exceed its receive max.
+    for (int i = 0; i < moneyFrames.size(); i++) {
+      if (!connectionState.stream(moneyFrames.get(i).streamId()).credit(amounts[i], streamReceiveMax.longValue())) {
+        for (int j = 0; j < i; j++) {
+          connectionState.stream(moneyFrames.get(j).streamId()).totalReceived.addAndGet(-amounts[j]);
+        }
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  protected List<StreamFrame> constructResponseFrames(
+    final InterledgerPreparePacket preparePacket, final StreamPacket streamPacket, final Denomination denomination
+  ) {
+    final ConnectionState connectionState = connections.getIfPresent(preparePacket.getDestination());
+    return super.constructResponseFrames(preparePacket, streamPacket, denomination).stream()
+      .map(streamFrame -> {
+        if (streamFrame.streamFrameType() != StreamFrameType.StreamMoneyMax) {
+          return streamFrame;
+        }
+        final StreamMoneyMaxFrame streamMoneyMaxFrame = (StreamMoneyMaxFrame) streamFrame;
+        final UnsignedLong totalReceived = Optional.ofNullable(connectionState)
+          .map(state -> state.streams.get(streamMoneyMaxFrame.streamId()))
+          .map(streamState -> UnsignedLong.fromLongBits(streamState.totalReceived.get()))
+          .orElse(UnsignedLong.ZERO);
+        return StreamMoneyMaxFrame.builder()
+          .streamId(streamMoneyMaxFrame.streamId())
+          .totalReceived(totalReceived)
+          .receiveMax(streamReceiveMax)
+          .build();
+      })
+      .collect(Collectors.toList());
+  }
+
+  private static List<StreamMoneyFrame> moneyFrames(final StreamPacket streamPacket) {
+    return streamPacket.frames().stream()
+      .filter(streamFrame -> streamFrame.streamFrameType() == StreamFrameType.StreamMoney)
+      .map($ -> (StreamMoneyFrame) $)
+      .collect(Collectors.toList());
+  }
+
+  /**
+   * Split {@code amount} between {@code moneyFrames} in proportion to their shares, assigning any remainder to the
+   * last frame.
+   *
+   * @return The amount, as unsigned long bits, for each frame.
+   */
+  private static long[] splitAmount(final UnsignedLong amount, final List<StreamMoneyFrame> moneyFrames) {
+    final long[] amounts = new long[moneyFrames.size()];
+    if (moneyFrames.size() == 1) {
+      amounts[0] = amount.longValue();
+      return amounts;
+    }
+
+    final BigInteger totalShares = moneyFrames.stream()
+      .map(moneyFrame -> moneyFrame.shares().bigIntegerValue())
+      .reduce(BigInteger.ZERO, BigInteger::add);
+    if (totalShares.signum() == 0) {
+      amounts[amounts.length - 1] = amount.longValue();
+      return amounts;
+    }
+
+    BigInteger remaining = amount.bigIntegerValue();
+    for (int i = 0; i < amounts.length - 1; i++) {
+      final BigInteger frameAmount = amount.bigIntegerValue()
+        .multiply(moneyFrames.get(i).shares().bigIntegerValue())
+        .divide(totalShares);
+      amounts[i] = frameAmount.longValue();
+      remaining = remaining.subtract(frameAmount);
+    }
+    amounts[amounts.length - 1] = remaining.longValue();
+    return amounts;
+  }
+
+  /**
+   * The state of a single STREAM connection.
+   */
+  private static final class ConnectionState {
+
+    private final ConcurrentMap<UnsignedLong, StreamState> streams = new ConcurrentHashMap<>();
+    private final StreamSequenceWindow sequenceWindow = new StreamSequenceWindow();
+
+    private StreamState stream(final UnsignedLong streamId) {
+      return streams.computeIfAbsent(streamId, $ -> new StreamState());
+    }
+  }
+
+  /**
+   * The state of a single stream, holding its total as the bits of an unsigned long.
+   */
+  private static final class StreamState {
+
+    private final AtomicLong totalReceived = new AtomicLong();
+
+    /**
+     * Atomically add {@code amount} to the total, unless doing so would exceed {@code receiveMax}.
+     *
+     * @return {@code true} if the amount was added; {@code false} otherwise.
+     */
+    private boolean credit(final long amount, final long receiveMax) {
+      while (true) {
+        final long current = totalReceived.get();
+        final long next = current + amount;
+        // An unsigned overflow wraps around to a value below the current total.
+        if (Long.compareUnsigned(next, current) < 0 || Long.compareUnsigned(next, receiveMax) > 0) {
+          return false;
+        }
+        if (totalReceived.compareAndSet(current, next)) {
+          return true;
+        }
+      }
+    }
+  }
+}
@@ -38,8 +38,10 @@ import org.slf4j.LoggerFactory;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 
 /**
  * <p>A stateless implementation of {@link StreamReceiver} that does **not** maintain STREAM state, but instead
@@ -56,12 +58,16 @@ import java.util.Objects;
  */
 public class StatelessStreamReceiver implements StreamReceiver {
 
+  private static final ThreadLocal<ByteBuffer> localTemplateBuffer =
+    ThreadLocal.withInitial(() -> ByteBuffer.allocate(StreamResponseTemplate.MAX_ENCODED_LENGTH));
+
   private final Logger logger = LoggerFactory.getLogger(this.getClass());
   private final ServerSecretSupplier serverSecretSupplier;
   private final StreamConnectionGenerator streamConnectionGenerator;
   private final StreamEncryptionService streamEncryptionService;
   private final StreamSharedSecretCrypto streamSharedSecretCrypto;
   private final CodecContext streamCodecContext;
+  private final Optional<StreamReplayDetector> streamReplayDetector;
 
   /**
    * Required-args Constructor.
@@ -90,6 +96,7 @@ public class StatelessStreamReceiver implements StreamReceiver {
     this.streamSharedSecretCrypto = null;
 
     this.streamCodecContext = Objects.requireNonNull(streamCodecContext, "streamCodecContext must not be null");
+    this.streamReplayDetector = Optional.empty();
   }
 
   /**
@@ -105,6 +112,29 @@ public class StatelessStreamReceiver implements StreamReceiver {
     final StreamConnectionGenerator streamConnectionGenerator,
     final StreamSharedSecretCrypto streamSharedSecretCrypto,
     final CodecContext streamCodecContext
+  ) {
+    this(
+      serverSecretSupplier, streamConnectionGenerator, streamSharedSecretCrypto, streamCodecContext, Optional.empty()
+    );
+  }
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param serverSecretSupplier      A {@link ServerSecretSupplier}.
+   * @param streamConnectionGenerator A {@link StreamConnectionGenerator}.
+   * @param streamSharedSecretCrypto  A {@link StreamSharedSecretCrypto}.
+   * @param streamCodecContext        A {@link CodecContext} that can handle Stream encoding and decoding.
+   * @param streamReplayDetector      An optionally-present {@link StreamReplayDetector}. If present, fulfillable packets
+   *                                  whose sequence was already seen on their connection are rejected without being
+   *                                  fulfilled or answered with an encrypted response.
+   */
+  public StatelessStreamReceiver(
+    final ServerSecretSupplier serverSecretSupplier,
+    final StreamConnectionGenerator streamConnectionGenerator,
+    final StreamSharedSecretCrypto streamSharedSecretCrypto,
+    final CodecContext streamCodecContext,
+    final Optional<StreamReplayDetector> streamReplayDetector
   ) {
     this.serverSecretSupplier = Objects.requireNonNull(serverSecretSupplier, "serverSecretSupplier must not be null");
     this.streamConnectionGenerator = Objects
@@ -115,6 +145,8 @@ public class StatelessStreamReceiver implements StreamReceiver {
       .requireNonNull(streamSharedSecretCrypto, "streamSharedSecretCrypto must not be null");
 
     this.streamCodecContext = Objects.requireNonNull(streamCodecContext, "streamCodecContext must not be null");
+    this.streamReplayDetector = Objects
+      .requireNonNull(streamReplayDetector, "streamReplayDetector must not be null");
   }
 
   @Override
@@ -133,9 +165,8 @@ public class StatelessStreamReceiver implements StreamReceiver {
     Objects.requireNonNull(receiverAddress);
 
     // Will throw if there's an error...
-    final SharedSecret deprecatedStreamSharedSecret = this.streamConnectionGenerator
-      .deriveSecretFromAddress(serverSecretSupplier, preparePacket.getDestination());
-    final StreamSharedSecret streamSharedSecret = StreamSharedSecret.of(deprecatedStreamSharedSecret.key());
+    final StreamSharedSecret streamSharedSecret = this.streamConnectionGenerator
+      .deriveStreamSharedSecretFromAddress(serverSecretSupplier, preparePacket.getDestination());
 
     final StreamPacket streamPacket;
     try {
@@ -161,16 +192,32 @@ public class StatelessStreamReceiver implements StreamReceiver {
         .build();
     }
 
-    final List<StreamFrame> responseFrames = this.constructResponseFrames(streamPacket, denomination);
-
     // Generate expectedFulfillment using the shared secret that was pre-negotiated with the sender.
     final InterledgerFulfillment expectedFulfillment
       = StreamPacketUtils.generateFulfillableFulfillment(streamSharedSecret, preparePacket.getData());
     // The packet is fulfillable based upon the condition/expectedFulfillment. However, we need to check the amounts below
     final boolean isFulfillable = this.isFulfillable(preparePacket, expectedFulfillment);
+    final boolean isAmountSufficient = is(preparePacket.getAmount()).greaterThanEqualTo(streamPacket.prepareAmount());
+
+    // A replayed packet must not be fulfilled or accounted for twice, so skip all further work and reject it cheaply.
+    // Packets that would be rejected anyway, such as unfulfillable probes, are answered normally even when repeated.
+    if (isFulfillable && isAmountSufficient && this.isReplay(preparePacket, streamPacket)) {
+      logger.debug("Rejecting replayed STREAM packet. preparePacket={} sequence={}",
+        preparePacket, streamPacket.sequence());
+      return InterledgerRejectPacket.builder()
+        .code(InterledgerErrorCode.F99_APPLICATION_ERROR)
+        .message("Duplicate STREAM packet sequence")
+        .triggeredBy(receiverAddress)
+        .build();
+    }
+
+    final boolean isAccepted = isFulfillable && isAmountSufficient && this.acceptMoney(preparePacket, streamPacket);
+
+    // Constructed after the money was accepted so that any accounting reflects this packet.
+    final List<StreamFrame> responseFrames = this.constructResponseFrames(preparePacket, streamPacket, denomination);
 
     // Return Fulfill or Reject Packet
-    if (isFulfillable && is(preparePacket.getAmount()).greaterThanEqualTo(streamPacket.prepareAmount())) {
+    if (isAccepted) {
       final StreamPacket returnableStreamPacketResponse = StreamPacket.builder()
         .sequence(streamPacket.sequence())
         .interledgerPacketType(InterledgerPacketType.FULFILL)
@@ -184,21 +231,13 @@ public class StatelessStreamReceiver implements StreamReceiver {
         preparePacket, expectedFulfillment, returnableStreamPacketResponse
       );
 
-      try {
-        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        streamCodecContext.write(returnableStreamPacketResponse, baos);
-        final byte[] returnableStreamPacketBytes = baos.toByteArray();
-        final byte[] encryptedReturnableStreamPacketBytes
-          = this.encryptHelper(streamSharedSecret, returnableStreamPacketBytes);
-        return InterledgerFulfillPacket.builder()
-          .fulfillment(expectedFulfillment)
-          .data(encryptedReturnableStreamPacketBytes)
-          .typedData(returnableStreamPacketResponse)
-          .build();
-
-      } catch (IOException e) {
-        throw new StreamException(e.getMessage(), e);
-      }
+      final byte[] encryptedReturnableStreamPacketBytes
+        = this.encodeAndEncrypt(streamSharedSecret, returnableStreamPacketResponse);
+      return InterledgerFulfillPacket.builder()
+        .fulfillment(expectedFulfillment)
+        .data(encryptedReturnableStreamPacketBytes)
+        .typedData(returnableStreamPacketResponse)
+        .build();
     } else {
       // Either the packet was simply not fulfillable, or, the amounts were wrong.
       final StreamPacket returnableStreamPacketResponse = StreamPacket.builder()
@@ -213,12 +252,15 @@ public class StatelessStreamReceiver implements StreamReceiver {
         logger.debug("Incoming Prepare packet is unfulfillable due to invalid condition/expectedFulfillment mismatch "
           + "or other unknown reasons preparePacket={} expectedFulfillment={}", preparePacket, expectedFulfillment);
         rejectionErrorMessage = "Packet not fulfillable";
-      } else {
+      } else if (!isAmountSufficient) {
         logger.debug(
           "Received only: {} when we should have received at least: {}",
           preparePacket.getAmount(), streamPacket.prepareAmount()
         );
         rejectionErrorMessage = "STREAM packet not fulfillable (prepare amount < stream packet prepareAmount)";
+      } else {
+        logger.debug("Incoming Prepare packet was not accepted by this receiver. preparePacket={}", preparePacket);
+        rejectionErrorMessage = "STREAM packet not fulfillable (amount exceeds stream receive max)";
       }
 
       logger.debug(
@@ -226,26 +268,64 @@ public class StatelessStreamReceiver implements StreamReceiver {
         preparePacket, returnableStreamPacketResponse
       );
 
-      try {
-        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        streamCodecContext.write(returnableStreamPacketResponse, baos);
-        final byte[] returnableStreamPacketBytes = baos.toByteArray();
-        final byte[] encryptedReturnableStreamPacketBytes
-          = this.encryptHelper(streamSharedSecret, returnableStreamPacketBytes);
-
-        return InterledgerRejectPacket.builder()
-          .code(InterledgerErrorCode.F99_APPLICATION_ERROR)
-          .message(rejectionErrorMessage)
-          .triggeredBy(receiverAddress)
-          .data(encryptedReturnableStreamPacketBytes)
-          .typedData(returnableStreamPacketResponse)
-          .build();
-      } catch (IOException e) {
-        throw new StreamException(e.getMessage(), e);
-      }
+      final byte[] encryptedReturnableStreamPacketBytes
+        = this.encodeAndEncrypt(streamSharedSecret, returnableStreamPacketResponse);
+      return InterledgerRejectPacket.builder()
+        .code(InterledgerErrorCode.F99_APPLICATION_ERROR)
+        .message(rejectionErrorMessage)
+        .triggeredBy(receiverAddress)
+        .data(encryptedReturnableStreamPacketBytes)
+        .typedData(returnableStreamPacketResponse)
+        .build();
     }
   }
 
+  /**
+   * Called for every decrypted Prepare packet that would otherwise be fulfilled to decide whether it replays a packet
+   * already received on the same connection. This implementation consults the {@link StreamReplayDetector} supplied at
+   * construction, if any; stateful subclasses can instead track sequences alongside the rest of their per-connection
+   * state.
+   *
+   * @param preparePacket The {@link InterledgerPreparePacket} being received.
+   * @param streamPacket  The decrypted {@link StreamPacket} carried by {@code preparePacket}.
+   *
+   * @return {@code true} if the packet is a replay and must be rejected; {@code false} otherwise.
+   */
+  protected boolean isReplay(final InterledgerPreparePacket preparePacket, final StreamPacket streamPacket) {
+    return streamReplayDetector.isPresent()
+      && streamReplayDetector.get().isReplay(preparePacket.getDestination(), streamPacket.sequence());
+  }
+
+  /**
+   * Called for every fulfillable Prepare packet, before its response frames are constructed, to decide whether it
+   * should actually be fulfilled. This implementation keeps no state and accepts every such packet; stateful
+   * subclasses can use this method to account for, or refuse, the money in {@code preparePacket}.
+   *
+   * @param preparePacket The {@link InterledgerPreparePacket} being fulfilled.
+   * @param streamPacket  The decrypted {@link StreamPacket} carried by {@code preparePacket}.
+   *
+   * @return {@code true} if the packet should be fulfilled; {@code false} if it should be rejected.
+   */
+  protected boolean acceptMoney(final InterledgerPreparePacket preparePacket, final StreamPacket streamPacket) {
+    return true;
+  }
+
+  /**
+   * Construct the proper Collection of frames for the STREAM response to {@code preparePacket}. This implementation
+   * keeps no state, and so delegates to {@link #constructResponseFrames(StreamPacket, Denomination)}.
+   *
+   * @param preparePacket The {@link InterledgerPreparePacket} being responded to.
+   * @param streamPacket  A {@link StreamPacket} to inspect when creating response frames.
+   * @param denomination  The {@link Denomination} of the incoming packet payment.
+   *
+   * @return A {@link List} of {@link StreamFrame}.
+   */
+  protected List<StreamFrame> constructResponseFrames(
+    final InterledgerPreparePacket preparePacket, final StreamPacket streamPacket, final Denomination denomination
+  ) {
+    return this.constructResponseFrames(streamPacket, denomination);
+  }
+
   /**
    * Construct the proper Collection of frames for this STREAM response. This method is visible for enhanced test
    * coverage.
@@ -338,6 +418,40 @@ public class StatelessStreamReceiver implements StreamReceiver {
     }
   }
 
+  /**
+   * Encode {@code streamPacket} into ASN.1 OER and encrypt it. Responses consisting of a single {@link
+   * StreamMoneyMaxFrame}, which is by far the most common case, are written via a {@link StreamResponseTemplate} and
+   * encrypted directly into the returned array; all other responses go through {@link #streamCodecContext}.
+   *
+   * @param streamSharedSecret A {@link StreamSharedSecret}.
+   * @param streamPacket       The response {@link StreamPacket} to encode and encrypt.
+   *
+   * @return A byte[] containing the encrypted bytes of {@code streamPacket}.
+   */
+  private byte[] encodeAndEncrypt(final StreamSharedSecret streamSharedSecret, final StreamPacket streamPacket) {
+    if (this.streamSharedSecretCrypto != null && StreamResponseTemplate.matches(streamPacket)) {
+      final ByteBuffer encodedStreamPacket = localTemplateBuffer.get();
+      encodedStreamPacket.clear();
+      final int encodedLength = StreamResponseTemplate.write(streamPacket, encodedStreamPacket);
+      encodedStreamPacket.flip();
+
+      final byte[] encryptedStreamPacketBytes
+        = new byte[encodedLength + StreamSharedSecretCrypto.ENCRYPTION_OVERHEAD_BYTES];
+      this.streamSharedSecretCrypto.encrypt(
+        streamSharedSecret, encodedStreamPacket, ByteBuffer.wrap(encryptedStreamPacketBytes)
+      );
+      return encryptedStreamPacketBytes;
+    }
+
+    try {
+      final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+      streamCodecContext.write(streamPacket, baos);
+      return this.encryptHelper(streamSharedSecret, baos.toByteArray());
+    } catch (IOException e) {
+      throw new StreamException(e.getMessage(), e);
+    }
+  }
+
   /**
    * Decrypt the prepare packet's data using whichever encryption service was passed-in via the constructor.
    *
@@ -4,6 +4,7 @@ import org.interledger.core.InterledgerAddress;
 import org.interledger.core.SharedSecret;
 import org.interledger.spsp.StreamConnectionDetails;
 import org.interledger.stream.StreamException;
+import org.interledger.stream.crypto.StreamSharedSecret;
 
 import java.util.function.Supplier;
 
@@ -36,4 +37,22 @@ public interface StreamConnectionGenerator {
   SharedSecret deriveSecretFromAddress(ServerSecretSupplier serverSecretSupplier, InterledgerAddress receiverAddress)
       throws StreamException;
 
+  /**
+   * Derive the `shared secret` from {@code receiverAddress} as a {@link StreamSharedSecret}, returning an error if the
+   * address has been modified in any way or if the packet was not generated with the same server secret.
+   *
+   * <p>Implementations may return the same instance for repeated calls with the same address, which allows keys
+   * derived from the secret to be reused across packets.</p>
+   *
+   * @param serverSecretSupplier A {@link Supplier} for the server's secret.
+   * @param receiverAddress      The {@link InterledgerAddress} of the STREAM-compatible receiver.
+   *
+   * @return A {@link StreamSharedSecret} containing the shared secret used to construct the address.
+   */
+  default StreamSharedSecret deriveStreamSharedSecretFromAddress(
+      ServerSecretSupplier serverSecretSupplier, InterledgerAddress receiverAddress
+  ) throws StreamException {
+    return StreamSharedSecret.of(deriveSecretFromAddress(serverSecretSupplier, receiverAddress).key());
+  }
+
 }
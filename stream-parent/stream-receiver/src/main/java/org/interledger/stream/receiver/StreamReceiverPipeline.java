@@ -0,0 +1,152 @@
+package org.interledger.stream.receiver;
+
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerErrorCode;
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerRejectPacket;
+import org.interledger.core.InterledgerResponsePacket;
+import org.interledger.stream.Denomination;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Accepts incoming Prepare packets asynchronously and processes them with a {@link StreamReceiver} on a fixed set
+ * of worker threads.</p>
+ *
+ * <p>Work is sharded by connection token (the last segment of the Prepare's destination address) so that every packet
+ * for a given STREAM connection is processed by the same single-threaded shard, in arrival order, while different
+ * connections are processed in parallel. Each shard has a bounded queue; when it is full, the packet is immediately
+ * rejected with {@link InterledgerErrorCode#T03_CONNECTOR_BUSY} so that the sender backs off instead of this receiver
+ * buffering without bound.</p>
+ */
+public class StreamReceiverPipeline implements AutoCloseable {
+
+  /**
+   * The default number of packets that may be queued per shard before packets are rejected.
+   */
+  public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+  private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+  private final StreamReceiver streamReceiver;
+  private final ThreadPoolExecutor[] shards;
+
+  /**
+   * Required-args Constructor that creates one shard per available processor, each with a queue capacity of {@link
+   * #DEFAULT_QUEUE_CAPACITY}.
+   *
+   * @param streamReceiver The {@link StreamReceiver} that processes each Prepare packet.
+   */
+  public StreamReceiverPipeline(final StreamReceiver streamReceiver) {
+    this(streamReceiver, Runtime.getRuntime().availableProcessors(), DEFAULT_QUEUE_CAPACITY);
+  }
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param streamReceiver The {@link StreamReceiver} that processes each Prepare packet.
+   * @param numShards      The number of single-threaded shards to process packets on.
+   * @param queueCapacity  The number of packets that may be queued per shard before packets are rejected.
+   */
+  public StreamReceiverPipeline(final StreamReceiver streamReceiver, final int numShards, final int queueCapacity) {
+    this.streamReceiver = Objects.requireNonNull(streamReceiver, "streamReceiver must not be null");
+    Preconditions.checkArgument(numShards > 0, "numShards must be greater than 0");
+    Preconditions.checkArgument(queueCapacity > 0, "queueCapacity must be greater than 0");
+
+    final ThreadFactory threadFactory = new ThreadFactoryBuilder()
+      .setDaemon(true)
+      .setNameFormat("stream-receiver-pipeline-%d")
+      .build();
+    this.shards = new ThreadPoolExecutor[numShards];
+    for (int i = 0; i < numShards; i++) {
+      // AbortPolicy (the default) surfaces a full queue as a RejectedExecutionException, which becomes a T03.
+      this.shards[i] = new ThreadPoolExecutor(
+        1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity), threadFactory
+      );
+    }
+  }
+
+  /**
+   * Asynchronously receive money on behalf of {@code clientAddress}. See {@link StreamReceiver#receiveMoney(
+   * InterledgerPreparePacket, InterledgerAddress, Denomination)}.
+   *
+   * @param preparePacket The {@link InterledgerPreparePacket} to process.
+   * @param clientAddress A {@link InterledgerAddress} of the account this packet should be delivered to.
+   * @param denomination  A {@link Denomination} containing information about the value this receiver is receiving.
+   *
+   * @return A {@link CompletableFuture} that completes with the response for {@code preparePacket}, or with a {@link
+   *   InterledgerErrorCode#T03_CONNECTOR_BUSY} reject if this pipeline cannot accept more work. The future completes
+   *   exceptionally if the underlying {@link StreamReceiver} throws.
+   */
+  public CompletableFuture<InterledgerResponsePacket> receiveMoney(
+    final InterledgerPreparePacket preparePacket,
+    final InterledgerAddress clientAddress,
+    final Denomination denomination
+  ) {
+    Objects.requireNonNull(preparePacket);
+    Objects.requireNonNull(clientAddress);
+    Objects.requireNonNull(denomination);
+
+    final ThreadPoolExecutor shard = shards[shardIndex(preparePacket.getDestination())];
+    try {
+      return CompletableFuture.supplyAsync(
+        () -> streamReceiver.receiveMoney(preparePacket, clientAddress, denomination), shard
+      );
+    } catch (RejectedExecutionException e) {
+      if (logger.isDebugEnabled()) {
+        logger.debug("Rejecting Prepare because the receive pipeline is busy. preparePacket={}", preparePacket);
+      }
+      return CompletableFuture.completedFuture(InterledgerRejectPacket.builder()
+        .code(InterledgerErrorCode.T03_CONNECTOR_BUSY)
+        .message(shard.isShutdown() ? "STREAM receiver is shutting down" : "STREAM receiver is busy")
+        .triggeredBy(clientAddress)
+        .build());
+    }
+  }
+
+  /**
+   * Stop accepting packets and wait for all queued packets to be processed.
+   */
+  @Override
+  public void close() {
+    for (ThreadPoolExecutor shard : shards) {
+      shard.shutdown();
+    }
+    try {
+      for (ThreadPoolExecutor shard : shards) {
+        shard.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Compute the shard for a destination address from its connection token, which is the final segment of the address
+   * (see {@link SpspStreamConnectionGenerator}).
+   *
+   * @param destinationAddress The {@link InterledgerAddress} of an incoming Prepare packet.
+   *
+   * @return The index of the shard that owns the connection.
+   */
+  int shardIndex(final InterledgerAddress destinationAddress) {
+    final String address = destinationAddress.getValue();
+    int hash = 0;
+    for (int i = address.lastIndexOf('.') + 1; i < address.length(); i++) {
+      hash = 31 * hash + address.charAt(i);
+    }
+    // Spread the high bits so that tokens differing only in their final characters still land on different shards.
+    return Math.floorMod(hash ^ (hash >>> 16), shards.length);
+  }
+}
@@ -0,0 +1,90 @@
+package org.interledger.stream.receiver;
+
+import org.interledger.core.InterledgerAddress;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.primitives.UnsignedLong;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * <p>Detects STREAM packets whose sequence number has already been seen on the same connection, which happens when a
+ * misbehaving or retrying sender replays a Prepare packet.</p>
+ *
+ * <p>Each connection (identified by the destination address of its packets) is tracked with a sliding window over the
+ * most recent {@link #WINDOW_SIZE} sequence numbers: the highest sequence seen, plus a bitmap of which of the preceding
+ * sequences have been seen. A sequence that is older than the window cannot be verified and is reported as a replay.
+ * This costs a few dozen bytes per connection, and the number of tracked connections is bounded by both a maximum size
+ * and an idle timeout.</p>
+ */
+public class StreamReplayDetector {
+
+  /**
+   * The number of sequence numbers, ending at the highest one seen, that are tracked per connection.
+   */
+  public static final int WINDOW_SIZE = 128;
+
+  /**
+   * The default maximum number of connections to track.
+   */
+  public static final long DEFAULT_MAX_CONNECTIONS = 100_000;
+
+  /**
+   * The default amount of time a connection may go without packets before it is no longer tracked.
+   */
+  public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(5);
+
+  private final Cache<InterledgerAddress, StreamSequenceWindow> windows;
+
+  /**
+   * No-args Constructor that tracks up to {@link #DEFAULT_MAX_CONNECTIONS} connections for up to {@link
+   * #DEFAULT_IDLE_TIMEOUT}.
+   */
+  public StreamReplayDetector() {
+    this(DEFAULT_MAX_CONNECTIONS, DEFAULT_IDLE_TIMEOUT);
+  }
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param maxConnections The maximum number of connections to track.
+   * @param idleTimeout    The amount of time a connection may go without packets before it is no longer tracked.
+   */
+  public StreamReplayDetector(final long maxConnections, final Duration idleTimeout) {
+    this(maxConnections, idleTimeout, Ticker.systemTicker());
+  }
+
+  @VisibleForTesting
+  StreamReplayDetector(final long maxConnections, final Duration idleTimeout, final Ticker ticker) {
+    Preconditions.checkArgument(maxConnections > 0, "maxConnections must be greater than 0");
+    Objects.requireNonNull(idleTimeout, "idleTimeout must not be null");
+    Preconditions.checkArgument(!idleTimeout.isNegative() && !idleTimeout.isZero(), "idleTimeout must be positive");
+    this.windows = Caffeine.newBuilder()
+      .maximumSize(maxConnections)
+      .expireAfterAccess(idleTimeout)
+      .ticker(Objects.requireNonNull(ticker))
+      .build();
+  }
+
+  /**
+   * Record that a packet with {@code sequence} was received on the connection for {@code destinationAddress}.
+   *
+   * @param destinationAddress The destination {@link InterledgerAddress} of the packet.
+   * @param sequence           The STREAM sequence number of the packet.
+   *
+   * @return {@code true} if this sequence was already seen on the connection, or is too old to tell; {@code false} if
+   *   this is the first time the sequence has been seen.
+   */
+  public boolean isReplay(final InterledgerAddress destinationAddress, final UnsignedLong sequence) {
+    Objects.requireNonNull(destinationAddress);
+    Objects.requireNonNull(sequence);
+
+    final StreamSequenceWindow window = windows.get(destinationAddress, $ -> new StreamSequenceWindow());
+    return !window.markSeen(sequence.longValue());
+  }
+}
@@ -0,0 +1,103 @@
+package org.interledger.stream.receiver;
+
+import org.interledger.core.InterledgerPacketType;
+import org.interledger.stream.StreamPacket;
+import org.interledger.stream.frames.StreamFrame;
+import org.interledger.stream.frames.StreamFrameType;
+import org.interledger.stream.frames.StreamMoneyMaxFrame;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * <p>Writes the ASN.1 OER encoding of the most common STREAM response, a Fulfill or Reject {@link StreamPacket} with a
+ * single {@link StreamMoneyMaxFrame}, without going through a {@link
+ * org.interledger.encoding.asn.framework.CodecContext}.</p>
+ *
+ * <p>The layout of such a packet never changes; only its variable-length unsigned integers do. This class therefore
+ * copies the constant bytes from a template and writes just the varying fields, producing output that is byte-for-byte
+ * identical to the codec's. Responses with any other mix of frames must use the codec.</p>
+ */
+final class StreamResponseTemplate {
+
+  /**
+   * The maximum length of an encoded template packet: version and type, two var-uints, the frame count, and the frame
+   * itself (type, length prefix and three var-uints).
+   */
+  static final int MAX_ENCODED_LENGTH = 2 + 9 + 9 + 2 + 2 + (3 * 9);
+
+  private static final byte STREAM_VERSION = 1;
+  private static final byte[] ONE_FRAME = new byte[] {1, 1}; // var-uint quantity of 1
+
+  private StreamResponseTemplate() {
+  }
+
+  /**
+   * Whether {@code streamPacket} can be written by {@link #write(StreamPacket, ByteBuffer)}.
+   *
+   * @param streamPacket A {@link StreamPacket} to inspect.
+   *
+   * @return {@code true} if {@code streamPacket} is a response with a single {@link StreamMoneyMaxFrame}.
+   */
+  static boolean matches(final StreamPacket streamPacket) {
+    Objects.requireNonNull(streamPacket);
+    final List<StreamFrame> frames = streamPacket.frames();
+    return streamPacket.interledgerPacketType() != InterledgerPacketType.PREPARE
+      && streamPacket.version() == STREAM_VERSION
+      && frames.size() == 1
+      && frames.get(0).streamFrameType() == StreamFrameType.StreamMoneyMax;
+  }
+
+  /**
+   * Write the ASN.1 OER encoding of {@code streamPacket}, which must satisfy {@link #matches(StreamPacket)}, into
+   * {@code out} starting at its current position.
+   *
+   * @param streamPacket A {@link StreamPacket} to encode.
+   * @param out          A {@link ByteBuffer} with at least {@link #MAX_ENCODED_LENGTH} bytes remaining.
+   *
+   * @return The number of bytes written.
+   */
+  static int write(final StreamPacket streamPacket, final ByteBuffer out) {
+    final int startPosition = out.position();
+    final StreamMoneyMaxFrame frame = (StreamMoneyMaxFrame) streamPacket.frames().get(0);
+
+    out.put(STREAM_VERSION);
+    out.put((byte) streamPacket.interledgerPacketType().getType());
+    putVarUInt(out, streamPacket.sequence().longValue());
+    putVarUInt(out, streamPacket.prepareAmount().longValue());
+    out.put(ONE_FRAME);
+
+    out.put((byte) StreamFrameType.StreamMoneyMax.code());
+    // The frame's data is an open type, so it is prefixed with its length, which is always less than 128 (one byte).
+    final long streamId = frame.streamId().longValue();
+    final long receiveMax = frame.receiveMax().longValue();
+    final long totalReceived = frame.totalReceived().longValue();
+    out.put((byte) (varUIntLength(streamId) + varUIntLength(receiveMax) + varUIntLength(totalReceived)));
+    putVarUInt(out, streamId);
+    putVarUInt(out, receiveMax);
+    putVarUInt(out, totalReceived);
+
+    return out.position() - startPosition;
+  }
+
+  /**
+   * The encoded length of an OER variable-length unsigned integer: a length prefix followed by the minimal number of
+   * big-endian bytes (at least one).
+   */
+  private static int varUIntLength(final long unsignedValue) {
+    return 1 + numBytes(unsignedValue);
+  }
+
+  private static int numBytes(final long unsignedValue) {
+    return Math.max(1, (Long.SIZE - Long.numberOfLeadingZeros(unsignedValue) + 7) / 8);
+  }
+
+  private static void putVarUInt(final ByteBuffer out, final long unsignedValue) {
+    final int numBytes = numBytes(unsignedValue);
+    out.put((byte) numBytes);
+    for (int shift = (numBytes - 1) * 8; shift >= 0; shift -= 8) {
+      out.put((byte) (unsignedValue >>> shift));
+    }
+  }
+}
@@ -0,0 +1,63 @@
+package org.interledger.stream.receiver;
+
+/**
+ * A sliding window over the most recent {@link StreamReplayDetector#WINDOW_SIZE} sequence numbers of a single STREAM
+ * connection. Bit {@code n} of the window is set if sequence {@code highest - n} has been seen; {@code low} holds bits
+ * 0-63 and {@code high} holds bits 64-127.
+ */
+final class StreamSequenceWindow {
+
+  private boolean empty = true;
+  private long highest;
+  private long low;
+  private long high;
+
+  /**
+   * Mark {@code sequence} (an unsigned long) as seen.
+   *
+   * @return {@code true} if it had not been seen before; {@code false} otherwise.
+   */
+  synchronized boolean markSeen(final long sequence) {
+    if (empty) {
+      empty = false;
+      highest = sequence;
+      low = 1L;
+      return true;
+    }
+
+    if (Long.compareUnsigned(sequence, highest) > 0) {
+      final long shift = sequence - highest;
+      if (shift >= StreamReplayDetector.WINDOW_SIZE) {
+        high = 0L;
+        low = 0L;
+      } else if (shift >= Long.SIZE) {
+        high = low << (shift - Long.SIZE);
+        low = 0L;
+      } else {
+        high = (high << shift) | (low >>> (Long.SIZE - shift));
+        low = low << shift;
+      }
+      low |= 1L;
+      highest = sequence;
+      return true;
+    }
+
+    final long offset = highest - sequence;
+    if (offset >= StreamReplayDetector.WINDOW_SIZE) {
+      return false;
+    }
+    final long bit = 1L << offset; // Shift distances are taken mod 64, which selects the bit in either word.
+    if (offset < Long.SIZE) {
+      if ((low & bit) != 0) {
+        return false;
+      }
+      low |= bit;
+    } else {
+      if ((high & bit) != 0) {
+        return false;
+      }
+      high |= bit;
+    }
+    return true;
+  }
+}
@@ -11,6 +11,7 @@ import org.interledger.spsp.StreamConnectionDetails;
 import org.interledger.stream.Denomination;
 import org.interledger.stream.crypto.JavaxStreamEncryptionService;
 import org.interledger.stream.crypto.Random;
+import org.interledger.stream.crypto.StreamSharedSecret;
 
 import com.google.common.io.BaseEncoding;
 import org.junit.Before;
@@ -175,6 +176,55 @@ public class SpspStreamStreamConnectionGeneratorTest {
     );
   }
 
+  @Test
+  public void deriveStreamSharedSecretReusesCachedSecretForSameToken() {
+    final StreamConnectionDetails connectionDetails = connectionGenerator
+      .generateConnectionDetails(serverSecretSupplier, InterledgerAddress.of("example.receiver"));
+
+    final StreamSharedSecret first = connectionGenerator
+      .deriveStreamSharedSecretFromAddress(serverSecretSupplier, connectionDetails.destinationAddress());
+    final StreamSharedSecret second = connectionGenerator
+      .deriveStreamSharedSecretFromAddress(() -> serverSecretSupplier.get().clone(),
+        connectionDetails.destinationAddress());
+
+    assertThat(second).isSameAs(first);
+    assertThat(first.key()).isEqualTo(connectionDetails.sharedSecret().key());
+  }
+
+  @Test
+  public void deriveStreamSharedSecretWithoutCache() {
+    final StreamConnectionGenerator uncachedConnectionGenerator
+      = new SpspStreamConnectionGenerator("ilp_stream_shared_secret", 0);
+    final StreamConnectionDetails connectionDetails = connectionGenerator
+      .generateConnectionDetails(serverSecretSupplier, InterledgerAddress.of("example.receiver"));
+
+    final StreamSharedSecret derived = uncachedConnectionGenerator
+      .deriveStreamSharedSecretFromAddress(serverSecretSupplier, connectionDetails.destinationAddress());
+
+    assertThat(derived.key()).isEqualTo(connectionDetails.sharedSecret().key());
+  }
+
+  @Test
+  public void deriveStreamSharedSecretAfterServerSecretChanges() {
+    final InterledgerAddress receiverAddress = InterledgerAddress.of("example.connie.bob.QeJvQtFp7eRiNhnoAg9PkusR");
+
+    final StreamSharedSecret fromRandomSecret = connectionGenerator
+      .deriveStreamSharedSecretFromAddress(serverSecretSupplier, receiverAddress);
+    final StreamSharedSecret fromZeroSecret = connectionGenerator
+      .deriveStreamSharedSecretFromAddress(() -> new byte[32], receiverAddress);
+
+    assertThat(fromZeroSecret.value()).isNotEqualTo(fromRandomSecret.value());
+    assertThat(BaseEncoding.base64().encode(fromZeroSecret.key()))
+      .isEqualTo("nHYRcu5KM5pyw8XehssZtvhEgCgkKP4Do5kJUpk84G4=");
+    assertThat(connectionGenerator.deriveStreamSharedSecretFromAddress(serverSecretSupplier, receiverAddress))
+      .isEqualTo(fromRandomSecret);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void constructWithNegativeMaxCachedConnections() {
+    new SpspStreamConnectionGenerator("ilp_stream_shared_secret", -1);
+  }
+
   @Test
   public void usingConfigurableSpspStreamConnectionGenerator() {
     testDecrypt(new SpspStreamConnectionGenerator());
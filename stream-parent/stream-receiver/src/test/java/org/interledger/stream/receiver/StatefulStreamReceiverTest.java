@@ -0,0 +1,314 @@
+package org.interledger.stream.receiver;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.interledger.codecs.stream.StreamCodecContextFactory;
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerErrorCode;
+import org.interledger.core.InterledgerFulfillPacket;
+import org.interledger.core.InterledgerPacketType;
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerRejectPacket;
+import org.interledger.core.InterledgerResponsePacket;
+import org.interledger.encoding.asn.framework.CodecContext;
+import org.interledger.link.HedgingLink;
+import org.interledger.link.HedgingSettings;
+import org.interledger.link.Link;
+import org.interledger.link.LinkSettings;
+import org.interledger.spsp.StreamConnectionDetails;
+import org.interledger.stream.Denomination;
+import org.interledger.stream.StreamPacket;
+import org.interledger.stream.StreamPacketUtils;
+import org.interledger.stream.crypto.AesGcmStreamSharedSecretCrypto;
+import org.interledger.stream.crypto.StreamPacketEncryptionService;
+import org.interledger.stream.crypto.StreamSharedSecret;
+import org.interledger.stream.crypto.StreamSharedSecretCrypto;
+import org.interledger.stream.frames.StreamFrame;
+import org.interledger.stream.frames.StreamMoneyFrame;
+import org.interledger.stream.frames.StreamMoneyMaxFrame;
+import org.interledger.stream.pay.probing.ExchangeRateProber.DefaultExchangeRateProber;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.google.common.primitives.UnsignedLong;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unit tests for {@link StatefulStreamReceiver}.
+ */
+public class StatefulStreamReceiverTest {
+
+  private static final InterledgerAddress CLIENT_ADDRESS = InterledgerAddress.of("example.receiver");
+
+  private static final Denomination DENOMINATION = Denomination.builder()
+    .assetCode("USD")
+    .assetScale((short) 2)
+    .build();
+
+  private static final ServerSecretSupplier SERVER_SECRET_SUPPLIER = () -> new byte[32];
+
+  private final AtomicLong nanos = new AtomicLong();
+  private final AtomicLong sequence = new AtomicLong();
+
+  private CodecContext streamCodecContext;
+  private StreamConnectionGenerator streamConnectionGenerator;
+  private StreamSharedSecretCrypto streamSharedSecretCrypto;
+  private StreamPacketEncryptionService streamPacketEncryptionService;
+  private StatefulStreamReceiver streamReceiver;
+  private StreamConnectionDetails connectionDetails;
+  private StreamSharedSecret sharedSecret;
+
+  @Before
+  public void setUp() {
+    this.streamCodecContext = StreamCodecContextFactory.oer();
+    this.streamConnectionGenerator = new SpspStreamConnectionGenerator();
+    this.streamSharedSecretCrypto = new AesGcmStreamSharedSecretCrypto();
+    this.streamPacketEncryptionService = new StreamPacketEncryptionService(
+      streamCodecContext, streamSharedSecretCrypto
+    );
+
+    this.streamReceiver = newStreamReceiver(UnsignedLong.valueOf(1000));
+    this.connectionDetails = streamConnectionGenerator.generateConnectionDetails(SERVER_SECRET_SUPPLIER, CLIENT_ADDRESS);
+    this.sharedSecret = StreamSharedSecret.of(connectionDetails.sharedSecret().key());
+  }
+
+  @Test
+  public void advertisesTotalReceivedAndReceiveMax() {
+    final InterledgerResponsePacket first = send(100, moneyFrame(1, 1));
+    assertThat(first).isInstanceOf(InterledgerFulfillPacket.class);
+    assertThat(moneyMaxFrame(first)).isEqualTo(moneyMaxFrame(1, 100, 1000));
+
+    final InterledgerResponsePacket second = send(250, moneyFrame(1, 1));
+    assertThat(second).isInstanceOf(InterledgerFulfillPacket.class);
+    assertThat(moneyMaxFrame(second)).isEqualTo(moneyMaxFrame(1, 350, 1000));
+
+    assertThat(streamReceiver.totalReceived(connectionDetails.destinationAddress(), UnsignedLong.ONE))
+      .contains(UnsignedLong.valueOf(350));
+  }
+
+  @Test
+  public void rejectsPacketThatWouldExceedReceiveMax() {
+    assertThat(send(900, moneyFrame(1, 1))).isInstanceOf(InterledgerFulfillPacket.class);
+
+    final InterledgerResponsePacket response = send(101, moneyFrame(1, 1));
+
+    response.handle(
+      fulfillPacket -> {
+        throw new RuntimeException("should have rejected");
+      },
+      rejectPacket -> assertThat(rejectPacket.getCode()).isEqualTo(InterledgerErrorCode.F99_APPLICATION_ERROR)
+    );
+    assertThat(moneyMaxFrame(response)).isEqualTo(moneyMaxFrame(1, 900, 1000));
+
+    // Exactly reaching the receive max is allowed.
+    assertThat(send(100, moneyFrame(1, 1))).isInstanceOf(InterledgerFulfillPacket.class);
+    assertThat(streamReceiver.totalReceived(connectionDetails.destinationAddress(), UnsignedLong.ONE))
+      .contains(UnsignedLong.valueOf(1000));
+  }
+
+  @Test
+  public void splitsAmountBetweenStreamsByShares() {
+    final InterledgerResponsePacket response = send(100, moneyFrame(1, 1), moneyFrame(3, 2));
+    assertThat(response).isInstanceOf(InterledgerFulfillPacket.class);
+
+    assertThat(streamReceiver.totalReceived(connectionDetails.destinationAddress(), UnsignedLong.ONE))
+      .contains(UnsignedLong.valueOf(33));
+    assertThat(streamReceiver.totalReceived(connectionDetails.destinationAddress(), UnsignedLong.valueOf(3)))
+      .contains(UnsignedLong.valueOf(67));
+  }
+
+  @Test
+  public void rejectedMultiStreamPacketDoesNotCreditAnyStream() {
+    assertThat(send(990, moneyFrame(3, 1))).isInstanceOf(InterledgerFulfillPacket.class);
+
+    // Stream 1 could take its half, but stream 3 cannot.
+    assertThat(send(100, moneyFrame(1, 1), moneyFrame(3, 1))).isInstanceOf(InterledgerRejectPacket.class);
+
+    assertThat(streamReceiver.totalReceived(connectionDetails.destinationAddress(), UnsignedLong.ONE))
+      .contains(UnsignedLong.ZERO);
+    assertThat(streamReceiver.totalReceived(connectionDetails.destinationAddress(), UnsignedLong.valueOf(3)))
+      .contains(UnsignedLong.valueOf(990));
+  }
+
+  @Test
+  public void tracksConnectionsIndependently() {
+    send(100, moneyFrame(1, 1));
+
+    final StreamConnectionDetails otherConnection = streamConnectionGenerator
+      .generateConnectionDetails(SERVER_SECRET_SUPPLIER, CLIENT_ADDRESS);
+    this.connectionDetails = otherConnection;
+    this.sharedSecret = StreamSharedSecret.of(otherConnection.sharedSecret().key());
+
+    assertThat(moneyMaxFrame(send(5, moneyFrame(1, 1)))).isEqualTo(moneyMaxFrame(1, 5, 1000));
+  }
+
+  @Test
+  public void evictsIdleConnections() {
+    send(100, moneyFrame(1, 1));
+
+    nanos.addAndGet(Duration.ofMinutes(4).toNanos());
+    assertThat(streamReceiver.totalReceived(connectionDetails.destinationAddress(), UnsignedLong.ONE))
+      .contains(UnsignedLong.valueOf(100));
+
+    nanos.addAndGet(Duration.ofMinutes(6).toNanos());
+    assertThat(streamReceiver.totalReceived(connectionDetails.destinationAddress(), UnsignedLong.ONE))
+      .isEmpty();
+  }
+
+  @Test
+  public void unfulfillablePacketDoesNotCredit() {
+    final InterledgerPreparePacket preparePacket = InterledgerPreparePacket.builder()
+      .from(prepare(100, moneyFrame(1, 1)))
+      .executionCondition(StreamPacketUtils.unfulfillableCondition())
+      .build();
+
+    final InterledgerResponsePacket response = streamReceiver.receiveMoney(preparePacket, CLIENT_ADDRESS, DENOMINATION);
+
+    assertThat(response).isInstanceOf(InterledgerRejectPacket.class);
+    assertThat(moneyMaxFrame(response)).isEqualTo(moneyMaxFrame(1, 0, 1000));
+    assertThat(streamReceiver.totalReceived(connectionDetails.destinationAddress(), UnsignedLong.ONE)).isEmpty();
+  }
+
+  @Test
+  public void replayedPacketIsNotCreditedTwice() {
+    final InterledgerPreparePacket preparePacket = prepare(100, moneyFrame(1, 1));
+    assertThat(streamReceiver.receiveMoney(preparePacket, CLIENT_ADDRESS, DENOMINATION))
+      .isInstanceOf(InterledgerFulfillPacket.class);
+
+    final InterledgerResponsePacket replayResponse = streamReceiver
+      .receiveMoney(preparePacket, CLIENT_ADDRESS, DENOMINATION);
+
+    assertThat(replayResponse).isInstanceOf(InterledgerRejectPacket.class);
+    assertThat(((InterledgerRejectPacket) replayResponse).getCode())
+      .isEqualTo(InterledgerErrorCode.F99_APPLICATION_ERROR);
+    assertThat(replayResponse.getData()).isEmpty();
+    assertThat(streamReceiver.totalReceived(connectionDetails.destinationAddress(), UnsignedLong.ONE))
+      .contains(UnsignedLong.valueOf(100));
+  }
+
+  @Test
+  public void repeatedUnfulfillablePacketIsAnsweredNormally() {
+    final InterledgerPreparePacket preparePacket = InterledgerPreparePacket.builder()
+      .from(prepare(100, moneyFrame(1, 1)))
+      .executionCondition(StreamPacketUtils.unfulfillableCondition())
+      .build();
+    streamReceiver.receiveMoney(preparePacket, CLIENT_ADDRESS, DENOMINATION);
+
+    final InterledgerResponsePacket repeatResponse = streamReceiver
+      .receiveMoney(preparePacket, CLIENT_ADDRESS, DENOMINATION);
+
+    assertThat(repeatResponse).isInstanceOf(InterledgerRejectPacket.class);
+    assertThat(((InterledgerRejectPacket) repeatResponse).getMessage()).isEqualTo("Packet not fulfillable");
+    assertThat(moneyMaxFrame(repeatResponse)).isEqualTo(moneyMaxFrame(1, 0, 1000));
+  }
+
+  @Test
+  public void hedgedProbeIsAnsweredWithTheReceiversReject() {
+    final AtomicInteger copiesReceived = new AtomicInteger();
+    @SuppressWarnings("unchecked") final Link<LinkSettings> link = mock(Link.class);
+    when(link.sendPacketAsync(any())).thenAnswer(invocation -> {
+      final InterledgerResponsePacket response = streamReceiver
+        .receiveMoney(invocation.getArgument(0), CLIENT_ADDRESS, DENOMINATION);
+      // The original copy reaches the receiver first, but its response never makes it back, so the hedge must win.
+      return copiesReceived.getAndIncrement() == 0
+        ? new CompletableFuture<>() : CompletableFuture.completedFuture(response);
+    });
+    final HedgingLink<LinkSettings> probeLink = DefaultExchangeRateProber.hedgingProbeLink(link,
+      HedgingSettings.builder()
+        .initialHedgeDelay(Duration.ofMillis(10))
+        .minHedgeDelay(Duration.ofMillis(1))
+        .build()
+    );
+    final InterledgerPreparePacket probePacket = InterledgerPreparePacket.builder()
+      .from(prepare(100, moneyFrame(1, 1)))
+      .executionCondition(StreamPacketUtils.unfulfillableCondition())
+      .build();
+
+    final InterledgerResponsePacket response = probeLink.sendPacket(probePacket);
+
+    assertThat(probeLink.getHedgesWon()).isEqualTo(1);
+    assertThat(response).isInstanceOf(InterledgerRejectPacket.class);
+    assertThat(((InterledgerRejectPacket) response).getMessage()).isEqualTo("Packet not fulfillable");
+    assertThat(moneyMaxFrame(response)).isEqualTo(moneyMaxFrame(1, 0, 1000));
+  }
+
+  private StatefulStreamReceiver newStreamReceiver(final UnsignedLong streamReceiveMax) {
+    return newStreamReceiver(streamReceiveMax, StatefulStreamReceiver.DEFAULT_MAX_CONNECTIONS);
+  }
+
+  private StatefulStreamReceiver newStreamReceiver(final UnsignedLong streamReceiveMax, final long maxConnections) {
+    final Ticker ticker = nanos::get;
+    return new StatefulStreamReceiver(
+      SERVER_SECRET_SUPPLIER, streamConnectionGenerator, streamSharedSecretCrypto, streamCodecContext,
+      streamReceiveMax, StatefulStreamReceiver.DEFAULT_IDLE_TIMEOUT, maxConnections, ticker
+    );
+  }
+
+  @Test
+  public void boundsNumberOfConnections() {
+    this.streamReceiver = newStreamReceiver(UnsignedLong.valueOf(1000), 2);
+
+    for (int i = 0; i < 5; i++) {
+      final StreamConnectionDetails otherConnection = streamConnectionGenerator
+        .generateConnectionDetails(SERVER_SECRET_SUPPLIER, CLIENT_ADDRESS);
+      this.connectionDetails = otherConnection;
+      this.sharedSecret = StreamSharedSecret.of(otherConnection.sharedSecret().key());
+      assertThat(send(5, moneyFrame(1, 1))).isInstanceOf(InterledgerFulfillPacket.class);
+    }
+
+    assertThat(streamReceiver.connectionCount()).isEqualTo(2);
+  }
+
+  private InterledgerResponsePacket send(final long amount, final StreamMoneyFrame... moneyFrames) {
+    return streamReceiver.receiveMoney(prepare(amount, moneyFrames), CLIENT_ADDRESS, DENOMINATION);
+  }
+
+  private InterledgerPreparePacket prepare(final long amount, final StreamMoneyFrame... moneyFrames) {
+    final StreamPacket streamPacket = StreamPacket.builder()
+      .interledgerPacketType(InterledgerPacketType.PREPARE)
+      .prepareAmount(UnsignedLong.ZERO)
+      .sequence(UnsignedLong.valueOf(sequence.incrementAndGet()))
+      .addFrames(moneyFrames)
+      .build();
+    final byte[] data = streamPacketEncryptionService.toEncrypted(sharedSecret, streamPacket);
+    return InterledgerPreparePacket.builder()
+      .destination(connectionDetails.destinationAddress())
+      .amount(UnsignedLong.valueOf(amount))
+      .expiresAt(Instant.MAX)
+      .executionCondition(StreamPacketUtils.generateFulfillableFulfillment(sharedSecret, data).getCondition())
+      .data(data)
+      .build();
+  }
+
+  private Optional<StreamFrame> moneyMaxFrame(final InterledgerResponsePacket responsePacket) {
+    final StreamPacket streamPacket = streamPacketEncryptionService.fromEncrypted(sharedSecret, responsePacket.getData());
+    return streamPacket.frames().stream()
+      .filter(streamFrame -> streamFrame instanceof StreamMoneyMaxFrame)
+      .findFirst();
+  }
+
+  private static Optional<StreamFrame> moneyMaxFrame(final long streamId, final long totalReceived, final long max) {
+    return Optional.of(StreamMoneyMaxFrame.builder()
+      .streamId(UnsignedLong.valueOf(streamId))
+      .totalReceived(UnsignedLong.valueOf(totalReceived))
+      .receiveMax(UnsignedLong.valueOf(max))
+      .build());
+  }
+
+  private static StreamMoneyFrame moneyFrame(final long streamId, final long shares) {
+    return StreamMoneyFrame.builder()
+      .streamId(UnsignedLong.valueOf(streamId))
+      .shares(UnsignedLong.valueOf(shares))
+      .build();
+  }
+}
@@ -0,0 +1,214 @@
+package org.interledger.stream.receiver;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerCondition;
+import org.interledger.core.InterledgerErrorCode;
+import org.interledger.core.InterledgerFulfillPacket;
+import org.interledger.core.InterledgerFulfillment;
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerRejectPacket;
+import org.interledger.core.InterledgerResponsePacket;
+import org.interledger.spsp.StreamConnectionDetails;
+import org.interledger.stream.Denomination;
+import org.interledger.stream.StreamException;
+
+import com.google.common.primitives.UnsignedLong;
+import org.junit.After;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for {@link StreamReceiverPipeline}.
+ */
+public class StreamReceiverPipelineTest {
+
+  private static final InterledgerAddress CLIENT_ADDRESS = InterledgerAddress.of("example.receiver");
+
+  private static final Denomination DENOMINATION = Denomination.builder()
+    .assetCode("USD")
+    .assetScale((short) 2)
+    .build();
+
+  private static final InterledgerFulfillment FULFILLMENT = InterledgerFulfillment.of(new byte[32]);
+
+  private StreamReceiverPipeline pipeline;
+
+  @After
+  public void tearDown() {
+    if (pipeline != null) {
+      pipeline.close();
+    }
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void constructWithNullReceiver() {
+    new StreamReceiverPipeline(null);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void constructWithZeroShards() {
+    new StreamReceiverPipeline(new RecordingStreamReceiver(), 0, 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void constructWithZeroQueueCapacity() {
+    new StreamReceiverPipeline(new RecordingStreamReceiver(), 1, 0);
+  }
+
+  @Test
+  public void processesPacketsForSameConnectionInOrderOnOneThread() throws Exception {
+    final RecordingStreamReceiver streamReceiver = new RecordingStreamReceiver();
+    pipeline = new StreamReceiverPipeline(streamReceiver, 4, 1000);
+
+    final List<CompletableFuture<InterledgerResponsePacket>> futures = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      for (int connection = 0; connection < 8; connection++) {
+        futures.add(pipeline.receiveMoney(prepare("connection" + connection, i), CLIENT_ADDRESS, DENOMINATION));
+      }
+    }
+    CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+
+    for (CompletableFuture<InterledgerResponsePacket> future : futures) {
+      assertThat(future.get()).isInstanceOf(InterledgerFulfillPacket.class);
+    }
+    for (int connection = 0; connection < 8; connection++) {
+      final String token = "connection" + connection;
+      final List<Long> amounts = streamReceiver.amountsByToken.get(token);
+      assertThat(amounts).hasSize(100);
+      for (int i = 0; i < 100; i++) {
+        assertThat(amounts.get(i)).isEqualTo(i);
+      }
+      assertThat(streamReceiver.threadsByToken.get(token)).hasSize(1);
+    }
+  }
+
+  @Test
+  public void rejectsWithT03WhenQueueIsFull() throws Exception {
+    final CountDownLatch blocked = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final StreamReceiver streamReceiver = mock(StreamReceiver.class);
+    when(streamReceiver.receiveMoney(any(), any(), any())).thenAnswer(invocation -> {
+      blocked.countDown();
+      release.await();
+      return InterledgerFulfillPacket.builder().fulfillment(FULFILLMENT).build();
+    });
+    pipeline = new StreamReceiverPipeline(streamReceiver, 1, 1);
+
+    // The first packet occupies the worker, the second fills the queue and the third overflows.
+    final CompletableFuture<InterledgerResponsePacket> first = pipeline
+      .receiveMoney(prepare("token", 1), CLIENT_ADDRESS, DENOMINATION);
+    assertThat(blocked.await(5, TimeUnit.SECONDS)).isTrue();
+    final CompletableFuture<InterledgerResponsePacket> second = pipeline
+      .receiveMoney(prepare("token", 2), CLIENT_ADDRESS, DENOMINATION);
+    final CompletableFuture<InterledgerResponsePacket> third = pipeline
+      .receiveMoney(prepare("token", 3), CLIENT_ADDRESS, DENOMINATION);
+
+    assertThat(third).isDone();
+    third.get().handle(
+      fulfillPacket -> {
+        throw new RuntimeException("should have rejected");
+      },
+      rejectPacket -> {
+        assertThat(rejectPacket.getCode()).isEqualTo(InterledgerErrorCode.T03_CONNECTOR_BUSY);
+        assertThat(rejectPacket.getTriggeredBy()).contains(CLIENT_ADDRESS);
+      }
+    );
+
+    release.countDown();
+    assertThat(first.get(5, TimeUnit.SECONDS)).isInstanceOf(InterledgerFulfillPacket.class);
+    assertThat(second.get(5, TimeUnit.SECONDS)).isInstanceOf(InterledgerFulfillPacket.class);
+  }
+
+  @Test
+  public void completesExceptionallyWhenReceiverThrows() {
+    final StreamReceiver streamReceiver = mock(StreamReceiver.class);
+    when(streamReceiver.receiveMoney(any(), any(), any())).thenThrow(new StreamException("boom"));
+    pipeline = new StreamReceiverPipeline(streamReceiver, 1, 1);
+
+    final CompletableFuture<InterledgerResponsePacket> future = pipeline
+      .receiveMoney(prepare("token", 1), CLIENT_ADDRESS, DENOMINATION);
+
+    assertThatThrownBy(() -> future.get(5, TimeUnit.SECONDS))
+      .isInstanceOf(ExecutionException.class)
+      .hasCauseInstanceOf(StreamException.class);
+  }
+
+  @Test
+  public void rejectsAfterClose() throws Exception {
+    pipeline = new StreamReceiverPipeline(new RecordingStreamReceiver(), 2, 10);
+    pipeline.close();
+
+    final InterledgerResponsePacket response = pipeline
+      .receiveMoney(prepare("token", 1), CLIENT_ADDRESS, DENOMINATION).get();
+
+    assertThat(response).isInstanceOf(InterledgerRejectPacket.class);
+    assertThat(((InterledgerRejectPacket) response).getCode()).isEqualTo(InterledgerErrorCode.T03_CONNECTOR_BUSY);
+  }
+
+  @Test
+  public void shardIndexDependsOnlyOnConnectionToken() {
+    pipeline = new StreamReceiverPipeline(new RecordingStreamReceiver(), 7, 1);
+
+    final StreamConnectionDetails connectionDetails = new SpspStreamConnectionGenerator()
+      .generateConnectionDetails(() -> new byte[32], CLIENT_ADDRESS);
+    final String token = connectionDetails.destinationAddress().getValue()
+      .substring(connectionDetails.destinationAddress().getValue().lastIndexOf('.') + 1);
+
+    final int shardIndex = pipeline.shardIndex(connectionDetails.destinationAddress());
+    assertThat(shardIndex).isBetween(0, 6);
+    assertThat(pipeline.shardIndex(InterledgerAddress.of("g.other.receiver").with(token))).isEqualTo(shardIndex);
+  }
+
+  private static InterledgerPreparePacket prepare(final String token, final long amount) {
+    return InterledgerPreparePacket.builder()
+      .destination(CLIENT_ADDRESS.with(token))
+      .amount(UnsignedLong.valueOf(amount))
+      .expiresAt(Instant.EPOCH)
+      .executionCondition(InterledgerCondition.of(new byte[32]))
+      .build();
+  }
+
+  /**
+   * A {@link StreamReceiver} that records the amount of, and thread used for, every packet per connection token.
+   */
+  private static class RecordingStreamReceiver implements StreamReceiver {
+
+    private final Map<String, List<Long>> amountsByToken = new ConcurrentHashMap<>();
+    private final Map<String, Set<Thread>> threadsByToken = new ConcurrentHashMap<>();
+
+    @Override
+    public StreamConnectionDetails setupStream(final InterledgerAddress receiverAddress) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public InterledgerResponsePacket receiveMoney(
+      final InterledgerPreparePacket preparePacket, final InterledgerAddress clientAddress,
+      final Denomination denomination
+    ) {
+      final String destination = preparePacket.getDestination().getValue();
+      final String token = destination.substring(destination.lastIndexOf('.') + 1);
+      amountsByToken.computeIfAbsent(token, $ -> Collections.synchronizedList(new ArrayList<>()))
+        .add(preparePacket.getAmount().longValue());
+      threadsByToken.computeIfAbsent(token, $ -> ConcurrentHashMap.newKeySet()).add(Thread.currentThread());
+      return InterledgerFulfillPacket.builder().fulfillment(FULFILLMENT).build();
+    }
+  }
+}
@@ -0,0 +1,132 @@
+package org.interledger.stream.receiver;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.interledger.codecs.stream.StreamCodecContextFactory;
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerFulfillPacket;
+import org.interledger.core.InterledgerPacketType;
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerResponsePacket;
+import org.interledger.encoding.asn.framework.CodecContext;
+import org.interledger.spsp.StreamConnectionDetails;
+import org.interledger.stream.Denomination;
+import org.interledger.stream.StreamPacket;
+import org.interledger.stream.StreamPacketUtils;
+import org.interledger.stream.crypto.AesGcmStreamSharedSecretCrypto;
+import org.interledger.stream.crypto.StreamPacketEncryptionService;
+import org.interledger.stream.crypto.StreamSharedSecret;
+import org.interledger.stream.crypto.StreamSharedSecretCrypto;
+import org.interledger.stream.frames.StreamMoneyFrame;
+
+import com.google.common.primitives.UnsignedLong;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput benchmark for {@link StreamReceiverPipeline} wrapping a {@link StatelessStreamReceiver}, measuring
+ * fulfilled packets per second as the number of shards grows from 1 to the number of available processors.
+ */
+public class StreamReceiverPipelineThroughputIT {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(StreamReceiverPipelineThroughputIT.class);
+
+  private static final InterledgerAddress CLIENT_ADDRESS = InterledgerAddress.of("example.receiver");
+  private static final Denomination DENOMINATION = Denomination.builder()
+    .assetCode("USD")
+    .assetScale((short) 2)
+    .build();
+
+  private static final int NUM_CONNECTIONS = 256;
+  private static final int PACKETS_PER_CONNECTION = 200;
+  private static final int WARMUP_ROUNDS = 2;
+
+  private static final ServerSecretSupplier SERVER_SECRET_SUPPLIER = () -> new byte[32];
+  private static final CodecContext STREAM_CODEC_CONTEXT = StreamCodecContextFactory.oer();
+  private static final StreamSharedSecretCrypto STREAM_SHARED_SECRET_CRYPTO = new AesGcmStreamSharedSecretCrypto();
+
+  private static StreamReceiver streamReceiver;
+  private static List<InterledgerPreparePacket> preparePackets;
+
+  @BeforeClass
+  public static void setUp() {
+    final StreamConnectionGenerator streamConnectionGenerator = new SpspStreamConnectionGenerator();
+    streamReceiver = new StatelessStreamReceiver(
+      SERVER_SECRET_SUPPLIER, streamConnectionGenerator, STREAM_SHARED_SECRET_CRYPTO, STREAM_CODEC_CONTEXT
+    );
+
+    final StreamPacketEncryptionService streamPacketEncryptionService =
+      new StreamPacketEncryptionService(STREAM_CODEC_CONTEXT, STREAM_SHARED_SECRET_CRYPTO);
+
+    // Interleave connections so that consecutive packets are spread across shards, as they would be on the wire.
+    final List<StreamConnectionDetails> connections = new ArrayList<>(NUM_CONNECTIONS);
+    for (int i = 0; i < NUM_CONNECTIONS; i++) {
+      connections.add(streamConnectionGenerator.generateConnectionDetails(SERVER_SECRET_SUPPLIER, CLIENT_ADDRESS));
+    }
+    preparePackets = new ArrayList<>(NUM_CONNECTIONS * PACKETS_PER_CONNECTION);
+    for (int sequence = 1; sequence <= PACKETS_PER_CONNECTION; sequence++) {
+      for (StreamConnectionDetails connection : connections) {
+        final StreamSharedSecret sharedSecret = StreamSharedSecret.of(connection.sharedSecret().key());
+        final StreamPacket streamPacket = StreamPacket.builder()
+          .interledgerPacketType(InterledgerPacketType.PREPARE)
+          .prepareAmount(UnsignedLong.ONE)
+          .sequence(UnsignedLong.valueOf(sequence))
+          .addFrames(StreamMoneyFrame.builder().streamId(UnsignedLong.ONE).shares(UnsignedLong.ONE).build())
+          .build();
+        final byte[] data = streamPacketEncryptionService.toEncrypted(sharedSecret, streamPacket);
+        preparePackets.add(InterledgerPreparePacket.builder()
+          .destination(connection.destinationAddress())
+          .amount(UnsignedLong.ONE)
+          .expiresAt(Instant.MAX)
+          .executionCondition(StreamPacketUtils.generateFulfillableFulfillment(sharedSecret, data).getCondition())
+          .data(data)
+          .build());
+      }
+    }
+  }
+
+  @Test
+  public void throughputScalesWithShards() throws Exception {
+    final int maxShards = Runtime.getRuntime().availableProcessors();
+    for (int numShards = 1; numShards <= maxShards; numShards = nextShardCount(numShards, maxShards)) {
+      try (StreamReceiverPipeline pipeline = new StreamReceiverPipeline(streamReceiver, numShards, 64 * 1024)) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+          runRound(pipeline);
+        }
+        final long startNanos = System.nanoTime();
+        runRound(pipeline);
+        final long elapsedNanos = System.nanoTime() - startNanos;
+
+        final double packetsPerSecond = preparePackets.size() / (elapsedNanos / 1_000_000_000d);
+        LOGGER.info("StreamReceiverPipeline shards={} packets={} packetsPerSecond={}",
+          numShards, preparePackets.size(), String.format("%.0f", packetsPerSecond));
+      }
+    }
+  }
+
+  private void runRound(final StreamReceiverPipeline pipeline) throws Exception {
+    final List<CompletableFuture<InterledgerResponsePacket>> futures = new ArrayList<>(preparePackets.size());
+    for (InterledgerPreparePacket preparePacket : preparePackets) {
+      futures.add(pipeline.receiveMoney(preparePacket, CLIENT_ADDRESS, DENOMINATION));
+    }
+    CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5, TimeUnit.MINUTES);
+    for (CompletableFuture<InterledgerResponsePacket> future : futures) {
+      assertThat(future.get()).isInstanceOf(InterledgerFulfillPacket.class);
+    }
+  }
+
+  private static int nextShardCount(final int numShards, final int maxShards) {
+    if (numShards == maxShards) {
+      return maxShards + 1;
+    }
+    return Math.min(numShards * 2, maxShards);
+  }
+}
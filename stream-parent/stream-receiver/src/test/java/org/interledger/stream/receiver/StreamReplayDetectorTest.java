@@ -0,0 +1,113 @@
+package org.interledger.stream.receiver;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.interledger.core.InterledgerAddress;
+
+import com.google.common.primitives.UnsignedLong;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unit tests for {@link StreamReplayDetector}.
+ */
+public class StreamReplayDetectorTest {
+
+  private static final InterledgerAddress CONNECTION_A = InterledgerAddress.of("example.receiver.a");
+  private static final InterledgerAddress CONNECTION_B = InterledgerAddress.of("example.receiver.b");
+
+  private final AtomicLong nanos = new AtomicLong();
+
+  private StreamReplayDetector replayDetector;
+
+  @Before
+  public void setUp() {
+    this.replayDetector = new StreamReplayDetector(10, Duration.ofMinutes(1), nanos::get);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void constructWithZeroMaxConnections() {
+    new StreamReplayDetector(0, Duration.ofMinutes(1));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void constructWithZeroIdleTimeout() {
+    new StreamReplayDetector(1, Duration.ZERO);
+  }
+
+  @Test
+  public void detectsRepeatedSequence() {
+    assertThat(isReplay(CONNECTION_A, 1)).isFalse();
+    assertThat(isReplay(CONNECTION_A, 2)).isFalse();
+    assertThat(isReplay(CONNECTION_A, 1)).isTrue();
+    assertThat(isReplay(CONNECTION_A, 2)).isTrue();
+  }
+
+  @Test
+  public void tracksConnectionsIndependently() {
+    assertThat(isReplay(CONNECTION_A, 1)).isFalse();
+    assertThat(isReplay(CONNECTION_B, 1)).isFalse();
+    assertThat(isReplay(CONNECTION_B, 1)).isTrue();
+  }
+
+  @Test
+  public void acceptsOutOfOrderSequencesWithinWindow() {
+    assertThat(isReplay(CONNECTION_A, 200)).isFalse();
+    for (long sequence = 199; sequence > 200 - StreamReplayDetector.WINDOW_SIZE; sequence--) {
+      assertThat(isReplay(CONNECTION_A, sequence)).isFalse();
+    }
+    for (long sequence = 200; sequence > 200 - StreamReplayDetector.WINDOW_SIZE; sequence--) {
+      assertThat(isReplay(CONNECTION_A, sequence)).withFailMessage("sequence %s", sequence).isTrue();
+    }
+  }
+
+  @Test
+  public void treatsSequencesOlderThanWindowAsReplays() {
+    assertThat(isReplay(CONNECTION_A, 1)).isFalse();
+    assertThat(isReplay(CONNECTION_A, 1 + StreamReplayDetector.WINDOW_SIZE)).isFalse();
+    assertThat(isReplay(CONNECTION_A, 2)).isFalse(); // Oldest sequence still in the window.
+    assertThat(isReplay(CONNECTION_A, 1)).isTrue(); // Fell out of the window.
+  }
+
+  @Test
+  public void slidesWindowByEveryDistance() {
+    replayDetector = new StreamReplayDetector(1000, Duration.ofMinutes(1), nanos::get);
+    for (int step = 1; step <= StreamReplayDetector.WINDOW_SIZE + 1; step++) {
+      final InterledgerAddress connection = CONNECTION_A.with("step" + step);
+      assertThat(isReplay(connection, 1000)).isFalse();
+      assertThat(isReplay(connection, 999)).isFalse();
+      assertThat(isReplay(connection, 1000 + step)).isFalse();
+
+      final boolean stillInWindow = step + 2 < StreamReplayDetector.WINDOW_SIZE;
+      assertThat(isReplay(connection, 1000)).withFailMessage("step %s", step).isTrue();
+      assertThat(isReplay(connection, 999)).withFailMessage("step %s", step).isTrue();
+      if (stillInWindow) {
+        assertThat(isReplay(connection, 998)).withFailMessage("step %s", step).isFalse();
+      }
+      if (step > 1) {
+        assertThat(isReplay(connection, 1000 + step - 1)).withFailMessage("step %s", step).isFalse();
+      }
+    }
+  }
+
+  @Test
+  public void handlesLargeUnsignedSequences() {
+    assertThat(replayDetector.isReplay(CONNECTION_A, UnsignedLong.MAX_VALUE.minus(UnsignedLong.ONE))).isFalse();
+    assertThat(replayDetector.isReplay(CONNECTION_A, UnsignedLong.MAX_VALUE)).isFalse();
+    assertThat(replayDetector.isReplay(CONNECTION_A, UnsignedLong.MAX_VALUE.minus(UnsignedLong.ONE))).isTrue();
+  }
+
+  @Test
+  public void forgetsIdleConnections() {
+    assertThat(isReplay(CONNECTION_A, 1)).isFalse();
+    nanos.addAndGet(Duration.ofMinutes(2).toNanos());
+    assertThat(isReplay(CONNECTION_A, 1)).isFalse();
+  }
+
+  private boolean isReplay(final InterledgerAddress connection, final long sequence) {
+    return replayDetector.isReplay(connection, UnsignedLong.valueOf(sequence));
+  }
+}
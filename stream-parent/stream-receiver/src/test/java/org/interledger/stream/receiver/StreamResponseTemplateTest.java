@@ -0,0 +1,137 @@
+package org.interledger.stream.receiver;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.interledger.codecs.stream.StreamCodecContextFactory;
+import org.interledger.core.InterledgerPacketType;
+import org.interledger.encoding.asn.framework.CodecContext;
+import org.interledger.stream.StreamPacket;
+import org.interledger.stream.StreamPacketBuilder;
+import org.interledger.stream.frames.ConnectionCloseFrame;
+import org.interledger.stream.frames.ErrorCodes;
+import org.interledger.stream.frames.StreamMoneyFrame;
+import org.interledger.stream.frames.StreamMoneyMaxFrame;
+
+import com.google.common.primitives.UnsignedLong;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Unit tests for {@link StreamResponseTemplate}.
+ */
+public class StreamResponseTemplateTest {
+
+  private static final List<UnsignedLong> VALUES = Arrays.asList(
+    UnsignedLong.ZERO,
+    UnsignedLong.ONE,
+    UnsignedLong.valueOf(127),
+    UnsignedLong.valueOf(128),
+    UnsignedLong.valueOf(255),
+    UnsignedLong.valueOf(256),
+    UnsignedLong.valueOf(65_535),
+    UnsignedLong.valueOf(65_536),
+    UnsignedLong.valueOf(Integer.MAX_VALUE),
+    UnsignedLong.valueOf(Long.MAX_VALUE),
+    UnsignedLong.valueOf(Long.MAX_VALUE).plus(UnsignedLong.ONE),
+    UnsignedLong.MAX_VALUE
+  );
+
+  private final CodecContext streamCodecContext = StreamCodecContextFactory.oer();
+
+  @Test
+  public void writesSameBytesAsCodec() throws IOException {
+    for (InterledgerPacketType type : Arrays.asList(InterledgerPacketType.FULFILL, InterledgerPacketType.REJECT)) {
+      for (UnsignedLong value : VALUES) {
+        assertSameEncoding(responsePacket(type, value, UnsignedLong.ONE, value, UnsignedLong.MAX_VALUE, value));
+        assertSameEncoding(responsePacket(type, UnsignedLong.ONE, value, UnsignedLong.ONE, value, UnsignedLong.ZERO));
+        assertSameEncoding(responsePacket(type, value, value, value, value, value));
+      }
+    }
+  }
+
+  @Test
+  public void writtenPacketDecodes() throws IOException {
+    final StreamPacket streamPacket = responsePacket(
+      InterledgerPacketType.FULFILL, UnsignedLong.valueOf(7), UnsignedLong.valueOf(1000), UnsignedLong.ONE,
+      UnsignedLong.MAX_VALUE, UnsignedLong.valueOf(5000)
+    );
+    final ByteBuffer buffer = ByteBuffer.allocate(StreamResponseTemplate.MAX_ENCODED_LENGTH);
+    final int length = StreamResponseTemplate.write(streamPacket, buffer);
+
+    final StreamPacket decoded = streamCodecContext
+      .read(StreamPacket.class, new ByteArrayInputStream(buffer.array(), 0, length));
+    assertThat(decoded.interledgerPacketType()).isEqualTo(InterledgerPacketType.FULFILL);
+    assertThat(decoded.sequence()).isEqualTo(UnsignedLong.valueOf(7));
+    assertThat(decoded.prepareAmount()).isEqualTo(UnsignedLong.valueOf(1000));
+    assertThat(decoded.frames()).isEqualTo(streamPacket.frames());
+  }
+
+  @Test
+  public void matchesOnlySingleMoneyMaxFrameResponses() {
+    final StreamMoneyMaxFrame moneyMaxFrame = StreamMoneyMaxFrame.builder()
+      .streamId(UnsignedLong.ONE)
+      .receiveMax(UnsignedLong.MAX_VALUE)
+      .build();
+
+    assertThat(StreamResponseTemplate.matches(packet(InterledgerPacketType.FULFILL).addFrames(moneyMaxFrame).build()))
+      .isTrue();
+    assertThat(StreamResponseTemplate.matches(packet(InterledgerPacketType.REJECT).addFrames(moneyMaxFrame).build()))
+      .isTrue();
+
+    assertThat(StreamResponseTemplate.matches(packet(InterledgerPacketType.PREPARE).addFrames(moneyMaxFrame).build()))
+      .isFalse();
+    assertThat(StreamResponseTemplate.matches(packet(InterledgerPacketType.FULFILL).build())).isFalse();
+    assertThat(StreamResponseTemplate.matches(
+      packet(InterledgerPacketType.FULFILL).addFrames(moneyMaxFrame, moneyMaxFrame).build()
+    )).isFalse();
+    assertThat(StreamResponseTemplate.matches(packet(InterledgerPacketType.FULFILL)
+      .addFrames(StreamMoneyFrame.builder().streamId(UnsignedLong.ONE).shares(UnsignedLong.ONE).build())
+      .build()
+    )).isFalse();
+    assertThat(StreamResponseTemplate.matches(packet(InterledgerPacketType.REJECT)
+      .addFrames(ConnectionCloseFrame.builder().errorCode(ErrorCodes.ProtocolViolation).build())
+      .build()
+    )).isFalse();
+  }
+
+  private void assertSameEncoding(final StreamPacket streamPacket) throws IOException {
+    final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    streamCodecContext.write(streamPacket, baos);
+
+    final ByteBuffer buffer = ByteBuffer.allocate(StreamResponseTemplate.MAX_ENCODED_LENGTH);
+    final int length = StreamResponseTemplate.write(streamPacket, buffer);
+
+    assertThat(Arrays.copyOf(buffer.array(), length))
+      .withFailMessage("Template encoding differs from codec for %s", streamPacket)
+      .isEqualTo(baos.toByteArray());
+  }
+
+  private static StreamPacket responsePacket(
+    final InterledgerPacketType type, final UnsignedLong sequence, final UnsignedLong prepareAmount,
+    final UnsignedLong streamId, final UnsignedLong receiveMax, final UnsignedLong totalReceived
+  ) {
+    return StreamPacket.builder()
+      .interledgerPacketType(type)
+      .sequence(sequence)
+      .prepareAmount(prepareAmount)
+      .addFrames(StreamMoneyMaxFrame.builder()
+        .streamId(streamId)
+        .receiveMax(receiveMax)
+        .totalReceived(totalReceived)
+        .build())
+      .build();
+  }
+
+  private static StreamPacketBuilder packet(final InterledgerPacketType type) {
+    return StreamPacket.builder()
+      .interledgerPacketType(type)
+      .sequence(UnsignedLong.ONE)
+      .prepareAmount(UnsignedLong.ONE);
+  }
+}